@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.cache.TokenCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of a token in the token cache against the given number of cached tokens, next to the RS256
+ * signature verification of a JWT with a 2048 bit key which the lookup of a verified token saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TokenCacheBenchmark {
+    private static final int TOKEN_COUNT = 1024;
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+
+    @Param({"1000", "100000"})
+    private int cachedTokenCount;
+
+    private TokenCache<String, String> tokenCache;
+    private String[] cachedTokens;
+    private String[] missingTokens;
+    private PublicKey publicKey;
+    private byte[] signingInput;
+    private byte[] signature;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        publicKey = keyPair.getPublic();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+        // sized above the number of cached tokens, so that none of them is evicted
+        tokenCache = new TokenCache<>(2L * cachedTokenCount, cachedTokenCount, TimeUnit.HOURS.toMillis(1), 16,
+                (key, value) -> 1L);
+        cachedTokens = new String[Math.min(TOKEN_COUNT, cachedTokenCount)];
+        Signature signer = Signature.getInstance(SIGNATURE_ALGORITHM);
+        for (int i = 0; i < cachedTokenCount; i++) {
+            String payload = encoder.encodeToString(("{\"sub\":\"admin\",\"jti\":\"" + UUID.randomUUID()
+                    + "\",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}")
+                    .getBytes(StandardCharsets.UTF_8));
+            String token = header + "." + payload + "." + encoder.encodeToString(new byte[256]);
+            tokenCache.put(token, payload);
+            if (i < cachedTokens.length) {
+                cachedTokens[i] = token;
+            }
+            if (i == 0) {
+                signingInput = (header + "." + payload).getBytes(StandardCharsets.US_ASCII);
+                signer.initSign(keyPair.getPrivate());
+                signer.update(signingInput);
+                signature = signer.sign();
+            }
+        }
+        missingTokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            missingTokens[i] = header + "." + UUID.randomUUID() + "." + UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public String getCachedToken() {
+        return tokenCache.get(cachedTokens[ThreadLocalRandom.current().nextInt(cachedTokens.length)]);
+    }
+
+    @Benchmark
+    public String getMissingToken() {
+        return tokenCache.get(missingTokens[ThreadLocalRandom.current().nextInt(TOKEN_COUNT)]);
+    }
+
+    @Benchmark
+    public boolean verifySignature() throws GeneralSecurityException {
+        Signature verifier = Signature.getInstance(SIGNATURE_ALGORITHM);
+        verifier.initVerify(publicKey);
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+}
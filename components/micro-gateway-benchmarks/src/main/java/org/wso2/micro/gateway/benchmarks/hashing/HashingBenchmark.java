@@ -0,0 +1,136 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.hashing;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.apimgt.gateway.cli.constants.CliConstants;
+import org.wso2.apimgt.gateway.cli.exception.HashingException;
+import org.wso2.apimgt.gateway.cli.hashing.HashUtils;
+import org.wso2.apimgt.gateway.cli.model.rest.ext.ExtendedAPI;
+import org.wso2.apimgt.gateway.cli.model.rest.policy.ApplicationThrottlePolicyDTO;
+import org.wso2.apimgt.gateway.cli.model.rest.policy.SubscriptionThrottlePolicyDTO;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the change detection of the APIs and the throttle policies of a project, when nothing has changed since
+ * the previous check and when every check finds a change. Each API carries the petstore open API definition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HashingBenchmark {
+    private static final String PROJECT_NAME = "benchmark";
+    private static final int POLICY_COUNT = 8;
+
+    @Param({"10", "100", "1000"})
+    private int apiCount;
+
+    private File userDir;
+    private List<ExtendedAPI> apis;
+    private List<ExtendedAPI> modifiedApis;
+    private List<SubscriptionThrottlePolicyDTO> subscriptionPolicies;
+    private List<ApplicationThrottlePolicyDTO> appPolicies;
+    private boolean modified;
+
+    @Setup
+    public void setup() throws IOException, HashingException {
+        userDir = Files.createTempDirectory("mgw-hashing-benchmark").toFile();
+        Files.createDirectories(new File(userDir, PROJECT_NAME).toPath());
+        System.setProperty(CliConstants.SYS_PROP_CURRENT_DIR, userDir.getAbsolutePath());
+
+        String apiDefinition;
+        try (InputStream inputStream = HashingBenchmark.class.getResourceAsStream("/validation/petstore_v3.json")) {
+            apiDefinition = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+        apis = new ArrayList<>(apiCount);
+        modifiedApis = new ArrayList<>(apiCount);
+        for (int i = 0; i < apiCount; i++) {
+            apis.add(createAPI(i, "1.0.0", apiDefinition));
+            modifiedApis.add(createAPI(i, "1.0.1", apiDefinition));
+        }
+        subscriptionPolicies = new ArrayList<>(POLICY_COUNT);
+        appPolicies = new ArrayList<>(POLICY_COUNT);
+        for (int i = 0; i < POLICY_COUNT; i++) {
+            SubscriptionThrottlePolicyDTO subscriptionPolicy = new SubscriptionThrottlePolicyDTO();
+            subscriptionPolicy.setPolicyId("subscription-" + i);
+            subscriptionPolicy.setPolicyName("Subscription" + i);
+            subscriptionPolicy.setStopOnQuotaReach(true);
+            subscriptionPolicies.add(subscriptionPolicy);
+            ApplicationThrottlePolicyDTO appPolicy = new ApplicationThrottlePolicyDTO();
+            appPolicy.setPolicyId("application-" + i);
+            appPolicy.setPolicyName("Application" + i);
+            appPolicies.add(appPolicy);
+        }
+        // stores the hashes, so that the first check of the unchanged APIs does not find a change
+        HashUtils.detectChanges(apis, subscriptionPolicies, appPolicies, PROJECT_NAME);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(userDir);
+    }
+
+    @Benchmark
+    public boolean detectChangesUnchanged() throws HashingException {
+        return HashUtils.detectChanges(apis, subscriptionPolicies, appPolicies, PROJECT_NAME);
+    }
+
+    @Benchmark
+    public boolean detectChangesModified() throws HashingException {
+        modified = !modified;
+        return HashUtils.detectChanges(modified ? modifiedApis : apis, subscriptionPolicies, appPolicies,
+                PROJECT_NAME);
+    }
+
+    private static ExtendedAPI createAPI(int index, String version, String apiDefinition) {
+        ExtendedAPI api = new ExtendedAPI();
+        api.setId("api-" + index);
+        api.setName("PetStore" + index);
+        api.setContext("/petstore/" + index + "/" + version);
+        api.setVersion(version);
+        api.setProvider("admin");
+        api.setApiDefinition(apiDefinition);
+        api.setTransport(Arrays.asList("http", "https"));
+        api.setTiers(Arrays.asList("Gold", "Unlimited"));
+        return api;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.interceptor;
+
+import org.ballerinalang.jvm.values.ArrayValueImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.interceptors.InterceptorInvoker;
+import org.wso2.micro.gateway.interceptor.AsyncInterceptor;
+import org.wso2.micro.gateway.interceptor.Caller;
+import org.wso2.micro.gateway.interceptor.Interceptor;
+import org.wso2.micro.gateway.interceptor.Request;
+import org.wso2.micro.gateway.interceptor.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the dispatch overhead of a registered interceptor chain of the given length, for interceptors which pass
+ * the request on without touching it. The interceptors do not read the request or the caller, hence no ballerina
+ * objects are created for them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InterceptorChainBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int chainLength;
+
+    private int syncChainId;
+    private int asyncChainId;
+
+    @Setup
+    public void setup() {
+        syncChainId = registerChain(PassThroughInterceptor.class.getName());
+        asyncChainId = registerChain(AsyncPassThroughInterceptor.class.getName());
+    }
+
+    private int registerChain(String className) {
+        String[] classNames = new String[chainLength];
+        for (int i = 0; i < chainLength; i++) {
+            classNames[i] = className;
+        }
+        return InterceptorInvoker.registerInterceptorChain(new ArrayValueImpl(classNames));
+    }
+
+    @Benchmark
+    public Object invokeRequestInterceptors() {
+        return InterceptorInvoker.invokeRequestInterceptors(syncChainId, 0, null, null);
+    }
+
+    @Benchmark
+    public Object invokeResponseInterceptors() {
+        return InterceptorInvoker.invokeResponseInterceptors(syncChainId, 0, null, null);
+    }
+
+    @Benchmark
+    public Object invokeCompletedAsyncInterceptors() {
+        return InterceptorInvoker.invokeRequestInterceptors(asyncChainId, 0, null, null);
+    }
+
+    /**
+     * Interceptor which passes the request and the response on.
+     */
+    public static class PassThroughInterceptor implements Interceptor {
+
+        @Override
+        public boolean interceptRequest(Caller caller, Request request) {
+            return true;
+        }
+
+        @Override
+        public boolean interceptResponse(Caller caller, Response response) {
+            return true;
+        }
+    }
+
+    /**
+     * Asynchronous interceptor which passes the request and the response on with a completed stage.
+     */
+    public static class AsyncPassThroughInterceptor implements AsyncInterceptor {
+        private static final CompletionStage<Boolean> CONTINUE = CompletableFuture.completedFuture(true);
+
+        @Override
+        public CompletionStage<Boolean> interceptRequest(Caller caller, Request request) {
+            return CONTINUE;
+        }
+
+        @Override
+        public CompletionStage<Boolean> interceptResponse(Caller caller, Response response) {
+            return CONTINUE;
+        }
+    }
+}
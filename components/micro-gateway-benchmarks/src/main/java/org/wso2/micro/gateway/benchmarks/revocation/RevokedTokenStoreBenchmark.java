@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.revocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.revocation.RevokedTokenStore;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the revocation check of a token against the given number of revoked tokens, with and without the Bloom
+ * filter. Most of the tokens of a request are not revoked, hence the check of a token which is not revoked is the
+ * common case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RevokedTokenStoreBenchmark {
+    private static final int TOKEN_COUNT = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    private int revokedTokenCount;
+
+    @Param({"true", "false"})
+    private boolean bloomFilterEnabled;
+
+    private RevokedTokenStore revokedTokenStore;
+    private String[] revokedTokens;
+    private String[] activeTokens;
+
+    @Setup
+    public void setup() {
+        revokedTokenStore = new RevokedTokenStore(bloomFilterEnabled, revokedTokenCount);
+        long expiryTime = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+        revokedTokens = new String[Math.min(TOKEN_COUNT, revokedTokenCount)];
+        for (int i = 0; i < revokedTokenCount; i++) {
+            String jti = UUID.randomUUID().toString();
+            revokedTokenStore.addRevokedToken(jti, expiryTime);
+            if (i < revokedTokens.length) {
+                revokedTokens[i] = jti;
+            }
+        }
+        activeTokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            activeTokens[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public boolean isRevokedActiveToken() {
+        String jti = activeTokens[ThreadLocalRandom.current().nextInt(TOKEN_COUNT)];
+        return revokedTokenStore.isRevoked(jti, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean isRevokedRevokedToken() {
+        String jti = revokedTokens[ThreadLocalRandom.current().nextInt(revokedTokens.length)];
+        return revokedTokenStore.isRevoked(jti, System.currentTimeMillis());
+    }
+}
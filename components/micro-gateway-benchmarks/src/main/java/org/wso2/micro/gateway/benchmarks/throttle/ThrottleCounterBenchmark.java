@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.throttle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.throttle.ThrottleCounter;
+import org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver;
+import org.wso2.micro.gateway.core.throttle.ThrottlePolicy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures counting a request against the throttle counters of its tiers and checking whether a key is throttled,
+ * for the map and the compact counter stores. Requests are spread uniformly over the given number of keys per level.
+ * Keys which are not counted are checked as well, such as the keys of the first request of a window. Before the
+ * measurement, keys of earlier windows may be counted as well, so that the stores hold the expired keys of a gateway
+ * which has been running for a few windows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThrottleCounterBenchmark {
+    // high enough for the keys never to be throttled within a benchmark iteration
+    private static final long REQUEST_COUNT = Long.MAX_VALUE / 2;
+    private static final int ABSENT_KEY_COUNT = 1024;
+
+    @Param({"1", "1000", "100000"})
+    private int keyCount;
+
+    @Param({"map", "compact"})
+    private String counterStore;
+
+    // number of earlier windows whose keys are counted before the measurement
+    @Param({"0", "8"})
+    private int expiredWindowCount;
+
+    private ThrottleCounter throttleCounter;
+    private ThrottlePolicy apiPolicy;
+    private ThrottlePolicy appPolicy;
+    private ThrottlePolicy subscriptionPolicy;
+    private ThrottlePolicy resourcePolicy;
+    private String[] apiKeys;
+    private String[] appKeys;
+    private String[] subscriptionKeys;
+    private String[] resourceKeys;
+    private String[] absentKeys;
+
+    @Setup
+    public void setup() {
+        ThrottleDataReceiver.initThrottleDataReceiver(16384, 2, 256, 100, 1, "fixed", "callerRuns", counterStore,
+                4 * keyCount + 1024);
+        throttleCounter = ThrottleDataReceiver.getThrottleCounter();
+        apiPolicy = new ThrottlePolicy("res_api", REQUEST_COUNT, 1, "min", true);
+        appPolicy = new ThrottlePolicy("app_app", REQUEST_COUNT, 1, "min", true);
+        subscriptionPolicy = new ThrottlePolicy("sub_sub", REQUEST_COUNT, 1, "min", true);
+        resourcePolicy = new ThrottlePolicy("res_resource", REQUEST_COUNT, 1, "min", true);
+        apiKeys = new String[keyCount];
+        appKeys = new String[keyCount];
+        subscriptionKeys = new String[keyCount];
+        resourceKeys = new String[keyCount];
+        long timestamp = System.currentTimeMillis();
+        countExpiredKeys(timestamp);
+        for (int i = 0; i < keyCount; i++) {
+            apiKeys[i] = "/pizzashack/" + i + "/1.0.0";
+            appKeys[i] = i + ":admin";
+            subscriptionKeys[i] = i + ":/pizzashack/" + i + "/1.0.0";
+            resourceKeys[i] = "/pizzashack/" + i + "/1.0.0/menu:GET";
+            // the keys are counted once, so that the lookups do not measure missing keys
+            throttleCounter.updateCounters(apiKeys[i], apiPolicy, appKeys[i], appPolicy, subscriptionKeys[i],
+                    subscriptionPolicy, resourceKeys[i], resourcePolicy, true, timestamp);
+        }
+        absentKeys = new String[ABSENT_KEY_COUNT];
+        for (int i = 0; i < ABSENT_KEY_COUNT; i++) {
+            absentKeys[i] = "/absent/" + i + "/1.0.0/menu:GET";
+        }
+    }
+
+    private void countExpiredKeys(long timestamp) {
+        // each window counts more keys than the compact table is sized for, so that all of its entries are used
+        int expiredKeyCount = keyCount + 1024;
+        for (int window = 1; window <= expiredWindowCount; window++) {
+            long windowTimestamp = timestamp - window * TimeUnit.MINUTES.toMillis(2);
+            for (int i = 0; i < expiredKeyCount; i++) {
+                String suffix = window + "-" + i;
+                throttleCounter.updateCounters("/expired/" + suffix + "/1.0.0", apiPolicy, suffix + ":admin",
+                        appPolicy, suffix + ":/expired/1.0.0", subscriptionPolicy, "/expired/" + suffix
+                                + "/1.0.0/menu:GET", resourcePolicy, true, windowTimestamp);
+            }
+        }
+    }
+
+    @Benchmark
+    public void updateCounters() {
+        int index = ThreadLocalRandom.current().nextInt(keyCount);
+        throttleCounter.updateCounters(apiKeys[index], apiPolicy, appKeys[index], appPolicy, subscriptionKeys[index],
+                subscriptionPolicy, resourceKeys[index], resourcePolicy, true, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean isRequestThrottled() {
+        int index = ThreadLocalRandom.current().nextInt(keyCount);
+        return ThrottleDataReceiver.isResourceThrottled(resourceKeys[index])
+                || ThrottleDataReceiver.isApiLevelThrottled(apiKeys[index])
+                || ThrottleDataReceiver.isSubcriptionLevelThrottled(subscriptionKeys[index])
+                || ThrottleDataReceiver.isAppLevelThrottled(appKeys[index]);
+    }
+
+    @Benchmark
+    public boolean isAbsentKeyThrottled() {
+        return ThrottleDataReceiver.isResourceThrottled(
+                absentKeys[ThreadLocalRandom.current().nextInt(ABSENT_KEY_COUNT)]);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.throttle;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.throttle.CompactThrottleCounterTable;
+import org.wso2.micro.gateway.core.throttle.ThrottleData;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures counting the given number of new keys in a new map or compact counter store, and the heap retained per
+ * key by the store. The heap retained by the store of the last invocation of an iteration, divided by the number of
+ * keys, is reported as the {@code bytesPerKey} secondary result. JMH sums the secondary result over the measurement
+ * iterations, hence a single iteration is measured. The map store is built the way {@code ThrottleCounter} inserts a
+ * key, without the reference of the key held by the clean up task. The compact table is sized for the number of keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 1, time = 1)
+// the serial collector reports the used heap exactly after a full collection, unlike the region based collectors
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+public class ThrottleCounterFootprintBenchmark {
+    private static final long UNIT_TIME = TimeUnit.MINUTES.toMillis(1);
+
+    @Param({"1000", "100000", "1000000"})
+    private int keyCount;
+
+    @Param({"map", "compact"})
+    private String counterStore;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "/pizzashack/" + i + "/1.0.0/menu:GET";
+        }
+    }
+
+    @Benchmark
+    public void countKeys(Footprint footprint) {
+        footprint.keyCount = keyCount;
+        footprint.store = countKeys(System.currentTimeMillis());
+    }
+
+    private Object countKeys(long timestamp) {
+        if ("compact".equals(counterStore)) {
+            CompactThrottleCounterTable counterTable = new CompactThrottleCounterTable(keyCount);
+            for (String key : keys) {
+                counterTable.hit(ThrottleData.ThrottleType.RESOURCE, key, Long.MAX_VALUE, UNIT_TIME, UNIT_TIME,
+                        timestamp);
+            }
+            return counterTable;
+        }
+        Map<String, ThrottleData> counterMap = new ConcurrentHashMap<>();
+        for (String key : keys) {
+            ThrottleData throttleData = new ThrottleData();
+            throttleData.setWindowAlignment(UNIT_TIME);
+            throttleData.setWindowStartTime(timestamp - (timestamp % UNIT_TIME));
+            throttleData.setUnitTime(UNIT_TIME);
+            throttleData.setThrottleType(ThrottleData.ThrottleType.RESOURCE);
+            throttleData.setThrottleKey(key);
+            throttleData.hit(timestamp, Long.MAX_VALUE);
+            counterMap.put(key, throttleData);
+        }
+        return counterMap;
+    }
+
+    /**
+     * Heap retained per key by the counter store of the last invocation of an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double bytesPerKey;
+        private Object store;
+        private int keyCount;
+
+        @TearDown(Level.Iteration)
+        public void measure() {
+            // the store is measured by releasing it, hence the key strings held by the benchmark are not counted
+            long usedHeap = usedHeap();
+            store = null;
+            bytesPerKey = (double) (usedHeap - usedHeap()) / keyCount;
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            long usedHeap = Long.MAX_VALUE;
+            // collect until the used heap stops shrinking, as a single request for a collection may not be complete
+            for (int i = 0; i < 10; i++) {
+                System.gc();
+                long current = runtime.totalMemory() - runtime.freeMemory();
+                if (current >= usedHeap) {
+                    return current;
+                }
+                usedHeap = current;
+            }
+            return usedHeap;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.throttle;
+
+import org.ballerinalang.jvm.values.MapValue;
+import org.ballerinalang.jvm.values.MapValueImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing request events to the throttle event pipeline, from as many threads as there are event
+ * processors and more. The throughput is bound by the event processors once the event queue is full, hence this
+ * measures the whole pipeline rather than the enqueue alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThrottleEventBenchmark {
+    private static final long REQUEST_COUNT = Long.MAX_VALUE / 2;
+    private static final String TIER = "Gold";
+
+    @Param({"1", "1000", "100000"})
+    private int keyCount;
+
+    @Param({"callerRuns", "block"})
+    private String overflowPolicy;
+
+    private MapValue[] events;
+
+    @Setup
+    public void setup() {
+        ThrottleDataReceiver.initThrottleDataReceiver(16384, 2, 256, 100, 1, "fixed", overflowPolicy, "map",
+                1000000);
+        ThrottleDataReceiver.addThrottlePolicy("res_" + TIER, REQUEST_COUNT, 1, "min", true);
+        ThrottleDataReceiver.addThrottlePolicy("app_" + TIER, REQUEST_COUNT, 1, "min", true);
+        ThrottleDataReceiver.addThrottlePolicy("sub_" + TIER, REQUEST_COUNT, 1, "min", true);
+        events = new MapValue[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            MapValue<String, Object> event = new MapValueImpl<>();
+            event.put("apiKey", "/pizzashack/" + i + "/1.0.0");
+            event.put("apiTier", TIER);
+            event.put("appKey", i + ":admin");
+            event.put("appTier", TIER);
+            event.put("subscriptionKey", i + ":/pizzashack/" + i + "/1.0.0");
+            event.put("subscriptionTier", TIER);
+            event.put("resourceKey", "/pizzashack/" + i + "/1.0.0/menu:GET");
+            event.put("resourceTier", TIER);
+            events[i] = event;
+        }
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void processNonThrottledEvent() {
+        ThrottleDataReceiver.processNonThrottledEvent(events[ThreadLocalRandom.current().nextInt(keyCount)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void processNonThrottledEventContended() {
+        ThrottleDataReceiver.processNonThrottledEvent(events[ThreadLocalRandom.current().nextInt(keyCount)]);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.benchmarks.validation;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.micro.gateway.core.Constants;
+import org.wso2.micro.gateway.core.validation.Validate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation of request and response payloads of the given size against the schemas of the petstore
+ * open API definition, from a string and from the raw payload bytes. The validation before the schemas were compiled
+ * once, which parsed the open API definition and resolved the schema of the resource for each request, is measured by
+ * the legacy benchmarks as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final String SERVICE_NAME = "PetstoreService";
+    private static final String RESOURCE_PATH = "/pet";
+    private static final String METHOD = "post";
+    private static final String RESPONSE_CODE = "200";
+
+    @Param({"1024", "102400", "1048576"})
+    private int payloadSize;
+
+    private String payload;
+    private byte[] payloadBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream inputStream = ValidationBenchmark.class.getResourceAsStream("/validation/petstore_v3.json")) {
+            String swagger = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+            Validate.compileSchemas(SERVICE_NAME, swagger);
+            LegacyValidate.addSwagger(SERVICE_NAME, swagger);
+        }
+        payload = createPet(payloadSize);
+        payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (!Constants.VALIDATED_STATUS.equals(validateRequest())
+                || !Constants.VALIDATED_STATUS.equals(validateResponseBytes())
+                || !Constants.VALIDATED_STATUS.equals(validateRequestLegacy())
+                || !Constants.VALIDATED_STATUS.equals(validateResponseLegacy())) {
+            throw new IllegalStateException("Benchmark payload does not match the schema");
+        }
+    }
+
+    @Benchmark
+    public String validateRequest() {
+        return Validate.validateRequest(RESOURCE_PATH, METHOD, payload, SERVICE_NAME);
+    }
+
+    @Benchmark
+    public String validateRequestBytes() {
+        return Validate.validateRequestBytes(RESOURCE_PATH, METHOD, payloadBytes, SERVICE_NAME);
+    }
+
+    @Benchmark
+    public String validateResponse() {
+        return Validate.validateResponse(RESOURCE_PATH, METHOD, RESPONSE_CODE, payload, SERVICE_NAME);
+    }
+
+    @Benchmark
+    public String validateResponseBytes() {
+        return Validate.validateResponseBytes(RESOURCE_PATH, METHOD, RESPONSE_CODE, payloadBytes, SERVICE_NAME);
+    }
+
+    @Benchmark
+    public String validateRequestLegacy() throws IOException {
+        return LegacyValidate.validateRequest(RESOURCE_PATH, METHOD, payload, SERVICE_NAME);
+    }
+
+    @Benchmark
+    public String validateResponseLegacy() {
+        return LegacyValidate.validateResponse(RESOURCE_PATH, METHOD, RESPONSE_CODE, payload, SERVICE_NAME);
+    }
+
+    /**
+     * Create a pet which is padded up to the given size with properties which are not part of the schema.
+     */
+    private static String createPet(int size) {
+        StringBuilder builder = new StringBuilder(size + 64);
+        builder.append("{\"id\": 1, \"name\": \"doggie\", \"category\": {\"id\": 2, \"name\": \"dogs\"}");
+        int index = 0;
+        while (builder.length() < size - 1) {
+            builder.append(", \"attribute").append(index++).append("\": \"");
+            for (int i = 0; i < 32; i++) {
+                builder.append((char) ('a' + i % 26));
+            }
+            builder.append('"');
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding a request event into the buffer of the analytics event writer, for each event file format. The
+ * encoding is package private, hence this benchmark is placed in the package of the analytics event writer. Writing
+ * the buffer to the file is not measured. The bytes allocated per event are reported by running the benchmark with
+ * the GC profiler, {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AnalyticsEventFormatBenchmark {
+    private static final String STREAM_ID = "org.wso2.apimgt.statistics.request:3.0.0";
+    private static final String META_DATA = "{\"clientType\":\"Mozilla/5.0\", \"correlationID\":"
+            + "\"4d8e2b6c-7f1a-4a51-9c5e-2f0d9a7b3e11\"}";
+    private static final String CORRELATION_DATA = "null";
+    private static final String[] REQUEST_FIELDS = {"Q1w2E3r4T5y6U7i8O9p0", "DefaultApplication", "1", "admin",
+            "/petstore/v1", "PetStore", "1.0.0", "/pet/1", "/pet/{petId}", "GET", "admin", "carbon.super",
+            "Unlimited", "localhost", "admin@carbon.super", "carbon.super", "127.0.0.1", "curl/7.58.0",
+            "1588131204811", "false", "25", "18", "7", "false", "1024", "https--1.1", "200",
+            "https://petstore.swagger.io/v2", "3", "1", "0", "0", "7", "1", "SYNAPSE", "Synapse"};
+
+    @Param({"TEXT", "BINARY"})
+    private AnalyticsEventFormat format;
+
+    // number of times the payload fields of a request event are repeated in the event
+    @Param({"1", "8"})
+    private int payloadScale;
+
+    private List<String> payloadFields;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        String[] fields = new String[REQUEST_FIELDS.length * payloadScale];
+        for (int i = 0; i < payloadScale; i++) {
+            System.arraycopy(REQUEST_FIELDS, 0, fields, i * REQUEST_FIELDS.length, REQUEST_FIELDS.length);
+        }
+        payloadFields = Arrays.asList(fields);
+        buffer = ByteBuffer.allocate(format.getMaxEncodedLength(STREAM_ID, META_DATA, CORRELATION_DATA,
+                payloadFields));
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        format.encode(buffer, STREAM_ID, System.currentTimeMillis(), META_DATA, CORRELATION_DATA, payloadFields);
+        return buffer;
+    }
+}
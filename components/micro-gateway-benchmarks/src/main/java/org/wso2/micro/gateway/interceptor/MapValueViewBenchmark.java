@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.interceptor;
+
+import org.ballerinalang.jvm.values.MapValue;
+import org.ballerinalang.jvm.values.MapValueImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the invocation context attributes of the given size through the live {@link MapValueView} next
+ * to the copy made by {@link Utils#convertMapValueToMap}, for a lookup of a single attribute and for an iteration
+ * over all of them. The attributes are held in a {@link MapValueImpl} as in the invocation context, which is read
+ * without running ballerina code, hence no strand is needed. The view and the copy are package private, hence this
+ * benchmark is placed in the package of the interceptor API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MapValueViewBenchmark {
+
+    @Param({"8", "64"})
+    private int attributeCount;
+
+    private MapValue<String, Object> attributes;
+    private String lookupKey;
+
+    @Setup
+    public void setup() {
+        attributes = new MapValueImpl<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put("attribute-" + i, "value-" + i);
+        }
+        lookupKey = "attribute-" + (attributeCount / 2);
+    }
+
+    @Benchmark
+    public Object getFromView() {
+        return new MapValueView(attributes).get(lookupKey);
+    }
+
+    @Benchmark
+    public Object getFromCopy() {
+        return Utils.convertMapValueToMap(attributes).get(lookupKey);
+    }
+
+    @Benchmark
+    public int iterateView() {
+        return iterate(new MapValueView(attributes));
+    }
+
+    @Benchmark
+    public int iterateCopy() {
+        return iterate(Utils.convertMapValueToMap(attributes));
+    }
+
+    private static int iterate(Map<String, Object> map) {
+        int hash = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            hash += entry.getKey().hashCode() ^ entry.getValue().hashCode();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.interceptor;
+
+import org.ballerinalang.jvm.JSONParser;
+import org.ballerinalang.jvm.values.ObjectValue;
+import org.ballerinalang.mime.util.MimeConstants;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the payload of the given size through the interceptor API: reading it through the stream over
+ * the payload buffer next to a stream over a copy of the payload, getting the buffer of a payload held as bytes, and
+ * converting a json payload to a ballerina `json` value by walking the tree next to serializing and parsing it. The
+ * stream and the conversion are package private, hence this benchmark is placed in the package of the interceptor
+ * API. None of them runs ballerina code, hence no strand is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PayloadBenchmark {
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    @Param({"1024", "102400", "10485760"})
+    private int payloadSize;
+
+    private byte[] payload;
+    private Entity entity;
+    private JSONObject jsonPayload;
+    private byte[] readBuffer;
+
+    @Setup
+    public void setup() {
+        jsonPayload = createJson(payloadSize);
+        payload = jsonPayload.toString().getBytes(StandardCharsets.UTF_8);
+        entity = new Entity(createEntityObject(payload));
+        readBuffer = new byte[READ_BUFFER_SIZE];
+    }
+
+    @Benchmark
+    public long readByteBufferInputStream() throws IOException {
+        return read(new ByteBufferInputStream(ByteBuffer.wrap(payload).asReadOnlyBuffer()));
+    }
+
+    @Benchmark
+    public long readCopiedByteArrayInputStream() throws IOException {
+        return read(new ByteArrayInputStream(payload.clone()));
+    }
+
+    @Benchmark
+    public ByteBuffer getByteBuffer() throws InterceptorException {
+        return entity.getByteBuffer();
+    }
+
+    @Benchmark
+    public Object convertToBJson() {
+        return InterceptorUtils.convertToBJson(jsonPayload);
+    }
+
+    @Benchmark
+    public Object parseSerializedJson() {
+        return JSONParser.parse(jsonPayload.toString());
+    }
+
+    private long read(InputStream inputStream) throws IOException {
+        long total = 0;
+        int count;
+        while ((count = inputStream.read(readBuffer, 0, READ_BUFFER_SIZE)) > 0) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Creates a mime entity object which only holds the native data read by {@link Entity}. An entity object of the
+     * mime module can not be created without initializing the module.
+     */
+    private static ObjectValue createEntityObject(byte[] payload) {
+        Map<String, Object> nativeData = new HashMap<>();
+        nativeData.put(MimeConstants.MESSAGE_DATA_SOURCE, payload);
+        return (ObjectValue) Proxy.newProxyInstance(PayloadBenchmark.class.getClassLoader(),
+                new Class<?>[]{ObjectValue.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getNativeData":
+                            return args == null ? nativeData : nativeData.get(args[0]);
+                        case "addNativeData":
+                            nativeData.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static JSONObject createJson(int size) {
+        JSONArray pets = new JSONArray();
+        JSONObject json = new JSONObject().put("pets", pets);
+        int length = 0;
+        for (int id = 0; length < size; id++) {
+            JSONObject pet = new JSONObject()
+                    .put("id", id)
+                    .put("name", "doggie-" + id)
+                    .put("status", "available")
+                    .put("price", id * 1.5)
+                    .put("vaccinated", id % 2 == 0)
+                    .put("photoUrls", new JSONArray().put("https://petstore.swagger.io/pets/" + id + ".png"));
+            pets.put(pet);
+            length += pet.toString().length() + 1;
+        }
+        return json;
+    }
+}
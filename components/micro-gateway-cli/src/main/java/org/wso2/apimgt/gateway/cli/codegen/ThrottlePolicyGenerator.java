@@ -27,12 +27,9 @@ import com.github.jknack.handlebars.context.MapValueResolver;
 import org.wso2.apimgt.gateway.cli.constants.CliConstants;
 import org.wso2.apimgt.gateway.cli.constants.GeneratorConstants;
 import org.wso2.apimgt.gateway.cli.exception.CLIRuntimeException;
-import org.wso2.apimgt.gateway.cli.model.rest.policy.ApplicationThrottlePolicyDTO;
-import org.wso2.apimgt.gateway.cli.model.rest.policy.SubscriptionThrottlePolicyDTO;
 import org.wso2.apimgt.gateway.cli.model.rest.policy.ThrottlePolicyListMapper;
 import org.wso2.apimgt.gateway.cli.model.rest.policy.ThrottlePolicyMapper;
 import org.wso2.apimgt.gateway.cli.model.template.GenSrcFile;
-import org.wso2.apimgt.gateway.cli.model.template.policy.ThrottlePolicy;
 import org.wso2.apimgt.gateway.cli.model.template.policy.ThrottlePolicyInitializer;
 import org.wso2.apimgt.gateway.cli.utils.CmdUtils;
 import org.wso2.apimgt.gateway.cli.utils.CodegenUtils;
@@ -48,32 +45,12 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Helper for generating ballerina based throttle policies.
+ * Helper for generating the ballerina source which deploys the throttle policies in the gateway.
  */
 public class ThrottlePolicyGenerator {
 
-    public void generate(String outPath, List<ApplicationThrottlePolicyDTO> applicationPolicies,
-                         List<SubscriptionThrottlePolicyDTO> subscriptionPolicies) throws IOException {
-        List<GenSrcFile> genFiles = new ArrayList<>();
-        List<GenSrcFile> genAppFiles = generateApplicationPolicies(applicationPolicies);
-
-        if (genAppFiles != null) {
-            genFiles.addAll(genAppFiles);
-        }
-
-        List<GenSrcFile> genSubsFiles = generateSubscriptionPolicies(subscriptionPolicies);
-
-        if (genSubsFiles != null) {
-            genFiles.addAll(genSubsFiles);
-        }
-
-        GenSrcFile initGenFile = generateInitBal(applicationPolicies, subscriptionPolicies);
-        genFiles.add(initGenFile);
-        CodegenUtils.writeGeneratedSources(genFiles, Paths.get(outPath), true);
-    }
-
     /**
-     * Generate ballerina and stream source for a given app and subs policies
+     * Generate ballerina source for the application, subscription and resource policies of a project
      *
      * @param outPath     Destination file path to save generated source files. If not provided
      *                    {@code definitionPath} will be used as the default destination path
@@ -105,94 +82,6 @@ public class ThrottlePolicyGenerator {
 
     }
 
-    /**
-     * Generate generic policies source
-     *
-     * @param policies list of application policies
-     * @return list of {@code GenSrcFile}
-     * @throws IOException when file operations fail
-     */
-    private List<GenSrcFile> generateGenericPolicies(List<ThrottlePolicyMapper> policies,
-                                                     GeneratorConstants.PolicyType type) throws IOException {
-        ThrottlePolicy policyContext;
-
-        if (policies == null) {
-            return null;
-        }
-        List<GenSrcFile> sourceFiles = new ArrayList<>();
-        for (ThrottlePolicyMapper policy : policies) {
-            policyContext = new ThrottlePolicy().buildContext(policy, type);
-            sourceFiles.add(generatePolicy(policyContext));
-        }
-        return sourceFiles;
-    }
-
-    /**
-     * Generate application policies source
-     *
-     * @param applicationPolicies list of application policies
-     * @return list of {@code GenSrcFile}
-     * @throws IOException when file operations fail
-     */
-    private List<GenSrcFile> generateApplicationPolicies(List<ApplicationThrottlePolicyDTO> applicationPolicies)
-            throws IOException {
-        ThrottlePolicy policyContext;
-
-        if (applicationPolicies == null) {
-            return null;
-        }
-        List<GenSrcFile> sourceFiles = new ArrayList<>();
-        for (ApplicationThrottlePolicyDTO applicationPolicy : applicationPolicies) {
-            policyContext = new ThrottlePolicy().buildContext(applicationPolicy);
-            sourceFiles.add(generatePolicy(policyContext));
-        }
-        return sourceFiles;
-    }
-
-    /**
-     * Generate subscription policies source
-     *
-     * @param subscriptionPolicies list of subscription policies
-     * @return list of {@code GenSrcFile}
-     * @throws IOException when file operations fail
-     */
-    private List<GenSrcFile> generateSubscriptionPolicies(List<SubscriptionThrottlePolicyDTO> subscriptionPolicies)
-            throws IOException {
-        ThrottlePolicy policyContext;
-        List<GenSrcFile> sourceFiles = new ArrayList<>();
-        if (subscriptionPolicies == null) {
-            return null;
-        }
-        for (SubscriptionThrottlePolicyDTO subscriptionPolicy : subscriptionPolicies) {
-            policyContext = new ThrottlePolicy().buildContext(subscriptionPolicy);
-            sourceFiles.add(generatePolicy(policyContext));
-        }
-        return sourceFiles;
-    }
-
-    /**
-     * Generate init ballerina source which start all other policy ballerina
-     *
-     * @param applicationPolicies  list of application policies
-     * @param subscriptionPolicies list of subscription policies
-     * @return GenSrcFile
-     * @throws IOException when file operations fail
-     * @throws IOException when code generator fails
-     */
-    private GenSrcFile generateInitBal(List<ApplicationThrottlePolicyDTO> applicationPolicies,
-                                       List<SubscriptionThrottlePolicyDTO> subscriptionPolicies) throws IOException {
-        ThrottlePolicyInitializer context = new ThrottlePolicyInitializer();
-
-        if (applicationPolicies != null) {
-            context = context.buildAppContext(applicationPolicies);
-        }
-        if (subscriptionPolicies != null) {
-            context = context.buildSubsContext(subscriptionPolicies);
-        }
-        return generateInitBalFile(context);
-    }
-
-
     /**
      * Generate init ballerina source which start all other policy ballerina
      *
@@ -250,21 +139,6 @@ public class ThrottlePolicyGenerator {
         }
     }
 
-    /**
-     * Generate code for throttle policy
-     *
-     * @param context model context to be used by the templates
-     * @return generated source files as a list of {@link GenSrcFile}
-     * @throws IOException when code generation with specified templates fails
-     */
-    private GenSrcFile generatePolicy(ThrottlePolicy context) throws IOException {
-        String concatTitle = context.getPolicyType() + "_" + context.getName();
-        String srcFile = concatTitle + ".bal";
-        String mainContent = getContent(context);
-
-        return new GenSrcFile(GenSrcFile.GenFileType.GEN_SRC, srcFile, mainContent);
-    }
-
     private GenSrcFile generateInitBalFile(ThrottlePolicyInitializer context) throws IOException {
         String concatTitle = GeneratorConstants.THROTTLE_POLICY_INITIALIZER;
         String srcFile = concatTitle + GeneratorConstants.BALLERINA_EXTENSION;
@@ -273,23 +147,6 @@ public class ThrottlePolicyGenerator {
         return new GenSrcFile(GenSrcFile.GenFileType.GEN_SRC, srcFile, mainContent);
     }
 
-    /**
-     * Retrieve generated source content as a String value.
-     *
-     * @param object context to be used by template engine
-     * @return String with populated template
-     * @throws IOException when template population fails
-     */
-    private String getContent(ThrottlePolicy object) throws IOException {
-        Template template = CodegenUtils.compileTemplate(GeneratorConstants.DEFAULT_TEMPLATE_DIR,
-                GeneratorConstants.THROTTLE_POLICY_TEMPLATE_NAME);
-        Context context = Context.newBuilder(object)
-                .resolver(MapValueResolver.INSTANCE, JavaBeanValueResolver.INSTANCE, FieldValueResolver.INSTANCE)
-                .build();
-
-        return template.apply(context);
-    }
-
     private String getPolicyInitContent(ThrottlePolicyInitializer object)
             throws IOException {
         Template template = CodegenUtils.compileTemplate(GeneratorConstants.DEFAULT_TEMPLATE_DIR,
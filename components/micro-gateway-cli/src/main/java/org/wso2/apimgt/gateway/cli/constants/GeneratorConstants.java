@@ -27,7 +27,6 @@ public class GeneratorConstants {
     public static final String BALLERINA_TOML_TEMPLATE_NAME = "ballerinaToml";
     public static final String OPEN_API_JSON_CONSTANTS = "openAPIJsonConstants";
     public static final String GENERATESWAGGER_TEMPLATE_NAME = "generateSwagger";
-    public static final String THROTTLE_POLICY_TEMPLATE_NAME = "policy";
     public static final String LISTENERS_TEMPLATE_NAME = "listeners";
     public static final String TOKEN_SERVICES = "tokenServices";
     public static final String HEALTH_CHECK = "healthCheck";
@@ -42,18 +41,9 @@ public class GeneratorConstants {
     public static final String TEMPLATES_DIR_PATH_KEY = "templates.dir.path";
     public static final String DEFAULT_TEMPLATE_DIR = File.separator + "templates";
 
-    public static final String APPLICATION_POLICY_TYPE = "application";
-    public static final String SUBSCRIPTION_POLICY_TYPE = "subscription";
-    public static final String RESOURCE_POLICY_TYPE = "resource";
     public static final String RESOURCE_INIT_FUNC_PREFIX = "initResource";
     public static final String APPLICATION_INIT_FUNC_PREFIX = "initApplication";
     public static final String SUBSCRIPTION_INIT_FUNC_PREFIX = "initSubscription";
-    public static final String APPLICATION_KEY = "appKey";
-    public static final String SUBSCRIPTION_KEY = "subscriptionKey";
-    public static final String RESOURCE_KEY = "resourceKey";
-    public static final String APPLICATION_TIER_TYPE = "appTier";
-    public static final String SUBSCRIPTION_TIER_TYPE = "subscriptionTier";
-    public static final String RESOURCE_TIER_TYPE = "resourceTier";
     public static final String INIT_FUNC_SUFFIX = "Policy";
     public static final String THROTTLE_POLICY_INITIALIZER = "throttle_policy_initializer";
     public static final String UTF_8 = "UTF-8";
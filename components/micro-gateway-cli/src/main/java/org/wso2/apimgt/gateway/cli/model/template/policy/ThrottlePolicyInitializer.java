@@ -18,8 +18,6 @@
 package org.wso2.apimgt.gateway.cli.model.template.policy;
 
 import org.wso2.apimgt.gateway.cli.constants.GeneratorConstants;
-import org.wso2.apimgt.gateway.cli.model.rest.policy.ApplicationThrottlePolicyDTO;
-import org.wso2.apimgt.gateway.cli.model.rest.policy.SubscriptionThrottlePolicyDTO;
 import org.wso2.apimgt.gateway.cli.model.rest.policy.ThrottlePolicyMapper;
 import org.wso2.apimgt.gateway.cli.utils.CodegenUtils;
 
@@ -48,26 +46,6 @@ public class ThrottlePolicyInitializer {
         this.policyInitNames = policyInitNames;
     }
 
-    public ThrottlePolicyInitializer buildAppContext(List<ApplicationThrottlePolicyDTO> applicationPolicies) {
-        for (ApplicationThrottlePolicyDTO policyDTO : applicationPolicies) {
-            String escapedPolicyName = CodegenUtils.trim(policyDTO.getPolicyName());
-            policyInitNames.add(GeneratorConstants.APPLICATION_INIT_FUNC_PREFIX + escapedPolicyName
-                    + GeneratorConstants.INIT_FUNC_SUFFIX);
-            policyNames.add(escapedPolicyName);
-        }
-        return this;
-    }
-
-    public ThrottlePolicyInitializer buildSubsContext(List<SubscriptionThrottlePolicyDTO> subscriptionPolicies) {
-        for (SubscriptionThrottlePolicyDTO policyDTO : subscriptionPolicies) {
-            String escapedPolicyName = CodegenUtils.trim(policyDTO.getPolicyName());
-            policyInitNames.add(GeneratorConstants.SUBSCRIPTION_INIT_FUNC_PREFIX + escapedPolicyName
-                    + GeneratorConstants.INIT_FUNC_SUFFIX);
-            policyNames.add(escapedPolicyName);
-        }
-        return this;
-    }
-
     public ThrottlePolicyInitializer buildPolicyContext(List<ThrottlePolicyMapper> policies,
                                                         GeneratorConstants.PolicyType type) {
         for (ThrottlePolicyMapper policyDTO : policies) {
@@ -15,7 +15,6 @@
 // under the License.
 
 import ballerina/http;
-import ballerina/io;
 import ballerina/runtime;
 import ballerina/time;
 
@@ -55,38 +54,8 @@ function setRequestAttributesToContext(http:Request request, http:FilterContext
     context.attributes[REQUEST_TIME_PROPERTY] = currentTimeMills;
 }
 
-public function getEventData(EventDTO dto) returns string {
-    string output = "streamId" + KVT + dto.streamId + EVS + "timestamp" + KVT + dto.timeStamp.toString() + EVS +
-    "metadata" + KVT + dto.metaData + EVS + "correlationData" + KVT + "null" + EVS +
-    "payLoadData" + KVT + dto.payloadData + "\n";
-    return output;
-}
-
 function writeEventToFile(EventDTO eventDTO) {
-    string fileLocation = retrieveConfig(API_USAGE_PATH, API_USAGE_DIR) + PATH_SEPERATOR;
-    // errors from 'openWritableFile' will be 'panicked'
-    var writableChannel = <io:WritableByteChannel>io:openWritableFile(fileLocation + TEMP_API_USAGE_FILE, true);
-    io:WritableCharacterChannel charChannel = new (writableChannel, "UTF-8");
-    var result = charChannel.write(getEventData(eventDTO), 0);
-    if (result is io:GenericError) {
-        closeWC(charChannel);
-        panic result;
-    } else if (result is io:ConnectionTimedOutError) {
-        closeWC(charChannel);
-        panic result;
-    } else {
-        closeWC(charChannel);
-        printDebug(KEY_ANALYTICS_FILTER, "Event is being written");
-    }
-
-}
-
-public function closeWC(io:WritableCharacterChannel charChannel) {
-    var result = charChannel.close();
-    if (result is error) {
-        printError(KEY_ANALYTICS_FILTER, "Error occurred while closing the channel: "
-        + result.reason());
-    } else {
-        printDebug(KEY_ANALYTICS_FILTER, "Source channel closed successfully.");
-    }
+    // the event is encoded by the writer straight into its buffer, in the format of the event file
+    jWriteAnalyticsEvent(eventDTO);
+    printDebug(KEY_ANALYTICS_FILTER, "Event is being written");
 }
@@ -21,11 +21,10 @@ public function getFaultMetaData(FaultDTO dto) returns string {
     return dto.metaClientType;
 }
 
-public function getFaultPayloadData(FaultDTO dto) returns string {
-    return dto.consumerKey + OBJ + dto.apiName + OBJ + dto.apiVersion + OBJ + dto.apiContext + OBJ +
-    dto.resourcePath + OBJ + dto.method + OBJ + dto.apiCreator + OBJ + dto.userName + OBJ + dto.userTenantDomain + OBJ +
-    dto.apiCreatorTenantDomain + OBJ + dto.hostName + OBJ + dto.applicationId + OBJ +
-    dto.applicationName + OBJ + dto.protocol + OBJ + dto.errorCode.toString() + OBJ + dto.errorMessage + OBJ + dto.faultTime.toString();
+public function getFaultPayloadFields(FaultDTO dto) returns string[] {
+    return [dto.consumerKey, dto.apiName, dto.apiVersion, dto.apiContext, dto.resourcePath, dto.method, dto.apiCreator,
+    dto.userName, dto.userTenantDomain, dto.apiCreatorTenantDomain, dto.hostName, dto.applicationId,
+    dto.applicationName, dto.protocol, dto.errorCode.toString(), dto.errorMessage, dto.faultTime.toString()];
 }
 
 public function getEventFromFaultData(FaultDTO dto) returns EventDTO | error {
@@ -34,6 +33,6 @@ public function getEventFromFaultData(FaultDTO dto) returns EventDTO | error {
     eventDTO.timeStamp = getCurrentTime();
     eventDTO.metaData = getFaultMetaData(dto);
     eventDTO.correlationData = "null";
-    eventDTO.payloadData = getFaultPayloadData(dto);
+    eventDTO.payloadFields = getFaultPayloadFields(dto);
     return eventDTO;
 }
@@ -24,6 +24,7 @@ function sendFileRotatingEvent() returns error? {
     string fileLocation = retrieveConfig(API_USAGE_PATH, API_USAGE_DIR) + filepath:getPathSeparator();
     printDebug(KEY_ROTATE_TASK, "Rotate file location : " + fileLocation);
     string path = fileLocation + TEMP_API_USAGE_FILE;
+    jFlushAnalyticsEvents();
     if (file:exists(path)) {
         var result = rotateFile(path);
         if (result is string) {
@@ -20,40 +20,47 @@ import ballerina/runtime;
 import ballerina/stringutils;
 
 
-public function getRequestReponseExecutionDataPayload(RequestResponseExecutionDTO requestResponseExecutionDTO) returns string {
+public function getRequestReponseExecutionDataPayload(RequestResponseExecutionDTO requestResponseExecutionDTO)
+returns string[] {
     printDebug(KEY_ANALYTICS_FILTER, "Request response execution DTO : " + requestResponseExecutionDTO.toString());
-    string output =
-    requestResponseExecutionDTO.applicationConsumerKey + OBJ +
-    requestResponseExecutionDTO.applicationName + OBJ + requestResponseExecutionDTO.applicationId + OBJ +
-    requestResponseExecutionDTO.applicationOwner + OBJ + requestResponseExecutionDTO.apiContext + OBJ +
-    requestResponseExecutionDTO.apiName + OBJ + requestResponseExecutionDTO.apiVersion + OBJ +
-    requestResponseExecutionDTO.apiResourcePath + OBJ + requestResponseExecutionDTO.apiResourceTemplate + OBJ +
-    requestResponseExecutionDTO.apiMethod + OBJ + requestResponseExecutionDTO.apiCreator + OBJ +
-    requestResponseExecutionDTO.apiCreatorTenantDomain + OBJ + requestResponseExecutionDTO.apiTier + OBJ +
-    requestResponseExecutionDTO.apiHostname + OBJ + requestResponseExecutionDTO.userName + OBJ +
-    requestResponseExecutionDTO.userTenantDomain + OBJ +
-    requestResponseExecutionDTO.userIp + OBJ +
-    requestResponseExecutionDTO.userAgent + OBJ +
-    requestResponseExecutionDTO.requestTimestamp.toString() + OBJ +
-    requestResponseExecutionDTO.throttledOut.toString() + OBJ +
-    requestResponseExecutionDTO.responseTime.toString() + OBJ +
-    requestResponseExecutionDTO.serviceTime.toString() + OBJ +
-    requestResponseExecutionDTO.backendTime.toString() + OBJ +
-    requestResponseExecutionDTO.responseCacheHit.toString() + OBJ +
-    requestResponseExecutionDTO.responseSize.toString() + OBJ +
-    requestResponseExecutionDTO.protocol + OBJ +
-    requestResponseExecutionDTO.responseCode.toString() + OBJ +
-    requestResponseExecutionDTO.destination + OBJ +
-    requestResponseExecutionDTO.executionTime.securityLatency.toString() + OBJ +
-    requestResponseExecutionDTO.executionTime.throttlingLatency.toString() + OBJ +
-    requestResponseExecutionDTO.executionTime.requestMediationLatency.toString() + OBJ +
-    requestResponseExecutionDTO.executionTime.responseMediationLatency.toString() + OBJ +
-    requestResponseExecutionDTO.executionTime.backEndLatency.toString() + OBJ +
-    requestResponseExecutionDTO.executionTime.otherLatency.toString() + OBJ +
-    requestResponseExecutionDTO.gatewayType + OBJ +
-    requestResponseExecutionDTO.label;
-    printDebug(KEY_ANALYTICS_FILTER, "Request response execution DTO string : " + output);
-    return output;
+    return [
+    requestResponseExecutionDTO.applicationConsumerKey,
+    requestResponseExecutionDTO.applicationName,
+    requestResponseExecutionDTO.applicationId,
+    requestResponseExecutionDTO.applicationOwner,
+    requestResponseExecutionDTO.apiContext,
+    requestResponseExecutionDTO.apiName,
+    requestResponseExecutionDTO.apiVersion,
+    requestResponseExecutionDTO.apiResourcePath,
+    requestResponseExecutionDTO.apiResourceTemplate,
+    requestResponseExecutionDTO.apiMethod,
+    requestResponseExecutionDTO.apiCreator,
+    requestResponseExecutionDTO.apiCreatorTenantDomain,
+    requestResponseExecutionDTO.apiTier,
+    requestResponseExecutionDTO.apiHostname,
+    requestResponseExecutionDTO.userName,
+    requestResponseExecutionDTO.userTenantDomain,
+    requestResponseExecutionDTO.userIp,
+    requestResponseExecutionDTO.userAgent,
+    requestResponseExecutionDTO.requestTimestamp.toString(),
+    requestResponseExecutionDTO.throttledOut.toString(),
+    requestResponseExecutionDTO.responseTime.toString(),
+    requestResponseExecutionDTO.serviceTime.toString(),
+    requestResponseExecutionDTO.backendTime.toString(),
+    requestResponseExecutionDTO.responseCacheHit.toString(),
+    requestResponseExecutionDTO.responseSize.toString(),
+    requestResponseExecutionDTO.protocol,
+    requestResponseExecutionDTO.responseCode.toString(),
+    requestResponseExecutionDTO.destination,
+    requestResponseExecutionDTO.executionTime.securityLatency.toString(),
+    requestResponseExecutionDTO.executionTime.throttlingLatency.toString(),
+    requestResponseExecutionDTO.executionTime.requestMediationLatency.toString(),
+    requestResponseExecutionDTO.executionTime.responseMediationLatency.toString(),
+    requestResponseExecutionDTO.executionTime.backEndLatency.toString(),
+    requestResponseExecutionDTO.executionTime.otherLatency.toString(),
+    requestResponseExecutionDTO.gatewayType,
+    requestResponseExecutionDTO.label
+    ];
 }
 
 public function getMetaDataForRequestResponseExecutionData(RequestResponseExecutionDTO dto) returns string {
@@ -69,7 +76,7 @@ EventDTO | error
     eventDTO.timeStamp = getCurrentTime();
     eventDTO.metaData = getMetaDataForRequestResponseExecutionData(requestResponseExecutionDTO);
     eventDTO.correlationData = "null";
-    eventDTO.payloadData = getRequestReponseExecutionDataPayload(requestResponseExecutionDTO);
+    eventDTO.payloadFields = getRequestReponseExecutionDataPayload(requestResponseExecutionDTO);
     return eventDTO;
 }
 
@@ -16,24 +16,25 @@
 
 import ballerina/cache;
 
-// TODO: Refactor the cache
 int cacheExpiryTime = getConfigIntValue(CACHING_ID, TOKEN_CACHE_EXPIRY, DEFAULT_TOKEN_CACHE_EXPIRY);
 int cacheSize = getConfigIntValue(CACHING_ID, TOKEN_CACHE_CAPACITY, DEFAULT_TOKEN_CACHE_CAPACITY);
 float evictionFactor = getConfigFloatValue(CACHING_ID, TOKEN_CACHE_EVICTION_FACTOR, DEFAULT_TOKEN_CACHE_EVICTION_FACTOR);
 // Caches are globally defined in order to initialize them before the authentication handlers are initialized.
+// The token validation results are kept in the gateway caches, which admit a new token only if it is used more
+// often than the tokens it would replace.
+boolean gatewayCachesInitialized = initGatewayCache(GATEWAY_TOKEN_CACHE) && initGatewayCache(GATEWAY_KEY_VALIDATION_CACHE)
+    && initGatewayCache(INVALID_TOKEN_CACHE) && initGatewayCache(VERIFIED_JWT_CACHE);
 // These cache objects are passed in authentication handlers while handler init phase.
-cache:Cache gatewayTokenCache = new (cacheExpiryTime, cacheSize, evictionFactor);
-cache:Cache gatewayKeyValidationCache = new (cacheExpiryTime, cacheSize, evictionFactor);
-cache:Cache invalidTokenCache = new (cacheExpiryTime, cacheSize, evictionFactor);
-cache:Cache jwtCache = new (cacheExpiryTime, cacheSize, evictionFactor);
-cache:Cache introspectCache = new (cacheExpiryTime, cacheSize, evictionFactor);
-
+cache:Cache jwtCache = new (getConfigIntValue(CACHING_ID + "." + JWT_CACHE, CACHE_EXPIRY, cacheExpiryTime),
+    getConfigIntValue(CACHING_ID + "." + JWT_CACHE, CACHE_CAPACITY, cacheSize), evictionFactor);
+cache:Cache introspectCache = new (getConfigIntValue(CACHING_ID + "." + INTROSPECT_CACHE, CACHE_EXPIRY, cacheExpiryTime),
+    getConfigIntValue(CACHING_ID + "." + INTROSPECT_CACHE, CACHE_CAPACITY, cacheSize), evictionFactor);
 
 public type APIGatewayCache object {
 
     public function authenticateFromGatewayKeyValidationCache(string tokenCacheKey) returns
     (APIKeyValidationDto | ()) {
-        var apikeyValidationDto = gatewayKeyValidationCache.get(tokenCacheKey);
+        var apikeyValidationDto = getFromGatewayCache(GATEWAY_KEY_VALIDATION_CACHE, tokenCacheKey);
         if (apikeyValidationDto is APIKeyValidationDto) {
             return apikeyValidationDto;
         } else {
@@ -44,17 +45,17 @@ public type APIGatewayCache object {
 
     public function addToGatewayKeyValidationCache(string tokenCacheKey, APIKeyValidationDto
     apiKeyValidationDto) {
-        gatewayKeyValidationCache.put(tokenCacheKey, <@untainted>apiKeyValidationDto);
+        putInGatewayCache(GATEWAY_KEY_VALIDATION_CACHE, tokenCacheKey, <@untainted>apiKeyValidationDto);
         printDebug(KEY_GW_CACHE, "Added key validation information to the key validation cache. key: " + mask(tokenCacheKey));
     }
 
     public function removeFromGatewayKeyValidationCache(string tokenCacheKey) {
-        gatewayKeyValidationCache.remove(tokenCacheKey);
+        removeFromGatewayCache(GATEWAY_KEY_VALIDATION_CACHE, tokenCacheKey);
         printDebug(KEY_GW_CACHE, "Removed key validation information from the key validation cache. key: " + mask(tokenCacheKey));
     }
 
     public function retrieveFromInvalidTokenCache(string tokenCacheKey) returns (APIKeyValidationDto | ()) {
-        var authorize = invalidTokenCache.get(tokenCacheKey);
+        var authorize = getFromGatewayCache(INVALID_TOKEN_CACHE, tokenCacheKey);
         if (authorize is APIKeyValidationDto) {
             return authorize;
         } else {
@@ -63,17 +64,17 @@ public type APIGatewayCache object {
     }
 
     public function addToInvalidTokenCache(string tokenCacheKey, APIKeyValidationDto apiKeyValidationDto) {
-        invalidTokenCache.put(tokenCacheKey, <@untainted>apiKeyValidationDto);
+        putInGatewayCache(INVALID_TOKEN_CACHE, tokenCacheKey, <@untainted>apiKeyValidationDto);
         printDebug(KEY_GW_CACHE, "Added key validation information to the invalid token cache. key: " + mask(tokenCacheKey));
     }
 
     public function removeFromInvalidTokenCache(string tokenCacheKey) {
-        invalidTokenCache.remove(tokenCacheKey);
+        removeFromGatewayCache(INVALID_TOKEN_CACHE, tokenCacheKey);
         printDebug(KEY_GW_CACHE, "Removed from the invalid key validation cache. key: " + mask(tokenCacheKey));
     }
 
     public function retrieveFromTokenCache(string accessToken) returns (boolean | ()) {
-        var authorize = gatewayTokenCache.get(accessToken);
+        var authorize = getFromGatewayCache(GATEWAY_TOKEN_CACHE, accessToken);
         if (authorize is boolean) {
             return authorize;
         } else {
@@ -82,12 +83,12 @@ public type APIGatewayCache object {
     }
 
     public function addToTokenCache(string accessToken, boolean isValid) {
-        gatewayTokenCache.put(accessToken, isValid);
+        putInGatewayCache(GATEWAY_TOKEN_CACHE, accessToken, isValid);
         printDebug(KEY_GW_CACHE, "Added validity information to the token cache. key: " + mask(accessToken));
     }
 
     public function removeFromTokenCache(string accessToken) {
-        gatewayTokenCache.remove(accessToken);
+        removeFromGatewayCache(GATEWAY_TOKEN_CACHE, accessToken);
         printDebug(KEY_GW_CACHE, "Removed from the token cache. key: " + mask(accessToken));
     }
 };
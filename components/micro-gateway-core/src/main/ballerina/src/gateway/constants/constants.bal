@@ -167,12 +167,25 @@ public const string FILE_UPLOAD_TASK = "taskUploadFiles";
 public const string INITIAL_DELAY = "initialDelayInMillis";
 public const string DESTINATION = "destination";
 public const string FILE_UPLOAD_ENABLE = "enable";
+public const string ANALYTICS_EVENT_BUFFER_SIZE = "eventBufferSize";
+public const string ANALYTICS_MAX_EVENT_BUFFER_SIZE = "maxEventBufferSize";
+public const string ANALYTICS_EVENT_FLUSH_INTERVAL = "eventFlushIntervalInMillis";
+public const string ANALYTICS_EVENT_SYNC_ON_FLUSH = "syncOnFlush";
+public const string ANALYTICS_EVENT_FILE_FORMAT = "eventFileFormat";
+public const string ANALYTICS_COMPRESS_ON_WRITE = "compressOnWrite";
+public const string ANALYTICS_COMPRESSION_PARALLELISM = "compressionParallelism";
 
 //gRPC analytics related constants
 public const string GRPC_ANALYTICS = "analytics.gRPCAnalytics";
 public const string GRPC_ANALYTICS_ENABLE = "enable";
 public const string GRPC_ENDPOINT_URL = "endpointURL";
 public const string GRPC_RETRY_TIME_MILLISECONDS = "reconnectTimeInMillies";
+public const string GRPC_QUEUE_SIZE = "queueSize";
+public const string GRPC_BATCH_SIZE = "batchSize";
+public const string GRPC_PUBLISH_INTERVAL = "publishIntervalInMillis";
+public const string GRPC_SPILL_DIRECTORY = "spillDirectory";
+public const string GRPC_MAX_SPILL_SEGMENT_SIZE = "maxSpillSegmentSize";
+public const string GRPC_MAX_SPILL_SIZE = "maxSpillSize";
  
 //validation_filter related constatnts
 public const string PATHS = "paths";
@@ -285,6 +298,18 @@ public const string TOKEN_CACHE_ENABLED = "enabled";
 public const string TOKEN_CACHE_EXPIRY = "tokenCacheExpiryTime";
 public const string TOKEN_CACHE_CAPACITY = "tokenCacheCapacity";
 public const string TOKEN_CACHE_EVICTION_FACTOR = "tokenCacheEvictionFactor";
+public const string TOKEN_CACHE_REFRESH_AHEAD_TIME = "tokenCacheRefreshAheadTime";
+public const string CACHE_CAPACITY = "capacity";
+public const string CACHE_EXPIRY = "expiryTime";
+public const string CACHE_MAX_WEIGHT = "maxWeightInBytes";
+public const string GATEWAY_TOKEN_CACHE = "gatewayTokenCache";
+public const string GATEWAY_KEY_VALIDATION_CACHE = "gatewayKeyValidationCache";
+public const string INVALID_TOKEN_CACHE = "invalidTokenCache";
+public const string JWT_CACHE = "jwtCache";
+public const string VERIFIED_JWT_CACHE = "verifiedJwtCache";
+public const string INTROSPECT_CACHE = "introspectCache";
+public const string KEY_VALIDATION_CALL_PREFIX = "keyValidation:";
+public const string INTROSPECTION_CALL_PREFIX = "introspection:";
 
 public const string JWT_CONFIG_INSTANCE_ID = "jwtConfig";
 public const string JWT_HEADER = "header";
@@ -297,10 +322,27 @@ public const string SWAGGER_ABSOLUTE_PATH = "absolutePathToSwagger";
 
 public const string THROTTLE_CONF_INSTANCE_ID = "throttlingConfig";
 public const string LOCAL_THROTTLE_CONF_INSTANCE_ID = "throttlingConfig.nodeLocal";
+public const string THROTTLE_EVENT_QUEUE_SIZE = "eventQueueSize";
+public const string THROTTLE_EVENT_PROCESSOR_COUNT = "eventProcessorCount";
+public const string THROTTLE_EVENT_BATCH_SIZE = "eventBatchSize";
+public const string THROTTLE_EVENT_OVERFLOW_POLICY = "eventOverflowPolicy";
+public const string THROTTLE_EVENT_QUEUE_BLOCK_TIMEOUT = "eventQueueBlockTimeout";
+public const string THROTTLE_CLEANUP_FREQUENCY = "cleanUpFrequency";
+public const string THROTTLE_WINDOW_ALGORITHM = "windowAlgorithm";
+public const string THROTTLE_COUNTER_STORE = "counterStore";
+public const string THROTTLE_MAX_KEYS = "maxThrottleKeys";
+// removed thread pool configurations, replaced by the event queue configurations
 public const string PROCESS_THREAD_POOL_CORE_SIZE = "processThreadPoolCoreSize";
 public const string PROCESS_THREAD_POOL_MAXIMUM_SIZE = "processThreadPoolMaximumSize";
 public const string PROCESS_THREAD_POOL_KEEP_ALIVE_TIME = "processThreadPoolKeepAliveTime";
-public const string THROTTLE_CLEANUP_FREQUENCY = "cleanUpFrequency";
+public const string QUOTA_LEASING_CONF_INSTANCE_ID = "throttlingConfig.nodeLocal.quotaLeasing";
+public const string QUOTA_LEASING_ENABLED = "enabled";
+public const string QUOTA_LEASE_SERVER_URL = "leaseServerUrl";
+public const string QUOTA_LEASE_SERVER_CREDENTIALS = "leaseServerCredentials";
+public const string QUOTA_LEASE_SIZE = "leaseSize";
+public const string QUOTA_LEASE_RENEW_THRESHOLD = "renewThreshold";
+public const string QUOTA_LEASE_IDLE_TIMEOUT = "idleTimeout";
+public const string QUOTA_LEASE_CLIENT_THREAD_COUNT = "clientThreadCount";
 public const string GLOBAL_TM_EVENT_PUBLISH_ENABLED = "enabledGlobalTMEventPublishing";
 public const string JMS_CONNECTION_INITIAL_CONTEXT_FACTORY = "jmsConnectioninitialContextFactory";
 public const string JMS_CONNECTION_PROVIDER_URL = "jmsConnectionProviderUrl";
@@ -308,9 +350,15 @@ public const string JMS_CONNECTION_USERNAME = "jmsConnectionUsername";
 public const string JMS_CONNECTION_PASSWORD = "jmsConnectionPassword";
 public const string THROTTLE_ENDPOINT_URL = "throttleEndpointUrl";
 public const string THROTTLE_ENDPOINT_BASE64_HEADER = "throttleEndpointbase64Header";
+public const string THROTTLE_ENDPOINT_BATCH_SIZE = "throttleEndpointBatchSize";
+public const string THROTTLE_ENDPOINT_FLUSH_INTERVAL = "throttleEndpointFlushInterval";
 
 public const string TOKEN_REVOCATION_CONF_INSTANCE_ID = "tokenRevocationConfig";
 public const string TOKEN_REVOCATION_ENABLED = "enabledTokenRevocation";
+public const string REVOKED_TOKEN_DEFAULT_TTL = "defaultRevokedTokenTTL";
+public const string REVOKED_TOKEN_BLOOM_FILTER_ENABLED = "enableRevokedTokenBloomFilter";
+public const string REVOKED_TOKEN_BLOOM_FILTER_CAPACITY = "revokedTokenBloomFilterCapacity";
+public const string REVOKED_TOKEN_CLEANUP_INTERVAL = "revokedTokenCleanUpInterval";
 public const string REALTIME_MESSAGE_INSTANCE_ID = "tokenRevocationConfig.realtime";
 public const string REALTIME_MESSAGE_ENABLED = "enableRealtimeMessageRetrieval";
 public const string REALTIME_JMS_CONNECTION_INITIAL_CONTEXT_FACTORY = "jmsConnectioninitialContextFactory";
@@ -396,6 +444,7 @@ const string ALLOWED_APIS = "allowedAPIs";
 const string CONSUMER_KEY = "consumerKey";
 const string KEY_TYPE = "keytype";
 const string BACKEND_JWT = "backendJwt";
+public const string JWT_CLAIMS_CONTEXT = "JWT_CLAIMS_CONTEXT";
 
 public const string INTROSPECT_CONTEXT = "introspect";
 
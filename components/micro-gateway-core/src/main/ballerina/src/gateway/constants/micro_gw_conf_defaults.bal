@@ -55,6 +55,8 @@ public const boolean DEFAULT_CACHING_ENABLED = true;
 public const int DEFAULT_TOKEN_CACHE_EXPIRY = 900000;
 public const int DEFAULT_TOKEN_CACHE_CAPACITY = 10000;
 public const float DEFAULT_TOKEN_CACHE_EVICTION_FACTOR = 0.25;
+public const int DEFAULT_TOKEN_CACHE_REFRESH_AHEAD_TIME = 60000;
+public const int DEFAULT_CACHE_MAX_WEIGHT = 0;
 
 //note, for analytics some configuration default values are not set. They are read directly from conf.
 public const boolean DEFAULT_ANALYTICS_ENABLED = false;
@@ -63,9 +65,22 @@ public const int DEFAULT_INITIAL_DELAY_IN_MILLIS = 5000;
 public const string DEFAULT_UPLOADING_EP = "https://localhost:9444/analytics/v1.0/usage/upload-file";
 public const int DEFAULT_ROTATING_PERIOD_IN_MILLIS =  600000;
 public const boolean DEFAULT_TASK_UPLOAD_FILES_ENABLED = true;
+public const int DEFAULT_ANALYTICS_EVENT_BUFFER_SIZE = 65536;
+public const int DEFAULT_ANALYTICS_MAX_EVENT_BUFFER_SIZE = 1048576;
+public const int DEFAULT_ANALYTICS_EVENT_FLUSH_INTERVAL = 1000;
+public const boolean DEFAULT_ANALYTICS_EVENT_SYNC_ON_FLUSH = false;
+public const string DEFAULT_ANALYTICS_EVENT_FILE_FORMAT = "text";
+public const boolean DEFAULT_ANALYTICS_COMPRESS_ON_WRITE = true;
+public const int DEFAULT_ANALYTICS_COMPRESSION_PARALLELISM = 2;
 //constants for gRPC analytics 
 public const string DEFAULT_GRPC_ENDPOINT_URL = "https://localhost:9806";
 public const int DEFAULT_GRPC_RECONNECT_TIME_IN_MILLES = 6000;
+public const int DEFAULT_GRPC_QUEUE_SIZE = 10000;
+public const int DEFAULT_GRPC_BATCH_SIZE = 200;
+public const int DEFAULT_GRPC_PUBLISH_INTERVAL = 100;
+public const string DEFAULT_GRPC_SPILL_DIRECTORY = "grpc-analytics-data";
+public const int DEFAULT_GRPC_MAX_SPILL_SEGMENT_SIZE = 4194304;
+public const int DEFAULT_GRPC_MAX_SPILL_SIZE = 104857600;
 
 public const boolean DEFAULT_HTTP2_ENABLED = true;
 
@@ -88,10 +103,22 @@ public const boolean DEFAULT_REQUEST_VALIDATION_ENABLED = false;
 public const boolean DEFAULT_RESPONSE_VALIDATION_ENABLED = false;
 
 // Local throttling related constants
-public const int DEFAULT_PROCESS_THREAD_POOL_CORE_SIZE = 200;
-public const int DEFAULT_PROCESS_THREAD_POOL_MAXIMUM_SIZE = 1000;
-public const int DEFAULT_PROCESS_THREAD_POOL_KEEP_ALIVE_TIME = 200;
-public const int DEFAULT_THROTTLE_CLEANUP_FREQUENCY = 3600000;
+public const int DEFAULT_THROTTLE_EVENT_QUEUE_SIZE = 16384;
+public const int DEFAULT_THROTTLE_EVENT_PROCESSOR_COUNT = 2;
+public const int DEFAULT_THROTTLE_EVENT_BATCH_SIZE = 256;
+public const string DEFAULT_THROTTLE_EVENT_OVERFLOW_POLICY = "callerRuns";
+public const int DEFAULT_THROTTLE_EVENT_QUEUE_BLOCK_TIMEOUT = 100;
+public const int DEFAULT_THROTTLE_CLEANUP_FREQUENCY = 1;
+public const string DEFAULT_THROTTLE_WINDOW_ALGORITHM = "fixed";
+public const string DEFAULT_THROTTLE_COUNTER_STORE = "map";
+public const int DEFAULT_THROTTLE_MAX_KEYS = 1000000;
+public const boolean DEFAULT_QUOTA_LEASING_ENABLED = false;
+public const string DEFAULT_QUOTA_LEASE_SERVER_URL = "https://localhost:9443/quota-lease";
+public const string DEFAULT_QUOTA_LEASE_SERVER_CREDENTIALS = "admin:admin";
+public const int DEFAULT_QUOTA_LEASE_SIZE = 100;
+public const int DEFAULT_QUOTA_LEASE_RENEW_THRESHOLD = 20;
+public const int DEFAULT_QUOTA_LEASE_IDLE_TIMEOUT = 5000;
+public const int DEFAULT_QUOTA_LEASE_CLIENT_THREAD_COUNT = 2;
 
 public const boolean DEFAULT_GLOBAL_TM_EVENT_PUBLISH_ENABLED = false;
 public const string DEFAULT_JMS_CONNECTION_INITIAL_CONTEXT_FACTORY = "wso2mbInitialContextFactory";
@@ -100,8 +127,14 @@ public const string DEFAULT_JMS_CONNECTION_USERNAME = "";
 public const string DEFAULT_JMS_CONNECTION_PASSWORD = "";
 public const string DEFAULT_THROTTLE_ENDPOINT_URL = "https://localhost:9443/endpoints";
 public const string DEFAULT_THROTTLE_ENDPOINT_BASE64_HEADER = "admin:admin";
+public const int DEFAULT_THROTTLE_ENDPOINT_BATCH_SIZE = 1000;
+public const int DEFAULT_THROTTLE_ENDPOINT_FLUSH_INTERVAL = 100;
 
 public const boolean DEFAULT_TOKEN_REVOCATION_ENABLED = false;
+public const int DEFAULT_REVOKED_TOKEN_TTL = 3600;
+public const boolean DEFAULT_REVOKED_TOKEN_BLOOM_FILTER_ENABLED = false;
+public const int DEFAULT_REVOKED_TOKEN_BLOOM_FILTER_CAPACITY = 100000;
+public const int DEFAULT_REVOKED_TOKEN_CLEANUP_INTERVAL = 60;
 public const string DEFAULT_REALTIME_JMS_CONNECTION_TOPIC = "tokenRevocation";
 public const boolean DEFAULT_PERSISTENT_USE_DEFAULT = true;
 public const string DEFAULT_PERSISTENT_MESSAGE_HOSTNAME = "https://127.0.0.1:2379/v2/keys/jti/";
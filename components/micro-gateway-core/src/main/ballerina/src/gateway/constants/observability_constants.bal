@@ -69,4 +69,26 @@ public const string ANALYTIC_GAUGE_TAGS = "ANALYTIC_GAUGE_TAGS";
 public const string VALIDATION_GAUGE_TAGS = "VALIDATION_GAUGE_TAGS";
 public const string ANALYTIC_REQUEST_TIME = "ANALYTIC_REQUEST_TIME";
 public const string VALIDATION_REQUEST_TIME = "VALIDATION_REQUEST_TIME";
-
+public const string THROTTLE_EVENT_QUEUE_DEPTH = "Throttle_Event_Queue_Depth";
+public const string THROTTLE_EVENT_QUEUE_DEPTH_DESC = "Number of throttle events waiting to be processed";
+public const string THROTTLE_EVENTS_DROPPED = "Throttle_Events_Dropped";
+public const string THROTTLE_EVENTS_DROPPED_DESC = "Number of throttle events dropped as the event queue was full";
+public const string TM_EVENT_BATCH_SIZE = "TM_Event_Batch_Size";
+public const string TM_EVENT_BATCH_SIZE_DESC = "Number of requests in the last batch published to the traffic manager";
+public const string TM_EVENT_FLUSH_LATENCY = "TM_Event_Flush_Latency";
+public const string TM_EVENT_FLUSH_LATENCY_DESC = "Time taken to publish the last batch to the traffic manager in milliseconds";
+public const string TM_EVENTS_DROPPED = "TM_Events_Dropped";
+public const string TM_EVENTS_DROPPED_DESC = "Number of requests dropped as the batch published to the traffic manager was full";
+public const string CACHE_HITS = "Cache_Hits";
+public const string CACHE_HITS_DESC = "Number of lookups which found a cached value";
+public const string CACHE_MISSES = "Cache_Misses";
+public const string CACHE_MISSES_DESC = "Number of lookups which did not find a cached value";
+public const string CACHE_EVICTIONS = "Cache_Evictions";
+public const string CACHE_EVICTIONS_DESC = "Number of entries evicted as the cache was full";
+public const string CACHE_REJECTIONS = "Cache_Rejections";
+public const string CACHE_REJECTIONS_DESC = "Number of new entries not admitted as they were used less than the cached ones";
+public const string CACHE_SIZE = "Cache_Size";
+public const string CACHE_SIZE_DESC = "Number of entries in the cache";
+public const string CACHE_WEIGHTED_SIZE = "Cache_Weighted_Size";
+public const string CACHE_WEIGHTED_SIZE_DESC = "Total weight of the entries in the cache";
+public const int CACHE_METRICS_PUBLISH_INTERVAL = 10000;
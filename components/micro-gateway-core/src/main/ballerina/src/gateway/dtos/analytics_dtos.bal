@@ -97,5 +97,5 @@ public type EventDTO record {
     int timeStamp = 0;
     string metaData = "";
     string correlationData = "";
-    string payloadData = "";
+    string[] payloadFields = [];
 };
@@ -69,18 +69,6 @@ public type RequestStreamDTO record {
     string appId = "";
     string apiName = "";
     string properties = "";
-    int resourceTierCount = -1;
-    int resourceTierUnitTime = -1;
-    string resourceTierTimeUnit = "";
-    int appTierCount = -1;
-    int appTierUnitTime = -1;
-    string appTierTimeUnit = "";
-    int apiTierCount = -1;
-    int apiTierUnitTime = -1;
-    string apiTierTimeUnit = "";
-    int subscriptionTierCount = -1;
-    int subscriptionTierUnitTime = -1;
-    string subscriptionTierTimeUnit = "";
 };
 
 public type GlobalThrottleStreamDTO record {
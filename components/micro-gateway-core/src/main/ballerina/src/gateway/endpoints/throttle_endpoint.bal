@@ -14,66 +14,70 @@
 // specific language governing permissions and limitations
 // under the License.
 
-import ballerina/http;
-import ballerina/log;
+import ballerina/observe;
+import ballerinax/java;
+
+observe:Gauge | () tmEventBatchSizeGauge = ();
+observe:Gauge | () tmEventFlushLatencyGauge = ();
+observe:Gauge | () tmEventsDroppedGauge = ();
 
 string throttleEndpointUrl = getConfigValue(THROTTLE_CONF_INSTANCE_ID, THROTTLE_ENDPOINT_URL, DEFAULT_THROTTLE_ENDPOINT_URL);
 string throttleEndpointbase64Header = getConfigValue(THROTTLE_CONF_INSTANCE_ID, THROTTLE_ENDPOINT_BASE64_HEADER,
 DEFAULT_THROTTLE_ENDPOINT_BASE64_HEADER);
 
-http:Client throttleEndpoint = new (throttleEndpointUrl,
-{
-    cache: {enabled: false},
-    secureSocket: {
-        trustStore: {
-            path: getConfigValue(LISTENER_CONF_INSTANCE_ID, TRUST_STORE_PATH, DEFAULT_TRUST_STORE_PATH),
-            password: getConfigValue(LISTENER_CONF_INSTANCE_ID, TRUST_STORE_PASSWORD, DEFAULT_TRUST_STORE_PASSWORD)
-        },
-        verifyHostname: getConfigBooleanValue(HTTP_CLIENTS_INSTANCE_ID, ENABLE_HOSTNAME_VERIFICATION, true)
-    }
-});
+# Starts the publisher, which publishes the request events to the traffic manager in batches over a persistent
+# connection.
+public function initTrafficManagerEventPublisher() {
+    int batchSize = getConfigIntValue(THROTTLE_CONF_INSTANCE_ID, THROTTLE_ENDPOINT_BATCH_SIZE,
+        DEFAULT_THROTTLE_ENDPOINT_BATCH_SIZE);
+    int flushInterval = getConfigIntValue(THROTTLE_CONF_INSTANCE_ID, THROTTLE_ENDPOINT_FLUSH_INTERVAL,
+        DEFAULT_THROTTLE_ENDPOINT_FLUSH_INTERVAL);
+    string trustStorePath = getConfigValue(LISTENER_CONF_INSTANCE_ID, TRUST_STORE_PATH, DEFAULT_TRUST_STORE_PATH);
+    string trustStorePassword = getConfigValue(LISTENER_CONF_INSTANCE_ID, TRUST_STORE_PASSWORD,
+        DEFAULT_TRUST_STORE_PASSWORD);
+    boolean verifyHostname = getConfigBooleanValue(HTTP_CLIENTS_INSTANCE_ID, ENABLE_HOSTNAME_VERIFICATION, true);
+    jInitTrafficManagerEventPublisher(java:fromString(throttleEndpointUrl), java:fromString(throttleEndpointbase64Header),
+        batchSize, flushInterval, java:fromString(trustStorePath), java:fromString(trustStorePassword), verifyHostname);
+    tmEventBatchSizeGauge = initializeGauge(TM_EVENT_BATCH_SIZE, TM_EVENT_BATCH_SIZE_DESC, ());
+    tmEventFlushLatencyGauge = initializeGauge(TM_EVENT_FLUSH_LATENCY, TM_EVENT_FLUSH_LATENCY_DESC, ());
+    tmEventsDroppedGauge = initializeGauge(TM_EVENTS_DROPPED, TM_EVENTS_DROPPED_DESC, ());
+}
 
+# Adds the request event to the batch, which is published to the traffic manager once it is full or the flush
+# interval has passed.
+#
+# + throttleEvent - Request event
 public function publishThrottleEventToTrafficManager(RequestStreamDTO throttleEvent) {
+    jPublishToTrafficManager(throttleEvent);
+    if (isMetricsEnabled) {
+        updateGauge(tmEventBatchSizeGauge, <float>jGetTrafficManagerBatchSize());
+        updateGauge(tmEventFlushLatencyGauge, <float>jGetTrafficManagerFlushLatency());
+        updateGauge(tmEventsDroppedGauge, <float>jGetTrafficManagerDroppedEventCount());
+    }
+}
 
-    json sendEvent = {
-        event: {
-            metaData: {},
-            correlationData: {},
-            payloadData: {
-                messageID: throttleEvent.messageID,
-                appKey: throttleEvent.appKey,
-                appTier: throttleEvent.appTier,
-                apiKey: throttleEvent.apiKey,
-                apiTier: throttleEvent.apiTier,
-                subscriptionKey: throttleEvent.subscriptionKey,
-                subscriptionTier: throttleEvent.subscriptionTier,
-                resourceKey: throttleEvent.resourceKey,
-                resourceTier: throttleEvent.resourceTier,
-                userId: throttleEvent.userId,
-                apiContext: throttleEvent.apiContext,
-                apiVersion: throttleEvent.apiVersion,
-                appTenant: throttleEvent.appTenant,
-                apiTenant: throttleEvent.apiTenant,
-                appId: throttleEvent.appId,
-                apiName: throttleEvent.apiName,
-                properties: throttleEvent.properties
-            }
-        }
-    };
-
-    http:Request clientRequest = new;
-    string encodedBasicAuthHeader = throttleEndpointbase64Header.toBytes().toBase64();
-    clientRequest.setHeader(AUTHORIZATION_HEADER, BASIC_PREFIX_WITH_SPACE + encodedBasicAuthHeader);
-    clientRequest.setPayload(sendEvent);
+public function jInitTrafficManagerEventPublisher(handle endpointUrl, handle credentials, int batchSize,
+    int flushInterval, handle trustStorePath, handle trustStorePassword, boolean verifyHostname) = @java:Method {
+    name: "initTrafficManagerEventPublisher",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
 
-    printDebug(KEY_THROTTLE_UTIL, "ThrottleMessage is sent to traffic manager");
+public function jPublishToTrafficManager(RequestStreamDTO throttleEvent) = @java:Method {
+    name: "publishToTrafficManager",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
 
-    var response = throttleEndpoint->post("/throttleEventReceiver", clientRequest);
+public function jGetTrafficManagerBatchSize() returns int = @java:Method {
+    name: "getTrafficManagerBatchSize",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
 
-    if (response is http:Response) {
-        printDebug(KEY_THROTTLE_UTIL, "\nStatus Code: " + response.statusCode.toString());
-    } else {
-        log:printError(response.reason(), err = response);
-    }
+public function jGetTrafficManagerFlushLatency() returns int = @java:Method {
+    name: "getTrafficManagerFlushLatency",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
 
-}
+public function jGetTrafficManagerDroppedEventCount() returns int = @java:Method {
+    name: "getTrafficManagerDroppedEventCount",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
@@ -49,8 +49,8 @@ public type AnalyticsRequestFilter object {
                             // throttle stream gRPC Analytics
                             AnalyticsStreamMessage message = createThrottleMessage(throttleAnalyticsEventDTO);
                             printDebug(KEY_ANALYTICS_FILTER, "gRPC throttle stream message created.");
-                            future<()> throttleDataPublishFuture = start dataToAnalytics(message);
-                            printDebug(KEY_ANALYTICS_FILTER, "gRPC throttle stream message published.");
+                            dataToAnalytics(message);
+                            printDebug(KEY_ANALYTICS_FILTER, "gRPC throttle stream message queued.");
                         }
                         if (isAnalyticsEnabled) {
                             EventDTO|error eventDTO  = trap getEventFromThrottleData(throttleAnalyticsEventDTO);
@@ -97,7 +97,7 @@ function doFilterFault(http:FilterContext context, string errorMessage) {
             //fault stream gRPC Analytics
             printDebug(KEY_ANALYTICS_FILTER, "gRPC fault stream message publishing for API : " + faultDTO.apiName);
             AnalyticsStreamMessage message = createFaultMessage(faultDTO);
-            future<()> faultDataPublishFuture = start dataToAnalytics(message);
+            dataToAnalytics(message);
             return;
         }
         EventDTO|error eventDTO = trap getEventFromFaultData(faultDTO);
@@ -123,7 +123,7 @@ function doFilterResponseData(http:Response response, http:FilterContext context
         //Response stream gRPC Analyrics
         AnalyticsStreamMessage message = createResponseMessage(requestResponseExecutionDTO);
         printDebug(KEY_ANALYTICS_FILTER,"gRPC response stream Data starting to publish");
-        future<()> responseDataPublishFuture = start dataToAnalytics(message);
+        dataToAnalytics(message);
         return;
     }
     if (requestResponseExecutionDTO is RequestResponseExecutionDTO) {
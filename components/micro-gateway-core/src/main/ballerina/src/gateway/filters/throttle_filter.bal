@@ -344,24 +344,8 @@ function generateThrottleEvent(http:Request req, http:FilterContext context, Aut
 
 function generateLocalThrottleEvent(http:Request req, http:FilterContext context, AuthenticationContext keyValidationDto, map<json> deployedPolicies)
     returns (RequestStreamDTO) {
+    // policies of the tiers are resolved by the native throttle counters, from the registered policies.
     RequestStreamDTO requestStreamDTO = setCommonThrottleData(req, context, keyValidationDto, deployedPolicies);
-    map<json> appPolicyDetails = getPolicyDetails(deployedPolicies, keyValidationDto.applicationTier, APP_LEVEL_PREFIX);
-    requestStreamDTO.appTierCount = <int>appPolicyDetails.count;
-    requestStreamDTO.appTierUnitTime = <int>appPolicyDetails.unitTime;
-    requestStreamDTO.appTierTimeUnit = appPolicyDetails.timeUnit.toString();
-    map<json> subPolicyDetails = getPolicyDetails(deployedPolicies, keyValidationDto.tier, SUB_LEVEL_PREFIX);
-    requestStreamDTO.subscriptionTierCount = <int>subPolicyDetails.count;
-    requestStreamDTO.subscriptionTierUnitTime = <int>subPolicyDetails.unitTime;
-    requestStreamDTO.subscriptionTierTimeUnit = subPolicyDetails.timeUnit.toString();
-    requestStreamDTO.stopOnQuota = <boolean>subPolicyDetails.stopOnQuota;
-    map<json> resourcePolicyDetails = getPolicyDetails(deployedPolicies, requestStreamDTO.resourceTier, RESOURCE_LEVEL_PREFIX);
-    requestStreamDTO.resourceTierCount = <int>resourcePolicyDetails.count;
-    requestStreamDTO.resourceTierUnitTime = <int>resourcePolicyDetails.unitTime;
-    requestStreamDTO.resourceTierTimeUnit = resourcePolicyDetails.timeUnit.toString();
-    map<json> apiPolicyDetails = getPolicyDetails(deployedPolicies, requestStreamDTO.apiTier, RESOURCE_LEVEL_PREFIX);
-    requestStreamDTO.apiTierCount = <int>apiPolicyDetails.count;
-    requestStreamDTO.apiTierUnitTime = <int>apiPolicyDetails.unitTime;
-    requestStreamDTO.apiTierTimeUnit = apiPolicyDetails.timeUnit.toString();
     setThrottleKeysWithVersion(requestStreamDTO, context);
     return requestStreamDTO;
 }
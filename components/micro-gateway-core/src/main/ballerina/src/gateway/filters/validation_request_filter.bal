@@ -70,14 +70,14 @@ function doValidationFilterRequest(http:Caller caller, http:Request request, htt
 
     printDebug(KEY_VALIDATION_FILTER, "The Request resource Path : " + requestPath + ", method : " + requestMethod);
        
-    //getting the payload of the request
-    string payloadVal = "";
+    //getting the payload of the request as bytes. The same bytes are kept in the entity and sent to the backend.
+    byte[] payloadVal = [];
 
-    var reqPayload  = request.getJsonPayload();
-    if (reqPayload is json) {
-        payloadVal = reqPayload.toJsonString();
+    var reqPayload  = request.getBinaryPayload();
+    if (reqPayload is byte[]) {
+        payloadVal = reqPayload;
     }
-    var valResult = requestValidate(requestPath, requestMethod, payloadVal, serviceName);
+    var valResult = requestPayloadValidate(requestPath, requestMethod, payloadVal, serviceName);
     if (valResult is handle && stringutils:equalsIgnoreCase(valResult.toString(), VALIDATION_STATUS)) {
         return true;
     } else {
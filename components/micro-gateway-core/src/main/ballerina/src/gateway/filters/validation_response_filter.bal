@@ -53,7 +53,7 @@ function doValidationFilterResponse(@tainted http:Response response, http:Filter
 
     string reqestPath = getRequestPathFromFilterContext(filterContext);
     string requestMethod = getRequestMethodFromFilterContext(filterContext);
-    string resPayload = "";
+    byte[] resPayload = [];
 
     //todo: Accept only the content types which are mentioned in the openAPI definition
     //If the content-type is not application/json, validation fiter is not applied.
@@ -65,12 +65,12 @@ function doValidationFilterResponse(@tainted http:Response response, http:Filter
 
     printDebug(KEY_VALIDATION_FILTER, "The Response validation is enabled.");
     string responseCode = response.statusCode.toString();
-    var payload = response.getJsonPayload();
-    if (payload is json)  {
-        resPayload = payload.toJsonString();
+    var payload = response.getBinaryPayload();
+    if (payload is byte[])  {
+        resPayload = payload;
     }
     string servName = filterContext.getServiceName();
-    var valResult = responseValidate(reqestPath, requestMethod, responseCode, resPayload, servName);
+    var valResult = responsePayloadValidate(reqestPath, requestMethod, responseCode, resPayload, servName);
     if (valResult is handle && stringutils:equalsIgnoreCase(valResult.toString(), VALIDATION_STATUS)) {
         return true;
     } else {
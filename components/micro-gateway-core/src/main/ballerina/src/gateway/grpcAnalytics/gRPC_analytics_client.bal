@@ -1,4 +1,5 @@
 import ballerina/grpc;
+import ballerina/runtime;
 import ballerina/task;
 
 grpc:StreamingClient gRPCEp = new grpc:StreamingClient();
@@ -21,6 +22,8 @@ service connectGRPC = service {
             pingMessage(gRPCPingMessage);
         } else {
             printInfo(KEY_GRPC_ANALYTICS, "Successfully connected to gRPC server.");
+            //replays the analytics messages spilled over to the disk while the server was unreachable
+            setAnalyticsMessageQueueConnected(true);
             // terminates the timer if gRPPCConnection variable assigned as false
             var stop = gRPCConnectTimer.stop();
             if (stop is error) {
@@ -65,6 +68,10 @@ public function initGRPCService(){
     } else {
         printDebug(KEY_GRPC_ANALYTICS, "Initialized gRPC connection sucessfully.");
         gRPCEp = gRPCres;
+        if (!isTaskStarted) {
+            //the reconnect task marks the queue as connected once the server is reachable
+            setAnalyticsMessageQueueConnected(true);
+        }
     }
 }
 
@@ -85,21 +92,79 @@ public function pingMessage(AnalyticsStreamMessage message){
         }
 }
 
-# `dataToAnalytics` function sends analytics data to the gRPC server
-# It sends AnalyticsStream message to  APIM_EVENT_RECEIVER Siddhi app's gRPCStream
+# `dataToAnalytics` function queues analytics data to be sent to the gRPC server
+# The queued messages are sent in batches by `publishAnalyticsMessages`. Messages are spilled over to the disk by
+# the publisher when the queue is full or the server is unreachable.
 # 
 # + message - 'AnalyticsStreamMessage' Message structure defined in the Analytics.proto file
 # 
 public function dataToAnalytics(AnalyticsStreamMessage message){
-    //publishes data to relevant stream
-    printDebug(KEY_GRPC_ANALYTICS, "gRPC analytics data publishing method executed.");
-    grpc:Error? connErr = gRPCEp->send(message);
-        if (connErr is grpc:Error) {
-            printInfo(KEY_GRPC_ANALYTICS, "Error from Connector: " + connErr.reason() + " - " + <string> connErr.detail()["message"]);
-           
+    enqueueAnalyticsMessage(message);
+}
+
+# `publishAnalyticsMessages` function sends the queued analytics messages to the gRPC server
+# It sends the messages in batches to APIM_EVENT_RECEIVER Siddhi app's gRPCStream, from a single strand. The messages
+# spilled over to the disk are replayed first. The messages of a batch which could not be sent are queued again.
+function publishAnalyticsMessages() {
+    int batchSize = getConfigIntValue(GRPC_ANALYTICS, GRPC_BATCH_SIZE, DEFAULT_GRPC_BATCH_SIZE);
+    int publishInterval = getConfigIntValue(GRPC_ANALYTICS, GRPC_PUBLISH_INTERVAL, DEFAULT_GRPC_PUBLISH_INTERVAL);
+    while (true) {
+        any[] batch = pollAnalyticsMessages(batchSize);
+        if (batch.length() == 0) {
+            runtime:sleep(publishInterval);
         } else {
-            printDebug(KEY_GRPC_ANALYTICS, "gRPC analytics data published successfully: ");
+            int sentCount = 0;
+            foreach any queuedMessage in batch {
+                AnalyticsStreamMessage | error message = toAnalyticsStreamMessage(queuedMessage);
+                if (message is AnalyticsStreamMessage) {
+                    grpc:Error? connErr = gRPCEp->send(message);
+                    if (connErr is grpc:Error) {
+                        printInfo(KEY_GRPC_ANALYTICS, "Error from Connector: " + connErr.reason() + " - " +
+                            <string> connErr.detail()["message"]);
+                        break;
+                    }
+                } else {
+                    printError(KEY_GRPC_ANALYTICS, "Dropping the malformed gRPC analytics message", message);
+                }
+                sentCount += 1;
+            }
+            completeAnalyticsMessageBatch(sentCount);
+            if (sentCount < batch.length()) {
+                //messages are spilled over to the disk until the reconnect task reaches the server
+                setAnalyticsMessageQueueConnected(false);
+                startGRPCReconnectTask();
+            } else {
+                printDebug(KEY_GRPC_ANALYTICS, "gRPC analytics data published successfully: ");
+            }
         }
+    }
+}
+
+# `toAnalyticsStreamMessage` function returns a message queued in memory as it is, and parses the JSON string of a
+# message replayed from the disk.
+#
+# + queuedMessage - Message taken from the analytics message queue
+# + return - 'AnalyticsStreamMessage' or an error if the message is malformed
+function toAnalyticsStreamMessage(any queuedMessage) returns AnalyticsStreamMessage | error {
+    if (queuedMessage is AnalyticsStreamMessage) {
+        return queuedMessage;
+    }
+    if (queuedMessage is string) {
+        json messageJson = check queuedMessage.fromJsonString();
+        return AnalyticsStreamMessage.constructFrom(messageJson);
+    }
+    return error("Unknown gRPC analytics message");
+}
+
+# `startGRPCReconnectTask` function starts the gRPC reconnect task, unless it is already running.
+function startGRPCReconnectTask() {
+    gRPCConnection = false;
+    if (isTaskStarted == false) {
+        var startResult = gRPCConnectTimer.start();
+        if (startResult is error ) {
+            printDebug(KEY_GRPC_ANALYTICS, "Starting the gRPC reconnect task is failed.");
+        }
+    }
 }
 
 service AnalyticsSendServiceMessageListener = service {
@@ -114,14 +179,10 @@ service AnalyticsSendServiceMessageListener = service {
         if (err.reason() == "{ballerina/grpc}UnavailableError" && gRPCConnection == false) {
             printDebug(KEY_GRPC_ANALYTICS, "gRPC unavaliable error identified.");
             printError(KEY_GRPC_ANALYTICS, "Error reported from server: " + err.reason() + " - " + <string> err.detail()["message"]);
+            //messages are spilled over to the disk until the reconnect task reaches the server
+            setAnalyticsMessageQueueConnected(false);
             //starts gRPC reconnect task
-            if (isTaskStarted == false) {
-                var startResult = gRPCConnectTimer.start();
-                if (startResult is error ) {
-                    printDebug(KEY_GRPC_ANALYTICS, "Starting the gRPC reconnect task is failed.");
-                    return;
-                }   
-            }
+            startGRPCReconnectTask();
         }
     }
 
@@ -15,21 +15,39 @@
 // under the License.
 
 import ballerina/auth;
+import ballerina/http;
 import ballerina/jwt;
 import ballerina/runtime;
+import ballerina/time;
 
+# Represents a JWT which passed the signature verification, cached until it expires.
+#
+# + validatorId - Identifies the validator configurations the JWT was verified against
+# + payload - Decoded payload of the JWT
+# + expiryTime - Expiry time of the JWT in milliseconds
+# + principal - Principal resolved from the JWT
+# + authenticationContexts - Authentication contexts resolved by the subscription validation, against the services
+type VerifiedJwt record {|
+    string validatorId;
+    jwt:JwtPayload payload;
+    int expiryTime;
+    runtime:Principal? principal;
+    map<AuthenticationContext> authenticationContexts = {};
+|};
 
 # Represents inbound JWT auth provider.
 #
 # + jwtValidatorConfig - JWT validator configurations
 # + inboundJwtAuthProvider - Reference to b7a inbound auth provider
 # + subscriptionValEnabled - Validate subscription
+# + validatorId - Identifies the configurations, against which the JWTs in the verified JWT cache were verified
 public type JwtAuthProvider object {
     *auth:InboundAuthProvider;
 
     public jwt:JwtValidatorConfig jwtValidatorConfig;
     public jwt:InboundJwtAuthProvider inboundJwtAuthProvider;
     public boolean subscriptionValEnabled;
+    string validatorId;
 
     # Provides authentication based on the provided JWT token.
     #
@@ -39,10 +57,22 @@ public type JwtAuthProvider object {
         self.jwtValidatorConfig = jwtValidatorConfig;
         self.inboundJwtAuthProvider = new (jwtValidatorConfig);
         self.subscriptionValEnabled = subscriptionValEnabled;
+        jwt:JwtTrustStoreConfig? trustStoreConfig = jwtValidatorConfig?.trustStoreConfig;
+        self.validatorId = (jwtValidatorConfig?.issuer ?: "") + "|" + jwtValidatorConfig?.audience.toString() + "|"
+            + (trustStoreConfig is jwt:JwtTrustStoreConfig ? trustStoreConfig.trustStore.path + "|"
+            + trustStoreConfig.certificateAlias : "") + "|" + subscriptionValEnabled.toString();
     }
 
-
     public function authenticate(string credential) returns @tainted (boolean | auth:Error) {
+        // a JWT verified earlier is authenticated without verifying its signature, until it expires
+        any verifiedJwt = getFromGatewayCache(VERIFIED_JWT_CACHE, credential);
+        if (verifiedJwt is VerifiedJwt && verifiedJwt.validatorId == self.validatorId) {
+            if (verifiedJwt.expiryTime > time:currentTime().time) {
+                printDebug(KEY_JWT_AUTH_PROVIDER, "jwt found in the verified jwt cache");
+                return self.authenticateFromVerifiedJwt(credential, verifiedJwt);
+            }
+            removeFromGatewayCache(VERIFIED_JWT_CACHE, credential);
+        }
         //Start a span attaching to the system span.
         int | error | () spanIdAuth = startSpan(JWT_PROVIDER_AUTHENTICATE);
         var handleVar = self.inboundJwtAuthProvider.authenticate(credential);
@@ -70,6 +100,7 @@ public type JwtAuthProvider object {
                     if (cachedJwt is jwt:CachedJwt) {
                         printDebug(KEY_JWT_AUTH_PROVIDER, "jwt found from the jwt cache");
                         jwt:JwtPayload jwtPayloadFromCache = cachedJwt.jwtPayload;
+                        setJwtClaimsContext(jwtToken, jwtPayloadFromCache);
                         jti = jwtPayloadFromCache["jti"];
                         if (jti is string) {
                             printDebug(KEY_JWT_AUTH_PROVIDER, "jti claim found in the jwt");
@@ -97,12 +128,12 @@ public type JwtAuthProvider object {
                         } else {
                             printDebug(KEY_JWT_AUTH_PROVIDER, "jti claim not found in the jwt");
                         }
-                        return validateSubscriptions(jwtToken, cachedJwt.jwtPayload, self.subscriptionValEnabled, isGRPC);
-                    } 
+                        return self.validateAndCacheSubscriptions(jwtToken, cachedJwt.jwtPayload, isGRPC);
+                    }
                     printDebug(KEY_JWT_AUTH_PROVIDER, "jwt not found in the jwt cache");
                     (jwt:JwtPayload | error) payload = getDecodedJWTPayload(jwtToken);
                     if (payload is jwt:JwtPayload) {
-                        return validateSubscriptions(jwtToken, payload, self.subscriptionValEnabled, isGRPC);
+                        return self.validateAndCacheSubscriptions(jwtToken, payload, isGRPC);
                     }
                 }
             }
@@ -112,8 +143,81 @@ public type JwtAuthProvider object {
             return prepareError("Failed to authenticate with jwt auth provider.", handleVar);
         }
     }
+
+    # Validates the subscriptions of a verified JWT and caches the JWT, along with the result of the subscription
+    # validation.
+    function validateAndCacheSubscriptions(string jwtToken, jwt:JwtPayload payload, boolean isGRPC)
+            returns @tainted (boolean | auth:Error) {
+        boolean | auth:Error result = validateSubscriptions(jwtToken, payload, self.subscriptionValEnabled, isGRPC);
+        int? exp = payload?.exp;
+        if (exp is int) {
+            runtime:InvocationContext invocationContext = runtime:getInvocationContext();
+            runtime:Principal? principal = invocationContext?.principal;
+            VerifiedJwt verifiedJwt = {
+                validatorId: self.validatorId,
+                payload: payload,
+                expiryTime: exp * 1000,
+                principal: principal is runtime:Principal ? copyPrincipal(principal) : ()
+            };
+            if (result is boolean && result) {
+                verifiedJwt.authenticationContexts[getSubscriptionKey(invocationContext, isGRPC)] =
+                    (<AuthenticationContext>invocationContext.attributes[AUTHENTICATION_CONTEXT]).clone();
+            }
+            putInGatewayCache(VERIFIED_JWT_CACHE, jwtToken, verifiedJwt);
+        }
+        return result;
+    }
+
+    # Authenticates a JWT from the verified JWT cache. The revocation of the JWT is checked on each request, and the
+    # subscriptions are validated once per service.
+    function authenticateFromVerifiedJwt(string jwtToken, VerifiedJwt verifiedJwt)
+            returns @tainted (boolean | auth:Error) {
+        runtime:InvocationContext invocationContext = runtime:getInvocationContext();
+        string? jti = verifiedJwt.payload?.jti;
+        if (jti is string && retrieveFromRevokedTokenMap(jti) == true) {
+            printDebug(KEY_JWT_AUTH_PROVIDER, "JWT Token is revoked");
+            setErrorMessageToInvocationContext(API_AUTH_INVALID_CREDENTIALS);
+            return false;
+        }
+        runtime:Principal? principal = verifiedJwt.principal;
+        if (principal is runtime:Principal) {
+            invocationContext.principal = copyPrincipal(principal);
+        }
+        setJwtClaimsContext(jwtToken, verifiedJwt.payload);
+        invocationContext.authenticationContext = {scheme: AUTH_SCHEME_JWT, authToken: jwtToken};
+        boolean isGRPC = invocationContext.attributes.hasKey(IS_GRPC);
+        string subscriptionKey = getSubscriptionKey(invocationContext, isGRPC);
+        AuthenticationContext? authenticationContext = verifiedJwt.authenticationContexts[subscriptionKey];
+        if (authenticationContext is AuthenticationContext) {
+            invocationContext.attributes[AUTHENTICATION_CONTEXT] = authenticationContext.clone();
+            invocationContext.attributes[KEY_TYPE_ATTR] = authenticationContext.keyType;
+            return true;
+        }
+        boolean | auth:Error result = validateSubscriptions(jwtToken, verifiedJwt.payload, self.subscriptionValEnabled,
+            isGRPC);
+        if (result is boolean && result) {
+            // the cached entry is shared by the concurrent requests, hence it is replaced instead of being updated
+            map<AuthenticationContext> authenticationContexts = verifiedJwt.authenticationContexts.clone();
+            authenticationContexts[subscriptionKey] =
+                (<AuthenticationContext>invocationContext.attributes[AUTHENTICATION_CONTEXT]).clone();
+            VerifiedJwt updatedJwt = {
+                validatorId: verifiedJwt.validatorId,
+                payload: verifiedJwt.payload,
+                expiryTime: verifiedJwt.expiryTime,
+                principal: verifiedJwt.principal,
+                authenticationContexts: authenticationContexts
+            };
+            putInGatewayCache(VERIFIED_JWT_CACHE, jwtToken, updatedJwt);
+        }
+        return result;
+    }
 };
 
+function getSubscriptionKey(runtime:InvocationContext invocationContext, boolean isGRPC) returns string {
+    string serviceName = <string>invocationContext.attributes[http:SERVICE_NAME];
+    return isGRPC ? serviceName + ":" + IS_GRPC : serviceName;
+}
+
 public function validateSubscriptions(string jwtToken, jwt:JwtPayload payload, boolean subscriptionValEnabled, boolean isGRPC) 
         returns @tainted (boolean | auth:Error) {
     boolean subscriptionValidated = false;
@@ -141,3 +245,24 @@ public function validateSubscriptions(string jwtToken, jwt:JwtPayload payload, b
     setErrorMessageToInvocationContext(API_AUTH_FORBIDDEN);
     return prepareError("Failed to decode the JWT.");
 }
+
+function copyPrincipal(runtime:Principal principal) returns runtime:Principal {
+    runtime:Principal copy = {};
+    string? userId = principal?.userId;
+    if (userId is string) {
+        copy.userId = userId;
+    }
+    string? username = principal?.username;
+    if (username is string) {
+        copy.username = username;
+    }
+    map<any>? claims = principal?.claims;
+    if (claims is map<any>) {
+        copy.claims = claims;
+    }
+    string[]? scopes = principal?.scopes;
+    if (scopes is string[]) {
+        copy.scopes = scopes.clone();
+    }
+    return copy;
+}
@@ -142,10 +142,14 @@ public type OAuth2KeyValidationProvider object {
                     authorized = apiKeyValidationDtoFromcache.authorized;
                     apiKeyValidationDto = apiKeyValidationDtoFromcache;
                     printDebug(KEY_OAUTH_PROVIDER, "Authorized value from the token cache: " + authorized.toString());
+                    if (isRefreshDue(GATEWAY_KEY_VALIDATION_CACHE, cacheKey)) {
+                        printDebug(KEY_OAUTH_PROVIDER, "Refreshing the key validation information ahead of the expiry.");
+                        future<()> refreshTask = start self.refreshKeyValidation(apiRequestMetaDataDto);
+                    }
                 } else {
                     printDebug(KEY_OAUTH_PROVIDER, "Access token not found in the invalid token cache."
                     + " Calling the key validation service.");
-                    [authorized, apiKeyValidationDto] = self.invokeKeyValidation(apiRequestMetaDataDto);
+                    [authorized, apiKeyValidationDto] = self.validateKey(apiRequestMetaDataDto);
                 }
             } else {
                 printDebug(KEY_OAUTH_PROVIDER, "Access token not found in the gateway token cache.");
@@ -158,13 +162,13 @@ public type OAuth2KeyValidationProvider object {
                 } else {
                     printDebug(KEY_OAUTH_PROVIDER, "Access token not found in the invalid token cache."
                     + " Calling the key validation service.");
-                    [authorized, apiKeyValidationDto] = self.invokeKeyValidation(apiRequestMetaDataDto);
+                    [authorized, apiKeyValidationDto] = self.validateKey(apiRequestMetaDataDto);
                 }
             }
 
         } else {
             printDebug(KEY_OAUTH_PROVIDER, "Gateway cache disabled. Calling the key validation service.");
-            [authorized, apiKeyValidationDto] = self.invokeKeyValidation(apiRequestMetaDataDto);
+            [authorized, apiKeyValidationDto] = self.validateKey(apiRequestMetaDataDto);
         }
         if (authorized) {
             // set username
@@ -173,6 +177,38 @@ public type OAuth2KeyValidationProvider object {
         return apiKeyValidationDto;
     }
 
+    # Calls the key validation service, unless the same key is being validated for another request, in which case
+    # the result of that validation is used.
+    #
+    # + apiRequestMetaDataDto - Request metadata of the key
+    # + return - Whether the key is authorized and the key validation information
+    public function validateKey(APIRequestMetaDataDto apiRequestMetaDataDto) returns @tainted [boolean,
+    APIKeyValidationDto] {
+        string cacheKey = getAccessTokenCacheKey(apiRequestMetaDataDto);
+        any | error result = executeOnce(KEY_VALIDATION_CALL_PREFIX + cacheKey, function () returns any | error {
+            return trap self.invokeKeyValidation(apiRequestMetaDataDto);
+        });
+        if (result is [boolean, APIKeyValidationDto]) {
+            return result;
+        } else if (result is error) {
+            panic result;
+        }
+        panic error("Unexpected key validation result for the key: " + mask(cacheKey));
+    }
+
+    # Validates a key in the background, to refresh its cached key validation information before it expires.
+    #
+    # + apiRequestMetaDataDto - Request metadata of the key
+    public function refreshKeyValidation(APIRequestMetaDataDto apiRequestMetaDataDto) {
+        [boolean, APIKeyValidationDto] | error result = trap self.validateKey(apiRequestMetaDataDto);
+        if (result is error) {
+            printError(KEY_OAUTH_PROVIDER, "Failed to refresh the key validation information", result);
+        } else if (!result[0]) {
+            // the key is no longer valid, hence the information cached earlier is discarded
+            self.gatewayCache.removeFromGatewayKeyValidationCache(getAccessTokenCacheKey(apiRequestMetaDataDto));
+        }
+    }
+
     public function doKeyValidation(APIRequestMetaDataDto apiRequestMetaDataDto) returns @tainted (xml | error) {
         http:Request keyValidationRequest = new;
         http:Response keyValidationResponse = new;
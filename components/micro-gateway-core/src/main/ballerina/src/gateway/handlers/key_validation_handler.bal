@@ -71,7 +71,7 @@ public type KeyValidationHandler object {
         string authHeaderName = getAuthorizationHeader(invocationContext);
         boolean|auth:Error authenticationResult = false;
         if (self.externalKM) {
-            authenticationResult = self.introspectProvider.authenticate(credential);
+            authenticationResult = self.introspect(credential);
             if (authenticationResult is auth:Error) {
                 return prepareAuthenticationError("Failed to authenticate with introspect auth provider.", authenticationResult);
             } else {
@@ -108,4 +108,25 @@ public type KeyValidationHandler object {
         }
     }
 
+    # Authenticates a credential with the introspect provider. Concurrent requests with the same credential share a
+    # single introspection call.
+    #
+    # + credential - The credential passed as the Bearer Auth header
+    # + return - Returns `true` if the credential is active. Else, returns `false` or the `auth:Error`
+    function introspect(string credential) returns boolean | auth:Error {
+        any | error result = executeOnce(INTROSPECTION_CALL_PREFIX + credential, function () returns any | error {
+            return trap self.introspectProvider.authenticate(credential);
+        });
+        if (result is boolean && result) {
+            // the provider sets the principal of the request it authenticates, which is resolved from the
+            // introspection cache once the call in flight has completed
+            return self.introspectProvider.authenticate(credential);
+        } else if (result is boolean || result is auth:Error) {
+            return result;
+        } else if (result is error) {
+            panic result;
+        }
+        panic error("Unexpected introspection result");
+    }
+
 };
@@ -94,6 +94,10 @@ public function initiateGatewayConfigurations(http:ListenerConfiguration config)
     config.host = getConfigValue(LISTENER_CONF_INSTANCE_ID, LISTENER_CONF_HOST, DEFAULT_CONF_HOST);
     initiateKeyManagerConfigurations();
     printDebug(KEY_GW_LISTNER, "Initialized key manager configurations");
+    if (isMetricsEnabled) {
+        future<()> cacheMetricsTask = start publishGatewayCacheMetrics([GATEWAY_TOKEN_CACHE,
+            GATEWAY_KEY_VALIDATION_CACHE, INVALID_TOKEN_CACHE, VERIFIED_JWT_CACHE]);
+    }
     printDebug(KEY_GW_LISTNER, "Initialized gateway caches");
     //TODO : migrate this method and re enable
     initializeAnalytics();
@@ -0,0 +1,151 @@
+// Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerinax/java;
+
+# Initializes the writer of the file upload analytics events, which keeps the event file open and writes the
+# events in batches.
+function initAnalyticsEventWriter() {
+    string instanceId = isOldAnalyticsEnabled ? OLD_FILE_UPLOAD_ANALYTICS : FILE_UPLOAD_ANALYTICS;
+    int bufferSize = getConfigIntValue(instanceId, ANALYTICS_EVENT_BUFFER_SIZE, DEFAULT_ANALYTICS_EVENT_BUFFER_SIZE);
+    int maxBufferSize = getConfigIntValue(instanceId, ANALYTICS_MAX_EVENT_BUFFER_SIZE,
+        DEFAULT_ANALYTICS_MAX_EVENT_BUFFER_SIZE);
+    int flushInterval = getConfigIntValue(instanceId, ANALYTICS_EVENT_FLUSH_INTERVAL,
+        DEFAULT_ANALYTICS_EVENT_FLUSH_INTERVAL);
+    boolean syncOnFlush = getConfigBooleanValue(instanceId, ANALYTICS_EVENT_SYNC_ON_FLUSH,
+        DEFAULT_ANALYTICS_EVENT_SYNC_ON_FLUSH);
+    string eventFileFormat = getConfigValue(instanceId, ANALYTICS_EVENT_FILE_FORMAT, DEFAULT_ANALYTICS_EVENT_FILE_FORMAT);
+    boolean compressOnWrite = getConfigBooleanValue(instanceId, ANALYTICS_COMPRESS_ON_WRITE,
+        DEFAULT_ANALYTICS_COMPRESS_ON_WRITE);
+    string filePath = retrieveConfig(API_USAGE_PATH, API_USAGE_DIR) + PATH_SEPERATOR + TEMP_API_USAGE_FILE;
+    jInitAnalyticsEventWriter(java:fromString(filePath), java:fromString(eventFileFormat), bufferSize, maxBufferSize,
+        flushInterval, syncOnFlush, compressOnWrite);
+}
+
+# Returns whether the analytics events are compressed as they are written, in which case the rotated event files
+# are ready to be uploaded.
+#
+# + return - `true` if the events are compressed on write
+function isAnalyticsCompressedOnWrite() returns boolean {
+    return jIsAnalyticsCompressedOnWrite();
+}
+
+# Moves the analytics event file, after writing the buffered events to it. A binary event file is converted into the
+# text format read by the analytics server as it is compressed into the destination zip file, with the `.zip`
+# extension. An event file compressed on write is completed as a zip file.
+#
+# + filePath - Path of the event file
+# + destination - Path to move the event file to
+# + return - An error if the file could not be moved
+function rotateAnalyticsEventFile(string filePath, string destination) returns error? {
+    return jRotateAnalyticsEventFile(java:fromString(filePath), java:fromString(destination));
+}
+
+function jInitAnalyticsEventWriter(handle filePath, handle eventFileFormat, int bufferSize, int maxBufferSize,
+    int flushInterval, boolean syncOnFlush, boolean compressOnWrite) = @java:Method {
+    name: "initAnalyticsEventWriter",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsDataWriter"
+} external;
+
+function jWriteAnalyticsEvent(EventDTO event) = @java:Method {
+    name: "writeEvent",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsDataWriter"
+} external;
+
+function jIsAnalyticsCompressedOnWrite() returns boolean = @java:Method {
+    name: "isCompressOnWrite",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsDataWriter"
+} external;
+
+function jFlushAnalyticsEvents() = @java:Method {
+    name: "flush",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsDataWriter"
+} external;
+
+function jRotateAnalyticsEventFile(handle filePath, handle destination) returns error? = @java:Method {
+    name: "rotate",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsDataWriter"
+} external;
+
+# Initializes the queue of the gRPC analytics messages, which spills over to segment files in the disk when it is
+# full or the gRPC server is unreachable.
+function initAnalyticsMessageQueue() {
+    string spillDirectory = getConfigValue(GRPC_ANALYTICS, GRPC_SPILL_DIRECTORY, DEFAULT_GRPC_SPILL_DIRECTORY);
+    int queueSize = getConfigIntValue(GRPC_ANALYTICS, GRPC_QUEUE_SIZE, DEFAULT_GRPC_QUEUE_SIZE);
+    int maxSegmentSize = getConfigIntValue(GRPC_ANALYTICS, GRPC_MAX_SPILL_SEGMENT_SIZE,
+        DEFAULT_GRPC_MAX_SPILL_SEGMENT_SIZE);
+    int maxSpillSize = getConfigIntValue(GRPC_ANALYTICS, GRPC_MAX_SPILL_SIZE, DEFAULT_GRPC_MAX_SPILL_SIZE);
+    var result = jInitAnalyticsMessageQueue(java:fromString(spillDirectory), queueSize, maxSegmentSize, maxSpillSize);
+    if (result is error) {
+        printError(KEY_GRPC_ANALYTICS, "Failed to initialize the gRPC analytics message queue", result);
+    }
+}
+
+# Queues a gRPC analytics message. The message is only encoded if it is spilled over to the disk.
+#
+# + message - Analytics message
+function enqueueAnalyticsMessage(AnalyticsStreamMessage message) {
+    jEnqueueAnalyticsMessage(message);
+}
+
+# Takes the next batch of gRPC analytics messages, which must be completed by `completeAnalyticsMessageBatch`.
+#
+# + maxBatchSize - Maximum number of messages taken
+# + return - Analytics messages, and JSON strings for the messages replayed from the disk. Empty if there are no
+# messages to be sent
+function pollAnalyticsMessages(int maxBatchSize) returns any[] {
+    return jPollAnalyticsMessages(maxBatchSize);
+}
+
+# Completes the batch of gRPC analytics messages taken last. The messages which were not sent are queued again.
+#
+# + sentCount - Number of messages sent from the start of the batch
+function completeAnalyticsMessageBatch(int sentCount) {
+    jCompleteAnalyticsMessageBatch(sentCount);
+}
+
+# Sets whether the gRPC analytics server is connected. Messages are spilled over to the disk while it is not.
+#
+# + connected - `true` if the server is connected
+function setAnalyticsMessageQueueConnected(boolean connected) {
+    jSetAnalyticsMessageQueueConnected(connected);
+}
+
+function jInitAnalyticsMessageQueue(handle spillDirectory, int queueSize, int maxSegmentSize, int maxSpillSize)
+    returns error? = @java:Method {
+    name: "initAnalyticsMessageQueue",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsMessageBuffer"
+} external;
+
+function jEnqueueAnalyticsMessage(AnalyticsStreamMessage message) = @java:Method {
+    name: "enqueue",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsMessageBuffer"
+} external;
+
+function jPollAnalyticsMessages(int maxBatchSize) returns any[] = @java:Method {
+    name: "pollBatch",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsMessageBuffer"
+} external;
+
+function jCompleteAnalyticsMessageBatch(int sentCount) = @java:Method {
+    name: "completeBatch",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsMessageBuffer"
+} external;
+
+function jSetAnalyticsMessageQueueConnected(boolean connected) = @java:Method {
+    name: "setConnected",
+    class: "org.wso2.micro.gateway.core.analytics.AnalyticsMessageBuffer"
+} external;
@@ -0,0 +1,124 @@
+// Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/observe;
+import ballerina/runtime;
+import ballerinax/java;
+
+int cacheRefreshAheadTime = getConfigIntValue(CACHING_ID, TOKEN_CACHE_REFRESH_AHEAD_TIME,
+    DEFAULT_TOKEN_CACHE_REFRESH_AHEAD_TIME);
+
+# Creates a gateway cache with the capacity, the maximum weight and the expiry time configured under
+# `[caching.<name>]`. The capacity and the expiry time default to the global token cache configurations.
+#
+# + name - Name of the cache
+# + return - `true` once the cache is created
+public function initGatewayCache(string name) returns boolean {
+    string instanceId = CACHING_ID + "." + name;
+    int capacity = getConfigIntValue(instanceId, CACHE_CAPACITY,
+        getConfigIntValue(CACHING_ID, TOKEN_CACHE_CAPACITY, DEFAULT_TOKEN_CACHE_CAPACITY));
+    int expiryTime = getConfigIntValue(instanceId, CACHE_EXPIRY,
+        getConfigIntValue(CACHING_ID, TOKEN_CACHE_EXPIRY, DEFAULT_TOKEN_CACHE_EXPIRY));
+    int maxWeight = getConfigIntValue(instanceId, CACHE_MAX_WEIGHT, DEFAULT_CACHE_MAX_WEIGHT);
+    jInitGatewayCache(java:fromString(name), capacity, maxWeight, expiryTime);
+    return true;
+}
+
+public function getFromGatewayCache(string name, string key) returns any {
+    return jGetFromGatewayCache(java:fromString(name), java:fromString(key));
+}
+
+public function putInGatewayCache(string name, string key, any value) {
+    jPutInGatewayCache(java:fromString(name), java:fromString(key), value);
+}
+
+# Checks whether a cached entry is about to expire, within the refresh ahead time configured under `[caching]`.
+# Only one of the concurrent callers is asked to refresh the entry.
+#
+# + name - Name of the cache
+# + key - Key of the entry
+# + return - `true` if the caller should refresh the entry
+public function isRefreshDue(string name, string key) returns boolean {
+    return jIsRefreshDue(java:fromString(name), java:fromString(key), cacheRefreshAheadTime);
+}
+
+public function removeFromGatewayCache(string name, string key) {
+    jRemoveFromGatewayCache(java:fromString(name), java:fromString(key));
+}
+
+# Publishes the statistics of the gateway caches periodically, as gauges tagged with the cache name.
+#
+# + names - Names of the caches
+public function publishGatewayCacheMetrics(string[] names) {
+    map<observe:Gauge | ()> gauges = {};
+    foreach string name in names {
+        map<string> tags = {"cache": name};
+        gauges[name + CACHE_HITS] = initializeGauge(CACHE_HITS, CACHE_HITS_DESC, tags);
+        gauges[name + CACHE_MISSES] = initializeGauge(CACHE_MISSES, CACHE_MISSES_DESC, tags);
+        gauges[name + CACHE_EVICTIONS] = initializeGauge(CACHE_EVICTIONS, CACHE_EVICTIONS_DESC, tags);
+        gauges[name + CACHE_REJECTIONS] = initializeGauge(CACHE_REJECTIONS, CACHE_REJECTIONS_DESC, tags);
+        gauges[name + CACHE_SIZE] = initializeGauge(CACHE_SIZE, CACHE_SIZE_DESC, tags);
+        gauges[name + CACHE_WEIGHTED_SIZE] = initializeGauge(CACHE_WEIGHTED_SIZE, CACHE_WEIGHTED_SIZE_DESC, tags);
+    }
+    while (true) {
+        foreach string name in names {
+            handle cacheName = java:fromString(name);
+            updateGauge(gauges[name + CACHE_HITS], <float>jGetGatewayCacheStatistic(cacheName,
+                java:fromString("hitCount")));
+            updateGauge(gauges[name + CACHE_MISSES], <float>jGetGatewayCacheStatistic(cacheName,
+                java:fromString("missCount")));
+            updateGauge(gauges[name + CACHE_EVICTIONS], <float>jGetGatewayCacheStatistic(cacheName,
+                java:fromString("evictionCount")));
+            updateGauge(gauges[name + CACHE_REJECTIONS], <float>jGetGatewayCacheStatistic(cacheName,
+                java:fromString("rejectionCount")));
+            updateGauge(gauges[name + CACHE_SIZE], <float>jGetGatewayCacheStatistic(cacheName,
+                java:fromString("size")));
+            updateGauge(gauges[name + CACHE_WEIGHTED_SIZE], <float>jGetGatewayCacheStatistic(cacheName,
+                java:fromString("weightedSize")));
+        }
+        runtime:sleep(CACHE_METRICS_PUBLISH_INTERVAL);
+    }
+}
+
+function jInitGatewayCache(handle name, int capacity, int maximumWeight, int expiryTime) = @java:Method {
+    name: "initCache",
+    class: "org.wso2.micro.gateway.core.cache.GatewayCache"
+} external;
+
+function jGetFromGatewayCache(handle name, handle key) returns any = @java:Method {
+    name: "get",
+    class: "org.wso2.micro.gateway.core.cache.GatewayCache"
+} external;
+
+function jPutInGatewayCache(handle name, handle key, any value) = @java:Method {
+    name: "put",
+    class: "org.wso2.micro.gateway.core.cache.GatewayCache"
+} external;
+
+function jIsRefreshDue(handle name, handle key, int refreshAheadTime) returns boolean = @java:Method {
+    name: "isRefreshDue",
+    class: "org.wso2.micro.gateway.core.cache.GatewayCache"
+} external;
+
+function jRemoveFromGatewayCache(handle name, handle key) = @java:Method {
+    name: "remove",
+    class: "org.wso2.micro.gateway.core.cache.GatewayCache"
+} external;
+
+function jGetGatewayCacheStatistic(handle name, handle statistic) returns int = @java:Method {
+    name: "getStatistic",
+    class: "org.wso2.micro.gateway.core.cache.GatewayCache"
+} external;
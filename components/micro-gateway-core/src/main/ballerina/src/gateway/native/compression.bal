@@ -27,11 +27,25 @@ public function compress(string dirPath, string destDir) returns error? {
     return jCompress(sourceDir, destZipDir);
 }
 
-
+# Compresses the pending files of a directory, which are named with the given entry name followed by an optional
+# suffix, into zip files ready to be uploaded. When a backlog of files has built up, they are compressed in parallel.
+#
+# + directory - Path of the directory of the files
+# + entryName - Name of the zip entry of each zip file
+# + return - An error if a file could not be compressed
+public function compressPendingFiles(string directory, string entryName) returns error? {
+    string instanceId = isOldAnalyticsEnabled ? OLD_FILE_UPLOAD_ANALYTICS : FILE_UPLOAD_ANALYTICS;
+    int parallelism = getConfigIntValue(instanceId, ANALYTICS_COMPRESSION_PARALLELISM,
+        DEFAULT_ANALYTICS_COMPRESSION_PARALLELISM);
+    return jCompressPendingFiles(java:fromString(directory), java:fromString(entryName), parallelism);
+}
 
 function jCompress(handle sourceDir, handle destZipDir) returns error? = @java:Method {
     name: "compress",
     class: "org.wso2.micro.gateway.core.compression.Compress"
 } external;
 
-
+function jCompressPendingFiles(handle directory, handle entryName, int parallelism) returns error? = @java:Method {
+    name: "compressPendingFiles",
+    class: "org.wso2.micro.gateway.core.compression.Compress"
+} external;
@@ -18,45 +18,83 @@
 import ballerinax/java;
 import ballerina/http;
 
-# Compresses a directory.
-#
-# + className - Full qualified class name of the java interceptor
-# + return - Index of the intyerceptor in the interceptor array.
-public function loadInterceptorClass(string className) returns int {
-    handle class = java:fromString(className);
-    return jLoadInterceptorClass(class);
-}
+const string JAVA_INTERCEPTOR_PREFIX = "java:";
 
-public function initiateInterceptorArray(int numberOfResources) {
-    jInitiateInterceptorArray(4 * numberOfResources);
+# Registers the java interceptors of a resource path as a chain, which is invoked in a single call. Interceptors
+# written in ballerina are left out, as they are invoked by the resource itself.
+#
+# + interceptorNames - Names of the interceptors, in the order they are executed. Java interceptors are prefixed
+# with `java:`
+# + return - Id of the interceptor chain, or -1 if there are no java interceptors.
+public function registerInterceptorChain(string[] interceptorNames) returns int {
+    string[] classNames = [];
+    foreach string interceptorName in interceptorNames {
+        if (interceptorName.startsWith(JAVA_INTERCEPTOR_PREFIX)) {
+            classNames[classNames.length()] = interceptorName.substring(JAVA_INTERCEPTOR_PREFIX.length(),
+            interceptorName.length());
+        }
+    }
+    if (classNames.length() == 0) {
+        return -1;
+    }
+    return jRegisterInterceptorChain(classNames);
 }
 
-public function invokeRequestInterceptor(int index, http:Caller caller, http:Request request) returns boolean {
-    return jInvokeRequestInterceptor(index, caller, request);
+# Invokes the java request interceptors of a resource.
+#
+# + chainId - Id of the interceptor chain
+# + caller - Caller of the request
+# + request - The request
+# + return - `false` if an interceptor has responded to the caller, `true` otherwise.
+public function invokeRequestInterceptors(int chainId, http:Caller caller, http:Request request) returns boolean {
+    int position = 0;
+    while (position >= 0) {
+        boolean | int | error result = jInvokeRequestInterceptors(chainId, position, caller, request);
+        if (result is error) {
+            panic result;
+        } else if (result is boolean) {
+            return result;
+        }
+        // the chain returns the position to continue from, if the strand was blocked on an interceptor
+        position = <int>result;
+    }
+    return true;
 }
 
-public function invokeResponseInterceptor(int index, http:Caller caller, http:Response response) returns boolean {
-    return jInvokeResponseInterceptor(index, caller, response);
+# Invokes the java response interceptors of a resource.
+#
+# + chainId - Id of the interceptor chain
+# + caller - Caller of the request
+# + response - The response
+# + return - `false` if an interceptor has responded to the caller, `true` otherwise.
+public function invokeResponseInterceptors(int chainId, http:Caller caller, http:Response response) returns boolean {
+    int position = 0;
+    while (position >= 0) {
+        boolean | int | error result = jInvokeResponseInterceptors(chainId, position, caller, response);
+        if (result is error) {
+            panic result;
+        } else if (result is boolean) {
+            return result;
+        }
+        // the chain returns the position to continue from, if the strand was blocked on an interceptor
+        position = <int>result;
+    }
+    return true;
 }
 
-function jInvokeRequestInterceptor(int index, http:Caller caller, http:Request request) returns boolean = @java:Method {
-    name: "invokeRequestInterceptor",
+function jRegisterInterceptorChain(string[] classNames) returns int = @java:Method {
+    name: "registerInterceptorChain",
     class: "org.wso2.micro.gateway.core.interceptors.InterceptorInvoker"
 } external;
 
-function jInvokeResponseInterceptor(int index, http:Caller caller, http:Response response) returns boolean = @java:Method {
-    name: "invokeResponseInterceptor",
+function jInvokeRequestInterceptors(int chainId, int position, http:Caller caller, http:Request request)
+returns boolean | int | error = @java:Method {
+    name: "invokeRequestInterceptors",
     class: "org.wso2.micro.gateway.core.interceptors.InterceptorInvoker"
 } external;
 
-
-function jLoadInterceptorClass(handle className) returns int = @java:Method {
-    name: "loadInterceptorClass",
+function jInvokeResponseInterceptors(int chainId, int position, http:Caller caller, http:Response response)
+returns boolean | int | error = @java:Method {
+    name: "invokeResponseInterceptors",
     class: "org.wso2.micro.gateway.core.interceptors.InterceptorInvoker"
 } external;
-
-function jInitiateInterceptorArray(int arraySize) = @java:Method {
-    name: "initiateInterceptorArray",
-    class: "org.wso2.micro.gateway.core.interceptors.InterceptorInvoker"
-} external;
-
@@ -0,0 +1,45 @@
+// Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerinax/java;
+
+# Initializes the store of revoked tokens, which expires each revoked token once its ttl is over.
+public function initRevokedTokenStore() {
+    int defaultTTL = getConfigIntValue(TOKEN_REVOCATION_CONF_INSTANCE_ID, REVOKED_TOKEN_DEFAULT_TTL, DEFAULT_REVOKED_TOKEN_TTL);
+    boolean bloomFilterEnabled = getConfigBooleanValue(TOKEN_REVOCATION_CONF_INSTANCE_ID,
+        REVOKED_TOKEN_BLOOM_FILTER_ENABLED, DEFAULT_REVOKED_TOKEN_BLOOM_FILTER_ENABLED);
+    int bloomFilterCapacity = getConfigIntValue(TOKEN_REVOCATION_CONF_INSTANCE_ID, REVOKED_TOKEN_BLOOM_FILTER_CAPACITY,
+        DEFAULT_REVOKED_TOKEN_BLOOM_FILTER_CAPACITY);
+    int cleanUpInterval = getConfigIntValue(TOKEN_REVOCATION_CONF_INSTANCE_ID, REVOKED_TOKEN_CLEANUP_INTERVAL,
+        DEFAULT_REVOKED_TOKEN_CLEANUP_INTERVAL);
+    jInitRevokedTokenStore(bloomFilterEnabled, bloomFilterCapacity, defaultTTL, cleanUpInterval);
+}
+
+public function jInitRevokedTokenStore(boolean bloomFilterEnabled, int bloomFilterCapacity, int defaultTTL,
+    int cleanUpInterval) = @java:Method {
+    name: "initRevokedTokenStore",
+    class: "org.wso2.micro.gateway.core.revocation.RevokedTokenReceiver"
+} external;
+
+public function jAddRevokedToken(handle jti, handle ttl) = @java:Method {
+    name: "addRevokedToken",
+    class: "org.wso2.micro.gateway.core.revocation.RevokedTokenReceiver"
+} external;
+
+public function jIsTokenRevoked(handle jti) returns boolean = @java:Method {
+    name: "isTokenRevoked",
+    class: "org.wso2.micro.gateway.core.revocation.RevokedTokenReceiver"
+} external;
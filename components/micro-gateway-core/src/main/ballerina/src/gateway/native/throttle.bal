@@ -14,19 +14,85 @@
 // specific language governing permissions and limitations
 // under the License.
 
+import ballerina/config;
+import ballerina/observe;
 import ballerinax/java;
 
+observe:Gauge | () throttleEventQueueDepthGauge = ();
+observe:Gauge | () throttleEventDropCountGauge = ();
+
 public function initThrottleDataPublisher() {
-    int processThreadPoolCoreSize = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, PROCESS_THREAD_POOL_CORE_SIZE, DEFAULT_PROCESS_THREAD_POOL_CORE_SIZE);
-    int processThreadPoolMaximumSize = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, PROCESS_THREAD_POOL_MAXIMUM_SIZE, DEFAULT_PROCESS_THREAD_POOL_MAXIMUM_SIZE);
-    int processThreadPoolKeepAliveTime = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, PROCESS_THREAD_POOL_KEEP_ALIVE_TIME, DEFAULT_PROCESS_THREAD_POOL_KEEP_ALIVE_TIME);
+    warnRemovedThrottleConfigs();
+    int eventQueueSize = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_EVENT_QUEUE_SIZE, DEFAULT_THROTTLE_EVENT_QUEUE_SIZE);
+    int eventProcessorCount = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_EVENT_PROCESSOR_COUNT, DEFAULT_THROTTLE_EVENT_PROCESSOR_COUNT);
+    int eventBatchSize = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_EVENT_BATCH_SIZE, DEFAULT_THROTTLE_EVENT_BATCH_SIZE);
+    int eventQueueBlockTimeout = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_EVENT_QUEUE_BLOCK_TIMEOUT, DEFAULT_THROTTLE_EVENT_QUEUE_BLOCK_TIMEOUT);
     int cleanUpFrequency = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_CLEANUP_FREQUENCY, DEFAULT_THROTTLE_CLEANUP_FREQUENCY);
-    jInitThrottleDataPublisher (processThreadPoolCoreSize,
-        processThreadPoolMaximumSize, processThreadPoolKeepAliveTime, cleanUpFrequency);
+    string windowAlgorithm = getConfigValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_WINDOW_ALGORITHM, DEFAULT_THROTTLE_WINDOW_ALGORITHM);
+    string eventOverflowPolicy = getConfigValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_EVENT_OVERFLOW_POLICY, DEFAULT_THROTTLE_EVENT_OVERFLOW_POLICY);
+    string counterStore = getConfigValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_COUNTER_STORE, DEFAULT_THROTTLE_COUNTER_STORE);
+    int maxThrottleKeys = getConfigIntValue(LOCAL_THROTTLE_CONF_INSTANCE_ID, THROTTLE_MAX_KEYS, DEFAULT_THROTTLE_MAX_KEYS);
+    jInitThrottleDataPublisher(eventQueueSize, eventProcessorCount, eventBatchSize, eventQueueBlockTimeout,
+        cleanUpFrequency, java:fromString(windowAlgorithm), java:fromString(eventOverflowPolicy),
+        java:fromString(counterStore), maxThrottleKeys);
+    throttleEventQueueDepthGauge = initializeGauge(THROTTLE_EVENT_QUEUE_DEPTH, THROTTLE_EVENT_QUEUE_DEPTH_DESC, ());
+    throttleEventDropCountGauge = initializeGauge(THROTTLE_EVENTS_DROPPED, THROTTLE_EVENTS_DROPPED_DESC, ());
+    if (enabledGlobalTMEventPublishing) {
+        initTrafficManagerEventPublisher();
+    } else if (getConfigBooleanValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASING_ENABLED,
+        DEFAULT_QUOTA_LEASING_ENABLED)) {
+        initQuotaLeasing();
+    }
+}
+
+# Logs a warning for each of the removed thread pool configurations which is still set. The throttle events are
+# processed by `eventProcessorCount` threads from a bounded queue of `eventQueueSize` events, hence the thread pool
+# sizes do not map to the new configurations and are ignored.
+function warnRemovedThrottleConfigs() {
+    string[] removedProperties = [PROCESS_THREAD_POOL_CORE_SIZE, PROCESS_THREAD_POOL_MAXIMUM_SIZE,
+        PROCESS_THREAD_POOL_KEEP_ALIVE_TIME];
+    foreach string property in removedProperties {
+        if (config:contains(LOCAL_THROTTLE_CONF_INSTANCE_ID + "." + property)) {
+            printWarn(KEY_THROTTLE_UTIL, "Configuration " + LOCAL_THROTTLE_CONF_INSTANCE_ID + "." + property
+                + " is deprecated and ignored. Use " + THROTTLE_EVENT_PROCESSOR_COUNT + " and "
+                + THROTTLE_EVENT_QUEUE_SIZE + " to size the throttle event processing.");
+        }
+    }
+}
+
+# Enforces the quota of the throttle keys leased from a lease server, which is shared by the gateway nodes, instead
+# of the quota of the policies.
+function initQuotaLeasing() {
+    string leaseServerUrl = getConfigValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASE_SERVER_URL, DEFAULT_QUOTA_LEASE_SERVER_URL);
+    string credentials = getConfigValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASE_SERVER_CREDENTIALS, DEFAULT_QUOTA_LEASE_SERVER_CREDENTIALS);
+    int leaseSize = getConfigIntValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASE_SIZE, DEFAULT_QUOTA_LEASE_SIZE);
+    int renewThreshold = getConfigIntValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASE_RENEW_THRESHOLD, DEFAULT_QUOTA_LEASE_RENEW_THRESHOLD);
+    int idleTimeout = getConfigIntValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASE_IDLE_TIMEOUT, DEFAULT_QUOTA_LEASE_IDLE_TIMEOUT);
+    int threadCount = getConfigIntValue(QUOTA_LEASING_CONF_INSTANCE_ID, QUOTA_LEASE_CLIENT_THREAD_COUNT, DEFAULT_QUOTA_LEASE_CLIENT_THREAD_COUNT);
+    string trustStorePath = getConfigValue(LISTENER_CONF_INSTANCE_ID, TRUST_STORE_PATH, DEFAULT_TRUST_STORE_PATH);
+    string trustStorePassword = getConfigValue(LISTENER_CONF_INSTANCE_ID, TRUST_STORE_PASSWORD, DEFAULT_TRUST_STORE_PASSWORD);
+    boolean verifyHostname = getConfigBooleanValue(HTTP_CLIENTS_INSTANCE_ID, ENABLE_HOSTNAME_VERIFICATION, true);
+    jInitQuotaLeasing(java:fromString(leaseServerUrl), java:fromString(credentials), leaseSize, renewThreshold,
+        idleTimeout, threadCount, java:fromString(trustStorePath), java:fromString(trustStorePassword), verifyHostname);
+}
+
+# Registers the deployed throttle policies, against which the local throttle events are evaluated.
+#
+# + deployedPolicies - Throttle policies against the policy name prefixed with the policy level
+public function registerThrottlePolicies(map<json> deployedPolicies) {
+    foreach var [name, policy] in deployedPolicies.entries() {
+        map<json> policyDetails = <map<json>>policy;
+        jAddThrottlePolicy(java:fromString(name), <int>policyDetails.count, <int>policyDetails.unitTime,
+            java:fromString(policyDetails.timeUnit.toString()), <boolean>policyDetails.stopOnQuota);
+    }
 }
 
 public function publishNonThrottledEvent(RequestStreamDTO throttleEvent) {
     jPublishNonThrottledEvent(throttleEvent);
+    if (isMetricsEnabled) {
+        updateGauge(throttleEventQueueDepthGauge, <float>jGetThrottleEventQueueDepth());
+        updateGauge(throttleEventDropCountGauge, <float>jGetDroppedThrottleEventCount());
+    }
 }
 
 public function isResourceThrottled(string resourceKey) returns boolean {
@@ -69,14 +135,35 @@ public function jIsApiLevelThrottled(handle apiKey) returns boolean = @java:Meth
     class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
 } external;
 
-public function jInitThrottleDataPublisher(int processThreadPoolCoreSize, int processThreadPoolMaximumSize,
-    int processThreadPoolKeepAliveTime, int cleanUpFrequency) = @java:Method {
+public function jInitThrottleDataPublisher(int eventQueueSize, int eventProcessorCount, int eventBatchSize,
+    int eventQueueBlockTimeout, int cleanUpFrequency, handle windowAlgorithm, handle eventOverflowPolicy,
+    handle counterStore, int maxThrottleKeys) = @java:Method {
     name: "initThrottleDataReceiver",
     class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
 } external;
 
+public function jGetThrottleEventQueueDepth() returns int = @java:Method {
+    name: "getEventQueueDepth",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
+
+public function jGetDroppedThrottleEventCount() returns int = @java:Method {
+    name: "getDroppedEventCount",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
+
+public function jAddThrottlePolicy(handle name, int count, int unitTime, handle timeUnit, boolean stopOnQuota) = @java:Method {
+    name: "addThrottlePolicy",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
 
 public function jPublishNonThrottledEvent(RequestStreamDTO throttleEvent) = @java:Method {
     name: "processNonThrottledEvent",
     class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
 } external;
+
+public function jInitQuotaLeasing(handle leaseServerUrl, handle credentials, int leaseSize, int renewThreshold,
+    int idleTimeout, int threadCount, handle trustStorePath, handle trustStorePassword, boolean verifyHostname) = @java:Method {
+    name: "initQuotaLeasing",
+    class: "org.wso2.micro.gateway.core.throttle.ThrottleDataReceiver"
+} external;
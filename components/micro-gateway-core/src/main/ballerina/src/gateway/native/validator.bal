@@ -50,6 +50,39 @@ public function responseValidate(string reqPath, string requestMethod, string re
      return jResponseValidate(requestPath, reqMethod, resCode, responsePayload, servName);
 }
 
+# Validate request payload using the raw bytes of the request entity. The payload is parsed directly from the bytes,
+# without converting it to a json value or a string.
+#
+# + reqPath - request resource path
+# + requestMethod - request method
+# + payload - request payload bytes
+# + serviceName - serviceName
+# + return - status of the validation
+public function requestPayloadValidate(string reqPath, string requestMethod, byte[] payload, string serviceName)
+    returns handle | error {
+     handle requestPath = java:fromString(reqPath);
+     handle reqMethod = java:fromString(requestMethod);
+     handle servName = java:fromString(serviceName);
+     return jRequestPayloadValidate(requestPath, reqMethod, payload, servName);
+}
+
+# Validate response payload using the raw bytes of the response entity.
+#
+# + reqPath - request resource path
+# + requestMethod - request method
+# + responseCode - response status code
+# + response - response payload bytes
+# + serviceName - Service Name
+# + return - status of the validation
+public function responsePayloadValidate(string reqPath, string requestMethod, string responseCode, byte[] response,
+                                                                           string serviceName) returns handle | error {
+     handle requestPath = java:fromString(reqPath);
+     handle reqMethod = java:fromString(requestMethod);
+     handle resCode = java:fromString(responseCode);
+     handle servName = java:fromString(serviceName);
+     return jResponsePayloadValidate(requestPath, reqMethod, resCode, response, servName);
+}
+
 # Extract Resource artifcats.
 #
 # + projectName - project Name
@@ -78,3 +111,15 @@ function jResponseValidate(handle resourcePath, handle reqMethod, handle resCode
      name: "validateResponse",
      class: "org.wso2.micro.gateway.core.validation.Validate"
 } external;
+
+function jRequestPayloadValidate(handle resourcePath, handle reqMethod, byte[] requestPayload, handle serviceName)
+                                                                            returns handle | error = @java:Method {
+     name: "validateRequestPayload",
+     class: "org.wso2.micro.gateway.core.validation.Validate"
+} external;
+
+function jResponsePayloadValidate(handle resourcePath, handle reqMethod, handle resCode, byte[] res, handle serName)
+                        returns handle | error = @java:Method {
+     name: "validateResponsePayload",
+     class: "org.wso2.micro.gateway.core.validation.Validate"
+} external;
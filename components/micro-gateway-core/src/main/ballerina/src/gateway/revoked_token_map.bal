@@ -14,6 +14,10 @@
 // specific language governing permissions and limitations
 // under the License.
 
+import ballerinax/java;
+
+// Revoked tokens added by the custom persistent revocation retrievers through getRevokedTokenMap(). The revoked
+// tokens received by the gateway are kept in the revoked token store, which expires them once their ttl is over.
 map<string> revokedTokenMap = {};
 
 public function getRevokedTokenMap() returns map<string> {
@@ -22,16 +26,11 @@ public function getRevokedTokenMap() returns map<string> {
 
 public function addToRevokedTokenMap(map<string> revokedTokens) returns (boolean | ()) {
     foreach var [revokedTokenKey, revokedTokenValue] in revokedTokens.entries() {
-        revokedTokenMap[<string>revokedTokenKey] = <@untainted>revokedTokenValue;
+        jAddRevokedToken(java:fromString(revokedTokenKey), java:fromString(revokedTokenValue));
     }
     return true;
 }
 
 public function retrieveFromRevokedTokenMap(string token) returns (boolean | ()) {
-    foreach var [revokedTokenKey, revokedTokenValue] in revokedTokenMap.entries() {
-        if (token == revokedTokenKey) {
-            return true;
-        }
-    }
-    return false;
+    return jIsTokenRevoked(java:fromString(token)) || revokedTokenMap.hasKey(token);
 }
@@ -171,7 +171,9 @@ function initializegRPCAnalytics() {
     printDebug(KEY_GRPC_ANALYTICS, "gRPC retry time  : " + gRPCReconnectTime.toString());
 
     if (isGrpcAnalyticsEnabled) {
+        initAnalyticsMessageQueue();
         initGRPCService();
+        future<()> publishTask = start publishAnalyticsMessages();     // gRPC analytics publishing task
     }
 }
 
@@ -191,6 +193,7 @@ function initializeAnalytics() {
 
 function initStreamPublisher() {
     printDebug(KEY_UTILS, "Subscribing writing method to event stream");
+    initAnalyticsEventWriter();
     eventStream.subscribe(writeEventToFile);
 }
 
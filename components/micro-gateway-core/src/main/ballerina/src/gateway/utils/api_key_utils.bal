@@ -115,15 +115,12 @@ public function validateAPIKey(string apiKeyToken) returns boolean {
         printDebug(API_KEY_UTIL, "Set authContext scheme to " + AUTH_SCHEME_API_KEY);
         authContext.scheme = AUTH_SCHEME_API_KEY;
     }
-    //decode jwt
-    [jwt:JwtHeader, jwt:JwtPayload] | jwt:Error decodedJWT = jwt:decodeJwt(apiKeyToken);
-    if (decodedJWT is error) {
-        printError(API_KEY_UTIL, "Error while decoding the JWT token");
-        return false;
-    }
     //get payload
     (jwt:JwtPayload | error) payload = getDecodedJWTPayload(apiKeyToken);
-    if (payload is jwt:JwtPayload) {
+    if (payload is error) {
+        printError(API_KEY_UTIL, "Error while decoding the JWT token");
+        return false;
+    } else {
         json subscribedAPIList = [];
         //get allowed apis
         map<json>? customClaims = payload?.customClaims;
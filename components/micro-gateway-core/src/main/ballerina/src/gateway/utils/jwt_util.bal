@@ -132,20 +132,46 @@ public function handleSubscribedAPIs(string apiKeyToken, jwt:JwtPayload payload,
     return false;
 }
 
+# Represents the claims of the JWT of a request, which are decoded once and shared by the authentication, the
+# subscription validation and the backend JWT propagation of the request.
+#
+# + jwtToken - The JWT
+# + payload - Decoded payload of the JWT
+type JwtClaimsContext record {|
+    string jwtToken;
+    jwt:JwtPayload payload;
+|};
+
 public function getDecodedJWTPayload(string jwtToken) returns @tainted (jwt:JwtPayload | error) {
+    any claimsContext = runtime:getInvocationContext().attributes[JWT_CLAIMS_CONTEXT];
+    if (claimsContext is JwtClaimsContext && claimsContext.jwtToken == jwtToken) {
+        return claimsContext.payload;
+    }
     //decode jwt
+    jwt:JwtPayload payload;
     var cachedJwt = trap <jwt:CachedJwt>jwtCache.get(jwtToken);
     if (cachedJwt is jwt:CachedJwt) {
         printDebug(JWT_UTIL, "jwt found from the jwt cache");
-        return cachedJwt.jwtPayload;
-
+        payload = cachedJwt.jwtPayload;
     } else {
         [jwt:JwtHeader, jwt:JwtPayload] | jwt:Error decodedJWT = jwt:decodeJwt(jwtToken);
         if (decodedJWT is error) {
             printDebug(JWT_UTIL, "Error while decoding the JWT token");
             return error("Error while decoding the JWT token");
         }
-        [jwt:JwtHeader, jwt:JwtPayload][jwtHeader, payload] = <[jwt:JwtHeader,jwt:JwtPayload]> decodedJWT;
-        return payload;
+        [jwt:JwtHeader, jwt:JwtPayload][jwtHeader, decodedPayload] = <[jwt:JwtHeader,jwt:JwtPayload]> decodedJWT;
+        payload = decodedPayload;
     }
+    setJwtClaimsContext(jwtToken, payload);
+    return payload;
+}
+
+# Keeps the decoded payload of the JWT of the request in the invocation context, to be used by the rest of the
+# request flow without decoding the JWT again.
+#
+# + jwtToken - The JWT
+# + payload - Decoded payload of the JWT
+public function setJwtClaimsContext(string jwtToken, jwt:JwtPayload payload) {
+    JwtClaimsContext claimsContext = {jwtToken: jwtToken, payload: payload};
+    runtime:getInvocationContext().attributes[JWT_CLAIMS_CONTEXT] = claimsContext;
 }
@@ -0,0 +1,49 @@
+// Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+// Calls in flight against their keys. Concurrent requests for the same key wait for the call in flight, instead of
+// making their own call.
+map<future<any | error>> callsInFlight = {};
+
+# Executes a call, unless a call with the same key is in flight, in which case the result of that call is returned.
+# Hence a cache miss on a key used by many concurrent requests results in a single call to the backing service.
+#
+# + key - Key identifying the call
+# + call - The call, which should not panic
+# + return - Result of the call
+public function executeOnce(string key, function () returns any | error call) returns any | error {
+    future<any | error> result;
+    boolean inFlight = false;
+    lock {
+        future<any | error>? callInFlight = callsInFlight[key];
+        if (callInFlight is future<any | error>) {
+            result = callInFlight;
+            inFlight = true;
+        } else {
+            result = start call();
+            callsInFlight[key] = result;
+        }
+    }
+    any | error value = wait result;
+    if (!inFlight) {
+        lock {
+            _ = callsInFlight.remove(key);
+        }
+    } else {
+        printDebug(KEY_UTILS, "Used the result of the call in flight for the key: " + mask(key));
+    }
+    return value;
+}
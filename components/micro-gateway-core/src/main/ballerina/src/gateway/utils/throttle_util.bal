@@ -84,8 +84,8 @@ public function isRequestThrottled(string key) returns [boolean, boolean] {
 public function publishNonThrottleEvent(RequestStreamDTO throttleEvent) {
     //Publish throttle event to traffic manager
     if (enabledGlobalTMEventPublishing == true) {
-        future<()> publishedEvent = start publishThrottleEventToTrafficManager(throttleEvent);
-        printDebug(KEY_THROTTLE_UTIL, "Throttle out event is sent to the traffic manager.");
+        publishThrottleEventToTrafficManager(throttleEvent);
+        printDebug(KEY_THROTTLE_UTIL, "Throttle out event is added to the traffic manager batch.");
     }
     //Publish throttle event to internal policies
     else {
@@ -121,12 +121,10 @@ public function getThrottleMetaData(ThrottleAnalyticsEventDTO dto) returns strin
     return dto.metaClientType;
 }
 
-public function getThrottlePayloadData(ThrottleAnalyticsEventDTO dto) returns string {
-    return dto.userName + OBJ + dto.userTenantDomain + OBJ + dto.apiName + OBJ +
-    dto.apiVersion + OBJ + dto.apiContext + OBJ + dto.apiCreator + OBJ + dto.apiCreatorTenantDomain + OBJ +
-    dto.applicationId + OBJ + dto.applicationName + OBJ + dto.subscriber + OBJ + dto.throttledOutReason + OBJ + dto.
-    gatewayType + OBJ + dto.throttledTime.toString() + OBJ + dto.hostname;
-
+public function getThrottlePayloadFields(ThrottleAnalyticsEventDTO dto) returns string[] {
+    return [dto.userName, dto.userTenantDomain, dto.apiName, dto.apiVersion, dto.apiContext, dto.apiCreator,
+    dto.apiCreatorTenantDomain, dto.applicationId, dto.applicationName, dto.subscriber, dto.throttledOutReason,
+    dto.gatewayType, dto.throttledTime.toString(), dto.hostname];
 }
 
 public function getEventFromThrottleData(ThrottleAnalyticsEventDTO dto) returns EventDTO | error {
@@ -135,7 +133,7 @@ public function getEventFromThrottleData(ThrottleAnalyticsEventDTO dto) returns
     eventDTO.timeStamp = getCurrentTime();
     eventDTO.metaData = getThrottleMetaData(dto);
     eventDTO.correlationData = "null";
-    eventDTO.payloadData = getThrottlePayloadData(dto);
+    eventDTO.payloadFields = getThrottlePayloadFields(dto);
     return eventDTO;
 }
 
@@ -397,42 +397,38 @@ public function getCurrentTimeForAnalytics() returns int {
 public function rotateFile(string filePath) returns string | error {
     string uuid = system:uuid();
     string fileLocation = retrieveConfig(API_USAGE_PATH, API_USAGE_DIR) + PATH_SEPERATOR;
-    int filePathLength = filePath.length();
-    //to remove the .tmp extension from the filePath ('api-usage-data.dat.tmp'). This is the filename required by the
-    //analytics node "api-usage-data.dat". It is required to rename the file before compressing in order to avoid
-    //the data loss.
-    string eventFilePath = filePath.substring(0, filePathLength - 4) ;
     int rotatingTimeStamp = getCurrentTime();
-    var renameFileResult = file:rename(filePath, eventFilePath);
-    if (renameFileResult is error) {
-        printError(KEY_UTILS, "Failed to rename file", renameFileResult);
-    }
-    //Until the compression happens, the file will have the name <fileNameWithoutExtension> with '.tmp' extension.
-    //After the compression is completed successfully, the file will be renamed to <zipName>. Only the files
-    //with .zip extension will be uploaded. Hence the partially compressed files will not be uploaded to the analytics
-    //node.
     string fileNameWithoutExtension = fileLocation + API_USAGE_FILE + "." + rotatingTimeStamp.toString() + "." +
         uuid;
-    string tempZipName = fileNameWithoutExtension + TMP_EXTENSION;
     string zipName = fileNameWithoutExtension + ZIP_EXTENSION;
-    var compressResult = compress(eventFilePath, tempZipName);
+    if (isAnalyticsCompressedOnWrite()) {
+        //The event file is already a zip file, with the entry 'api-usage-data.dat' required by the analytics node.
+        //It is completed and renamed to <zipName>, hence rotating does not compress the file again.
+        var rotateResult = rotateAnalyticsEventFile(filePath, zipName);
+        if (rotateResult is error) {
+            printError(KEY_UTILS, "Failed to rotate file", rotateResult);
+            return rotateResult;
+        }
+        printInfo(KEY_UTILS, "File rotated successfully");
+        return zipName;
+    }
+    //The buffered events are written before the file is renamed, and the events received meanwhile are written to a
+    //new file. It is required to rename the file before compressing in order to avoid the data loss.
+    var renameFileResult = rotateAnalyticsEventFile(filePath, fileNameWithoutExtension);
+    if (renameFileResult is error) {
+        printError(KEY_UTILS, "Failed to rename file", renameFileResult);
+        return renameFileResult;
+    }
+    //The renamed file is compressed into <zipName>, along with the files which failed to be compressed on the earlier
+    //rotations. Until the compression happens, a zip file has the '.tmp' extension. Only the files with .zip
+    //extension will be uploaded. Hence the partially compressed files will not be uploaded to the analytics node.
+    var compressResult = compressPendingFiles(fileLocation, API_USAGE_FILE);
     if (compressResult is error) {
         printError(KEY_UTILS, "Failed to compress the file", compressResult);
         return compressResult;
-    } else {
-        printInfo(KEY_UTILS, "File compressed successfully");
-        var renameZipResult = file:rename(tempZipName, zipName);
-        var deleteFileResult = file:remove(eventFilePath);
-        if (renameZipResult is error) {
-            printError(KEY_UTILS, "Failed to rename file", renameZipResult);
-        }
-        if (deleteFileResult is ()) {
-            printInfo(KEY_UTILS, "Existing file deleted successfully");
-        } else {
-            printError(KEY_UTILS, "Failed to delete file", deleteFileResult);
-        }
-        return zipName;
     }
+    printInfo(KEY_UTILS, "File compressed successfully");
+    return zipName;
 }
 
 # Retrieve external configurations defined against a key.
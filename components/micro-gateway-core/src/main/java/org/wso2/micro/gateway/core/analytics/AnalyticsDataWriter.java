@@ -0,0 +1,196 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.ballerinalang.jvm.values.MapValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.micro.gateway.core.compression.Compress;
+import org.wso2.micro.gateway.core.utils.ErrorUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the analytics events of the file upload analytics through a shared {@link AnalyticsEventWriter}, which is
+ * flushed by the flushing task, periodically and once its buffer fills up.
+ */
+public class AnalyticsDataWriter {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsDataWriter.class);
+    private static final String STREAM_ID = "streamId";
+    private static final String TIMESTAMP = "timeStamp";
+    private static final String META_DATA = "metaData";
+    private static final String CORRELATION_DATA = "correlationData";
+    private static final String PAYLOAD_FIELDS = "payloadFields";
+    private static final String BINARY_FILE_EXTENSION = ".bin";
+    private static final String ZIP_FILE_EXTENSION = ".zip";
+
+    private static volatile AnalyticsEventWriter eventWriter;
+    private static ScheduledExecutorService flushExecutor;
+    private static Runnable flushTask;
+    // number of dropped events already logged, accessed by the flushing task only
+    private static long loggedDroppedEventCount;
+
+    private AnalyticsDataWriter() {
+    }
+
+    /**
+     * Initialize the analytics event writer.
+     *
+     * @param filePath        path of the event file
+     * @param format          format of the event file, "text" or "binary"
+     * @param bufferSize      number of bytes buffered before the events are written to the file
+     * @param maxBufferSize   maximum number of bytes buffered while the events are being written to the file, beyond
+     *                        which the events are dropped
+     * @param flushInterval   maximum time in milliseconds events are kept in the buffer
+     * @param syncOnFlush     whether to force the written events to the storage device
+     * @param compressOnWrite whether to compress the events as they are written. Not supported with the binary
+     *                        format, which is converted into the text format as it is compressed on rotation.
+     */
+    public static synchronized void initAnalyticsEventWriter(String filePath, String format, long bufferSize,
+            long maxBufferSize, long flushInterval, boolean syncOnFlush, boolean compressOnWrite) {
+        if (eventWriter != null) {
+            return;
+        }
+        AnalyticsEventFormat eventFormat = AnalyticsEventFormat.fromString(format);
+        if (compressOnWrite && eventFormat == AnalyticsEventFormat.BINARY) {
+            log.warn("Analytics events can not be compressed on write in the binary format. Event files are "
+                    + "compressed on rotation.");
+            compressOnWrite = false;
+        }
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(Paths.get(filePath), eventFormat,
+                (int) Math.min(Integer.MAX_VALUE, bufferSize), (int) Math.min(Integer.MAX_VALUE, maxBufferSize),
+                syncOnFlush, compressOnWrite);
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Analytics Event Flushing Task");
+            t.setDaemon(true);
+            return t;
+        });
+        flushTask = () -> {
+            try {
+                writer.flush();
+            } catch (IOException | RuntimeException e) {
+                // an exception would cancel the subsequent executions of the scheduled task
+                log.error("Error while writing the analytics events to " + filePath, e);
+            }
+            long droppedEventCount = writer.getDroppedEventCount();
+            if (droppedEventCount > loggedDroppedEventCount) {
+                log.warn((droppedEventCount - loggedDroppedEventCount) + " analytics events were dropped as the "
+                        + "event buffer was full");
+                loggedDroppedEventCount = droppedEventCount;
+            }
+        };
+        long interval = Math.max(1, flushInterval);
+        flushExecutor.scheduleWithFixedDelay(flushTask, interval, interval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.error("Error while writing the analytics events to " + filePath, e);
+            }
+        }));
+        eventWriter = writer;
+    }
+
+    /**
+     * Write an analytics event.
+     *
+     * @param event analytics EventDTO
+     */
+    public static void writeEvent(MapValue event) {
+        AnalyticsEventWriter writer = eventWriter;
+        if (writer == null) {
+            log.error("Analytics event writer is not initialized. Event is dropped.");
+            return;
+        }
+        if (writer.write(event.getStringValue(STREAM_ID), event.getIntValue(TIMESTAMP),
+                event.getStringValue(META_DATA), event.getStringValue(CORRELATION_DATA),
+                Arrays.asList(event.getArrayValue(PAYLOAD_FIELDS).getStringArray()))) {
+            // the buffer is full, hence the events are written by the flushing task without waiting for its interval
+            flushExecutor.execute(flushTask);
+        }
+    }
+
+    /**
+     * Write the buffered analytics events to the event file.
+     */
+    public static void flush() {
+        AnalyticsEventWriter writer = eventWriter;
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                log.error("Error while writing the analytics events", e);
+            }
+        }
+    }
+
+    /**
+     * Check whether the analytics events are compressed as they are written, in which case the rotated event files
+     * are zip files ready to be uploaded.
+     *
+     * @return true if the events are compressed on write
+     */
+    public static boolean isCompressOnWrite() {
+        AnalyticsEventWriter writer = eventWriter;
+        return writer != null && writer.isCompressOnWrite();
+    }
+
+    /**
+     * Move the event file to be compressed and uploaded. Events written meanwhile are written to a new event file.
+     * When compressing on write, the destination is the zip file to be uploaded. A binary event file is converted
+     * into the text format read by the analytics server as it is compressed, straight into the zip file to be
+     * uploaded, which is the destination with the .zip extension.
+     *
+     * @param filePath    path of the event file
+     * @param destination path to move the event file to
+     * @return error if the file could not be rotated
+     */
+    public static Object rotate(String filePath, String destination) {
+        Path destinationPath = Paths.get(destination);
+        AnalyticsEventWriter writer = eventWriter;
+        if (writer == null) {
+            writer = new AnalyticsEventWriter(Paths.get(filePath), AnalyticsEventFormat.TEXT, 1, false);
+        }
+        try {
+            if (writer.getFormat() != AnalyticsEventFormat.BINARY) {
+                writer.rotate(destinationPath);
+                return null;
+            }
+            Path binaryPath = Paths.get(destination + BINARY_FILE_EXTENSION);
+            if (writer.rotate(binaryPath)) {
+                long[] count = new long[1];
+                Compress.compress(Paths.get(destination + ZIP_FILE_EXTENSION), writer.getZipEntryName(),
+                        outputStream -> count[0] = AnalyticsEventReader.convertToText(binaryPath, outputStream));
+                Files.delete(binaryPath);
+                if (log.isDebugEnabled()) {
+                    log.debug("Converted " + count[0] + " analytics events of the binary event file");
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            return ErrorUtils.getBallerinaError("Error occurred while rotating the analytics event file", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Formats of the file analytics event file.
+ * <p>
+ * {@link #TEXT} is the format read by the analytics server, where an event is a line of the form
+ * {@code streamId-KS-<id>-ES-timestamp-KS-<time>-ES-metadata-KS-<meta>-ES-correlationData-KS-<data>-ES-payLoadData-KS-
+ * <field>-OS-<field>...}.
+ * </p>
+ * <p>
+ * {@link #BINARY} starts with the {@link #BINARY_FILE_HEADER} and an event is a record of a 4 byte record length,
+ * followed by the stream id, an 8 byte timestamp, the meta data, the correlation data and each payload field until
+ * the end of the record. Strings are UTF-8 bytes prefixed with their length as a varint. Binary files are read with
+ * {@link AnalyticsEventReader}.
+ * </p>
+ */
+public enum AnalyticsEventFormat {
+    TEXT {
+        @Override
+        int getMaxEncodedLength(String streamId, String metaData, String correlationData,
+                List<String> payloadFields) {
+            return TEXT_KEYS_LENGTH + 20 + 3 * (streamId.length() + metaData.length() + correlationData.length())
+                    + getMaxPayloadLength(payloadFields, PAYLOAD_SEPARATOR.length());
+        }
+
+        @Override
+        void encode(ByteBuffer buffer, String streamId, long timestamp, String metaData, String correlationData,
+                List<String> payloadFields) {
+            buffer.put(STREAM_ID_KEY);
+            putUtf8(buffer, streamId, 0, streamId.length());
+            buffer.put(TIMESTAMP_KEY);
+            putDecimal(buffer, timestamp);
+            buffer.put(META_DATA_KEY);
+            putUtf8(buffer, metaData, 0, metaData.length());
+            buffer.put(CORRELATION_DATA_KEY);
+            putUtf8(buffer, correlationData, 0, correlationData.length());
+            buffer.put(PAYLOAD_DATA_KEY);
+            for (int i = 0; i < payloadFields.size(); i++) {
+                if (i > 0) {
+                    buffer.put(PAYLOAD_SEPARATOR_BYTES);
+                }
+                String field = payloadFields.get(i);
+                putUtf8(buffer, field, 0, field.length());
+            }
+            buffer.put((byte) '\n');
+        }
+    },
+    BINARY {
+        @Override
+        int getMaxEncodedLength(String streamId, String metaData, String correlationData,
+                List<String> payloadFields) {
+            return 4 + 8 + 3 * MAX_VARINT_LENGTH + 3 * (streamId.length() + metaData.length()
+                    + correlationData.length()) + getMaxPayloadLength(payloadFields, MAX_VARINT_LENGTH);
+        }
+
+        @Override
+        void encode(ByteBuffer buffer, String streamId, long timestamp, String metaData, String correlationData,
+                List<String> payloadFields) {
+            int start = buffer.position();
+            buffer.position(start + 4);
+            putString(buffer, streamId, 0, streamId.length());
+            buffer.putLong(timestamp);
+            putString(buffer, metaData, 0, metaData.length());
+            putString(buffer, correlationData, 0, correlationData.length());
+            for (int i = 0; i < payloadFields.size(); i++) {
+                String field = payloadFields.get(i);
+                putString(buffer, field, 0, field.length());
+            }
+            buffer.putInt(start, buffer.position() - start - 4);
+        }
+
+        @Override
+        byte[] getFileHeader() {
+            return BINARY_FILE_HEADER.clone();
+        }
+    };
+
+    /**
+     * Magic bytes and the version, at the start of a binary event file.
+     */
+    static final byte[] BINARY_FILE_HEADER = {'M', 'G', 'W', 'A', 1};
+    static final String KEY_VALUE_SEPARATOR = "-KS-";
+    static final String EVENT_SEPARATOR = "-ES-";
+    static final String PAYLOAD_SEPARATOR = "-OS-";
+
+    private static final int MAX_VARINT_LENGTH = 5;
+    private static final byte[] PAYLOAD_SEPARATOR_BYTES = ascii(PAYLOAD_SEPARATOR);
+    private static final byte[] STREAM_ID_KEY = ascii("streamId" + KEY_VALUE_SEPARATOR);
+    private static final byte[] TIMESTAMP_KEY = ascii(EVENT_SEPARATOR + "timestamp" + KEY_VALUE_SEPARATOR);
+    private static final byte[] META_DATA_KEY = ascii(EVENT_SEPARATOR + "metadata" + KEY_VALUE_SEPARATOR);
+    private static final byte[] CORRELATION_DATA_KEY = ascii(EVENT_SEPARATOR + "correlationData"
+            + KEY_VALUE_SEPARATOR);
+    private static final byte[] PAYLOAD_DATA_KEY = ascii(EVENT_SEPARATOR + "payLoadData" + KEY_VALUE_SEPARATOR);
+    private static final int TEXT_KEYS_LENGTH = STREAM_ID_KEY.length + TIMESTAMP_KEY.length + META_DATA_KEY.length
+            + CORRELATION_DATA_KEY.length + PAYLOAD_DATA_KEY.length + 1;
+
+    /**
+     * Get the maximum number of bytes an event is encoded into.
+     */
+    abstract int getMaxEncodedLength(String streamId, String metaData, String correlationData,
+            List<String> payloadFields);
+
+    /**
+     * Encode an event into the buffer, which has at least {@link #getMaxEncodedLength} bytes remaining.
+     */
+    abstract void encode(ByteBuffer buffer, String streamId, long timestamp, String metaData, String correlationData,
+            List<String> payloadFields);
+
+    /**
+     * Get the bytes written at the start of an event file.
+     */
+    byte[] getFileHeader() {
+        return new byte[0];
+    }
+
+    public static AnalyticsEventFormat fromString(String format) {
+        return "binary".equalsIgnoreCase(format) ? BINARY : TEXT;
+    }
+
+    /**
+     * Get the maximum number of bytes of the UTF-8 payload fields, with the given number of bytes next to each.
+     */
+    private static int getMaxPayloadLength(List<String> payloadFields, int fieldOverhead) {
+        int length = 0;
+        for (int i = 0; i < payloadFields.size(); i++) {
+            length += 3 * payloadFields.get(i).length() + fieldOverhead;
+        }
+        return length;
+    }
+
+    private static void putString(ByteBuffer buffer, String value, int start, int end) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        while ((length & ~0x7F) != 0) {
+            buffer.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        buffer.put((byte) length);
+        putUtf8(buffer, value, start, end);
+    }
+
+    private static void putUtf8(ByteBuffer buffer, String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18));
+                buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogates are replaced, as done by String#getBytes
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static void putDecimal(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                buffer.put(ascii(Long.toString(value).substring(1)));
+                return;
+            }
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
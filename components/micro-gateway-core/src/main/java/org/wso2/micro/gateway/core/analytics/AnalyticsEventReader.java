@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the events of a binary analytics event file, written in the {@link AnalyticsEventFormat#BINARY} format.
+ */
+public class AnalyticsEventReader implements Closeable {
+    private static final int CONVERSION_BUFFER_SIZE = 64 * 1024;
+
+    private final DataInputStream inputStream;
+    private byte[] record = new byte[1024];
+
+    /**
+     * Open a binary event file.
+     *
+     * @param filePath path of the event file
+     * @throws IOException if the file could not be read or it is not a binary event file
+     */
+    public AnalyticsEventReader(Path filePath) throws IOException {
+        this.inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(filePath)));
+        byte[] header = new byte[AnalyticsEventFormat.BINARY_FILE_HEADER.length];
+        try {
+            inputStream.readFully(header);
+        } catch (EOFException e) {
+            // an empty file has no events
+            return;
+        }
+        if (!Arrays.equals(header, AnalyticsEventFormat.BINARY_FILE_HEADER)) {
+            inputStream.close();
+            throw new IOException("Not a binary analytics event file: " + filePath);
+        }
+    }
+
+    /**
+     * Read the next event.
+     *
+     * @return event or null at the end of the file
+     * @throws IOException if the file could not be read or it is corrupted
+     */
+    public AnalyticsEvent next() throws IOException {
+        int length;
+        try {
+            length = inputStream.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid analytics event record length: " + length);
+        }
+        if (record.length < length) {
+            record = new byte[Math.max(length, 2 * record.length)];
+        }
+        inputStream.readFully(record, 0, length);
+        ByteBuffer buffer = ByteBuffer.wrap(record, 0, length);
+        String streamId = getString(buffer);
+        long timestamp = buffer.getLong();
+        String metaData = getString(buffer);
+        String correlationData = getString(buffer);
+        List<String> payloadFields = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            payloadFields.add(getString(buffer));
+        }
+        return new AnalyticsEvent(streamId, timestamp, metaData, correlationData, payloadFields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Convert a binary event file into the text format read by the analytics server.
+     *
+     * @param binaryFile   path of the binary event file
+     * @param outputStream stream the text events are written to, which is not closed
+     * @return number of events converted
+     * @throws IOException if the file could not be read or the events could not be written
+     */
+    public static long convertToText(Path binaryFile, OutputStream outputStream) throws IOException {
+        long count = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(CONVERSION_BUFFER_SIZE);
+        try (AnalyticsEventReader reader = new AnalyticsEventReader(binaryFile)) {
+            AnalyticsEvent event;
+            while ((event = reader.next()) != null) {
+                int length = AnalyticsEventFormat.TEXT.getMaxEncodedLength(event.getStreamId(), event.getMetaData(),
+                        event.getCorrelationData(), event.getPayloadFields());
+                if (buffer.remaining() < length) {
+                    write(outputStream, buffer);
+                    if (buffer.capacity() < length) {
+                        buffer = ByteBuffer.allocate(length);
+                    }
+                }
+                AnalyticsEventFormat.TEXT.encode(buffer, event.getStreamId(), event.getTimestamp(),
+                        event.getMetaData(), event.getCorrelationData(), event.getPayloadFields());
+                count++;
+            }
+            write(outputStream, buffer);
+        }
+        return count;
+    }
+
+    private static void write(OutputStream outputStream, ByteBuffer buffer) throws IOException {
+        outputStream.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        buffer.clear();
+    }
+
+    private static String getString(ByteBuffer buffer) throws IOException {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28 || !buffer.hasRemaining()) {
+                throw new IOException("Corrupted analytics event record");
+            }
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Corrupted analytics event record");
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.wso2.micro.gateway.core.compression.Compress;
+import org.wso2.micro.gateway.core.compression.StreamingZipOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Appends analytics events to the event file, which is kept open between the writes. Events are encoded straight
+ * into an in-memory buffer, in the format of the event file, and written to the file together when {@link #flush()}
+ * is called by the flushing task, periodically or once the buffer fills up. Hence the threads writing the events
+ * never wait for the file, and the events lost on a crash are limited to the events of one flush interval. With sync
+ * on flush, the written events are forced to the storage device as well.
+ * <p>
+ * While the buffered events are being written to the file, the buffer grows to keep the events written meanwhile, up
+ * to the maximum buffer size. Events which do not fit within the maximum buffer size are dropped and counted.
+ * </p>
+ * <p>
+ * The file is rotated by {@link #rotate(Path)}, which writes the buffered events, closes the file and moves it, while
+ * holding the file lock. Events written meanwhile are kept in the buffer and are written to a new file. The buffer
+ * being written to the file is swapped with a spare buffer, hence the buffers are reused.
+ * </p>
+ * <p>
+ * When compressing on write, the event file is a zip file with a single entry, named after the event file without
+ * its .tmp extension, which is compressed as the events are written. Each write completes the compressed blocks, so
+ * the written events can be recovered from the file even if it was not closed. Rotating such a file only closes and
+ * moves it, as it is already compressed. An event file left behind in a format other than the one being written, is
+ * compressed into a zip file of its own before it is written to.
+ * </p>
+ */
+public class AnalyticsEventWriter {
+    private static final String TMP_EXTENSION = ".tmp";
+    private static final String ZIP_EXTENSION = ".zip";
+    private static final int DEFAULT_MAX_BUFFER_SIZE_FACTOR = 16;
+
+    private final Path filePath;
+    private final AnalyticsEventFormat format;
+    private final int bufferSize;
+    private final int maxBufferSize;
+    private final boolean syncOnFlush;
+    private final boolean compressOnWrite;
+    private final String zipEntryName;
+    // lock order is fileLock and then bufferLock
+    private final Object bufferLock = new Object();
+    private final Object fileLock = new Object();
+    // guarded by bufferLock
+    private ByteBuffer buffer;
+    private boolean flushRequested;
+    private long droppedEventCount;
+    // buffer which is being written to the file, guarded by fileLock
+    private ByteBuffer spareBuffer;
+    private FileChannel channel;
+    private ZipOutputStream zipOutput;
+
+    /**
+     * Create an event writer.
+     *
+     * @param filePath    path of the event file
+     * @param format      format of the event file
+     * @param bufferSize  number of bytes buffered before the events are written to the file
+     * @param syncOnFlush whether to force the written events to the storage device
+     */
+    public AnalyticsEventWriter(Path filePath, AnalyticsEventFormat format, int bufferSize, boolean syncOnFlush) {
+        this(filePath, format, bufferSize, syncOnFlush, false);
+    }
+
+    /**
+     * Create an event writer.
+     *
+     * @param filePath        path of the event file
+     * @param format          format of the event file
+     * @param bufferSize      number of bytes buffered before the events are written to the file
+     * @param syncOnFlush     whether to force the written events to the storage device
+     * @param compressOnWrite whether to write the events into a zip file
+     */
+    public AnalyticsEventWriter(Path filePath, AnalyticsEventFormat format, int bufferSize, boolean syncOnFlush,
+            boolean compressOnWrite) {
+        this(filePath, format, bufferSize, DEFAULT_MAX_BUFFER_SIZE_FACTOR * Math.max(1, bufferSize), syncOnFlush,
+                compressOnWrite);
+    }
+
+    /**
+     * Create an event writer.
+     *
+     * @param filePath        path of the event file
+     * @param format          format of the event file
+     * @param bufferSize      number of bytes buffered before the events are written to the file
+     * @param maxBufferSize   maximum number of bytes buffered while the events are being written to the file
+     * @param syncOnFlush     whether to force the written events to the storage device
+     * @param compressOnWrite whether to write the events into a zip file
+     */
+    public AnalyticsEventWriter(Path filePath, AnalyticsEventFormat format, int bufferSize, int maxBufferSize,
+            boolean syncOnFlush, boolean compressOnWrite) {
+        this.filePath = filePath;
+        this.format = format;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxBufferSize = Math.max(this.bufferSize, maxBufferSize);
+        this.syncOnFlush = syncOnFlush;
+        this.compressOnWrite = compressOnWrite;
+        String fileName = String.valueOf(filePath.getFileName());
+        this.zipEntryName = fileName.endsWith(TMP_EXTENSION) ?
+                fileName.substring(0, fileName.length() - TMP_EXTENSION.length()) : fileName;
+        this.buffer = ByteBuffer.allocate(this.bufferSize);
+        this.spareBuffer = ByteBuffer.allocate(this.bufferSize);
+    }
+
+    /**
+     * Add an event to the buffer. The event is dropped if the buffer has reached the maximum buffer size, unless the
+     * buffer is empty.
+     *
+     * @param streamId        stream id of the event
+     * @param timestamp       event time in milliseconds
+     * @param metaData        meta data of the event
+     * @param correlationData correlation data of the event
+     * @param payloadFields   payload fields of the event
+     * @return true if the buffer has filled up with this event, in which case the caller should have the buffered
+     * events flushed. Only the first event filling up the buffer since the last flush returns true.
+     */
+    public boolean write(String streamId, long timestamp, String metaData, String correlationData,
+            List<String> payloadFields) {
+        int maxLength = format.getMaxEncodedLength(streamId, metaData, correlationData, payloadFields);
+        synchronized (bufferLock) {
+            if (buffer.position() > 0 && buffer.position() + maxLength > maxBufferSize) {
+                droppedEventCount++;
+                return false;
+            }
+            if (buffer.remaining() < maxLength) {
+                // the events exceeding the buffer size while it is being written are kept in a larger buffer
+                ByteBuffer largerBuffer = ByteBuffer.allocate(Math.max(buffer.position() + maxLength,
+                        Math.min(2 * buffer.capacity(), maxBufferSize)));
+                buffer.flip();
+                largerBuffer.put(buffer);
+                buffer = largerBuffer;
+            }
+            format.encode(buffer, streamId, timestamp, metaData, correlationData, payloadFields);
+            if (flushRequested || buffer.position() < bufferSize) {
+                return false;
+            }
+            flushRequested = true;
+            return true;
+        }
+    }
+
+    /**
+     * Write the buffered events to the file.
+     *
+     * @throws IOException if the events could not be written. The events are discarded.
+     */
+    public void flush() throws IOException {
+        synchronized (fileLock) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Write the buffered events and move the event file to the given path.
+     *
+     * @param destination path to move the event file to
+     * @return false if there was no event file to rotate
+     * @throws IOException if the events could not be written or the file could not be moved
+     */
+    public boolean rotate(Path destination) throws IOException {
+        synchronized (fileLock) {
+            boolean written;
+            try {
+                flushBuffer();
+            } finally {
+                written = channel != null;
+                closeFile(true);
+            }
+            if (!Files.exists(filePath)) {
+                return false;
+            }
+            if (compressOnWrite && !written) {
+                // the zip file was left incomplete by a failed write
+                Compress.compressFile(filePath, destination, zipEntryName);
+                Files.delete(filePath);
+                return true;
+            }
+            try {
+                Files.move(filePath, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(filePath, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Write the buffered events and close the event file.
+     *
+     * @throws IOException if the events could not be written
+     */
+    public void close() throws IOException {
+        synchronized (fileLock) {
+            try {
+                flushBuffer();
+            } finally {
+                closeFile(true);
+            }
+        }
+    }
+
+    /**
+     * Get the number of bytes in the buffer.
+     *
+     * @return number of buffered bytes
+     */
+    public int getBufferedLength() {
+        synchronized (bufferLock) {
+            return buffer.position();
+        }
+    }
+
+    /**
+     * Get the number of events dropped since the writer was created, as the buffer had reached the maximum buffer
+     * size.
+     *
+     * @return number of dropped events
+     */
+    public long getDroppedEventCount() {
+        synchronized (bufferLock) {
+            return droppedEventCount;
+        }
+    }
+
+    /**
+     * Get the name of the entry of the zip file the events are uploaded in, which is the name of the event file
+     * without its .tmp extension.
+     *
+     * @return zip entry name
+     */
+    public String getZipEntryName() {
+        return zipEntryName;
+    }
+
+    public AnalyticsEventFormat getFormat() {
+        return format;
+    }
+
+    public boolean isCompressOnWrite() {
+        return compressOnWrite;
+    }
+
+    private void flushBuffer() throws IOException {
+        ByteBuffer events;
+        synchronized (bufferLock) {
+            if (buffer.position() == 0) {
+                return;
+            }
+            events = buffer;
+            buffer = spareBuffer;
+            flushRequested = false;
+        }
+        events.flip();
+        try {
+            if (channel == null) {
+                openFile();
+            }
+            if (zipOutput != null) {
+                zipOutput.write(events.array(), events.arrayOffset() + events.position(), events.remaining());
+                zipOutput.flush();
+            } else {
+                while (events.hasRemaining()) {
+                    channel.write(events);
+                }
+            }
+            if (syncOnFlush) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // the file is opened again by the next flush
+            closeFile(false);
+            throw e;
+        } finally {
+            // a buffer grown beyond the buffer size is not kept
+            spareBuffer = events.capacity() > bufferSize ? ByteBuffer.allocate(bufferSize) : events;
+            spareBuffer.clear();
+        }
+    }
+
+    private void openFile() throws IOException {
+        Path parent = filePath.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(filePath) && Files.size(filePath) > 0 && (compressOnWrite || isZipFile(filePath))) {
+            // a zip file can not be appended to, hence the events left in the file are moved to a zip file of their own
+            Path zipFile = filePath.resolveSibling(zipEntryName + "." + System.currentTimeMillis() + "."
+                    + UUID.randomUUID() + ZIP_EXTENSION);
+            Compress.compressFile(filePath, zipFile, zipEntryName);
+            Files.delete(filePath);
+        }
+        channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        byte[] header = format.getFileHeader();
+        if (compressOnWrite) {
+            zipOutput = new StreamingZipOutputStream(Channels.newOutputStream(channel));
+            zipOutput.putNextEntry(new ZipEntry(zipEntryName));
+            zipOutput.write(header);
+        } else if (channel.size() == 0) {
+            ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            while (headerBuffer.hasRemaining()) {
+                channel.write(headerBuffer);
+            }
+        }
+    }
+
+    private void closeFile(boolean finish) throws IOException {
+        if (channel != null) {
+            FileChannel fileChannel = channel;
+            ZipOutputStream zipOutputStream = zipOutput;
+            channel = null;
+            zipOutput = null;
+            try {
+                if (zipOutputStream != null && finish) {
+                    zipOutputStream.finish();
+                }
+            } finally {
+                fileChannel.close();
+            }
+        }
+    }
+
+    private static boolean isZipFile(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return inputStream.read() == 'P' && inputStream.read() == 'K' && inputStream.read() == 3
+                    && inputStream.read() == 4;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.ballerinalang.jvm.types.BArrayType;
+import org.ballerinalang.jvm.types.BTypes;
+import org.ballerinalang.jvm.values.ArrayValue;
+import org.ballerinalang.jvm.values.MapValue;
+import org.ballerinalang.jvm.values.api.BValueCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.micro.gateway.core.utils.ErrorUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queues the messages of the gRPC analytics through a shared {@link AnalyticsMessageQueue}. Messages are queued as
+ * the AnalyticsStreamMessage records, which are only encoded as JSON documents when they are spilled over to the
+ * disk. The publisher takes them in batches of records, along with the JSON documents of the messages replayed from
+ * the disk.
+ */
+public class AnalyticsMessageBuffer {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsMessageBuffer.class);
+
+    private static volatile AnalyticsMessageQueue messageQueue;
+    // batch taken by the publisher, which is requeued unless it is completely sent
+    private static List<Object> inFlightBatch = Collections.emptyList();
+
+    private AnalyticsMessageBuffer() {
+    }
+
+    /**
+     * Initialize the analytics message queue.
+     *
+     * @param spillDirectory directory of the segment files
+     * @param queueSize      maximum number of messages kept in memory
+     * @param maxSegmentSize size in bytes after which a new segment file is started
+     * @param maxSpillSize   maximum total size in bytes of the segment files
+     * @return error if the spill directory can not be read
+     */
+    public static synchronized Object initAnalyticsMessageQueue(String spillDirectory, long queueSize,
+            long maxSegmentSize, long maxSpillSize) {
+        if (messageQueue != null) {
+            return null;
+        }
+        AnalyticsMessageQueue queue;
+        try {
+            int capacity = (int) Math.min(Integer.MAX_VALUE, queueSize);
+            queue = new AnalyticsMessageQueue(capacity, capacity, Paths.get(spillDirectory), maxSegmentSize,
+                    maxSpillSize, AnalyticsMessageBuffer::toJson);
+        } catch (IOException e) {
+            return ErrorUtils.getBallerinaError("Error while reading the analytics spill directory " + spillDirectory,
+                    e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // the messages in memory are written to the disk, to be replayed on the next start up
+            queue.setConnected(false);
+            queue.close();
+        }));
+        messageQueue = queue;
+        return null;
+    }
+
+    /**
+     * Add an analytics message to the queue.
+     *
+     * @param message AnalyticsStreamMessage
+     */
+    public static void enqueue(MapValue<String, Object> message) {
+        AnalyticsMessageQueue queue = messageQueue;
+        if (queue == null) {
+            log.error("Analytics message queue is not initialized. Message is dropped.");
+            return;
+        }
+        if (!queue.offer(message) && log.isDebugEnabled()) {
+            log.debug("Analytics message is dropped as the spill queue or the spill directory is full. "
+                    + queue.getDroppedMessageCount() + " messages are dropped so far.");
+        }
+    }
+
+    /**
+     * Take the next batch of analytics messages. The batch must be completed through
+     * {@link #completeBatch(long)} before the next batch is taken.
+     *
+     * @param maxBatchSize maximum number of messages taken
+     * @return AnalyticsStreamMessage records, and JSON documents for the messages replayed from the disk, which is
+     * empty if there are no messages to be sent
+     */
+    public static synchronized ArrayValue pollBatch(long maxBatchSize) {
+        AnalyticsMessageQueue queue = messageQueue;
+        List<Object> batch = queue == null ? Collections.emptyList()
+                : queue.poll((int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBatchSize)));
+        inFlightBatch = batch;
+        return (ArrayValue) BValueCreator.createArrayValue(batch.toArray(), new BArrayType(BTypes.typeAny));
+    }
+
+    /**
+     * Complete the batch taken last. The messages which were not sent are requeued.
+     *
+     * @param sentCount number of messages sent from the start of the batch
+     */
+    public static synchronized void completeBatch(long sentCount) {
+        List<Object> batch = inFlightBatch;
+        inFlightBatch = Collections.emptyList();
+        if (sentCount < batch.size()) {
+            messageQueue.requeue(batch.subList((int) Math.max(0, sentCount), batch.size()));
+        }
+    }
+
+    /**
+     * Set whether the gRPC analytics server is connected. Messages received while it is not connected are spilled
+     * over to the disk.
+     *
+     * @param connected whether the server is connected
+     */
+    public static void setConnected(boolean connected) {
+        AnalyticsMessageQueue queue = messageQueue;
+        if (queue != null) {
+            queue.setConnected(connected);
+        }
+    }
+
+    /**
+     * Encode an AnalyticsStreamMessage as a JSON document, to be spilled over to the disk. The fields of the record
+     * are strings, integers and booleans.
+     *
+     * @param message AnalyticsStreamMessage, or a JSON document of a message replayed from the disk
+     * @return JSON document
+     */
+    static String toJson(Object message) {
+        if (!(message instanceof Map)) {
+            return String.valueOf(message);
+        }
+        StringBuilder json = new StringBuilder(1024).append('{');
+        for (Map.Entry<?, ?> field : ((Map<?, ?>) message).entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendString(json, String.valueOf(field.getKey())).append(':');
+            Object value = field.getValue();
+            if (value instanceof String) {
+                appendString(json, (String) value);
+            } else {
+                json.append(value);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                // control characters, which include the line feeds separating the messages on the disk
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+}
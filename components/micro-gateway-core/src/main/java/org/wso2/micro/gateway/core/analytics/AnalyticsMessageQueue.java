@@ -0,0 +1,372 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded queue of the analytics messages published to the gRPC analytics server, which spills over to segment
+ * files on the disk.
+ * <p>
+ * Messages are kept in memory while the server is connected and the queue has room. Messages received while the
+ * queue is full or the server is unreachable wait in the bounded spill queue, and are appended to the active
+ * segment file by the publisher, one encoded message per line, along with the messages which failed to be sent.
+ * Offering a message hence neither encodes it nor writes to the disk. Segments are replayed before the in-memory
+ * messages once the server is reachable again, and are deleted once all of their messages are taken. Segments left
+ * over by a previous run are replayed as well. Messages are dropped when the spill queue is full, or when the
+ * segments have reached their maximum total size.
+ * </p>
+ * <p>
+ * The queue is meant to be drained by a single publisher, through {@link #poll(int)}. The messages taken are the
+ * messages offered, or their encoded form for the messages replayed from the disk.
+ * </p>
+ */
+public class AnalyticsMessageQueue {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsMessageQueue.class);
+    static final String SEGMENT_PREFIX = "analytics-messages-";
+    static final String SEGMENT_EXTENSION = ".seg";
+
+    private final ArrayBlockingQueue<Object> queue;
+    // messages to be spilled over to the disk by the publisher
+    private final ArrayBlockingQueue<Object> spillQueue;
+    private final Function<Object, String> encoder;
+    private final Path spillDirectory;
+    private final long maxSegmentSize;
+    private final long maxSpillSize;
+    private volatile boolean connected;
+
+    // state of the segments, guarded by the queue instance
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private BufferedWriter activeSegment;
+    private Path activeSegmentPath;
+    private long activeSegmentSize;
+    private long spilledSize;
+    private long segmentSequence;
+    // messages of the segment being replayed, which is deleted once they are all taken
+    private final Deque<Object> replayMessages = new ArrayDeque<>();
+    private Path replaySegment;
+    private long replaySegmentSize;
+
+    private final AtomicLong spilledMessageCount = new AtomicLong();
+    private final AtomicLong droppedMessageCount = new AtomicLong();
+
+    /**
+     * Create a queue of string messages, with a spill queue of the same capacity, and recover the segments left
+     * over in the spill directory.
+     *
+     * @param capacity       maximum number of messages kept in memory
+     * @param spillDirectory directory of the segment files
+     * @param maxSegmentSize size in bytes after which a new segment is started
+     * @param maxSpillSize   maximum total size in bytes of the segments
+     * @throws IOException if the spill directory can not be read
+     */
+    public AnalyticsMessageQueue(int capacity, Path spillDirectory, long maxSegmentSize, long maxSpillSize)
+            throws IOException {
+        this(capacity, capacity, spillDirectory, maxSegmentSize, maxSpillSize, String::valueOf);
+    }
+
+    /**
+     * Create the queue and recover the segments left over in the spill directory.
+     *
+     * @param capacity           maximum number of messages kept in memory
+     * @param spillQueueCapacity maximum number of messages waiting to be spilled over to the disk
+     * @param spillDirectory     directory of the segment files
+     * @param maxSegmentSize     size in bytes after which a new segment is started
+     * @param maxSpillSize       maximum total size in bytes of the segments
+     * @param encoder            encodes a message into a line of a segment
+     * @throws IOException if the spill directory can not be read
+     */
+    public AnalyticsMessageQueue(int capacity, int spillQueueCapacity, Path spillDirectory, long maxSegmentSize,
+            long maxSpillSize, Function<Object, String> encoder) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.spillQueue = new ArrayBlockingQueue<>(Math.max(1, spillQueueCapacity));
+        this.encoder = encoder;
+        this.spillDirectory = spillDirectory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSpillSize = maxSpillSize;
+        Files.createDirectories(spillDirectory);
+        TreeMap<Long, Path> leftOverSegments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory,
+                SEGMENT_PREFIX + "*" + SEGMENT_EXTENSION)) {
+            for (Path file : files) {
+                String fileName = String.valueOf(file.getFileName());
+                try {
+                    long sequence = Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(),
+                            fileName.length() - SEGMENT_EXTENSION.length()));
+                    leftOverSegments.put(sequence, file);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring the unknown file in the analytics spill directory : " + file);
+                }
+            }
+        }
+        for (Path segment : leftOverSegments.values()) {
+            segments.add(segment);
+            spilledSize += Files.size(segment);
+        }
+        segmentSequence = leftOverSegments.isEmpty() ? 0 : leftOverSegments.lastKey() + 1;
+        if (!segments.isEmpty()) {
+            log.info(segments.size() + " analytics message segments are recovered from " + spillDirectory);
+        }
+    }
+
+    /**
+     * Add a message to the queue. The message is to be spilled over to the disk by the publisher if the queue is
+     * full or the server is not connected.
+     *
+     * @param message message, whose encoding must not contain line feeds
+     * @return false if the message is dropped as the spill queue is full
+     */
+    public boolean offer(Object message) {
+        if (connected && queue.offer(message) || spillQueue.offer(message)) {
+            return true;
+        }
+        droppedMessageCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Add back the messages which failed to be sent. They are spilled over to the disk, to be replayed once the
+     * server is reachable again.
+     *
+     * @param messages messages to be sent again
+     */
+    public synchronized void requeue(List<Object> messages) {
+        for (Object message : messages) {
+            spill(message);
+        }
+        flushActiveSegment();
+    }
+
+    /**
+     * Spill over the messages of the spill queue to the disk. This is done by {@link #poll(int)} as well.
+     */
+    public synchronized void spillPending() {
+        Object message;
+        while ((message = spillQueue.poll()) != null) {
+            spill(message);
+        }
+    }
+
+    /**
+     * Take the next batch of messages, replaying the spilled messages first. Nothing is taken while the server is
+     * not connected.
+     *
+     * @param maxBatchSize maximum number of messages taken
+     * @return messages taken, which is empty if there are no messages to be sent
+     */
+    public synchronized List<Object> poll(int maxBatchSize) {
+        List<Object> batch = new ArrayList<>(Math.min(maxBatchSize, 64));
+        spillPending();
+        if (!connected) {
+            // messages spilled while disconnected are written out while the publisher is idle
+            flushActiveSegment();
+            return batch;
+        }
+        if (replayMessages.isEmpty()) {
+            // the messages of the previous segment have been sent, as the publisher has come back for more
+            loadNextSegment();
+        }
+        while (batch.size() < maxBatchSize && !replayMessages.isEmpty()) {
+            batch.add(replayMessages.poll());
+        }
+        if (batch.size() < maxBatchSize && segments.isEmpty()) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+        return batch;
+    }
+
+    /**
+     * Set whether the server is connected. Once disconnected, the messages in memory are spilled over to the disk,
+     * so that they survive a restart while the server is unreachable.
+     *
+     * @param connected whether the server is connected
+     */
+    public void setConnected(boolean connected) {
+        this.connected = connected;
+        if (!connected) {
+            synchronized (this) {
+                Object message;
+                while ((message = queue.poll()) != null) {
+                    spill(message);
+                }
+                spillPending();
+                flushActiveSegment();
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Write out the spilled messages and close the active segment.
+     */
+    public synchronized void close() {
+        spillPending();
+        closeActiveSegment();
+    }
+
+    /**
+     * Get the number of messages in memory.
+     *
+     * @return number of messages
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Get the total size of the segments on the disk.
+     *
+     * @return size in bytes
+     */
+    public synchronized long getSpilledSize() {
+        return spilledSize;
+    }
+
+    /**
+     * Get the number of messages spilled over to the disk since the queue was created.
+     *
+     * @return number of messages
+     */
+    public long getSpilledMessageCount() {
+        return spilledMessageCount.get();
+    }
+
+    /**
+     * Get the number of messages dropped as the spill queue was full or the segments had reached their maximum
+     * total size.
+     *
+     * @return number of messages
+     */
+    public long getDroppedMessageCount() {
+        return droppedMessageCount.get();
+    }
+
+    private boolean spill(Object message) {
+        String encodedMessage = encoder.apply(message);
+        byte[] bytes = encodedMessage.getBytes(StandardCharsets.UTF_8);
+        if (spilledSize + bytes.length + 1 > maxSpillSize) {
+            droppedMessageCount.incrementAndGet();
+            return false;
+        }
+        try {
+            if (activeSegment == null) {
+                activeSegmentPath = spillDirectory.resolve(SEGMENT_PREFIX + segmentSequence++ + SEGMENT_EXTENSION);
+                activeSegment = Files.newBufferedWriter(activeSegmentPath, StandardCharsets.UTF_8);
+                activeSegmentSize = 0;
+                segments.add(activeSegmentPath);
+            }
+            activeSegment.write(encodedMessage);
+            activeSegment.write('\n');
+        } catch (IOException e) {
+            log.error("Error while spilling the analytics message to " + activeSegmentPath, e);
+            droppedMessageCount.incrementAndGet();
+            return false;
+        }
+        activeSegmentSize += bytes.length + 1;
+        spilledSize += bytes.length + 1;
+        spilledMessageCount.incrementAndGet();
+        if (activeSegmentSize >= maxSegmentSize) {
+            closeActiveSegment();
+        }
+        return true;
+    }
+
+    /**
+     * Load the messages of the oldest segment to be replayed, after deleting the segment whose messages have all
+     * been taken. The active segment is closed if it is the only one left.
+     */
+    private void loadNextSegment() {
+        if (replaySegment != null) {
+            try {
+                Files.deleteIfExists(replaySegment);
+            } catch (IOException e) {
+                log.error("Error while deleting the replayed analytics message segment " + replaySegment, e);
+            }
+            spilledSize -= replaySegmentSize;
+            replaySegment = null;
+        }
+        Path segment = segments.peek();
+        if (segment == null) {
+            return;
+        }
+        if (segment.equals(activeSegmentPath)) {
+            closeActiveSegment();
+        }
+        segments.poll();
+        try {
+            byte[] bytes = Files.readAllBytes(segment);
+            replaySegmentSize = bytes.length;
+            int start = 0;
+            // a line not terminated by a line feed is the last message of a segment left incomplete by a crash
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    replayMessages.add(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+                    start = i + 1;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error while reading the analytics message segment " + segment, e);
+            replaySegmentSize = 0;
+        }
+        replaySegment = segment;
+        if (replayMessages.isEmpty()) {
+            loadNextSegment();
+        }
+    }
+
+    private void flushActiveSegment() {
+        if (activeSegment != null) {
+            try {
+                activeSegment.flush();
+            } catch (IOException e) {
+                log.error("Error while spilling the analytics messages to " + activeSegmentPath, e);
+            }
+        }
+    }
+
+    private void closeActiveSegment() {
+        if (activeSegment != null) {
+            try {
+                activeSegment.close();
+            } catch (IOException e) {
+                log.error("Error while spilling the analytics messages to " + activeSegmentPath, e);
+            }
+            activeSegment = null;
+            activeSegmentPath = null;
+        }
+    }
+}
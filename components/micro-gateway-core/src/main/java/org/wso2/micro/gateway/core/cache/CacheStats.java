@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.cache;
+
+/**
+ * Statistics of a {@link TokenCache} since it was created.
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long rejectionCount;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount, long rejectionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.rejectionCount = rejectionCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the number of entries evicted to keep the cache within its maximum weight, including the new entries
+     * which were not admitted.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Get the number of new entries which were not admitted, as they were accessed less frequently than the entry
+     * they would have replaced.
+     */
+    public long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * Get the fraction of the lookups which found an entry.
+     *
+     * @return hit rate, or 1 if there were no lookups
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+                + ", expirationCount=" + expirationCount + ", rejectionCount=" + rejectionCount + "}";
+    }
+}
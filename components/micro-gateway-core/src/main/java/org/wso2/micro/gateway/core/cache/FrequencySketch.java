@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.cache;
+
+/**
+ * Count-min sketch of the access frequencies of the cache keys, with 4-bit counters. Each key is counted in four
+ * counters of a single 64-bit word per hash function. The counters are halved once the number of increments reaches
+ * ten times the width of the sketch, so that the frequencies of the keys which are no longer used decay.
+ * <p>
+ * The sketch is not thread safe, and is guarded by the lock of its cache segment.
+ * </p>
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Create a sketch for the given number of keys.
+     *
+     * @param expectedKeys number of keys expected to be cached
+     */
+    FrequencySketch(long expectedKeys) {
+        int width = 8;
+        while (width < expectedKeys && width < (1 << 30)) {
+            width <<= 1;
+        }
+        table = new long[width];
+        tableMask = width - 1;
+        sampleSize = width * 10 > 0 ? width * 10 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Get the estimated number of times a key was accessed, up to 15.
+     *
+     * @param hash spread hash code of the key
+     * @return estimated frequency
+     */
+    int frequency(int hash) {
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Count an access of a key.
+     *
+     * @param hash spread hash code of the key
+     */
+    void increment(int hash) {
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halve all the counters. The counters which were odd are accounted for in the size, as a quarter of them.
+     */
+    private void reset() {
+        int oddCounters = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCounters += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (oddCounters >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        long value = (hash + SEEDS[i]) * SEEDS[i];
+        value += value >>> 32;
+        return ((int) value) & tableMask;
+    }
+}
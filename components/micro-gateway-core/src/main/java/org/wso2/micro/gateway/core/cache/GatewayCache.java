@@ -0,0 +1,198 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Holds the named {@link TokenCache}s of the gateway, which cache the Ballerina values of the token validation
+ * results. The expired entries of the caches are removed periodically.
+ */
+public class GatewayCache {
+    private static final Logger log = LoggerFactory.getLogger(GatewayCache.class);
+    private static final int CONCURRENCY_LEVEL = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    private static final long CLEAN_UP_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    // estimated sizes in bytes of a cache entry and of its values
+    private static final long ENTRY_WEIGHT = 96;
+    private static final long STRING_WEIGHT = 40;
+    private static final long BOOLEAN_WEIGHT = 16;
+    private static final long VALUE_WEIGHT = 512;
+
+    private static final Map<String, TokenCache<String, Object>> caches = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService cleanUpExecutor;
+
+    private GatewayCache() {
+    }
+
+    /**
+     * Create a cache, unless it is already created.
+     *
+     * @param name          name of the cache
+     * @param capacity      maximum number of entries
+     * @param maximumWeight maximum estimated size of the entries in bytes, or 0 to bound the cache by its capacity
+     * @param expiryTime    time in milliseconds an entry is kept after it is written
+     */
+    public static synchronized void initCache(String name, long capacity, long maximumWeight, long expiryTime) {
+        if (caches.containsKey(name)) {
+            return;
+        }
+        int concurrencyLevel = (int) Math.max(1, Math.min(CONCURRENCY_LEVEL, capacity / MIN_SEGMENT_CAPACITY));
+        ToLongBiFunction<String, Object> weigher;
+        long maximumCacheWeight;
+        if (maximumWeight > 0) {
+            weigher = GatewayCache::estimateWeight;
+            maximumCacheWeight = maximumWeight;
+        } else {
+            weigher = (key, value) -> 1;
+            maximumCacheWeight = capacity;
+        }
+        caches.put(name, new TokenCache<>(maximumCacheWeight, capacity, expiryTime, concurrencyLevel, weigher));
+        if (cleanUpExecutor == null) {
+            cleanUpExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r);
+                t.setName("Gateway Cache Cleanup Task");
+                t.setDaemon(true);
+                return t;
+            });
+            cleanUpExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    for (TokenCache<String, Object> cache : caches.values()) {
+                        cache.cleanUp();
+                    }
+                } catch (RuntimeException e) {
+                    // an exception would cancel the subsequent executions of the scheduled task
+                    log.error("Error while removing the expired cache entries", e);
+                }
+            }, CLEAN_UP_INTERVAL, CLEAN_UP_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Cache " + name + " is created with capacity : " + capacity + ", maximum weight : "
+                    + maximumWeight + ", expiry time : " + expiryTime + "ms");
+        }
+    }
+
+    /**
+     * Get the value cached against a key.
+     *
+     * @param name name of the cache
+     * @param key  key
+     * @return cached value, or null if the key is not cached
+     */
+    public static Object get(String name, String key) {
+        TokenCache<String, Object> cache = caches.get(name);
+        return cache == null ? null : cache.get(key);
+    }
+
+    /**
+     * Cache a value against a key.
+     *
+     * @param name  name of the cache
+     * @param key   key
+     * @param value value
+     */
+    public static void put(String name, String key, Object value) {
+        TokenCache<String, Object> cache = caches.get(name);
+        if (cache != null) {
+            cache.put(key, value);
+        } else {
+            log.error("Cache " + name + " is not initialized.");
+        }
+    }
+
+    /**
+     * Check whether a cached entry should be refreshed, as it is about to expire. Only one caller is asked to
+     * refresh an entry.
+     *
+     * @param name             name of the cache
+     * @param key              key
+     * @param refreshAheadTime time in milliseconds before the expiry, from which the entry should be refreshed
+     * @return true if the caller should refresh the entry
+     */
+    public static boolean isRefreshDue(String name, String key, long refreshAheadTime) {
+        TokenCache<String, Object> cache = caches.get(name);
+        return cache != null && refreshAheadTime > 0 && cache.isRefreshDue(key, refreshAheadTime);
+    }
+
+    /**
+     * Remove a key from a cache.
+     *
+     * @param name name of the cache
+     * @param key  key
+     */
+    public static void remove(String name, String key) {
+        TokenCache<String, Object> cache = caches.get(name);
+        if (cache != null) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Get a statistic of a cache.
+     *
+     * @param name      name of the cache
+     * @param statistic one of "hitCount", "missCount", "evictionCount", "expirationCount", "rejectionCount", "size"
+     *                  and "weightedSize"
+     * @return value of the statistic, or -1 if the cache or the statistic is unknown
+     */
+    public static long getStatistic(String name, String statistic) {
+        TokenCache<String, Object> cache = caches.get(name);
+        if (cache == null) {
+            return -1;
+        }
+        CacheStats stats = cache.getStats();
+        switch (statistic) {
+            case "hitCount":
+                return stats.getHitCount();
+            case "missCount":
+                return stats.getMissCount();
+            case "evictionCount":
+                return stats.getEvictionCount();
+            case "expirationCount":
+                return stats.getExpirationCount();
+            case "rejectionCount":
+                return stats.getRejectionCount();
+            case "size":
+                return cache.size();
+            case "weightedSize":
+                return cache.getWeightedSize();
+            default:
+                return -1;
+        }
+    }
+
+    static long estimateWeight(String key, Object value) {
+        long weight = ENTRY_WEIGHT + STRING_WEIGHT + 2L * key.length();
+        if (value instanceof String) {
+            weight += STRING_WEIGHT + 2L * ((String) value).length();
+        } else if (value instanceof Boolean) {
+            weight += BOOLEAN_WEIGHT;
+        } else {
+            weight += VALUE_WEIGHT;
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Concurrent cache of the token validation results, bounded by the total weight of its entries and expiring the
+ * entries after a fixed time since they were written.
+ * <p>
+ * The cache is split into segments by the hash of the keys, each guarded by its own lock. Each segment applies the
+ * W-TinyLFU policy: new entries are kept in a small LRU admission window. An entry leaving the window is admitted
+ * into the main space only if it has been accessed more frequently than the entry it would replace, as estimated by
+ * a {@link FrequencySketch}. Hence a burst of keys used once, such as invalid tokens, does not flush the entries in
+ * use. The main space is a segmented LRU, where the entries accessed again are protected from the eviction of the
+ * entries on probation.
+ * </p>
+ * <p>
+ * Lookups do not take the lock of the segment. An entry read is recorded in a small lossy buffer of the segment, which
+ * is drained in a batch into the access order and the frequency sketch under the lock, by the reader filling it up or
+ * by the next write. A read is dropped when the buffer is full, as the access order and the frequencies are only
+ * estimates.
+ * </p>
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class TokenCache<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long expiryTime;
+    private final ToLongBiFunction<K, V> weigher;
+    private final LongSupplier ticker;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+    private final LongAdder rejectionCount = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumWeight    maximum total weight of the entries
+     * @param expectedEntries  number of entries expected to fit in the cache, used to size the frequency sketch
+     * @param expiryTime       time in milliseconds an entry is kept after it is written
+     * @param concurrencyLevel number of segments, rounded up to a power of two
+     * @param weigher          weight of an entry, such as its estimated size in bytes
+     */
+    public TokenCache(long maximumWeight, long expectedEntries, long expiryTime, int concurrencyLevel,
+            ToLongBiFunction<K, V> weigher) {
+        this(maximumWeight, expectedEntries, expiryTime, concurrencyLevel, weigher, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenCache(long maximumWeight, long expectedEntries, long expiryTime, int concurrencyLevel,
+            ToLongBiFunction<K, V> weigher, LongSupplier ticker) {
+        int segmentCount = 1;
+        int shift = 0;
+        while (segmentCount < concurrencyLevel && segmentCount < (1 << 16)) {
+            segmentCount <<= 1;
+            shift++;
+        }
+        this.segments = new TokenCache.Segment[segmentCount];
+        this.segmentShift = 32 - shift;
+        long segmentWeight = Math.max(1, (maximumWeight + segmentCount - 1) / segmentCount);
+        long segmentEntries = Math.max(1, expectedEntries / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentWeight, segmentEntries);
+        }
+        this.expiryTime = expiryTime;
+        this.weigher = weigher;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Get the value cached against a key.
+     *
+     * @param key key
+     * @return cached value, or null if the key is not cached or has expired
+     */
+    public V get(K key) {
+        int hash = spread(key.hashCode());
+        V value = segmentFor(hash).get(key, ticker.getAsLong());
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Cache a value against a key. A new key may not be admitted into the cache if it is full.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(K key, V value) {
+        int hash = spread(key.hashCode());
+        segmentFor(hash).put(key, value, weigher.applyAsLong(key, value), hash, ticker.getAsLong());
+    }
+
+    /**
+     * Check whether a cached entry is about to expire and should be refreshed ahead of its expiry. The check
+     * succeeds once per write of the entry, hence only one of the concurrent callers refreshes the entry.
+     *
+     * @param key              key
+     * @param refreshAheadTime time in milliseconds before the expiry, from which the entry should be refreshed
+     * @return true if the caller should refresh the entry
+     */
+    public boolean isRefreshDue(K key, long refreshAheadTime) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).isRefreshDue(key, refreshAheadTime, ticker.getAsLong());
+    }
+
+    /**
+     * Remove a key from the cache.
+     *
+     * @param key key
+     */
+    public void remove(K key) {
+        int hash = spread(key.hashCode());
+        segmentFor(hash).remove(key);
+    }
+
+    /**
+     * Remove the expired entries.
+     */
+    public void cleanUp() {
+        long currentTime = ticker.getAsLong();
+        for (Segment segment : segments) {
+            segment.removeExpired(currentTime);
+        }
+    }
+
+    /**
+     * Get the number of entries in the cache, including the expired entries not removed yet.
+     *
+     * @return number of entries
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the total weight of the entries in the cache.
+     *
+     * @return total weight
+     */
+    public long getWeightedSize() {
+        long weightedSize = 0;
+        for (Segment segment : segments) {
+            segment.lock();
+            try {
+                weightedSize += segment.totalWeight;
+            } finally {
+                segment.unlock();
+            }
+        }
+        return weightedSize;
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), expirationCount.sum(),
+                rejectionCount.sum());
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int spread(int hashCode) {
+        int hash = hashCode * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Entry of the cache, linked in the access order queue of its segment. The value, the expiry time and whether a
+     * refresh is scheduled are read without the lock of the segment.
+     */
+    private static final class Node<K, V> {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Node> REFRESH_SCHEDULED =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "refreshScheduled");
+
+        private final K key;
+        private final int hash;
+        private volatile V value;
+        private long weight;
+        private volatile long expiryTime;
+        // 1 if a refresh has been claimed since the entry was written, set through REFRESH_SCHEDULED
+        private volatile int refreshScheduled;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, int hash) {
+            this.key = key;
+            this.hash = hash;
+            this.prev = this;
+            this.next = this;
+        }
+    }
+
+    /**
+     * Segment of the cache, applying the W-TinyLFU policy to its own entries. The entries are only modified while
+     * holding the lock of the segment.
+     */
+    private final class Segment extends ReentrantLock {
+        private final Map<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+        private final FrequencySketch sketch;
+        // entries read since the last drain, and the number of reads recorded and drained
+        private final AtomicReferenceArray<Node<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong readBufferWriteCount = new AtomicLong();
+        private volatile long readBufferReadCount;
+        // sentinels of the circular access order queues, the least recently used entry being the first
+        private final Node<K, V> window = new Node<>(null, 0);
+        private final Node<K, V> probation = new Node<>(null, 0);
+        private final Node<K, V> protectedQueue = new Node<>(null, 0);
+        private final long maximumWeight;
+        private final long maximumWindowWeight;
+        private final long maximumProtectedWeight;
+        private long totalWeight;
+        private long windowWeight;
+        private long protectedWeight;
+
+        private Segment(long maximumWeight, long expectedEntries) {
+            this.maximumWeight = maximumWeight;
+            this.maximumWindowWeight = Math.max(1, (long) (maximumWeight * WINDOW_RATIO));
+            this.maximumProtectedWeight = (long) ((maximumWeight - maximumWindowWeight) * PROTECTED_RATIO);
+            this.sketch = new FrequencySketch(expectedEntries);
+        }
+
+        private V get(K key, long currentTime) {
+            Node<K, V> node = entries.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (node.expiryTime <= currentTime) {
+                removeIfExpired(node, currentTime);
+                return null;
+            }
+            V value = node.value;
+            recordRead(node);
+            return value;
+        }
+
+        private void recordRead(Node<K, V> node) {
+            long writeCount = readBufferWriteCount.get();
+            long pendingReads = writeCount - readBufferReadCount;
+            if (pendingReads < READ_BUFFER_SIZE && readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+                readBuffer.lazySet((int) writeCount & READ_BUFFER_MASK, node);
+                pendingReads++;
+            }
+            if (pendingReads >= READ_BUFFER_SIZE && tryLock()) {
+                try {
+                    drainReadBuffer();
+                } finally {
+                    unlock();
+                }
+            }
+        }
+
+        /**
+         * Apply the reads recorded in the read buffer to the access order and the frequency sketch. Must be called
+         * while holding the lock.
+         */
+        private void drainReadBuffer() {
+            long readCount = readBufferReadCount;
+            long writeCount = readBufferWriteCount.get();
+            for (; readCount < writeCount; readCount++) {
+                int index = (int) readCount & READ_BUFFER_MASK;
+                Node<K, V> node = readBuffer.get(index);
+                if (node == null) {
+                    // the slot is claimed by a reader which has not written the entry yet
+                    break;
+                }
+                readBuffer.lazySet(index, null);
+                sketch.increment(node.hash);
+                // the entry may have been removed since it was read
+                if (entries.get(node.key) == node) {
+                    onAccess(node);
+                }
+            }
+            readBufferReadCount = readCount;
+        }
+
+        private void removeIfExpired(Node<K, V> node, long currentTime) {
+            lock();
+            try {
+                if (entries.get(node.key) == node && node.expiryTime <= currentTime) {
+                    removeNode(node);
+                    expirationCount.increment();
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        private void put(K key, V value, long weight, int hash, long currentTime) {
+            lock();
+            try {
+                drainReadBuffer();
+                putLocked(key, value, weight, hash, currentTime);
+            } finally {
+                unlock();
+            }
+        }
+
+        private void putLocked(K key, V value, long weight, int hash, long currentTime) {
+            sketch.increment(hash);
+            Node<K, V> node = entries.get(key);
+            if (node != null) {
+                long weightChange = weight - node.weight;
+                node.value = value;
+                node.weight = weight;
+                node.expiryTime = currentTime + expiryTime;
+                node.refreshScheduled = 0;
+                totalWeight += weightChange;
+                if (node.queue == WINDOW) {
+                    windowWeight += weightChange;
+                } else if (node.queue == PROTECTED) {
+                    protectedWeight += weightChange;
+                }
+                onAccess(node);
+            } else {
+                if (weight > maximumWeight) {
+                    rejectionCount.increment();
+                    return;
+                }
+                node = new Node<>(key, hash);
+                node.value = value;
+                node.weight = weight;
+                node.expiryTime = currentTime + expiryTime;
+                node.queue = WINDOW;
+                entries.put(key, node);
+                linkLast(window, node);
+                windowWeight += weight;
+                totalWeight += weight;
+            }
+            evict(currentTime);
+        }
+
+        /**
+         * Check the expiry time of the entry without the lock, hence a hit outside of the refresh ahead window does
+         * not contend with the other readers. The refresh is claimed by a CAS on the entry.
+         */
+        private boolean isRefreshDue(K key, long refreshAheadTime, long currentTime) {
+            Node<K, V> node = entries.get(key);
+            if (node == null || node.refreshScheduled != 0) {
+                return false;
+            }
+            long nodeExpiryTime = node.expiryTime;
+            if (nodeExpiryTime <= currentTime || nodeExpiryTime - currentTime > refreshAheadTime) {
+                return false;
+            }
+            return Node.REFRESH_SCHEDULED.compareAndSet(node, 0, 1);
+        }
+
+        private void remove(K key) {
+            lock();
+            try {
+                Node<K, V> node = entries.get(key);
+                if (node != null) {
+                    removeNode(node);
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        private void removeExpired(long currentTime) {
+            lock();
+            try {
+                drainReadBuffer();
+                removeExpired(window, currentTime);
+                removeExpired(probation, currentTime);
+                removeExpired(protectedQueue, currentTime);
+            } finally {
+                unlock();
+            }
+        }
+
+        private void removeExpired(Node<K, V> queue, long currentTime) {
+            Node<K, V> node = queue.next;
+            while (node != queue) {
+                Node<K, V> next = node.next;
+                if (node.expiryTime <= currentTime) {
+                    removeNode(node);
+                    expirationCount.increment();
+                }
+                node = next;
+            }
+        }
+
+        private void onAccess(Node<K, V> node) {
+            if (node.queue == PROBATION) {
+                // an entry accessed again on probation is protected, demoting the least recently used ones
+                unlink(node);
+                node.queue = PROTECTED;
+                linkLast(protectedQueue, node);
+                protectedWeight += node.weight;
+                while (protectedWeight > maximumProtectedWeight && protectedQueue.next != node) {
+                    Node<K, V> demoted = protectedQueue.next;
+                    unlink(demoted);
+                    protectedWeight -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    linkLast(probation, demoted);
+                }
+            } else {
+                unlink(node);
+                linkLast(node.queue == WINDOW ? window : protectedQueue, node);
+            }
+        }
+
+        /**
+         * Move the entries overflowing the admission window to the probation queue as candidates, and evict either
+         * a candidate or the least recently used entry on probation until the segment fits its maximum weight.
+         */
+        private void evict(long currentTime) {
+            while (windowWeight > maximumWindowWeight) {
+                Node<K, V> candidate = window.next;
+                unlink(candidate);
+                windowWeight -= candidate.weight;
+                candidate.queue = PROBATION;
+                linkLast(probation, candidate);
+            }
+            while (totalWeight > maximumWeight) {
+                Node<K, V> victim = probation.next;
+                Node<K, V> candidate = probation.prev;
+                if (victim == probation) {
+                    victim = protectedQueue.next != protectedQueue ? protectedQueue.next : window.next;
+                    evictNode(victim, currentTime);
+                } else if (victim == candidate || victim.expiryTime <= currentTime) {
+                    evictNode(victim, currentTime);
+                } else if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    evictNode(victim, currentTime);
+                } else {
+                    rejectionCount.increment();
+                    evictNode(candidate, currentTime);
+                }
+            }
+        }
+
+        private void evictNode(Node<K, V> node, long currentTime) {
+            removeNode(node);
+            if (node.expiryTime <= currentTime) {
+                expirationCount.increment();
+            } else {
+                evictionCount.increment();
+            }
+        }
+
+        private void removeNode(Node<K, V> node) {
+            unlink(node);
+            entries.remove(node.key);
+            totalWeight -= node.weight;
+            if (node.queue == WINDOW) {
+                windowWeight -= node.weight;
+            } else if (node.queue == PROTECTED) {
+                protectedWeight -= node.weight;
+            }
+        }
+
+        private void linkLast(Node<K, V> queue, Node<K, V> node) {
+            node.prev = queue.prev;
+            node.next = queue;
+            queue.prev.next = node;
+            queue.prev = node;
+        }
+
+        private void unlink(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node;
+            node.next = node;
+        }
+    }
+}
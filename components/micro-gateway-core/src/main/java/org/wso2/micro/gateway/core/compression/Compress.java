@@ -20,15 +20,31 @@ import org.ballerinalang.jvm.util.exceptions.BLangRuntimeException;
 import org.wso2.micro.gateway.core.Constants;
 import org.wso2.micro.gateway.core.utils.ErrorUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 /**
@@ -37,6 +53,11 @@ import java.util.zip.ZipOutputStream;
  *
  */
 public class Compress {
+    private static final byte[] ZIP_FILE_SIGNATURE = {'P', 'K', 3, 4};
+    private static final String ZIP_EXTENSION = ".zip";
+    private static final String TMP_EXTENSION = ".tmp";
+    private static final String BIN_EXTENSION = ".bin";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
 
     /**
      * Compresses a given folder or file.
@@ -116,4 +137,168 @@ public class Compress {
             }
         }
     }
+
+    /**
+     * Compresses the pending files of a directory, which are the files named with the entry name or with the entry
+     * name followed by a suffix, other than the zip files and the temporary files. Each file is compressed into a
+     * zip file with a single entry, named after the file, and is deleted once the zip file is complete. When a
+     * backlog of files has built up, they are compressed in parallel.
+     *
+     * @param directory   directory of the files
+     * @param entryName   name of the zip entries
+     * @param parallelism maximum number of files compressed in parallel
+     * @return error if a file could not be compressed
+     */
+    public static Object compressPendingFiles(String directory, String entryName, long parallelism) {
+        List<Path> pendingFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), entryName + "*")) {
+            for (Path file : files) {
+                String fileName = String.valueOf(file.getFileName());
+                if (Files.isRegularFile(file) && !fileName.endsWith(ZIP_EXTENSION) && !fileName.endsWith(TMP_EXTENSION)
+                        && !fileName.endsWith(BIN_EXTENSION)) {
+                    pendingFiles.add(file);
+                }
+            }
+        } catch (IOException e) {
+            return ErrorUtils.getBallerinaError("Error occurred when listing the files to be compressed", e);
+        }
+        if (pendingFiles.isEmpty()) {
+            return null;
+        }
+        int threadCount = (int) Math.max(1, Math.min(parallelism, pendingFiles.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Path file : pendingFiles) {
+                futures.add(executor.submit(() -> {
+                    String fileName = String.valueOf(file.getFileName());
+                    // a file named with the entry name is given a unique name, as done on rotation
+                    String zipName = fileName.equals(entryName) ?
+                            fileName + "." + System.currentTimeMillis() + "." + UUID.randomUUID() : fileName;
+                    compressFile(file, file.resolveSibling(zipName + ZIP_EXTENSION), entryName);
+                    Files.delete(file);
+                    return null;
+                }));
+            }
+            ExecutionException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                return ErrorUtils.getBallerinaError("Error occurred when compressing", failure.getCause());
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ErrorUtils.getBallerinaError("Error occurred when compressing", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compresses a file into a zip file with a single entry. The zip file is written to a temporary file which is
+     * renamed once it is complete. If the file to be compressed is itself a zip file, which may be incomplete as it
+     * was being written through a {@link StreamingZipOutputStream} at a crash, the data of its first entry is
+     * recovered up to the last complete line.
+     *
+     * @param source    file to be compressed
+     * @param zipFile   zip file to be written
+     * @param entryName name of the zip entry
+     * @throws IOException if an error occurs when compressing
+     */
+    public static void compressFile(Path source, Path zipFile, String entryName) throws IOException {
+        compress(zipFile, entryName, zos -> {
+            if (isZipFile(source)) {
+                try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(source))) {
+                    if (zis.getNextEntry() != null) {
+                        copyCompleteLines(zis, zos);
+                    }
+                }
+            } else {
+                Files.copy(source, zos);
+            }
+        });
+    }
+
+    /**
+     * Compresses the data written by the given writer into a zip file with a single entry. The zip file is written
+     * to a temporary file which is renamed once it is complete.
+     *
+     * @param zipFile   zip file to be written
+     * @param entryName name of the zip entry
+     * @param writer    writer of the data of the zip entry
+     * @throws IOException if an error occurs when compressing
+     */
+    public static void compress(Path zipFile, String entryName, EntryWriter writer) throws IOException {
+        Path tempFile = zipFile.resolveSibling(zipFile.getFileName() + TMP_EXTENSION);
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(tempFile))) {
+            zos.putNextEntry(new ZipEntry(entryName));
+            writer.write(zos);
+            zos.closeEntry();
+        }
+        try {
+            Files.move(tempFile, zipFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, zipFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean isZipFile(Path file) throws IOException {
+        byte[] signature = new byte[ZIP_FILE_SIGNATURE.length];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int read = 0;
+            int count;
+            while (read < signature.length
+                    && (count = inputStream.read(signature, read, signature.length - read)) > 0) {
+                read += count;
+            }
+            return read == signature.length && Arrays.equals(signature, ZIP_FILE_SIGNATURE);
+        }
+    }
+
+    private static void copyCompleteLines(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        // bytes read after the last line feed, which are dropped if the input ends before the line is complete
+        ByteArrayOutputStream incompleteLine = new ByteArrayOutputStream();
+        int count;
+        try {
+            while ((count = inputStream.read(buffer)) > 0) {
+                int lineEnd = count - 1;
+                while (lineEnd >= 0 && buffer[lineEnd] != '\n') {
+                    lineEnd--;
+                }
+                if (lineEnd < 0) {
+                    incompleteLine.write(buffer, 0, count);
+                    continue;
+                }
+                incompleteLine.writeTo(outputStream);
+                incompleteLine.reset();
+                outputStream.write(buffer, 0, lineEnd + 1);
+                incompleteLine.write(buffer, lineEnd + 1, count - lineEnd - 1);
+            }
+            incompleteLine.writeTo(outputStream);
+        } catch (EOFException | ZipException e) {
+            // the zip file is incomplete, and the data after the last complete line is dropped
+        }
+    }
+
+    /**
+     * Writer of the data of a zip entry.
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+
+        /**
+         * Write the data of the zip entry.
+         *
+         * @param outputStream stream of the zip entry, which is not to be closed
+         * @throws IOException if the data could not be written
+         */
+        void write(OutputStream outputStream) throws IOException;
+    }
 }
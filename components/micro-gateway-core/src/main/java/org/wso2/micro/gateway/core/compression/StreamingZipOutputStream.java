@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zip output stream which writes out all the data compressed so far, whenever it is flushed. A zip file written
+ * incrementally through this stream can be read up to the last flush, even if the stream was never finished.
+ */
+public class StreamingZipOutputStream extends ZipOutputStream {
+    private boolean entryOpen;
+
+    public StreamingZipOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void putNextEntry(ZipEntry e) throws IOException {
+        super.putNextEntry(e);
+        entryOpen = true;
+    }
+
+    @Override
+    public void closeEntry() throws IOException {
+        entryOpen = false;
+        super.closeEntry();
+    }
+
+    /**
+     * Complete the current deflate block with a sync flush and flush the underlying stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        if (entryOpen) {
+            int length;
+            while ((length = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0) {
+                out.write(buf, 0, length);
+                if (length < buf.length) {
+                    break;
+                }
+            }
+        }
+        out.flush();
+    }
+}
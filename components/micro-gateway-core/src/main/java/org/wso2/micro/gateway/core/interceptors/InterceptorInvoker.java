@@ -17,51 +17,232 @@
 package org.wso2.micro.gateway.core.interceptors;
 
 import org.ballerinalang.jvm.scheduling.Scheduler;
+import org.ballerinalang.jvm.scheduling.Strand;
+import org.ballerinalang.jvm.values.ArrayValue;
+import org.ballerinalang.jvm.values.MapValue;
 import org.ballerinalang.jvm.values.ObjectValue;
+import org.ballerinalang.jvm.values.connector.NonBlockingCallback;
+import org.ballerinalang.stdlib.runtime.nativeimpl.GetInvocationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.micro.gateway.core.utils.ErrorUtils;
+import org.wso2.micro.gateway.interceptor.AsyncInterceptor;
 import org.wso2.micro.gateway.interceptor.Caller;
+import org.wso2.micro.gateway.interceptor.Constants;
 import org.wso2.micro.gateway.interceptor.Interceptor;
 import org.wso2.micro.gateway.interceptor.Request;
 import org.wso2.micro.gateway.interceptor.Response;
+import org.wso2.micro.gateway.interceptor.SyncInterceptorAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class to dynamically invoke the interceptors defined.
+ * <p>
+ * The java interceptors of a resource are registered at startup as immutable chains, one for the request path and
+ * one for the response path, holding the API level and the resource level interceptors in the order they are
+ * executed. An interceptor class is instantiated once and shared by all the chains it is part of. Interceptors
+ * implementing {@link Interceptor} are adapted to {@link AsyncInterceptor}, hence both kinds are invoked the same way.
+ * </p>
+ * <p>
+ * A chain is executed in a single call, sharing one {@link Caller} and one {@link Request} or {@link Response}
+ * wrapper among its interceptors. If an interceptor returns a stage which has not completed, the strand of the
+ * request is marked as blocked and is resumed once the stage completes, with the position to continue the chain
+ * from. Hence the remaining interceptors are executed on the strand as well.
+ * </p>
  */
 public class InterceptorInvoker {
-    private static Interceptor[] interceptorArray;
-    private static int index = 0;
     private static final Logger log = LoggerFactory.getLogger("ballerina");
+    private static final String INTERCEPTOR_ERROR = "Error while executing the interceptor";
+    private static final AsyncInterceptor[] EMPTY_CHAIN = new AsyncInterceptor[0];
+
+    private static final Map<String, AsyncInterceptor> interceptors = new ConcurrentHashMap<>();
+    // chains are only added at startup, hence they are copied on write and read without locking
+    private static volatile AsyncInterceptor[][] chains = new AsyncInterceptor[0][];
 
-    public static void initiateInterceptorArray(int arraySize) {
-        interceptorArray = new Interceptor[arraySize];
+    private InterceptorInvoker() {
+    }
+
+    /**
+     * Register a chain of interceptors. Interceptors which can not be loaded are logged and left out of the chain.
+     *
+     * @param classNames fully qualified class names of the interceptors, in the order they are executed
+     * @return id of the chain
+     */
+    public static synchronized int registerInterceptorChain(ArrayValue classNames) {
+        List<AsyncInterceptor> chain = new ArrayList<>();
+        for (String className : classNames.getStringArray()) {
+            AsyncInterceptor interceptor = interceptors.computeIfAbsent(className, InterceptorInvoker::loadInterceptor);
+            if (interceptor != null) {
+                chain.add(interceptor);
+            }
+        }
+        AsyncInterceptor[][] newChains = Arrays.copyOf(chains, chains.length + 1);
+        newChains[chains.length] = chain.isEmpty() ? EMPTY_CHAIN : chain.toArray(EMPTY_CHAIN);
+        chains = newChains;
+        return chains.length - 1;
     }
 
-    public static int loadInterceptorClass(String className) {
+    private static AsyncInterceptor loadInterceptor(String className) {
         try {
             Class interceptorClass = InterceptorInvoker.class.getClassLoader().loadClass(className);
-            Interceptor interceptor = (Interceptor) interceptorClass.newInstance();
-            int returnIndex = index;
-            interceptorArray[returnIndex] = interceptor;
-            index++;
-            return returnIndex;
-        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            Object interceptor = interceptorClass.newInstance();
+            if (interceptor instanceof AsyncInterceptor) {
+                return (AsyncInterceptor) interceptor;
+            }
+            return new SyncInterceptorAdapter((Interceptor) interceptor);
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException | ClassCastException e) {
             log.error("Error while loading the interceptor class: " + className, e);
         }
-        return -1;
+        return null;
+    }
+
+    /**
+     * Execute a request interceptor chain, starting from the given position.
+     *
+     * @return true if all the interceptors have been executed, false if an interceptor has responded to the caller,
+     * the position to continue from if the strand was blocked on an interceptor, or an error
+     */
+    public static Object invokeRequestInterceptors(int chainId, int position, ObjectValue caller,
+            ObjectValue request) {
+        Caller callerWrapper = new Caller(caller);
+        Request requestWrapper = new Request(request);
+        return invokeInterceptors(chains[chainId], position,
+                interceptor -> interceptor.interceptRequest(callerWrapper, requestWrapper));
+    }
+
+    /**
+     * Execute a response interceptor chain, starting from the given position.
+     *
+     * @return true if all the interceptors have been executed, false if an interceptor has responded to the caller,
+     * the position to continue from if the strand was blocked on an interceptor, or an error
+     */
+    public static Object invokeResponseInterceptors(int chainId, int position, ObjectValue caller,
+            ObjectValue response) {
+        Caller callerWrapper = new Caller(caller);
+        Response responseWrapper = new Response(response);
+        return invokeInterceptors(chains[chainId], position,
+                interceptor -> interceptor.interceptResponse(callerWrapper, responseWrapper));
+    }
+
+    private static Object invokeInterceptors(AsyncInterceptor[] chain, int position, Invocation invocation) {
+        for (int i = position; i < chain.length; i++) {
+            CompletionStage<Boolean> stage = invoke(chain[i], invocation);
+            CompletableFuture<Boolean> future = toCompletableFuture(stage);
+            if (future == null || !future.isDone()) {
+                return resumeOnCompletion(stage, i + 1, getContextAttributes());
+            }
+            try {
+                if (!Boolean.TRUE.equals(future.join()) && isResponded(getContextAttributes())) {
+                    return complete(false);
+                }
+            } catch (CompletionException | CancellationException e) {
+                return complete(toError(e));
+            }
+        }
+        return complete(true);
+    }
+
+    /**
+     * Set the result of a chain which has not blocked on the strand as its return value. Interceptors reading the
+     * payload yield the strand through the payload call backs, hence the strand would otherwise resume with the value
+     * of the payload read.
+     */
+    private static Object complete(Object result) {
+        Strand strand;
+        try {
+            strand = Scheduler.getStrand();
+        } catch (IllegalStateException e) {
+            // not invoked from a strand, hence there is no strand to resume
+            return result;
+        }
+        if (strand != null) {
+            strand.setReturnValues(result);
+        }
+        return result;
+    }
+
+    private static CompletionStage<Boolean> invoke(AsyncInterceptor interceptor, Invocation invocation) {
+        CompletionStage<Boolean> stage;
+        try {
+            stage = invocation.invoke(interceptor);
+        } catch (RuntimeException e) {
+            stage = failedStage(e);
+        }
+        if (stage == null) {
+            stage = failedStage(new IllegalStateException("Interceptor did not return a result"));
+        }
+        return stage;
+    }
+
+    /**
+     * Block the strand until the stage completes and resume it with the position of the next interceptor, or with
+     * the result of the chain if the interceptor has responded or failed.
+     */
+    private static Object resumeOnCompletion(CompletionStage<Boolean> stage, int nextPosition,
+            MapValue<String, Object> attributes) {
+        Strand strand = Scheduler.getStrand();
+        NonBlockingCallback callback = new NonBlockingCallback(strand);
+        Object[] result = new Object[1];
+        stage.whenComplete((returnedValue, throwable) -> {
+            Object returnValue;
+            if (throwable != null) {
+                returnValue = toError(throwable);
+            } else if (!Boolean.TRUE.equals(returnedValue) && isResponded(attributes)) {
+                returnValue = false;
+            } else {
+                returnValue = (long) nextPosition;
+            }
+            result[0] = returnValue;
+            strand.setReturnValues(returnValue);
+            callback.notifySuccess();
+        });
+        return result[0];
+    }
+
+    private static CompletableFuture<Boolean> toCompletableFuture(CompletionStage<Boolean> stage) {
+        try {
+            return stage.toCompletableFuture();
+        } catch (UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MapValue<String, Object> getContextAttributes() {
+        return (MapValue<String, Object>) GetInvocationContext.getInvocationContext().get(Constants.ATTRIBUTES);
+    }
+
+    private static boolean isResponded(MapValue<String, Object> attributes) {
+        return attributes != null && Boolean.TRUE.equals(attributes.get(Constants.RESPOND_DONE));
+    }
+
+    private static Object toError(Throwable throwable) {
+        if ((throwable instanceof CompletionException) && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        log.error(INTERCEPTOR_ERROR, throwable);
+        return ErrorUtils.getBallerinaError(INTERCEPTOR_ERROR, throwable);
     }
 
-    public static boolean invokeRequestInterceptor(int arrayIndex, ObjectValue caller, ObjectValue request) {
-        boolean returnedValue = interceptorArray[arrayIndex]
-                .interceptRequest(new Caller(caller), new Request(request));
-        Scheduler.getStrand().setReturnValues(returnedValue);
-        return returnedValue;
+    private static CompletionStage<Boolean> failedStage(Throwable throwable) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
     }
 
-    public static boolean invokeResponseInterceptor(int arrayIndex, ObjectValue caller, ObjectValue response) {
-        boolean returnedValue = interceptorArray[arrayIndex]
-                .interceptResponse(new Caller(caller), new Response(response));
-        Scheduler.getStrand().setReturnValues(returnedValue);
-        return returnedValue;
+    /**
+     * Invokes the request or the response path of an interceptor.
+     */
+    private interface Invocation {
+        CompletionStage<Boolean> invoke(AsyncInterceptor interceptor);
     }
 }
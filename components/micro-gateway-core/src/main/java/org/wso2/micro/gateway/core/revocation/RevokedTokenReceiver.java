@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.revocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives the revoked tokens from the token revocation listeners, and answers whether the token of a request has
+ * been revoked.
+ */
+public class RevokedTokenReceiver {
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenReceiver.class);
+
+    private static volatile RevokedTokenStore revokedTokenStore = new RevokedTokenStore(false, 0);
+    private static volatile long defaultTTL = TimeUnit.HOURS.toMillis(1);
+    private static ScheduledExecutorService cleanUpExecutor;
+
+    private RevokedTokenReceiver() {
+    }
+
+    /**
+     * Initialize the revoked token store. Tokens revoked before the initialization are carried over.
+     *
+     * @param bloomFilterEnabled  whether to keep a Bloom filter in front of the revoked tokens
+     * @param bloomFilterCapacity number of revoked tokens the Bloom filter is sized for
+     * @param defaultTTL          time in seconds a revoked token is tracked, if the revocation carries no valid ttl
+     * @param cleanUpInterval     interval in seconds of removing the expired revoked tokens
+     */
+    public static synchronized void initRevokedTokenStore(boolean bloomFilterEnabled, long bloomFilterCapacity,
+            long defaultTTL, long cleanUpInterval) {
+        RevokedTokenStore store = new RevokedTokenStore(bloomFilterEnabled,
+                (int) Math.min(Integer.MAX_VALUE, bloomFilterCapacity));
+        revokedTokenStore.getRevokedTokens().forEach(store::addRevokedToken);
+        revokedTokenStore = store;
+        RevokedTokenReceiver.defaultTTL = TimeUnit.SECONDS.toMillis(defaultTTL);
+
+        if (cleanUpExecutor != null) {
+            cleanUpExecutor.shutdownNow();
+        }
+        cleanUpExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Revoked Token Cleanup Task");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = TimeUnit.SECONDS.toMillis(Math.max(1, cleanUpInterval));
+        cleanUpExecutor.scheduleAtFixedRate(() -> {
+            try {
+                int removed = store.removeExpiredTokens(System.currentTimeMillis());
+                if (log.isDebugEnabled() && removed > 0) {
+                    log.debug("Removed " + removed + " expired revoked tokens. " + store.size()
+                            + " revoked tokens remaining.");
+                }
+            } catch (RuntimeException e) {
+                // an exception would cancel the subsequent executions of the scheduled task
+                log.error("Error while cleaning up the revoked tokens", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add a revoked token.
+     *
+     * @param jti token identifier
+     * @param ttl time in seconds the revocation is valid for. The default ttl is used if it is not a positive number.
+     */
+    public static void addRevokedToken(String jti, String ttl) {
+        long ttlMillis = defaultTTL;
+        try {
+            long ttlSeconds = Long.parseLong(ttl.trim());
+            if (ttlSeconds > 0) {
+                ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+            }
+        } catch (NumberFormatException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Invalid ttl '" + ttl + "' received for the revoked token. The default ttl is used.");
+            }
+        }
+        revokedTokenStore.addRevokedToken(jti, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * Check whether a token is revoked.
+     *
+     * @param jti token identifier
+     * @return true if the token is revoked
+     */
+    public static boolean isTokenRevoked(String jti) {
+        return revokedTokenStore.isRevoked(jti, System.currentTimeMillis());
+    }
+
+    /**
+     * Get the number of revoked tokens tracked.
+     *
+     * @return number of revoked tokens
+     */
+    public static long getRevokedTokenCount() {
+        return revokedTokenStore.size();
+    }
+}
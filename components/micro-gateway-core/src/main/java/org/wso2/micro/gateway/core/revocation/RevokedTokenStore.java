@@ -0,0 +1,161 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.revocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the identifiers (jti) of the revoked tokens against the time at which they can be forgotten, which is when
+ * the revoked tokens would have expired by themselves. A lookup is a single hash probe, and expired entries are
+ * dropped by the lookup which finds them and by {@link #removeExpiredTokens(long)}.
+ * <p>
+ * When the Bloom filter is enabled, a token which is not revoked is, in most cases, answered by the filter without
+ * probing the revoked tokens. The filter can not forget entries, hence it is rebuilt from the live tokens once it
+ * outgrows its capacity or once most of its entries have expired. Additions and rebuilds are serialized, which is
+ * cheap as revocations are rare compared to lookups.
+ * </p>
+ */
+public class RevokedTokenStore {
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenStore.class);
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final int bloomFilterCapacity;
+    private volatile BloomFilter bloomFilter;
+    // number of tokens added to the current Bloom filter, including the expired ones. Guarded by this.
+    private int bloomFilterEntries;
+
+    /**
+     * Create a revoked token store.
+     *
+     * @param bloomFilterEnabled  whether to keep a Bloom filter in front of the revoked tokens
+     * @param bloomFilterCapacity minimum number of revoked tokens the Bloom filter is sized for
+     */
+    public RevokedTokenStore(boolean bloomFilterEnabled, int bloomFilterCapacity) {
+        this.bloomFilterCapacity = Math.max(1, bloomFilterCapacity);
+        if (bloomFilterEnabled) {
+            this.bloomFilter = new BloomFilter(this.bloomFilterCapacity);
+        }
+    }
+
+    /**
+     * Add a revoked token. If the token is already revoked, the later of the expiry times is kept.
+     *
+     * @param jti        token identifier
+     * @param expiryTime time in milliseconds after which the token need not be tracked
+     */
+    public void addRevokedToken(String jti, long expiryTime) {
+        if (bloomFilter == null) {
+            revokedTokens.merge(jti, expiryTime, Math::max);
+            return;
+        }
+        synchronized (this) {
+            // the token is added to the filter after the map, hence a lookup let through by the filter finds it
+            revokedTokens.merge(jti, expiryTime, Math::max);
+            if (++bloomFilterEntries > bloomFilter.getCapacity()) {
+                rebuildBloomFilter();
+            } else {
+                bloomFilter.put(jti);
+            }
+        }
+    }
+
+    /**
+     * Check whether a token is revoked.
+     *
+     * @param jti         token identifier
+     * @param currentTime current time in milliseconds
+     * @return true if the token is revoked and the revocation has not expired
+     */
+    public boolean isRevoked(String jti, long currentTime) {
+        if (revokedTokens.isEmpty()) {
+            return false;
+        }
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiryTime = revokedTokens.get(jti);
+        if (expiryTime == null) {
+            return false;
+        }
+        if (expiryTime > currentTime) {
+            return true;
+        }
+        revokedTokens.remove(jti, expiryTime);
+        return false;
+    }
+
+    /**
+     * Remove the revoked tokens which have expired.
+     *
+     * @param currentTime current time in milliseconds
+     * @return number of tokens removed
+     */
+    public int removeExpiredTokens(long currentTime) {
+        int removed = 0;
+        for (Iterator<Long> iterator = revokedTokens.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next() <= currentTime) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (bloomFilter != null) {
+            synchronized (this) {
+                if (bloomFilterEntries > 2 * revokedTokens.size() && bloomFilterEntries > bloomFilterCapacity / 2) {
+                    rebuildBloomFilter();
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the number of revoked tokens tracked, including the expired tokens which are yet to be removed.
+     *
+     * @return number of revoked tokens
+     */
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    Map<String, Long> getRevokedTokens() {
+        return Collections.unmodifiableMap(revokedTokens);
+    }
+
+    private void rebuildBloomFilter() {
+        int size = revokedTokens.size();
+        BloomFilter filter = new BloomFilter((int) Math.min(Integer.MAX_VALUE, Math.max(bloomFilterCapacity,
+                2L * size)));
+        int entries = 0;
+        for (String jti : revokedTokens.keySet()) {
+            filter.put(jti);
+            entries++;
+        }
+        bloomFilter = filter;
+        bloomFilterEntries = entries;
+        if (log.isDebugEnabled()) {
+            log.debug("Rebuilt the revoked token Bloom filter with " + entries + " tokens and a capacity of "
+                    + filter.getCapacity());
+        }
+    }
+}
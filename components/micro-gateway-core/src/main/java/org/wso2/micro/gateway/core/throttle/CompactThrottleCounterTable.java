@@ -0,0 +1,251 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Throttle counters of a large number of keys, kept in an open addressed table of primitive longs.
+ * <p>
+ * A throttle key is identified by a 64 bit fingerprint of its throttle type and key, and its window start time,
+ * request count, limit and unit time are kept in consecutive slots of a single {@link AtomicLongArray}. Hence a key
+ * costs 40 bytes per table entry, without a key string, a counter object or a map node. Fingerprints may collide
+ * with a probability of about n^2 / 2^65 for n keys, in which case the colliding keys share a counter.
+ * </p>
+ * <p>
+ * Counts are updated and evaluated without locking. Only inserting a key takes a lock, which keeps two threads from
+ * inserting the same key into different entries. Entries are not removed. An entry whose window has ended is reused
+ * by the next key inserted along its probe sequence. As entries do not become empty again, a key is only inserted
+ * within a bounded distance of its home entry, and a key is looked up no further than the longest distance of an
+ * inserted key, instead of probing the whole table. Windows are counted with the fixed window algorithm.
+ * </p>
+ */
+public class CompactThrottleCounterTable {
+    private static final Logger log = LoggerFactory.getLogger(CompactThrottleCounterTable.class);
+
+    private static final int ENTRY_SIZE = 5;
+    private static final int FINGERPRINT = 0;
+    private static final int WINDOW_START_TIME = 1;
+    private static final int COUNT = 2;
+    private static final int LIMIT = 3;
+    private static final int UNIT_TIME = 4;
+    private static final long EMPTY = 0;
+    // marks an entry which is being reused, so that readers do not match it while its fields are reset
+    private static final long RESERVED = 1;
+    // maximum distance of an entry from the home entry of its key
+    private static final int MAX_PROBES = 128;
+
+    private final AtomicLongArray table;
+    private final int capacity;
+    private final int mask;
+    private final int maxProbes;
+    // number of entries probed by a lookup, which is one more than the longest distance of an inserted key
+    private volatile int probeLimit = 1;
+    private final Object insertLock = new Object();
+    private final AtomicLong rejectedInsertCount = new AtomicLong();
+
+    /**
+     * Create a table, which is able to hold the given number of keys within their windows.
+     *
+     * @param maxKeys maximum number of keys counted at a time. The table is sized to twice this number, rounded up
+     *                to a power of two, so that the probe sequences stay short.
+     */
+    public CompactThrottleCounterTable(int maxKeys) {
+        int size = 2;
+        while (size < 2L * maxKeys && size < (1 << 30) / ENTRY_SIZE) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxProbes = Math.min(size, MAX_PROBES);
+        this.table = new AtomicLongArray(size * ENTRY_SIZE);
+    }
+
+    /**
+     * Count a request against a throttle key.
+     *
+     * @param throttleType throttle type of the key
+     * @param throttleKey  throttle key
+     * @param limit        maximum number of requests allowed within the unit time
+     * @param unitTime     length of the window in milliseconds
+     * @param alignment    windows start at a multiple of this time in milliseconds
+     * @param timestamp    time of the request in milliseconds
+     */
+    public void hit(ThrottleData.ThrottleType throttleType, String throttleKey, long limit, long unitTime,
+            long alignment, long timestamp) {
+        long fingerprint = fingerprint(throttleType, throttleKey);
+        while (true) {
+            int entry = find(fingerprint);
+            if (entry < 0) {
+                entry = insert(fingerprint, limit, unitTime, timestamp - (timestamp % alignment), timestamp);
+                if (entry < 0) {
+                    return;
+                }
+            }
+            int base = entry * ENTRY_SIZE;
+            long windowStartTime = table.get(base + WINDOW_START_TIME);
+            while (timestamp > windowStartTime + table.get(base + UNIT_TIME)) {
+                long newWindowStartTime = timestamp - (timestamp % alignment);
+                if (table.compareAndSet(base + WINDOW_START_TIME, windowStartTime, newWindowStartTime)) {
+                    // hits racing with the reset may be counted in either of the windows
+                    table.set(base + COUNT, 0);
+                    break;
+                }
+                windowStartTime = table.get(base + WINDOW_START_TIME);
+            }
+            table.incrementAndGet(base + COUNT);
+            if (table.get(base + FINGERPRINT) != fingerprint) {
+                // the expired entry has been reused by another key in the meantime
+                table.decrementAndGet(base + COUNT);
+                continue;
+            }
+            if (table.get(base + LIMIT) != limit) {
+                table.set(base + LIMIT, limit);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Check whether a throttle key is throttled at the given time.
+     *
+     * @param throttleType throttle type of the key
+     * @param throttleKey  throttle key
+     * @param currentTime  current time in milliseconds
+     * @return true if the requests are throttled
+     */
+    public boolean isThrottled(ThrottleData.ThrottleType throttleType, String throttleKey, long currentTime) {
+        int entry = find(fingerprint(throttleType, throttleKey));
+        if (entry < 0) {
+            return false;
+        }
+        int base = entry * ENTRY_SIZE;
+        long limit = table.get(base + LIMIT);
+        return limit > 0 && currentTime <= table.get(base + WINDOW_START_TIME) + table.get(base + UNIT_TIME)
+                && table.get(base + COUNT) >= limit;
+    }
+
+    /**
+     * Get the request count of a throttle key in its current window.
+     *
+     * @return request count, or zero if the key is not counted
+     */
+    public long getCount(ThrottleData.ThrottleType throttleType, String throttleKey) {
+        int entry = find(fingerprint(throttleType, throttleKey));
+        return entry < 0 ? 0 : table.get(entry * ENTRY_SIZE + COUNT);
+    }
+
+    /**
+     * Get the number of keys which could not be counted, as the entries near their home entries were taken by keys
+     * within their windows.
+     */
+    public long getRejectedInsertCount() {
+        return rejectedInsertCount.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int find(long fingerprint) {
+        int index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        int limit = probeLimit;
+        for (int probes = 0; probes < limit; probes++) {
+            long current = table.get(index * ENTRY_SIZE + FINGERPRINT);
+            if (current == fingerprint) {
+                return index;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(long fingerprint, long limit, long unitTime, long windowStartTime, long currentTime) {
+        synchronized (insertLock) {
+            int index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+            int expiredEntry = -1;
+            int expiredProbes = 0;
+            int emptyEntry = -1;
+            int emptyProbes = 0;
+            for (int probes = 0; probes < maxProbes; probes++) {
+                int base = index * ENTRY_SIZE;
+                long current = table.get(base + FINGERPRINT);
+                if (current == fingerprint) {
+                    // inserted by another thread
+                    return index;
+                }
+                if (current == EMPTY) {
+                    emptyEntry = index;
+                    emptyProbes = probes;
+                    break;
+                }
+                if (expiredEntry < 0 && currentTime > table.get(base + WINDOW_START_TIME)
+                        + table.get(base + UNIT_TIME)) {
+                    expiredEntry = index;
+                    expiredProbes = probes;
+                }
+                index = (index + 1) & mask;
+            }
+            // an empty entry ends the probe sequence, hence an expired entry before it is reused first
+            int entry = expiredEntry >= 0 ? expiredEntry : emptyEntry;
+            if (entry < 0) {
+                if (rejectedInsertCount.getAndIncrement() == 0) {
+                    log.warn("Throttle counter table is full. Increase the maximum number of throttle keys.");
+                }
+                return -1;
+            }
+            int probes = expiredEntry >= 0 ? expiredProbes : emptyProbes;
+            if (probes >= probeLimit) {
+                // published before the key, so that a lookup which finds the key probes far enough
+                probeLimit = probes + 1;
+            }
+            int base = entry * ENTRY_SIZE;
+            table.set(base + FINGERPRINT, RESERVED);
+            table.set(base + WINDOW_START_TIME, windowStartTime);
+            table.set(base + UNIT_TIME, unitTime);
+            table.set(base + LIMIT, limit);
+            table.set(base + COUNT, 0);
+            table.set(base + FINGERPRINT, fingerprint);
+            return entry;
+        }
+    }
+
+    /**
+     * Compute the 64 bit fingerprint of a throttle key, with FNV-1a over the characters of the key followed by the
+     * finalization of MurmurHash3.
+     */
+    static long fingerprint(ThrottleData.ThrottleType throttleType, String throttleKey) {
+        long hash = 0xcbf29ce484222325L ^ throttleType.ordinal();
+        for (int i = 0; i < throttleKey.length(); i++) {
+            hash ^= throttleKey.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        // fingerprints of the empty and the reserved entries are not used by keys
+        return hash == EMPTY || hash == RESERVED ? hash + 2 : hash;
+    }
+}
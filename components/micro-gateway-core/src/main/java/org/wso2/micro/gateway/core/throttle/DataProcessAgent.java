@@ -19,29 +19,20 @@ package org.wso2.micro.gateway.core.throttle;
 import org.ballerinalang.jvm.values.MapValue;
 
 /**
- * This class is responsible for executing data processing logic. This class implements runnable interface and
- * need to execute using thread pool executor.
+ * This class is responsible for executing data processing logic. Instances are pre-allocated as the event slots of
+ * the {@link ThrottleEventPipeline} and reused for the subsequent events.
  */
 public class DataProcessAgent implements Runnable {
 
     private ThrottleCounter throttleCounter;
     private String apiKey;
+    private String apiTier;
     private String appKey;
-    private boolean stopOnQuota;
+    private String appTier;
     private String subscriptionKey;
-    private long appTierCount;
-    private long appTierUnitTime;
-    private String appTierTimeUnit;
-    private long apiTierCount;
-    private long apiTierUnitTime;
-    private String apiTierTimeUnit;
-    private long subscriptionTierCount;
-    private long subscriptionTierUnitTime;
-    private String subscriptionTierTimeUnit;
+    private String subscriptionTier;
     private String resourceKey;
-    private long resourceTierCount;
-    private long resourceTierUnitTime;
-    private String resourceTierTimeUnit;
+    private String resourceTier;
     private long timestamp;
 
 
@@ -50,35 +41,32 @@ public class DataProcessAgent implements Runnable {
     }
 
     /**
-     * This method will use to set throttle data.
+     * This method will use to set throttle data. Only the keys and the tiers are copied from the event, the
+     * policies of the tiers are resolved when the event is processed.
      */
     public void setDataReference(MapValue throttleData) {
 
         this.appKey = throttleData.getStringValue("appKey");
-        this.appTierCount = throttleData.getIntValue("appTierCount");
-        this.appTierUnitTime = throttleData.getIntValue("appTierUnitTime");
-        this.appTierTimeUnit = throttleData.getStringValue("appTierTimeUnit");
+        this.appTier = throttleData.getStringValue("appTier");
         this.apiKey = throttleData.getStringValue("apiKey");
-        this.apiTierCount = throttleData.getIntValue("apiTierCount");
-        this.apiTierUnitTime = throttleData.getIntValue("apiTierUnitTime");
-        this.apiTierTimeUnit = throttleData.getStringValue("apiTierTimeUnit");
+        this.apiTier = throttleData.getStringValue("apiTier");
         this.subscriptionKey = throttleData.getStringValue("subscriptionKey");
-        this.subscriptionTierCount = throttleData.getIntValue("subscriptionTierCount");
-        this.subscriptionTierUnitTime = throttleData.getIntValue("subscriptionTierUnitTime");
-        this.subscriptionTierTimeUnit = throttleData.getStringValue("subscriptionTierTimeUnit");
+        this.subscriptionTier = throttleData.getStringValue("subscriptionTier");
         this.resourceKey = throttleData.getStringValue("resourceKey");
-        this.resourceTierCount = throttleData.getIntValue("resourceTierCount");
-        this.resourceTierUnitTime = throttleData.getIntValue("resourceTierUnitTime");
-        this.resourceTierTimeUnit = throttleData.getStringValue("resourceTierTimeUnit");
-        this.stopOnQuota = throttleData.getBooleanValue("stopOnQuota");
+        this.resourceTier = throttleData.getStringValue("resourceTier");
         this.timestamp = System.currentTimeMillis();
     }
 
     public void run() {
-        throttleCounter.updateCounters(apiKey, appKey, stopOnQuota, subscriptionKey, appTierCount, appTierUnitTime,
-                appTierTimeUnit, apiTierCount, apiTierUnitTime, apiTierTimeUnit, subscriptionTierCount,
-                subscriptionTierUnitTime, subscriptionTierTimeUnit, resourceKey, resourceTierCount,
-                resourceTierUnitTime, resourceTierTimeUnit, timestamp);
+        ThrottlePolicy subscriptionPolicy = ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.SUB_LEVEL_PREFIX,
+                subscriptionTier);
+        // API level policies are deployed as resource level policies
+        throttleCounter.updateCounters(apiKey,
+                ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.RESOURCE_LEVEL_PREFIX, apiTier), appKey,
+                ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.APP_LEVEL_PREFIX, appTier), subscriptionKey,
+                subscriptionPolicy, resourceKey,
+                ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.RESOURCE_LEVEL_PREFIX, resourceTier),
+                subscriptionPolicy == null || subscriptionPolicy.isStopOnQuota(), timestamp);
     }
 
     private ThrottleCounter getDataPublisher() {
@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Lease server client which exchanges JSON messages over http. Connections are kept alive by the JDK connection pool
+ * between the requests.
+ * <p>
+ * A lease is requested with a POST to {@code /acquire} with the body
+ * {@code {"throttleKey", "windowStartTime", "unitTime", "limit", "permits"}}, which is responded with
+ * {@code {"granted"}}. Unused permits are returned with a POST to {@code /release} with the body
+ * {@code {"throttleKey", "windowStartTime", "permits"}}.
+ * </p>
+ */
+public class HttpQuotaLeaseClient implements QuotaLeaseClient {
+    static final String ACQUIRE_PATH = "/acquire";
+    static final String RELEASE_PATH = "/release";
+    static final String THROTTLE_KEY = "throttleKey";
+    static final String WINDOW_START_TIME = "windowStartTime";
+    static final String UNIT_TIME = "unitTime";
+    static final String LIMIT = "limit";
+    static final String PERMITS = "permits";
+    static final String GRANTED = "granted";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int CONNECTION_TIMEOUT = 5000;
+
+    private final URL acquireUrl;
+    private final URL releaseUrl;
+    private final String authorizationHeader;
+    private final SSLSocketFactory sslSocketFactory;
+    private final HostnameVerifier hostnameVerifier;
+
+    /**
+     * Create a lease server client.
+     *
+     * @param endpointUrl      base URL of the lease server
+     * @param credentials      username:password of the lease server
+     * @param sslSocketFactory socket factory for https endpoints, or null to use the default
+     * @param hostnameVerifier hostname verifier for https endpoints, or null to use the default
+     * @throws IOException if the endpoint URL is malformed
+     */
+    public HttpQuotaLeaseClient(String endpointUrl, String credentials, SSLSocketFactory sslSocketFactory,
+            HostnameVerifier hostnameVerifier) throws IOException {
+        String baseUrl = endpointUrl.endsWith("/") ? endpointUrl.substring(0, endpointUrl.length() - 1) : endpointUrl;
+        this.acquireUrl = new URL(baseUrl + ACQUIRE_PATH);
+        this.releaseUrl = new URL(baseUrl + RELEASE_PATH);
+        this.authorizationHeader = ThrottleHttpUtils.getBasicAuthorizationHeader(credentials);
+        this.sslSocketFactory = sslSocketFactory;
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    @Override
+    public long acquire(String throttleKey, long windowStartTime, long unitTime, long limit, long permits)
+            throws IOException {
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(requestBody)) {
+            generator.writeStartObject();
+            generator.writeStringField(THROTTLE_KEY, throttleKey);
+            generator.writeNumberField(WINDOW_START_TIME, windowStartTime);
+            generator.writeNumberField(UNIT_TIME, unitTime);
+            generator.writeNumberField(LIMIT, limit);
+            generator.writeNumberField(PERMITS, permits);
+            generator.writeEndObject();
+        }
+        HttpURLConnection connection = post(acquireUrl, requestBody);
+        try (InputStream inputStream = connection.getInputStream();
+             JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            long granted = 0;
+            while (parser.nextToken() != null) {
+                if (parser.currentToken() == JsonToken.FIELD_NAME && GRANTED.equals(parser.getCurrentName())) {
+                    parser.nextToken();
+                    granted = parser.getLongValue();
+                }
+            }
+            return Math.max(0, Math.min(granted, permits));
+        }
+    }
+
+    @Override
+    public void release(String throttleKey, long windowStartTime, long permits) throws IOException {
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(requestBody)) {
+            generator.writeStartObject();
+            generator.writeStringField(THROTTLE_KEY, throttleKey);
+            generator.writeNumberField(WINDOW_START_TIME, windowStartTime);
+            generator.writeNumberField(PERMITS, permits);
+            generator.writeEndObject();
+        }
+        HttpURLConnection connection = post(releaseUrl, requestBody);
+        try (InputStream inputStream = connection.getInputStream()) {
+            byte[] buffer = new byte[256];
+            while (inputStream.read(buffer) != -1) {
+                // discard the response, which returns the connection to the keep alive pool
+            }
+        }
+    }
+
+    private HttpURLConnection post(URL url, ByteArrayOutputStream requestBody) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        if (connection instanceof HttpsURLConnection) {
+            ThrottleHttpUtils.configure((HttpsURLConnection) connection, sslSocketFactory, hostnameVerifier);
+        }
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setConnectTimeout(CONNECTION_TIMEOUT);
+        connection.setReadTimeout(CONNECTION_TIMEOUT);
+        connection.setFixedLengthStreamingMode(requestBody.size());
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty("Authorization", authorizationHeader);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            requestBody.writeTo(outputStream);
+        }
+        int statusCode = connection.getResponseCode();
+        if (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            InputStream errorStream = connection.getErrorStream();
+            if (errorStream != null) {
+                errorStream.close();
+            }
+            throw new IOException("Lease server responded with the status code " + statusCode + " for " + url);
+        }
+        return connection;
+    }
+}
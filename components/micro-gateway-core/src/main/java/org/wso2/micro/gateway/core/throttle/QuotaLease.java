@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Permits leased by the node for a throttle key within a throttle window.
+ */
+final class QuotaLease {
+    static final long PENDING = -1;
+
+    private final ThrottleData throttleData;
+    private final long windowStartTime;
+    private final AtomicLong grantedPermits = new AtomicLong(PENDING);
+    // only one lease request or release is in flight for a lease
+    private final AtomicBoolean requestInFlight = new AtomicBoolean();
+    private volatile boolean exhausted;
+    private volatile long lastUsedTime;
+
+    QuotaLease(ThrottleData throttleData, long windowStartTime) {
+        this.throttleData = throttleData;
+        this.windowStartTime = windowStartTime;
+        this.lastUsedTime = windowStartTime;
+    }
+
+    ThrottleData getThrottleData() {
+        return throttleData;
+    }
+
+    long getWindowStartTime() {
+        return windowStartTime;
+    }
+
+    /**
+     * Get the number of permits granted within the window, or {@link #PENDING} until the first lease is granted.
+     */
+    long getGrantedPermits() {
+        return grantedPermits.get();
+    }
+
+    void addGrantedPermits(long permits) {
+        long current;
+        do {
+            current = grantedPermits.get();
+        } while (!grantedPermits.compareAndSet(current, current == PENDING ? permits : current + permits));
+    }
+
+    /**
+     * Set the granted permits if no lease has been granted yet.
+     */
+    void grantIfPending(long permits) {
+        grantedPermits.compareAndSet(PENDING, permits);
+    }
+
+    boolean tryStartRequest() {
+        return requestInFlight.compareAndSet(false, true);
+    }
+
+    void endRequest() {
+        requestInFlight.set(false);
+    }
+
+    /**
+     * Check whether the lease server has no more permits for the window, or the lease cannot be renewed.
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    void setExhausted(boolean exhausted) {
+        this.exhausted = exhausted;
+    }
+
+    long getLastUsedTime() {
+        return lastUsedTime;
+    }
+
+    void setLastUsedTime(long lastUsedTime) {
+        this.lastUsedTime = lastUsedTime;
+    }
+}
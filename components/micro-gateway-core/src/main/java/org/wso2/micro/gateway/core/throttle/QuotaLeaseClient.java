@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import java.io.IOException;
+
+/**
+ * Client of the lease server, which shares the quota of a throttle key among the gateway nodes. A node leases a
+ * slice of the quota of a throttle window and enforces it locally.
+ */
+public interface QuotaLeaseClient {
+
+    /**
+     * Lease permits of the quota of a throttle key within a throttle window.
+     *
+     * @param throttleKey     throttle key
+     * @param windowStartTime start time of the throttle window in milliseconds
+     * @param unitTime        length of the throttle window in milliseconds
+     * @param limit           quota of the throttle key within the window
+     * @param permits         number of permits requested
+     * @return number of permits granted, which is less than requested once the quota is exhausted
+     * @throws IOException if the lease server cannot be reached
+     */
+    long acquire(String throttleKey, long windowStartTime, long unitTime, long limit, long permits)
+            throws IOException;
+
+    /**
+     * Return unused permits of a throttle window to the lease server.
+     *
+     * @param throttleKey     throttle key
+     * @param windowStartTime start time of the throttle window in milliseconds
+     * @param permits         number of permits returned
+     * @throws IOException if the lease server cannot be reached
+     */
+    void release(String throttleKey, long windowStartTime, long permits) throws IOException;
+}
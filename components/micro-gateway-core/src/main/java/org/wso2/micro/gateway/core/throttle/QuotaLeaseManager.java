@@ -0,0 +1,215 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enforces a share of the quota of each throttle key, leased from a lease server which is shared by the gateway
+ * nodes.
+ * <p>
+ * The {@link ThrottleCounter} evaluates a throttle key against the permits leased for its current window instead of
+ * the quota of the policy. Leases are requested asynchronously once the unused permits drop below the renew
+ * threshold, hence requests do not wait for the lease server. Until the first lease of a window is granted, the
+ * requests of the key are not throttled. If the first lease cannot be obtained, the quota of the policy is enforced
+ * locally for the rest of the window. Unused permits of keys which have been idle are returned to the lease server,
+ * so that other nodes can lease them.
+ * </p>
+ */
+public class QuotaLeaseManager {
+    private static final Logger log = LoggerFactory.getLogger(QuotaLeaseManager.class);
+
+    private final QuotaLeaseClient leaseClient;
+    private final long leaseSize;
+    private final long renewThreshold;
+    private final long idleTimeout;
+    private final ScheduledExecutorService executor;
+    private final Set<QuotaLease> activeLeases = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+
+    /**
+     * Create a lease manager.
+     *
+     * @param leaseClient    client of the lease server
+     * @param leaseSize      number of permits requested at once
+     * @param renewThreshold number of unused permits which triggers leasing more permits
+     * @param idleTimeout    time in milliseconds after which the unused permits of an idle key are returned
+     * @param threadCount    number of threads communicating with the lease server
+     */
+    public QuotaLeaseManager(QuotaLeaseClient leaseClient, long leaseSize, long renewThreshold, long idleTimeout,
+            int threadCount) {
+        this.leaseClient = leaseClient;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.renewThreshold = Math.max(0, renewThreshold);
+        this.idleTimeout = Math.max(1, idleTimeout);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, threadCount), runnable -> {
+            Thread thread = new Thread(runnable, "Quota Lease Client-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> releaseLeases(System.currentTimeMillis(), this.idleTimeout),
+                this.idleTimeout, this.idleTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the limit a throttle key is evaluated against for a request, and lease more permits if the unused permits
+     * are running low.
+     *
+     * @param throttleData throttle data of the key
+     * @param policy       throttle policy of the key
+     * @param timestamp    time of the request
+     * @return number of requests allowed within the current window
+     */
+    long getLimit(ThrottleData throttleData, ThrottlePolicy policy, long timestamp) {
+        long windowStartTime = throttleData.getWindowStartTime();
+        long count = throttleData.getCount();
+        if (timestamp > windowStartTime + throttleData.getUnitTime()) {
+            // the request starts a new window
+            windowStartTime = timestamp - (timestamp % throttleData.getWindowAlignment());
+            count = 0;
+        }
+        QuotaLease lease = throttleData.getQuotaLease();
+        if (lease == null || lease.getWindowStartTime() != windowStartTime) {
+            QuotaLease newLease = new QuotaLease(throttleData, windowStartTime);
+            if (throttleData.compareAndSetQuotaLease(lease, newLease)) {
+                if (lease != null) {
+                    activeLeases.remove(lease);
+                }
+                activeLeases.add(newLease);
+                lease = newLease;
+            } else {
+                lease = throttleData.getQuotaLease();
+            }
+        }
+        lease.setLastUsedTime(timestamp);
+        // the request being counted is included
+        count++;
+        long granted = lease.getGrantedPermits();
+        if (!lease.isExhausted() && (granted == QuotaLease.PENDING || granted - count < renewThreshold)) {
+            long deficit = granted == QuotaLease.PENDING ? count : Math.max(0, count - granted);
+            requestPermits(lease, throttleData, policy, deficit + leaseSize);
+        }
+        if (granted == QuotaLease.PENDING) {
+            return Long.MAX_VALUE;
+        }
+        // a limit of zero disables throttling, hence a key without permits is throttled from its first request
+        return Math.max(granted, 1);
+    }
+
+    private void requestPermits(QuotaLease lease, ThrottleData throttleData, ThrottlePolicy policy, long permits) {
+        if (!lease.tryStartRequest()) {
+            return;
+        }
+        requestsInFlight.incrementAndGet();
+        try {
+            executor.execute(() -> acquire(lease, throttleData, policy, permits));
+        } catch (RejectedExecutionException e) {
+            lease.endRequest();
+            requestsInFlight.decrementAndGet();
+        }
+    }
+
+    private void acquire(QuotaLease lease, ThrottleData throttleData, ThrottlePolicy policy, long permits) {
+        String throttleKey = throttleData.getThrottleKey();
+        try {
+            long granted = leaseClient.acquire(throttleKey, lease.getWindowStartTime(), throttleData.getUnitTime(),
+                    policy.getCount(), permits);
+            lease.addGrantedPermits(granted);
+            if (granted < permits) {
+                lease.setExhausted(true);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Leased " + granted + " of " + permits + " requested permits for the throttle key "
+                        + throttleKey);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Error while leasing the quota of the throttle key " + throttleKey
+                    + ". Permits already leased are enforced until the throttle window ends.", e);
+            // the quota of the policy is enforced locally, if no lease could be obtained for the window
+            lease.grantIfPending(policy.getCount());
+            lease.setExhausted(true);
+        } finally {
+            lease.endRequest();
+            requestsInFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Return the unused permits of the keys which have not been used within the idle time, and forget the leases of
+     * the ended windows.
+     *
+     * @param currentTime current time in milliseconds
+     * @param idleTime    time in milliseconds after which a key is considered idle
+     * @return number of leases returned
+     */
+    int releaseLeases(long currentTime, long idleTime) {
+        int released = 0;
+        for (QuotaLease lease : activeLeases) {
+            ThrottleData throttleData = lease.getThrottleData();
+            if (throttleData.getQuotaLease() != lease
+                    || currentTime > lease.getWindowStartTime() + throttleData.getUnitTime()) {
+                // the window has ended, hence its permits are of no use to the other nodes either
+                activeLeases.remove(lease);
+                continue;
+            }
+            if (currentTime - lease.getLastUsedTime() < idleTime || !lease.tryStartRequest()) {
+                continue;
+            }
+            try {
+                long granted = lease.getGrantedPermits();
+                long unused = granted - throttleData.getCount();
+                if (granted != QuotaLease.PENDING && unused > 0) {
+                    leaseClient.release(throttleData.getThrottleKey(), lease.getWindowStartTime(), unused);
+                    lease.addGrantedPermits(-unused);
+                    lease.setExhausted(false);
+                    released++;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Error while returning the unused permits of the throttle key "
+                        + throttleData.getThrottleKey(), e);
+            } finally {
+                lease.endRequest();
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Get the number of lease requests waiting for the lease server.
+     */
+    int getRequestsInFlight() {
+        return requestsInFlight.get();
+    }
+
+    /**
+     * Return the unused permits of all the keys and stop communicating with the lease server.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        releaseLeases(System.currentTimeMillis(), 0);
+    }
+}
@@ -21,8 +21,10 @@ package org.wso2.micro.gateway.core.throttle;
  */
 public class ThrottleConfigHolder {
 
-    private int processThreadPoolCoreSize = 200, processThreadPoolMaximumSize = 1000,
-            processThreadPoolKeepAliveTime = 200, throttleFrequency = 3600;
+    private int eventQueueSize = 16384, eventProcessorCount = 2, eventBatchSize = 256, eventQueueBlockTimeout = 100,
+            throttleFrequency = 1;
+    private ThrottleData.WindowAlgorithm windowAlgorithm = ThrottleData.WindowAlgorithm.FIXED;
+    private ThrottleEventPipeline.OverflowPolicy eventOverflowPolicy = ThrottleEventPipeline.OverflowPolicy.CALLER_RUNS;
 
     private static class InnerConfigHolder {
         private static final ThrottleConfigHolder instance = new ThrottleConfigHolder();
@@ -35,27 +37,48 @@ public class ThrottleConfigHolder {
         return InnerConfigHolder.instance;
     }
 
-    public void setData(int processThreadPoolCoreSize,
-            int processThreadPoolMaximumSize, int processThreadPoolKeepAliveTime, int throttleFrequency) {
-        this.processThreadPoolCoreSize = processThreadPoolCoreSize;
-        this.processThreadPoolMaximumSize = processThreadPoolMaximumSize;
-        this.processThreadPoolKeepAliveTime = processThreadPoolKeepAliveTime;
+    public void setData(int eventQueueSize, int eventProcessorCount, int eventBatchSize, int eventQueueBlockTimeout,
+            int throttleFrequency) {
+        this.eventQueueSize = eventQueueSize;
+        this.eventProcessorCount = eventProcessorCount;
+        this.eventBatchSize = eventBatchSize;
+        this.eventQueueBlockTimeout = eventQueueBlockTimeout;
         this.throttleFrequency = throttleFrequency;
     }
 
-    public int getProcessThreadPoolCoreSize() {
-        return processThreadPoolCoreSize;
+    public void setWindowAlgorithm(ThrottleData.WindowAlgorithm windowAlgorithm) {
+        this.windowAlgorithm = windowAlgorithm;
     }
 
-    public int getProcessThreadPoolMaximumSize() {
-        return processThreadPoolMaximumSize;
+    public void setEventOverflowPolicy(ThrottleEventPipeline.OverflowPolicy eventOverflowPolicy) {
+        this.eventOverflowPolicy = eventOverflowPolicy;
     }
 
-    public int getProcessThreadPoolKeepAliveTime() {
-        return processThreadPoolKeepAliveTime;
+    public int getEventQueueSize() {
+        return eventQueueSize;
+    }
+
+    public int getEventProcessorCount() {
+        return eventProcessorCount;
+    }
+
+    public int getEventBatchSize() {
+        return eventBatchSize;
+    }
+
+    public int getEventQueueBlockTimeout() {
+        return eventQueueBlockTimeout;
     }
 
     public int getThrottleFrequency() {
         return throttleFrequency;
     }
+
+    public ThrottleData.WindowAlgorithm getWindowAlgorithm() {
+        return windowAlgorithm;
+    }
+
+    public ThrottleEventPipeline.OverflowPolicy getEventOverflowPolicy() {
+        return eventOverflowPolicy;
+    }
 }
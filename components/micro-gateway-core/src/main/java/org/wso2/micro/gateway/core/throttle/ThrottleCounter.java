@@ -21,10 +21,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 
 /**
- * This class is responsible for maintaining the throttle counters for various throttle policies.
+ * This class is responsible for maintaining the throttle counters for various throttle policies. Existing keys are
+ * looked up and updated without locking, so that concurrent hits of a popular key do not serialize on a map bin.
  */
 public class ThrottleCounter {
     private static final Logger log = LoggerFactory.getLogger(ThrottleCounter.class);
@@ -33,136 +33,126 @@ public class ThrottleCounter {
     private static final Map<String, ThrottleData> resourceLevelCounter = new ConcurrentHashMap<>();
     private static final Map<String, ThrottleData> applicationLevelCounter = new ConcurrentHashMap<>();
     private static final Map<String, ThrottleData> subscriptionLevelCounter = new ConcurrentHashMap<>();
-
-    public void updateCounters(String apiKey, String appKey, boolean stopOnQuota, String subscriptionKey,
-            long appTierCount, long appTierUnitTime, String appTierTimeUnit, long apiTierCount, long apiTierUnitTime,
-            String apiTierTimeUnit, long subscriptionTierCount, long subscriptionTierUnitTime,
-            String subscriptionTierTimeUnit, String resourceKey, long resourceTierCount, long resourceTierUnitTime,
-            String resourceTierTimeUnit, long timestamp) {
-        updateMapCounters(apiLevelCounter, apiKey, stopOnQuota, apiTierCount, apiTierUnitTime, apiTierTimeUnit,
-                timestamp, ThrottleData.ThrottleType.API);
-        updateMapCounters(resourceLevelCounter, resourceKey, stopOnQuota, resourceTierCount, resourceTierUnitTime,
-                resourceTierTimeUnit, timestamp, ThrottleData.ThrottleType.RESOURCE);
-        updateMapCounters(applicationLevelCounter, appKey, stopOnQuota, appTierCount, appTierUnitTime, appTierTimeUnit,
-                timestamp, ThrottleData.ThrottleType.APP);
-        updateMapCounters(subscriptionLevelCounter, subscriptionKey, stopOnQuota, subscriptionTierCount,
-                subscriptionTierUnitTime, subscriptionTierTimeUnit, timestamp, ThrottleData.ThrottleType.SUBSCRIPTION);
+    // counts the keys instead of the maps, when the compact counter store is used
+    private static volatile CompactThrottleCounterTable compactCounterTable;
+
+    /**
+     * Count a request against the counters of its tiers. Tiers without a policy, such as the unlimited tier, are not
+     * counted.
+     */
+    public void updateCounters(String apiKey, ThrottlePolicy apiPolicy, String appKey, ThrottlePolicy appPolicy,
+            String subscriptionKey, ThrottlePolicy subscriptionPolicy, String resourceKey,
+            ThrottlePolicy resourcePolicy, boolean stopOnQuota, long timestamp) {
+        updateMapCounters(apiLevelCounter, apiKey, apiPolicy, stopOnQuota, timestamp, ThrottleData.ThrottleType.API);
+        updateMapCounters(resourceLevelCounter, resourceKey, resourcePolicy, stopOnQuota, timestamp,
+                ThrottleData.ThrottleType.RESOURCE);
+        updateMapCounters(applicationLevelCounter, appKey, appPolicy, stopOnQuota, timestamp,
+                ThrottleData.ThrottleType.APP);
+        updateMapCounters(subscriptionLevelCounter, subscriptionKey, subscriptionPolicy, stopOnQuota, timestamp,
+                ThrottleData.ThrottleType.SUBSCRIPTION);
     }
 
-    private void updateMapCounters(Map<String, ThrottleData> counterMap, String throttleKey, boolean stopOnQuota,
-            long limit, long unitTime, String timeUnit, long timestamp, ThrottleData.ThrottleType throttleType) {
-        ThrottleData existingThrottleData = counterMap.computeIfPresent(throttleKey, (key, throttleData) -> {
-            if (limit > 0 && throttleData.getCount().incrementAndGet() >= limit) {
-                throttleData.setThrottled(true);
-            } else {
-                throttleData.setThrottled(false);
-            }
-            if (timestamp > throttleData.getWindowStartTime() + throttleData.getUnitTime()) {
-                throttleData.getCount().set(1);
-                long startTime = timestamp - (timestamp % getTimeInMilliSeconds(1, timeUnit));
-                throttleData.setWindowStartTime(startTime);
-                throttleData.setThrottled(false);
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("Throttle count for the key '" + throttleKey + "' is " + throttleData.getCount());
-            }
-            return throttleData;
-        });
-        if (existingThrottleData == null) {
-            counterMap.computeIfAbsent(throttleKey, key -> {
-                ThrottleData throttleData = new ThrottleData();
-                long startTime = timestamp - (timestamp % getTimeInMilliSeconds(1, timeUnit));
-                throttleData.setWindowStartTime(startTime);
-                throttleData.setStopOnQuota(stopOnQuota);
-                throttleData.setUnitTime(getTimeInMilliSeconds(unitTime, timeUnit));
-                throttleData.setThrottleType(throttleType);
-                throttleData.getCount().set(0);
-                throttleData.setThrottleKey(key);
-                ThrottleDataReceiver.getThrottleDataCleanUpTask().addThrottleData(throttleData);
+    private void updateMapCounters(Map<String, ThrottleData> counterMap, String throttleKey, ThrottlePolicy policy,
+            boolean stopOnQuota, long timestamp, ThrottleData.ThrottleType throttleType) {
+        if (policy == null || throttleKey == null) {
+            return;
+        }
+        CompactThrottleCounterTable counterTable = compactCounterTable;
+        if (counterTable != null) {
+            counterTable.hit(throttleType, throttleKey, policy.getCount(), policy.getUnitTime(),
+                    policy.getWindowAlignment(), timestamp);
+            return;
+        }
+        // lock free read for the existing keys. The map bin is only locked when a new key is inserted.
+        ThrottleData throttleData = counterMap.get(throttleKey);
+        if (throttleData == null) {
+            throttleData = counterMap.computeIfAbsent(throttleKey, key -> {
+                ThrottleData newThrottleData = new ThrottleData();
+                newThrottleData.setWindowAlignment(policy.getWindowAlignment());
+                newThrottleData.setWindowStartTime(timestamp - (timestamp % policy.getWindowAlignment()));
+                newThrottleData.setStopOnQuota(stopOnQuota);
+                newThrottleData.setUnitTime(policy.getUnitTime());
+                newThrottleData.setThrottleType(throttleType);
+                newThrottleData.setWindowAlgorithm(ThrottleConfigHolder.getInstance().getWindowAlgorithm());
+                newThrottleData.setThrottleKey(key);
+                ThrottleDataReceiver.getThrottleDataCleanUpTask().addThrottleData(newThrottleData);
                 if (log.isDebugEnabled()) {
                     log.debug("Throttle key inserted " + throttleKey);
                 }
-                return throttleData;
-            });
-            //There can be scenarios where the two threads stops at computeIfAbsent and one thread adds it to the map
-            //and the second thread will go without incrementing the count. This additional computation is done to avoid
-            // that scenario
-            counterMap.computeIfPresent(throttleKey, (key, throttleData) -> {
-                throttleData.getCount().incrementAndGet();
-                return throttleData;
+                return newThrottleData;
             });
         }
+        QuotaLeaseManager quotaLeaseManager = ThrottleDataReceiver.getQuotaLeaseManager();
+        long limit = quotaLeaseManager == null ? policy.getCount()
+                : quotaLeaseManager.getLimit(throttleData, policy, timestamp);
+        throttleData.hit(timestamp, limit);
+        if (log.isDebugEnabled()) {
+            log.debug("Throttle count for the key '" + throttleKey + "' is " + throttleData.getCount());
+        }
     }
 
     static boolean isResourceThrottled(String resourceKey) {
-        return isRequestThrottled(resourceLevelCounter, resourceKey);
+        return isRequestThrottled(resourceLevelCounter, ThrottleData.ThrottleType.RESOURCE, resourceKey);
     }
 
     static boolean isAppLevelThrottled(String appKey) {
-        return isRequestThrottled(applicationLevelCounter, appKey);
+        return isRequestThrottled(applicationLevelCounter, ThrottleData.ThrottleType.APP, appKey);
     }
 
     static boolean isSubscriptionLevelThrottled(String subscriptionKey) {
-        return isRequestThrottled(subscriptionLevelCounter, subscriptionKey);
+        return isRequestThrottled(subscriptionLevelCounter, ThrottleData.ThrottleType.SUBSCRIPTION, subscriptionKey);
     }
 
     static boolean isApiLevelThrottled(String apiKey) {
-        return isRequestThrottled(apiLevelCounter, apiKey);
+        return isRequestThrottled(apiLevelCounter, ThrottleData.ThrottleType.API, apiKey);
     }
 
-    static void removeFromResourceCounterMap(String key) {
-        resourceLevelCounter.remove(key);
+    static void removeFromResourceCounterMap(ThrottleData throttleData) {
+        resourceLevelCounter.remove(throttleData.getThrottleKey(), throttleData);
     }
 
-    static void removeFromApplicationCounterMap(String key) {
-        applicationLevelCounter.remove(key);
+    static void removeFromApplicationCounterMap(ThrottleData throttleData) {
+        applicationLevelCounter.remove(throttleData.getThrottleKey(), throttleData);
     }
 
-    static void removeFromApiCounterMap(String key) {
-        apiLevelCounter.remove(key);
+    static void removeFromApiCounterMap(ThrottleData throttleData) {
+        apiLevelCounter.remove(throttleData.getThrottleKey(), throttleData);
     }
 
-    static void removeFromSubscriptionCounterMap(String key) {
-        subscriptionLevelCounter.remove(key);
+    static void removeFromSubscriptionCounterMap(ThrottleData throttleData) {
+        subscriptionLevelCounter.remove(throttleData.getThrottleKey(), throttleData);
     }
 
-    private static boolean isRequestThrottled(Map<String, ThrottleData> counterMap, String throttleKey) {
-        if (counterMap.containsKey(throttleKey)) {
-            long currentTime = System.currentTimeMillis();
-            ThrottleData throttleData = counterMap.get(throttleKey);
-            if (currentTime > throttleData.getWindowStartTime() + throttleData.getUnitTime()) {
-                counterMap.computeIfPresent(throttleKey, (key, throttleData1) -> {
-                    throttleData1.setThrottled(false);
-                    return throttleData1;
-                });
-                if (log.isDebugEnabled()) {
-                    log.debug("Throttle window has expired. CurrentTime : " + currentTime + "\n Window start time : "
-                            + throttleData.getWindowStartTime() + "\n Unit time : " + throttleData.getUnitTime());
-                }
-                return false;
-            }
-            return throttleData.isThrottled();
-        }
-        return false;
+    /**
+     * Count the keys in a compact table instead of the maps.
+     *
+     * @param counterTable compact counter table, or null to use the maps
+     */
+    static void setCompactCounterTable(CompactThrottleCounterTable counterTable) {
+        compactCounterTable = counterTable;
+    }
+
+    static boolean isCompactCounterTableUsed() {
+        return compactCounterTable != null;
     }
 
-    private long getTimeInMilliSeconds(long unitTime, String timeUnit) {
-        long milliSeconds;
-        if ("min".equalsIgnoreCase(timeUnit)) {
-            milliSeconds = TimeUnit.MINUTES.toMillis(unitTime);
-        } else if ("hour".equalsIgnoreCase(timeUnit)) {
-            milliSeconds = TimeUnit.HOURS.toMillis(unitTime);
-        } else if ("day".equalsIgnoreCase(timeUnit)) {
-            milliSeconds = TimeUnit.DAYS.toMillis(unitTime);
-        } else if ("week".equalsIgnoreCase(timeUnit)) {
-            milliSeconds = 7 * TimeUnit.DAYS.toMillis(unitTime);
-        } else if ("month".equalsIgnoreCase(timeUnit)) {
-            milliSeconds = 30 * TimeUnit.DAYS.toMillis(unitTime);
-        } else if ("year".equalsIgnoreCase(timeUnit)) {
-            milliSeconds = 365 * TimeUnit.DAYS.toMillis(unitTime);
-        } else {
-            throw new RuntimeException("Unsupported time unit provided");
+    private static boolean isRequestThrottled(Map<String, ThrottleData> counterMap,
+            ThrottleData.ThrottleType throttleType, String throttleKey) {
+        CompactThrottleCounterTable counterTable = compactCounterTable;
+        if (counterTable != null) {
+            return counterTable.isThrottled(throttleType, throttleKey, System.currentTimeMillis());
+        }
+        ThrottleData throttleData = counterMap.get(throttleKey);
+        if (throttleData == null) {
+            return false;
+        }
+        long currentTime = System.currentTimeMillis();
+        boolean throttled = throttleData.isThrottled(currentTime);
+        if (!throttled && log.isDebugEnabled() && currentTime > throttleData.getWindowStartTime()
+                + throttleData.getUnitTime()) {
+            log.debug("Throttle window has expired. CurrentTime : " + currentTime + "\n Window start time : "
+                    + throttleData.getWindowStartTime() + "\n Unit time : " + throttleData.getUnitTime());
         }
-        return milliSeconds;
+        return throttled;
     }
 }
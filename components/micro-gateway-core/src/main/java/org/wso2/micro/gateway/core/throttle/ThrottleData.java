@@ -17,9 +17,13 @@
 package org.wso2.micro.gateway.core.throttle;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Class to hold throttle counter data against a specific key.
+ * Class to hold throttle counter data against a specific key. Hits are counted with a striped {@link LongAdder} and
+ * the window is rolled over with a CAS on the window start time, hence concurrent updates of a hot key do not
+ * contend on a lock.
  */
 public class ThrottleData {
 
@@ -30,21 +34,142 @@ public class ThrottleData {
         APP, SUBSCRIPTION, RESOURCE, API
     }
 
-    private long windowStartTime = 0;
+    /**
+     * Enum to hold the algorithms used to evaluate the request count of a throttle window.
+     */
+    public enum WindowAlgorithm {
+        /**
+         * Requests are counted in consecutive, non overlapping windows.
+         */
+        FIXED,
+        /**
+         * Requests are counted in a window ending at the current time. The count is approximated using the current
+         * fixed window and the weighted count of the previous fixed window.
+         */
+        SLIDING;
+
+        public static WindowAlgorithm fromString(String algorithm) {
+            return "sliding".equalsIgnoreCase(algorithm) ? SLIDING : FIXED;
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<ThrottleData, QuotaLease> QUOTA_LEASE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(ThrottleData.class, QuotaLease.class, "quotaLease");
+
+    private final AtomicLong windowStartTime = new AtomicLong();
     private long unitTime;
-    private AtomicLong count = new AtomicLong();
+    // windows start at a multiple of this time, which is one unit of the time unit of the policy.
+    private long windowAlignment = 1;
+    private final LongAdder count = new LongAdder();
+    private volatile PreviousWindow previousWindow;
+    private volatile long limit;
     private long remainingQuota;
     private boolean stopOnQuota = true;
-    private boolean throttled = false;
+    private volatile boolean throttled = false;
     private String throttleKey;
     private ThrottleType throttleType;
+    private WindowAlgorithm windowAlgorithm = WindowAlgorithm.FIXED;
+    // next entry of the same expiry bucket of the ThrottleDataCleanUpTask
+    ThrottleData nextExpiryEntry;
+    // permits leased for the current window, when the quota is leased from a lease server
+    private volatile QuotaLease quotaLease;
+
+    /**
+     * Count a request and re-evaluate the throttle state of the key.
+     *
+     * @param timestamp time of the request
+     * @param limit     maximum number of requests allowed within the unit time
+     */
+    public void hit(long timestamp, long limit) {
+        rollWindowIfExpired(timestamp);
+        count.increment();
+        if (this.limit != limit) {
+            this.limit = limit;
+        }
+        throttled = limit > 0 && getRequestCount(timestamp) >= limit;
+    }
+
+    /**
+     * Check whether the key is throttled at the given time.
+     *
+     * @param currentTime current time in milliseconds
+     * @return true if the requests are throttled
+     */
+    public boolean isThrottled(long currentTime) {
+        if (windowAlgorithm == WindowAlgorithm.SLIDING) {
+            // the sliding count decays with time, so it has to be evaluated against the current time.
+            return limit > 0 && getRequestCount(currentTime) >= limit;
+        }
+        return currentTime <= getWindowStartTime() + unitTime && throttled;
+    }
+
+    /**
+     * Get the number of requests counted against the key at the given time, according to the window algorithm.
+     *
+     * @param currentTime current time in milliseconds
+     * @return request count
+     */
+    public long getRequestCount(long currentTime) {
+        long windowStart = getWindowStartTime();
+        long currentCount = count.sum();
+        if (windowAlgorithm == WindowAlgorithm.FIXED) {
+            return currentTime > windowStart + unitTime ? 0 : currentCount;
+        }
+        long slidingWindowStart = currentTime - unitTime;
+        if (currentTime > windowStart + unitTime) {
+            // no request has rolled the window yet. Current window is the previous window of the sliding window.
+            return weightedCount(windowStart, currentCount, slidingWindowStart);
+        }
+        PreviousWindow previous = previousWindow;
+        if (previous == null) {
+            return currentCount;
+        }
+        return currentCount + weightedCount(previous.startTime, previous.count, slidingWindowStart);
+    }
+
+    private long weightedCount(long windowStart, long windowCount, long slidingWindowStart) {
+        long overlap = windowStart + unitTime - slidingWindowStart;
+        if (overlap <= 0 || unitTime <= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(windowCount * ((double) Math.min(overlap, unitTime) / unitTime));
+    }
+
+    private void rollWindowIfExpired(long timestamp) {
+        long start = windowStartTime.get();
+        while (timestamp > start + unitTime) {
+            long newStart = timestamp - (timestamp % windowAlignment);
+            if (windowStartTime.compareAndSet(start, newStart)) {
+                // only the thread which moved the window resets the counter. Hits racing with the reset may be
+                // counted in either of the windows.
+                long lastCount = count.sumThenReset();
+                if (windowAlgorithm == WindowAlgorithm.SLIDING) {
+                    previousWindow = new PreviousWindow(start, lastCount);
+                }
+                throttled = false;
+                return;
+            }
+            start = windowStartTime.get();
+        }
+    }
+
+    /**
+     * Get the time the entry can be removed at, without affecting throttling decisions.
+     *
+     * @return expiry time in milliseconds
+     */
+    public long getExpiryTime() {
+        long windowEnd = getWindowStartTime() + unitTime;
+        // the sliding window keeps using the count of an ended window for one more unit time
+        return windowAlgorithm == WindowAlgorithm.SLIDING ? windowEnd + unitTime : windowEnd;
+    }
 
     public long getWindowStartTime() {
-        return windowStartTime;
+        return windowStartTime.get();
     }
 
     public void setWindowStartTime(long windowStartTime) {
-        this.windowStartTime = windowStartTime;
+        this.windowStartTime.set(windowStartTime);
     }
 
     public long getUnitTime() {
@@ -55,12 +180,16 @@ public class ThrottleData {
         this.unitTime = unitTime;
     }
 
-    public AtomicLong getCount() {
-        return count;
+    public long getWindowAlignment() {
+        return windowAlignment;
+    }
+
+    public void setWindowAlignment(long windowAlignment) {
+        this.windowAlignment = windowAlignment > 0 ? windowAlignment : 1;
     }
 
-    public void setCount(AtomicLong count) {
-        this.count = count;
+    public long getCount() {
+        return count.sum();
     }
 
     public long getRemainingQuota() {
@@ -95,27 +224,47 @@ public class ThrottleData {
         this.throttleType = throttleType;
     }
 
+    public WindowAlgorithm getWindowAlgorithm() {
+        return windowAlgorithm;
+    }
+
+    public void setWindowAlgorithm(WindowAlgorithm windowAlgorithm) {
+        this.windowAlgorithm = windowAlgorithm;
+    }
+
+    public String getThrottleKey() {
+        return throttleKey;
+    }
+
     public void setThrottleKey(String throttleKey) {
         this.throttleKey = throttleKey;
     }
 
+    QuotaLease getQuotaLease() {
+        return quotaLease;
+    }
+
+    boolean compareAndSetQuotaLease(QuotaLease expectedLease, QuotaLease newLease) {
+        return QUOTA_LEASE_UPDATER.compareAndSet(this, expectedLease, newLease);
+    }
+
     public boolean cleanThrottleData(long timeStamp) {
-        if (this.windowStartTime + this.unitTime < timeStamp) {
+        if (getExpiryTime() < timeStamp) {
             switch (getThrottleType()) {
                 case APP: {
-                    ThrottleCounter.removeFromApplicationCounterMap(this.throttleKey);
+                    ThrottleCounter.removeFromApplicationCounterMap(this);
                     break;
                 }
                 case API: {
-                    ThrottleCounter.removeFromApiCounterMap(this.throttleKey);
+                    ThrottleCounter.removeFromApiCounterMap(this);
                     break;
                 }
                 case RESOURCE: {
-                    ThrottleCounter.removeFromResourceCounterMap(this.throttleKey);
+                    ThrottleCounter.removeFromResourceCounterMap(this);
                     break;
                 }
                 case SUBSCRIPTION: {
-                    ThrottleCounter.removeFromSubscriptionCounterMap(this.throttleKey);
+                    ThrottleCounter.removeFromSubscriptionCounterMap(this);
                     break;
                 }
             }
@@ -123,4 +272,17 @@ public class ThrottleData {
         }
         return false;
     }
+
+    /**
+     * Start time and final count of the window before the current window.
+     */
+    private static final class PreviousWindow {
+        private final long startTime;
+        private final long count;
+
+        private PreviousWindow(long startTime, long count) {
+            this.startTime = startTime;
+            this.count = count;
+        }
+    }
 }
@@ -19,55 +19,172 @@ package org.wso2.micro.gateway.core.throttle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * This task is responsible for cleanup ThrottleData objects which has expired.
- *
+ * <p>
+ * Throttle data are kept in a timing wheel of expiry buckets, where each bucket holds the entries expiring within
+ * one tick. Entries are linked through {@link ThrottleData#nextExpiryEntry}, hence adding an entry is a single CAS
+ * and does not allocate. Each tick detaches the buckets which have become due and removes the expired entries. An
+ * entry whose window has moved on since it was added, is added back against its new expiry time. An entry added to a
+ * bucket which has been detached meanwhile, is moved to a bucket which has not.
+ * </p>
  */
 public class ThrottleDataCleanUpTask {
 
     private static final Logger log = LoggerFactory.getLogger(ThrottleDataCleanUpTask.class);
-    private List<ThrottleData> throttleDataList = new ArrayList<>();
+    private static final int DEFAULT_WHEEL_SIZE = 4096;
+
+    private final AtomicReferenceArray<ThrottleData> buckets;
+    private final int mask;
+    private final long tickDuration;
+    private final long startTime;
+    // the last tick processed by the cleanup task. It is advanced before the bucket of the tick is detached, hence an
+    // entry added to a bucket up to this tick may have been added after the bucket was detached.
+    private volatile long processedTick;
+    private final AtomicLong pendingEntries = new AtomicLong();
+    private ScheduledExecutorService executor;
 
     public ThrottleDataCleanUpTask() {
+        this(TimeUnit.SECONDS.toMillis(Math.max(1, ThrottleConfigHolder.getInstance().getThrottleFrequency())),
+                DEFAULT_WHEEL_SIZE, System.currentTimeMillis());
 
-        ScheduledExecutorService executor = Executors.newScheduledThreadPool(1, new ThreadFactory() {
+        executor = Executors.newScheduledThreadPool(1, new ThreadFactory() {
 
             public Thread newThread(Runnable r) {
                 Thread t = new Thread(r);
                 t.setName("Throttle Cleanup Task");
+                t.setDaemon(true);
                 return t;
             }
         });
 
-        int throttleFrequency = ThrottleConfigHolder.getInstance().getThrottleFrequency();
-
         if (log.isDebugEnabled()) {
-            log.debug("Throttling Cleanup Task Frequency set to " + throttleFrequency);
+            log.debug("Throttling Cleanup Task Frequency set to " + tickDuration + "ms");
         }
 
-        executor.scheduleAtFixedRate(new CleanupTask(), throttleFrequency, throttleFrequency, TimeUnit.SECONDS);
+        executor.scheduleAtFixedRate(new CleanupTask(), tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+    }
 
+    /**
+     * Create a timing wheel which is advanced by calling {@link #expire(long)}.
+     *
+     * @param tickDuration time span of a bucket in milliseconds
+     * @param wheelSize    number of buckets
+     * @param startTime    time of the first tick in milliseconds
+     */
+    ThrottleDataCleanUpTask(long tickDuration, int wheelSize, long startTime) {
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.buckets = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.tickDuration = tickDuration;
+        this.startTime = startTime;
     }
 
     /**
-     * Add the throttle data instances to be cleaned into the cleanup array list, which is iterated by the cleanup task
-     * which runs periodically.
+     * Add the throttle data instances to be cleaned into the bucket of their expiry time. The bucket is processed
+     * by the cleanup task once that time has passed.
      */
     public void addThrottleData(ThrottleData throttleData) {
-        throttleDataList.add(throttleData);
+        pendingEntries.incrementAndGet();
+        schedule(throttleData);
+    }
+
+    private void schedule(ThrottleData throttleData) {
+        long currentTick = processedTick;
+        long expiryTick = (throttleData.getExpiryTime() - startTime) / tickDuration + 1;
+        // entries beyond the span of the wheel wait in the farthest bucket and are rescheduled when it is processed
+        long tick = Math.min(Math.max(expiryTick, currentTick + 1), currentTick + buckets.length());
+        int index = (int) (tick & mask);
+        ThrottleData head;
+        do {
+            head = buckets.get(index);
+            throttleData.nextExpiryEntry = head;
+        } while (!buckets.compareAndSet(index, head, throttleData));
+        if (tick <= processedTick) {
+            // the bucket may have been processed before the entry was added, in which case the entries added to it
+            // would wait for a revolution of the wheel. Hence they are taken back and scheduled again.
+            ThrottleData entry = buckets.getAndSet(index, null);
+            while (entry != null) {
+                ThrottleData next = entry.nextExpiryEntry;
+                entry.nextExpiryEntry = null;
+                schedule(entry);
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * Process the buckets which have become due at the given time. Must not be called concurrently.
+     *
+     * @param currentTime current time in milliseconds
+     * @return number of entries removed
+     */
+    int expire(long currentTime) {
+        long currentTick = (currentTime - startTime) / tickDuration;
+        // process at most one revolution, as the buckets of the skipped revolutions are the same buckets
+        long tick = Math.max(processedTick, currentTick - buckets.length());
+        int removed = 0;
+        while (tick < currentTick) {
+            tick++;
+            processedTick = tick;
+            ThrottleData entry = buckets.getAndSet((int) (tick & mask), null);
+            while (entry != null) {
+                ThrottleData next = entry.nextExpiryEntry;
+                entry.nextExpiryEntry = null;
+                if (entry.cleanThrottleData(currentTime)) {
+                    removed++;
+                } else {
+                    schedule(entry);
+                }
+                entry = next;
+            }
+        }
+        if (removed > 0) {
+            pendingEntries.addAndGet(-removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Get the number of throttle data entries tracked for the cleanup.
+     *
+     * @return number of entries
+     */
+    public long getPendingEntryCount() {
+        return pendingEntries.get();
+    }
+
+    /**
+     * Stop the scheduled cleanup.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
     }
 
     private class CleanupTask implements Runnable {
         public void run() {
-            long currentTimeStamp = System.currentTimeMillis();
-            throttleDataList.removeIf(throttleData -> throttleData.cleanThrottleData(currentTimeStamp));
+            try {
+                int removed = expire(System.currentTimeMillis());
+                if (log.isDebugEnabled() && removed > 0) {
+                    log.debug("Removed " + removed + " expired throttle keys. " + pendingEntries.get()
+                            + " throttle keys remaining.");
+                }
+            } catch (RuntimeException e) {
+                // an exception would cancel the subsequent executions of the scheduled task
+                log.error("Error while cleaning up the throttle data", e);
+            }
         }
     }
 
@@ -20,19 +20,20 @@ import org.ballerinalang.jvm.values.MapValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+import javax.net.ssl.SSLSocketFactory;
 
 /**
- * Throttle data receiver class accepts all the request events and submit the throttle data to a thread pool to
- * calculate throttle counters against each unique throttle key.
+ * Throttle data receiver class accepts all the request events and publishes the throttle data to a bounded event
+ * pipeline, which calculates throttle counters against each unique throttle key.
  */
 public class ThrottleDataReceiver {
     private static ThrottleDataCleanUpTask throttleDataCleanUpTask;
 
     private static final Logger log = LoggerFactory.getLogger("ballerina");
+    private static final String COMPACT_COUNTER_STORE = "compact";
 
     public static ThrottleCounter getThrottleCounter() {
         return throttleCounter;
@@ -40,44 +41,195 @@ public class ThrottleDataReceiver {
 
     private static volatile ThrottleCounter throttleCounter = null;
 
-    private static ExecutorService executor;
+    private static volatile ThrottleEventPipeline<DataProcessAgent, MapValue> eventPipeline;
+
+    private static volatile TrafficManagerEventPublisher trafficManagerEventPublisher;
+
+    private static volatile QuotaLeaseManager quotaLeaseManager;
 
     /**
-     * This method will initialize throttle data counters. Inside this we will start executor and initialize data
-     * counter which we used to maintain throttle count against each unique keys.
+     * This method will initialize throttle data counters. Inside this we will start the event pipeline and
+     * initialize data counter which we used to maintain throttle count against each unique keys.
      */
-    public static void initThrottleDataReceiver(int processThreadPoolCoreSize, int processThreadPoolMaximumSize,
-            int processThreadPoolKeepAliveTime, int throttleFrequency) {
-        ThrottleConfigHolder.getInstance()
-                .setData(processThreadPoolCoreSize, processThreadPoolMaximumSize, processThreadPoolKeepAliveTime,
-                        throttleFrequency);
-        initThrottleExecutors();
+    public static void initThrottleDataReceiver(int eventQueueSize, int eventProcessorCount, int eventBatchSize,
+            int eventQueueBlockTimeout, int throttleFrequency, String windowAlgorithm, String eventOverflowPolicy,
+            String counterStore, int maxThrottleKeys) {
+        ThrottleConfigHolder throttleConfigHolder = ThrottleConfigHolder.getInstance();
+        throttleConfigHolder.setData(eventQueueSize, eventProcessorCount, eventBatchSize, eventQueueBlockTimeout,
+                throttleFrequency);
+        throttleConfigHolder.setWindowAlgorithm(ThrottleData.WindowAlgorithm.fromString(windowAlgorithm));
+        throttleConfigHolder.setEventOverflowPolicy(
+                ThrottleEventPipeline.OverflowPolicy.fromString(eventOverflowPolicy));
+        initCounterStore(counterStore, maxThrottleKeys, throttleConfigHolder.getWindowAlgorithm());
+        ThrottleDataCleanUpTask previousCleanUpTask = throttleDataCleanUpTask;
         throttleDataCleanUpTask = new ThrottleDataCleanUpTask();
+        if (previousCleanUpTask != null) {
+            previousCleanUpTask.shutdown();
+        }
+        initThrottleEventPipeline();
     }
 
-    private static void initThrottleExecutors() {
+    private static void initCounterStore(String counterStore, int maxThrottleKeys,
+            ThrottleData.WindowAlgorithm windowAlgorithm) {
+        if (!COMPACT_COUNTER_STORE.equalsIgnoreCase(counterStore)) {
+            ThrottleCounter.setCompactCounterTable(null);
+            return;
+        }
+        if (windowAlgorithm != ThrottleData.WindowAlgorithm.FIXED) {
+            log.warn("Compact throttle counter store only supports the fixed window algorithm. Throttle keys are "
+                    + "counted in maps.");
+            ThrottleCounter.setCompactCounterTable(null);
+            return;
+        }
+        ThrottleCounter.setCompactCounterTable(new CompactThrottleCounterTable(maxThrottleKeys));
+    }
+
+    private static void initThrottleEventPipeline() {
         ThrottleConfigHolder throttleConfigHolder = ThrottleConfigHolder.getInstance();
-        executor = new ThreadPoolExecutor(throttleConfigHolder.getProcessThreadPoolCoreSize(),
-                throttleConfigHolder.getProcessThreadPoolMaximumSize(),
-                throttleConfigHolder.getProcessThreadPoolKeepAliveTime(), TimeUnit.SECONDS,
-                new LinkedBlockingDeque<Runnable>() {
-                });
         throttleCounter = new ThrottleCounter();
+        ThrottleEventPipeline<DataProcessAgent, MapValue> previousPipeline = eventPipeline;
+        eventPipeline = new ThrottleEventPipeline<>(throttleConfigHolder.getEventQueueSize(),
+                throttleConfigHolder.getEventProcessorCount(), throttleConfigHolder.getEventBatchSize(),
+                throttleConfigHolder.getEventOverflowPolicy(), throttleConfigHolder.getEventQueueBlockTimeout(),
+                DataProcessAgent::new, DataProcessAgent::setDataReference, DataProcessAgent::run);
+        if (previousPipeline != null) {
+            previousPipeline.shutdown();
+        }
     }
 
     /**
-     * This method used to pass throttle data and let it run within separate thread.
+     * This method used to pass throttle data to the event pipeline, which processes it within a separate thread.
      */
     public static void processNonThrottledEvent(MapValue throttleEvent) {
         try {
-            DataProcessAgent agent = new DataProcessAgent();
-            agent.setDataReference(throttleEvent);
-            executor.execute(agent);
+            eventPipeline.publish(throttleEvent);
         } catch (Exception e) {
             log.error("Error while processing throttling event", e);
         }
     }
 
+    /**
+     * Get the number of throttle events waiting to be processed.
+     */
+    public static long getEventQueueDepth() {
+        ThrottleEventPipeline<DataProcessAgent, MapValue> pipeline = eventPipeline;
+        return pipeline == null ? 0 : pipeline.getQueueDepth();
+    }
+
+    /**
+     * Get the number of throttle events dropped because the event queue was full.
+     */
+    public static long getDroppedEventCount() {
+        ThrottleEventPipeline<DataProcessAgent, MapValue> pipeline = eventPipeline;
+        return pipeline == null ? 0 : pipeline.getDroppedEventCount();
+    }
+
+    /**
+     * Register a throttle policy deployed in the gateway.
+     */
+    public static void addThrottlePolicy(String name, long count, long unitTime, String timeUnit,
+            boolean stopOnQuota) {
+        try {
+            ThrottlePolicyRegistry.addPolicy(new ThrottlePolicy(name, count, unitTime, timeUnit, stopOnQuota));
+        } catch (RuntimeException e) {
+            log.error("Error while registering the throttle policy " + name, e);
+        }
+    }
+
+    /**
+     * Initialize the publisher which publishes the request events to the traffic manager in batches.
+     */
+    public static void initTrafficManagerEventPublisher(String endpointUrl, String credentials, int batchSize,
+            int flushInterval, String trustStorePath, String trustStorePassword, boolean verifyHostname) {
+        try {
+            SSLSocketFactory sslSocketFactory = null;
+            if (endpointUrl.startsWith("https")) {
+                sslSocketFactory = ThrottleHttpUtils.createSSLSocketFactory(trustStorePath, trustStorePassword);
+            }
+            TrafficManagerEventPublisher previousPublisher = trafficManagerEventPublisher;
+            trafficManagerEventPublisher = new TrafficManagerEventPublisher(endpointUrl, credentials, batchSize,
+                    flushInterval, sslSocketFactory, verifyHostname ? null : (hostname, session) -> true);
+            if (previousPublisher != null) {
+                previousPublisher.shutdown();
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            log.error("Error while initializing the traffic manager event publisher", e);
+        }
+    }
+
+    /**
+     * Add a request event to the batch published to the traffic manager.
+     */
+    public static void publishToTrafficManager(MapValue throttleEvent) {
+        TrafficManagerEventPublisher publisher = trafficManagerEventPublisher;
+        if (publisher == null) {
+            log.error("Traffic manager event publisher is not initialized. Throttle event is not published.");
+            return;
+        }
+        publisher.publish(new TrafficManagerEvent(throttleEvent::getStringValue));
+    }
+
+    /**
+     * Get the number of requests in the last batch published to the traffic manager.
+     */
+    public static long getTrafficManagerBatchSize() {
+        TrafficManagerEventPublisher publisher = trafficManagerEventPublisher;
+        return publisher == null ? 0 : publisher.getLastBatchSize();
+    }
+
+    /**
+     * Get the time taken to publish the last batch to the traffic manager in milliseconds.
+     */
+    public static long getTrafficManagerFlushLatency() {
+        TrafficManagerEventPublisher publisher = trafficManagerEventPublisher;
+        return publisher == null ? 0 : publisher.getLastFlushLatency();
+    }
+
+    /**
+     * Get the number of requests dropped as the batch published to the traffic manager was full.
+     */
+    public static long getTrafficManagerDroppedEventCount() {
+        TrafficManagerEventPublisher publisher = trafficManagerEventPublisher;
+        return publisher == null ? 0 : publisher.getDroppedEventCount();
+    }
+
+    /**
+     * Enforce the quota of the throttle keys leased from a lease server, which is shared by the gateway nodes.
+     */
+    public static void initQuotaLeasing(String leaseServerUrl, String credentials, int leaseSize, int renewThreshold,
+            int idleTimeout, int threadCount, String trustStorePath, String trustStorePassword,
+            boolean verifyHostname) {
+        if (ThrottleCounter.isCompactCounterTableUsed()) {
+            log.error("Quota leasing is not supported with the compact throttle counter store. Quota of the policies "
+                    + "is enforced locally.");
+            return;
+        }
+        try {
+            SSLSocketFactory sslSocketFactory = null;
+            if (leaseServerUrl.startsWith("https")) {
+                sslSocketFactory = ThrottleHttpUtils.createSSLSocketFactory(trustStorePath, trustStorePassword);
+            }
+            QuotaLeaseClient leaseClient = new HttpQuotaLeaseClient(leaseServerUrl, credentials, sslSocketFactory,
+                    verifyHostname ? null : (hostname, session) -> true);
+            setQuotaLeaseManager(new QuotaLeaseManager(leaseClient, leaseSize, renewThreshold, idleTimeout,
+                    threadCount));
+        } catch (IOException | GeneralSecurityException e) {
+            log.error("Error while initializing the quota leasing. Quota of the policies is enforced locally.", e);
+        }
+    }
+
+    static void setQuotaLeaseManager(QuotaLeaseManager leaseManager) {
+        QuotaLeaseManager previousLeaseManager = quotaLeaseManager;
+        quotaLeaseManager = leaseManager;
+        if (previousLeaseManager != null) {
+            previousLeaseManager.shutdown();
+        }
+    }
+
+    static QuotaLeaseManager getQuotaLeaseManager() {
+        return quotaLeaseManager;
+    }
+
     public static boolean isResourceThrottled(String resourceKey) {
         return ThrottleCounter.isResourceThrottled(resourceKey);
     }
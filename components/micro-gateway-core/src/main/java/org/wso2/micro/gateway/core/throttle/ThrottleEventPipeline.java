@@ -0,0 +1,234 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pipeline which delivers the request events to the throttle counters. Events are copied into the
+ * pre-allocated slots of a set of ring buffers and each ring buffer is drained in batches by its own processor
+ * thread. When a ring buffer is full, the event is handled according to the configured {@link OverflowPolicy}.
+ *
+ * @param <T> type of the event slot
+ * @param <E> type of the published event
+ */
+public class ThrottleEventPipeline<T, E> {
+    private static final Logger log = LoggerFactory.getLogger(ThrottleEventPipeline.class);
+    private static final long BLOCK_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Enum to hold the actions taken when the event queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Event is discarded.
+         */
+        DROP,
+        /**
+         * Event is processed by the publishing thread.
+         */
+        CALLER_RUNS,
+        /**
+         * Publishing thread waits until there is space in the queue or the block timeout is reached. The event is
+         * discarded on timeout.
+         */
+        BLOCK;
+
+        public static OverflowPolicy fromString(String policy) {
+            if ("drop".equalsIgnoreCase(policy)) {
+                return DROP;
+            } else if ("block".equalsIgnoreCase(policy)) {
+                return BLOCK;
+            }
+            return CALLER_RUNS;
+        }
+    }
+
+    private final ThrottleEventRingBuffer<T>[] ringBuffers;
+    private final Thread[] processors;
+    private final BiConsumer<T, E> translator;
+    private final Consumer<T> handler;
+    private final Supplier<T> slotFactory;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong callerProcessedEvents = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Create the pipeline and start the processor threads.
+     *
+     * @param queueSize      total number of event slots, shared among the processors
+     * @param processorCount number of processor threads
+     * @param batchSize      maximum number of events processed before the slots are released
+     * @param overflowPolicy action taken when the queue is full
+     * @param blockTimeout   maximum time in milliseconds a publisher waits with the {@link OverflowPolicy#BLOCK}
+     *                       policy
+     * @param slotFactory    creates the pre-allocated event slots
+     * @param translator     copies a published event into a slot
+     * @param handler        processes an event slot
+     */
+    @SuppressWarnings("unchecked")
+    public ThrottleEventPipeline(int queueSize, int processorCount, int batchSize, OverflowPolicy overflowPolicy,
+            long blockTimeout, Supplier<T> slotFactory, BiConsumer<T, E> translator, Consumer<T> handler) {
+        int processorsToStart = Math.max(1, processorCount);
+        this.batchSize = Math.max(1, batchSize);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeout));
+        this.slotFactory = slotFactory;
+        this.translator = translator;
+        this.handler = handler;
+        ringBuffers = new ThrottleEventRingBuffer[processorsToStart];
+        processors = new Thread[processorsToStart];
+        int ringBufferSize = Math.max(1, queueSize / processorsToStart);
+        for (int i = 0; i < processorsToStart; i++) {
+            ringBuffers[i] = new ThrottleEventRingBuffer<>(ringBufferSize, slotFactory);
+        }
+        for (int i = 0; i < processorsToStart; i++) {
+            ThrottleEventRingBuffer<T> ringBuffer = ringBuffers[i];
+            Thread processor = new Thread(() -> process(ringBuffer));
+            processor.setName("Throttle Event Processor-" + i);
+            processor.setDaemon(true);
+            processors[i] = processor;
+            processor.start();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Throttle event pipeline started with " + processorsToStart + " processors of capacity "
+                    + ringBuffers[0].capacity() + " and overflow policy " + overflowPolicy);
+        }
+    }
+
+    /**
+     * Publish an event to the pipeline.
+     *
+     * @param event event to be published
+     * @return false if the event was dropped
+     */
+    public boolean publish(E event) {
+        // publishers are spread across the ring buffers by thread, so that a publisher keeps using the same buffer
+        int start = (int) (Thread.currentThread().getId() % ringBuffers.length);
+        if (tryPublish(start, event)) {
+            return true;
+        }
+        switch (overflowPolicy) {
+            case CALLER_RUNS:
+                T slot = slotFactory.get();
+                translator.accept(slot, event);
+                handler.accept(slot);
+                callerProcessedEvents.incrementAndGet();
+                return true;
+            case BLOCK:
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (running && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(this, BLOCK_RETRY_NANOS);
+                    if (tryPublish(start, event)) {
+                        return true;
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        long dropped = droppedEvents.incrementAndGet();
+        if ((dropped & (dropped - 1)) == 0) {
+            // logged at the powers of two, to avoid flooding the log under a sustained overload
+            log.warn("Throttle event queue is full. " + dropped + " throttle events have been dropped so far.");
+        }
+        return false;
+    }
+
+    private boolean tryPublish(int start, E event) {
+        for (int i = 0; i < ringBuffers.length; i++) {
+            if (ringBuffers[(start + i) % ringBuffers.length].tryPublish(translator, event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void process(ThrottleEventRingBuffer<T> ringBuffer) {
+        Consumer<T> safeHandler = slot -> {
+            try {
+                handler.accept(slot);
+            } catch (RuntimeException e) {
+                log.error("Error while processing throttling event", e);
+            }
+        };
+        while (running) {
+            if (ringBuffer.drain(safeHandler, batchSize) == 0) {
+                ringBuffer.awaitEvents(IDLE_WAIT_NANOS);
+            }
+        }
+        // process the events published before the shutdown
+        while (ringBuffer.drain(safeHandler, batchSize) > 0) {
+            // continue until the ring buffer is empty
+        }
+    }
+
+    /**
+     * Stop the processor threads, after processing the events already in the queue.
+     */
+    public void shutdown() {
+        running = false;
+        for (ThrottleEventRingBuffer<T> ringBuffer : ringBuffers) {
+            ringBuffer.wakeUpConsumer();
+        }
+        for (Thread processor : processors) {
+            try {
+                processor.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the number of events waiting in the queue.
+     *
+     * @return queue depth
+     */
+    public long getQueueDepth() {
+        long depth = 0;
+        for (ThrottleEventRingBuffer<T> ringBuffer : ringBuffers) {
+            depth += ringBuffer.size();
+        }
+        return depth;
+    }
+
+    public long getQueueCapacity() {
+        return (long) ringBuffers[0].capacity() * ringBuffers.length;
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    public long getCallerProcessedEventCount() {
+        return callerProcessedEvents.get();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded multi producer, single consumer ring buffer of pre-allocated event slots. Producers claim a sequence with a
+ * CAS, copy the event into the slot of that sequence and publish it. The consumer processes the published slots in
+ * order and releases them back to the producers once per batch.
+ *
+ * @param <T> type of the event slot
+ */
+final class ThrottleEventRingBuffer<T> {
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Object[] slots;
+    // sequence last published in each slot. Consumer reads a slot only once its sequence is published.
+    private final AtomicLongArray publishedSequences;
+    // whether the slot of the last published sequence is to be skipped, as the event failed to be copied into it.
+    // Written before the sequence is published, and read after it is seen to be published.
+    private final boolean[] skippedSlots;
+    private final int mask;
+    // next sequence to be claimed by a producer
+    private final AtomicLong claimSequence = new AtomicLong();
+    // next sequence to be processed by the consumer. Slots before this sequence are free to be reused.
+    private final AtomicLong consumeSequence = new AtomicLong();
+    private volatile Thread consumerThread;
+    private volatile boolean consumerWaiting;
+
+    ThrottleEventRingBuffer(int capacity, Supplier<T> slotFactory) {
+        int size = 1;
+        while (size < capacity && size < (1 << 30)) {
+            size <<= 1;
+        }
+        slots = new Object[size];
+        publishedSequences = new AtomicLongArray(size);
+        skippedSlots = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+            publishedSequences.set(i, -1);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Copy an event into a free slot and publish it. The claimed slot is published even if the event could not be
+     * copied into it, marked to be skipped by the consumer, so that the events claimed after it are not held up.
+     *
+     * @param translator copies the event into the slot
+     * @param event      event to be published
+     * @param <E>        type of the event
+     * @return false if the buffer is full
+     */
+    <E> boolean tryPublish(BiConsumer<T, E> translator, E event) {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence - consumeSequence.get() >= slots.length) {
+                return false;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        boolean translated = false;
+        try {
+            translator.accept(getSlot(index), event);
+            translated = true;
+        } finally {
+            skippedSlots[index] = !translated;
+            publishedSequences.lazySet(index, sequence);
+            if (consumerWaiting) {
+                LockSupport.unpark(consumerThread);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Process the published events in order, skipping the slots the events failed to be copied into. Must only be
+     * called by the consumer thread.
+     *
+     * @param handler  processes a single event slot
+     * @param maxBatch maximum number of slots to consume
+     * @return number of slots consumed, including the skipped slots
+     */
+    int drain(Consumer<T> handler, int maxBatch) {
+        long first = consumeSequence.get();
+        long next = first;
+        try {
+            while (next - first < maxBatch) {
+                int index = (int) next & mask;
+                if (publishedSequences.get(index) != next) {
+                    break;
+                }
+                next++;
+                if (!skippedSlots[index]) {
+                    handler.accept(getSlot(index));
+                }
+            }
+        } finally {
+            if (next != first) {
+                // slots are handed back to the producers once for the whole batch
+                consumeSequence.set(next);
+            }
+        }
+        return (int) (next - first);
+    }
+
+    /**
+     * Park the consumer thread until an event is published or the given time has passed.
+     */
+    void awaitEvents(long maxWaitNanos) {
+        if (consumerThread == null) {
+            consumerThread = Thread.currentThread();
+        }
+        consumerWaiting = true;
+        try {
+            if (publishedSequences.get((int) consumeSequence.get() & mask) != consumeSequence.get()) {
+                // the wait is bounded, as a publish racing with the flag update may not unpark the consumer
+                LockSupport.parkNanos(this, Math.min(maxWaitNanos, MAX_IDLE_NANOS));
+            }
+        } finally {
+            consumerWaiting = false;
+        }
+    }
+
+    /**
+     * Wake up the consumer thread, if it is waiting for events.
+     */
+    void wakeUpConsumer() {
+        Thread thread = consumerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Get the number of events claimed by the producers and not yet processed by the consumer.
+     *
+     * @return queue depth
+     */
+    int size() {
+        return (int) Math.max(0, claimSequence.get() - consumeSequence.get());
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getSlot(int index) {
+        return (T) slots[index];
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.wso2.micro.gateway.core.Constants;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Base64;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * Utilities shared by the http clients of the distributed throttling.
+ */
+final class ThrottleHttpUtils {
+
+    private ThrottleHttpUtils() {
+    }
+
+    /**
+     * Configure an https connection to trust the certificates of the given trust store.
+     *
+     * @param connection       https connection
+     * @param sslSocketFactory socket factory, or null to use the default
+     * @param hostnameVerifier hostname verifier, or null to use the default
+     */
+    static void configure(HttpsURLConnection connection, SSLSocketFactory sslSocketFactory,
+            HostnameVerifier hostnameVerifier) {
+        if (sslSocketFactory != null) {
+            connection.setSSLSocketFactory(sslSocketFactory);
+        }
+        if (hostnameVerifier != null) {
+            connection.setHostnameVerifier(hostnameVerifier);
+        }
+    }
+
+    /**
+     * Create the value of a basic authorization header.
+     *
+     * @param credentials username:password
+     * @return authorization header value
+     */
+    static String getBasicAuthorizationHeader(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create a socket factory which trusts the certificates in the given trust store.
+     *
+     * @param trustStorePath     path of the trust store, which may start with the runtime home placeholder
+     * @param trustStorePassword password of the trust store
+     * @return ssl socket factory
+     * @throws IOException              if the trust store cannot be read
+     * @throws GeneralSecurityException if the trust store cannot be loaded
+     */
+    static SSLSocketFactory createSSLSocketFactory(String trustStorePath, String trustStorePassword)
+            throws IOException, GeneralSecurityException {
+        String path = resolveRuntimeHome(trustStorePath);
+        KeyStore trustStore = KeyStore.getInstance(path.endsWith(".jks") ? "JKS" : "PKCS12");
+        try (InputStream inputStream = new FileInputStream(path)) {
+            trustStore.load(inputStream, trustStorePassword.toCharArray());
+        }
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory
+                .getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+        return sslContext.getSocketFactory();
+    }
+
+    private static String resolveRuntimeHome(String path) {
+        String runtimeHome = System.getProperty(Constants.RUNTIME_HOME_PATH);
+        return runtimeHome == null ? path : path.replace("${" + Constants.RUNTIME_HOME_PATH + "}", runtimeHome);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request count throttle policy deployed in the gateway. Time units are resolved to milliseconds once, when the
+ * policy is registered.
+ */
+public final class ThrottlePolicy {
+    private final String name;
+    private final long count;
+    private final long unitTime;
+    private final long windowAlignment;
+    private final boolean stopOnQuota;
+
+    public ThrottlePolicy(String name, long count, long unitTime, String timeUnit, boolean stopOnQuota) {
+        this.name = name;
+        this.count = count;
+        this.unitTime = getTimeInMilliSeconds(unitTime, timeUnit);
+        this.windowAlignment = getTimeInMilliSeconds(1, timeUnit);
+        this.stopOnQuota = stopOnQuota;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the maximum number of requests allowed within the unit time.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the unit time of the policy in milliseconds.
+     */
+    public long getUnitTime() {
+        return unitTime;
+    }
+
+    /**
+     * Get one unit of the time unit of the policy in milliseconds. Throttle windows start at a multiple of this time.
+     */
+    public long getWindowAlignment() {
+        return windowAlignment;
+    }
+
+    public boolean isStopOnQuota() {
+        return stopOnQuota;
+    }
+
+    static long getTimeInMilliSeconds(long unitTime, String timeUnit) {
+        long milliSeconds;
+        if ("min".equalsIgnoreCase(timeUnit)) {
+            milliSeconds = TimeUnit.MINUTES.toMillis(unitTime);
+        } else if ("hour".equalsIgnoreCase(timeUnit)) {
+            milliSeconds = TimeUnit.HOURS.toMillis(unitTime);
+        } else if ("day".equalsIgnoreCase(timeUnit)) {
+            milliSeconds = TimeUnit.DAYS.toMillis(unitTime);
+        } else if ("week".equalsIgnoreCase(timeUnit)) {
+            milliSeconds = 7 * TimeUnit.DAYS.toMillis(unitTime);
+        } else if ("month".equalsIgnoreCase(timeUnit)) {
+            milliSeconds = 30 * TimeUnit.DAYS.toMillis(unitTime);
+        } else if ("year".equalsIgnoreCase(timeUnit)) {
+            milliSeconds = 365 * TimeUnit.DAYS.toMillis(unitTime);
+        } else {
+            throw new RuntimeException("Unsupported time unit provided");
+        }
+        return milliSeconds;
+    }
+}
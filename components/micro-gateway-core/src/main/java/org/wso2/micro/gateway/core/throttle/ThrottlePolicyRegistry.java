@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the throttle policies deployed in the gateway, against the policy name prefixed with the policy level. A
+ * request event is evaluated only against the policies of its own tiers, which are resolved through a single lookup
+ * per level.
+ */
+public class ThrottlePolicyRegistry {
+    private static final Logger log = LoggerFactory.getLogger(ThrottlePolicyRegistry.class);
+
+    static final String RESOURCE_LEVEL_PREFIX = "res_";
+    static final String APP_LEVEL_PREFIX = "app_";
+    static final String SUB_LEVEL_PREFIX = "sub_";
+    private static final String UNLIMITED_TIER = "Unlimited";
+
+    private static final Map<String, ThrottlePolicy> policies = new ConcurrentHashMap<>();
+
+    private ThrottlePolicyRegistry() {
+    }
+
+    /**
+     * Register a deployed throttle policy.
+     *
+     * @param policy throttle policy, named with its level prefix
+     */
+    public static void addPolicy(ThrottlePolicy policy) {
+        policies.put(policy.getName(), policy);
+        if (log.isDebugEnabled()) {
+            log.debug("Throttle policy registered : " + policy.getName());
+        }
+    }
+
+    /**
+     * Get the policy of a tier.
+     *
+     * @param prefix policy level prefix
+     * @param tier   tier name
+     * @return throttle policy or null if the tier is unlimited or not deployed
+     */
+    public static ThrottlePolicy getPolicy(String prefix, String tier) {
+        if (tier == null || tier.isEmpty() || UNLIMITED_TIER.equalsIgnoreCase(tier)) {
+            return null;
+        }
+        ThrottlePolicy policy = policies.get(prefix + tier);
+        if (policy == null && log.isDebugEnabled()) {
+            log.debug("Throttle policy is not deployed for the tier : " + prefix + tier);
+        }
+        return policy;
+    }
+
+    static void clear() {
+        policies.clear();
+    }
+}
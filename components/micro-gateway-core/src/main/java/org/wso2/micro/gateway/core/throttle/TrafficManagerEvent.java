@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import java.util.function.Function;
+
+/**
+ * Request event published to the traffic manager, holding the attributes of the request stream of the traffic
+ * manager.
+ */
+final class TrafficManagerEvent {
+    static final String[] PAYLOAD_ATTRIBUTES = {"appKey", "appTier", "apiKey", "apiTier", "subscriptionKey",
+            "subscriptionTier", "resourceKey", "resourceTier", "userId", "apiContext", "apiVersion", "appTenant",
+            "apiTenant", "appId", "apiName", "properties"};
+    static final String MESSAGE_ID = "messageID";
+
+    private final String messageID;
+    private final String[] payload;
+
+    /**
+     * Create an event from the attributes of a throttle event.
+     *
+     * @param attributes accessor of the throttle event attributes
+     */
+    TrafficManagerEvent(Function<String, String> attributes) {
+        this.messageID = attributes.apply(MESSAGE_ID);
+        this.payload = new String[PAYLOAD_ATTRIBUTES.length];
+        for (int i = 0; i < PAYLOAD_ATTRIBUTES.length; i++) {
+            payload[i] = attributes.apply(PAYLOAD_ATTRIBUTES[i]);
+        }
+    }
+
+    String getMessageID() {
+        return messageID;
+    }
+
+    String getPayloadAttribute(int index) {
+        return payload[index];
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Publishes the request events to the event receiver of the traffic manager in batches.
+ * <p>
+ * Requests are added to the current batch, which only costs claiming a slot of the batch in the request path. A
+ * single publisher thread posts the batch once it holds {@code batchSize} requests or {@code flushInterval} has
+ * passed, while the requests are added to the next batch. Batches are posted as a JSON array over a persistent
+ * connection, which is kept alive by the JDK connection pool between the batches.
+ * </p>
+ * <p>
+ * Requests are not aggregated, as the request stream of the traffic manager counts one event per request and its
+ * conditional policies are evaluated against the properties of each request. A batch holds at most
+ * {@value #MAX_BATCH_SIZE_FACTOR} times {@code batchSize} requests, so that requests do not pile up in memory while
+ * the traffic manager is slow to respond. Requests which do not fit into the batch are dropped and counted.
+ * </p>
+ */
+public class TrafficManagerEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(TrafficManagerEventPublisher.class);
+
+    static final String EVENT_RECEIVER_PATH = "/throttleEventReceiver";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int CONNECTION_TIMEOUT = 10000;
+    static final int MAX_BATCH_SIZE_FACTOR = 4;
+
+    private final URL eventReceiverUrl;
+    private final String authorizationHeader;
+    private final int batchSize;
+    private final int maxBatchSize;
+    private final long flushInterval;
+    private final SSLSocketFactory sslSocketFactory;
+    private final HostnameVerifier hostnameVerifier;
+    private final Thread publisherThread;
+    private volatile boolean running = true;
+    private volatile Batch currentBatch;
+
+    // only accessed by the publisher thread
+    private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+    private final byte[] responseBuffer = new byte[1024];
+
+    private volatile long lastBatchSize;
+    private volatile long lastFlushLatency;
+    private final AtomicLong publishedEventCount = new AtomicLong();
+    private final AtomicLong failedEventCount = new AtomicLong();
+    private final AtomicLong droppedEventCount = new AtomicLong();
+
+    /**
+     * Create a publisher and start its publisher thread.
+     *
+     * @param endpointUrl      base URL of the traffic manager endpoints
+     * @param credentials      username:password of the traffic manager
+     * @param batchSize        number of requests which triggers publishing the batch
+     * @param flushInterval    maximum time in milliseconds a request waits to be published
+     * @param sslSocketFactory socket factory for https endpoints, or null to use the default
+     * @param hostnameVerifier hostname verifier for https endpoints, or null to use the default
+     * @throws IOException if the endpoint URL is malformed
+     */
+    public TrafficManagerEventPublisher(String endpointUrl, String credentials, int batchSize, long flushInterval,
+            SSLSocketFactory sslSocketFactory, HostnameVerifier hostnameVerifier) throws IOException {
+        String baseUrl = endpointUrl.endsWith("/") ? endpointUrl.substring(0, endpointUrl.length() - 1) : endpointUrl;
+        this.eventReceiverUrl = new URL(baseUrl + EVENT_RECEIVER_PATH);
+        this.authorizationHeader = ThrottleHttpUtils.getBasicAuthorizationHeader(credentials);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchSize = this.batchSize * MAX_BATCH_SIZE_FACTOR;
+        this.currentBatch = new Batch(System.nanoTime(), maxBatchSize);
+        this.flushInterval = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushInterval));
+        this.sslSocketFactory = sslSocketFactory;
+        this.hostnameVerifier = hostnameVerifier;
+        publisherThread = new Thread(this::runPublisher, "Traffic Manager Event Publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    /**
+     * Add a request to the current batch.
+     *
+     * @param event request event
+     */
+    public void publish(TrafficManagerEvent event) {
+        while (true) {
+            Batch batch = currentBatch;
+            batch.activeWriters.incrementAndGet();
+            try {
+                // the batch was replaced before this request registered with it, hence retry with the new batch
+                if (batch != currentBatch) {
+                    continue;
+                }
+                int index = batch.eventCount.getAndIncrement();
+                if (index >= maxBatchSize) {
+                    if (droppedEventCount.getAndIncrement() == 0) {
+                        log.warn("Throttle events are dropped, as the traffic manager does not accept the events "
+                                + "as fast as they are published.");
+                    }
+                    return;
+                }
+                // the publisher thread reads the event once the writers of the batch have left it
+                batch.events[index] = event;
+                if (index + 1 == batchSize) {
+                    LockSupport.unpark(publisherThread);
+                }
+                return;
+            } finally {
+                batch.activeWriters.decrementAndGet();
+            }
+        }
+    }
+
+    private void runPublisher() {
+        while (running) {
+            try {
+                Batch batch = currentBatch;
+                long waitTime = batch.startTime + flushInterval - System.nanoTime();
+                if (batch.eventCount.get() < batchSize && waitTime > 0) {
+                    LockSupport.parkNanos(this, waitTime);
+                    continue;
+                }
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Error while publishing throttle events to the traffic manager", e);
+            }
+        }
+        flush();
+    }
+
+    private void flush() {
+        Batch batch = currentBatch;
+        if (batch.eventCount.get() == 0) {
+            // the batch window is restarted instead of replacing an empty batch
+            batch.startTime = System.nanoTime();
+            return;
+        }
+        currentBatch = new Batch(System.nanoTime(), maxBatchSize);
+        // requests which registered with the batch before it was replaced are still being added
+        while (batch.activeWriters.get() > 0) {
+            Thread.yield();
+        }
+        int eventCount = Math.min(batch.eventCount.get(), maxBatchSize);
+        long startTime = System.nanoTime();
+        boolean published = false;
+        try {
+            writeRequestBody(batch.events, eventCount);
+            published = post();
+        } catch (IOException e) {
+            log.error("Error while publishing throttle events to the traffic manager", e);
+        }
+        lastBatchSize = eventCount;
+        lastFlushLatency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        if (published) {
+            publishedEventCount.addAndGet(eventCount);
+        } else {
+            failedEventCount.addAndGet(eventCount);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Published " + eventCount + " throttle events to the traffic manager in " + lastFlushLatency
+                    + "ms");
+        }
+    }
+
+    private void writeRequestBody(TrafficManagerEvent[] events, int eventCount) throws IOException {
+        requestBody.reset();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(requestBody)) {
+            generator.writeStartArray();
+            for (int i = 0; i < eventCount; i++) {
+                writeEvent(generator, events[i]);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeEvent(JsonGenerator generator, TrafficManagerEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("event");
+        generator.writeObjectFieldStart("metaData");
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("correlationData");
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("payloadData");
+        generator.writeStringField(TrafficManagerEvent.MESSAGE_ID, event.getMessageID());
+        for (int i = 0; i < TrafficManagerEvent.PAYLOAD_ATTRIBUTES.length; i++) {
+            generator.writeStringField(TrafficManagerEvent.PAYLOAD_ATTRIBUTES[i], event.getPayloadAttribute(i));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private boolean post() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) eventReceiverUrl.openConnection();
+        if (connection instanceof HttpsURLConnection) {
+            ThrottleHttpUtils.configure((HttpsURLConnection) connection, sslSocketFactory, hostnameVerifier);
+        }
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setConnectTimeout(CONNECTION_TIMEOUT);
+        connection.setReadTimeout(CONNECTION_TIMEOUT);
+        connection.setFixedLengthStreamingMode(requestBody.size());
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty("Authorization", authorizationHeader);
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            requestBody.writeTo(outputStream);
+        }
+        int statusCode;
+        try {
+            statusCode = connection.getResponseCode();
+        } finally {
+            // the connection is returned to the keep alive pool once the response is fully read
+            consume(connection.getErrorStream());
+        }
+        if (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            log.error("Traffic manager responded with the status code " + statusCode
+                    + " for a batch of throttle events");
+            return false;
+        }
+        consume(connection.getInputStream());
+        return true;
+    }
+
+    private void consume(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return;
+        }
+        try (InputStream stream = inputStream) {
+            while (stream.read(responseBuffer) != -1) {
+                // discard the response
+            }
+        }
+    }
+
+    /**
+     * Get the number of requests in the last published batch.
+     */
+    public long getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Get the time taken to publish the last batch in milliseconds.
+     */
+    public long getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    public long getPublishedEventCount() {
+        return publishedEventCount.get();
+    }
+
+    /**
+     * Get the number of requests which could not be published to the traffic manager.
+     */
+    public long getFailedEventCount() {
+        return failedEventCount.get();
+    }
+
+    /**
+     * Get the number of requests which were dropped, as the batch was full.
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+    /**
+     * Publish the pending requests and stop the publisher thread.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(publisherThread);
+        try {
+            publisherThread.join(CONNECTION_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Requests added within a batch window.
+     */
+    private static class Batch {
+        private volatile long startTime;
+        private final TrafficManagerEvent[] events;
+        // number of slots claimed, which exceeds the length of the events once the batch is full
+        private final AtomicInteger eventCount = new AtomicInteger();
+        private final AtomicInteger activeWriters = new AtomicInteger();
+
+        private Batch(long startTime, int maxBatchSize) {
+            this.startTime = startTime;
+            this.events = new TrafficManagerEvent[maxBatchSize];
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reads a JSON payload directly from its raw bytes using the Jackson streaming parser and builds the
+ * {@link JSONObject}/{@link JSONArray} tree required by the schema validator. This avoids decoding the payload into
+ * a string before parsing it.
+ */
+public class JsonPayloadReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private JsonPayloadReader() {
+    }
+
+    /**
+     * Parse the given JSON bytes.
+     *
+     * @param payload JSON payload encoded in UTF-8, UTF-16 or UTF-32
+     * @return {@link JSONObject} or {@link JSONArray} representing the payload
+     * @throws IOException if the payload is not a JSON object or a JSON array
+     */
+    public static Object read(byte[] payload) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "A JSON payload must begin with '{' or '['");
+            }
+            Object root = readTree(parser, token);
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after the end of the JSON payload");
+            }
+            return root;
+        }
+    }
+
+    /**
+     * Build the tree iteratively, so that deeply nested payloads cannot exhaust the thread stack.
+     */
+    private static Object readTree(JsonParser parser, JsonToken firstToken) throws IOException {
+        Deque<Object> containers = new ArrayDeque<>();
+        Object root = firstToken == JsonToken.START_OBJECT ? new JSONObject() : new JSONArray();
+        containers.push(root);
+        JsonToken token;
+        while (!containers.isEmpty()) {
+            token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of the JSON payload");
+            }
+            Object value;
+            switch (token) {
+                case END_OBJECT:
+                case END_ARRAY:
+                    containers.pop();
+                    continue;
+                case FIELD_NAME:
+                    continue;
+                case START_OBJECT:
+                    value = new JSONObject();
+                    break;
+                case START_ARRAY:
+                    value = new JSONArray();
+                    break;
+                case VALUE_STRING:
+                    value = parser.getText();
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    value = readNumber(parser);
+                    break;
+                case VALUE_TRUE:
+                    value = Boolean.TRUE;
+                    break;
+                case VALUE_FALSE:
+                    value = Boolean.FALSE;
+                    break;
+                case VALUE_NULL:
+                    value = JSONObject.NULL;
+                    break;
+                default:
+                    throw new JsonParseException(parser, "Unsupported JSON token : " + token);
+            }
+            Object parent = containers.peek();
+            if (parent instanceof JSONObject) {
+                ((JSONObject) parent).put(parser.getCurrentName(), value);
+            } else {
+                ((JSONArray) parent).put(value);
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                containers.push(value);
+            }
+        }
+        return root;
+    }
+
+    private static Object readNumber(JsonParser parser) throws IOException {
+        switch (parser.getNumberType()) {
+            case INT:
+                return parser.getIntValue();
+            case LONG:
+                return parser.getLongValue();
+            case BIG_INTEGER:
+                return parser.getBigIntegerValue();
+            case BIG_DECIMAL:
+                return parser.getDecimalValue();
+            default:
+                return parser.getDoubleValue();
+        }
+    }
+}
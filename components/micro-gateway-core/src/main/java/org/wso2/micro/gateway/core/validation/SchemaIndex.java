@@ -0,0 +1,251 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.SchemaException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.micro.gateway.core.Constants;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of the request and response schemas of a single open API definition. The definition is parsed once and
+ * every schema is loaded into an everit {@link Schema}, so that validating a message only requires a map lookup.
+ * Instances are immutable once compiled and can be shared by concurrent validations.
+ */
+public final class SchemaIndex {
+    private static final Log logger = LogFactory.getLog("ballerina");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // upper bound for chained $ref objects, to avoid looping on a cyclic definition.
+    private static final int MAX_REFERENCE_DEPTH = 32;
+
+    // resource path template -> lower case http method -> schemas of the operation
+    private final Map<String, Map<String, OperationSchemas>> operations;
+
+    private SchemaIndex(Map<String, Map<String, OperationSchemas>> operations) {
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * Compile the given open API definition into a schema index.
+     *
+     * @param swagger open API definition in JSON format
+     * @return compiled schema index
+     * @throws IOException if the definition is not a valid JSON document
+     */
+    public static SchemaIndex compile(String swagger) throws IOException {
+        JsonNode rootNode = OBJECT_MAPPER.readTree(swagger);
+        Map<String, Map<String, OperationSchemas>> operations = new HashMap<>();
+        // shared by all the loaded schemas, so that the referred definitions are parsed only once.
+        JSONObject sharedDefinitions = new JSONObject();
+        if (rootNode.has(Constants.COMPONENTS)) {
+            sharedDefinitions.put(Constants.COMPONENTS,
+                    new JSONObject(rootNode.get(Constants.COMPONENTS).toString()));
+        }
+        if (rootNode.has(Constants.DEFINITIONS)) {
+            sharedDefinitions.put(Constants.DEFINITIONS,
+                    new JSONObject(rootNode.get(Constants.DEFINITIONS).toString()));
+        }
+        JsonNode paths = rootNode.path(Constants.PATHS);
+        Iterator<Map.Entry<String, JsonNode>> pathEntries = paths.fields();
+        while (pathEntries.hasNext()) {
+            Map.Entry<String, JsonNode> pathEntry = pathEntries.next();
+            Map<String, OperationSchemas> methods = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> methodEntries = pathEntry.getValue().fields();
+            while (methodEntries.hasNext()) {
+                Map.Entry<String, JsonNode> methodEntry = methodEntries.next();
+                if (!methodEntry.getValue().isObject()) {
+                    continue;
+                }
+                String operationName = methodEntry.getKey().toLowerCase(Locale.ENGLISH) + " " + pathEntry.getKey();
+                methods.put(methodEntry.getKey().toLowerCase(Locale.ENGLISH),
+                        compileOperation(rootNode, sharedDefinitions, pathEntry.getValue(), methodEntry.getValue(),
+                                operationName));
+            }
+            operations.put(pathEntry.getKey(), Collections.unmodifiableMap(methods));
+        }
+        return new SchemaIndex(operations);
+    }
+
+    /**
+     * Get the request payload schema of a resource.
+     *
+     * @param resourcePath resource path template
+     * @param method       http method
+     * @return request schema or null if the resource does not define one
+     */
+    public Schema getRequestSchema(String resourcePath, String method) {
+        OperationSchemas operationSchemas = getOperation(resourcePath, method);
+        return operationSchemas == null ? null : operationSchemas.requestSchema;
+    }
+
+    /**
+     * Get the response payload schema of a resource. If there is no schema against the given response code, the
+     * schema of the default response is returned.
+     *
+     * @param resourcePath resource path template
+     * @param method       http method
+     * @param responseCode response status code
+     * @return response schema or null if the resource does not define one
+     */
+    public Schema getResponseSchema(String resourcePath, String method, String responseCode) {
+        OperationSchemas operationSchemas = getOperation(resourcePath, method);
+        if (operationSchemas == null) {
+            return null;
+        }
+        Schema schema = operationSchemas.responseSchemas.get(responseCode);
+        return schema != null ? schema : operationSchemas.responseSchemas.get(Constants.DEFAULT);
+    }
+
+    private OperationSchemas getOperation(String resourcePath, String method) {
+        Map<String, OperationSchemas> methods = operations.get(resourcePath);
+        if (methods == null) {
+            return null;
+        }
+        OperationSchemas operationSchemas = methods.get(method);
+        if (operationSchemas == null) {
+            operationSchemas = methods.get(method.toLowerCase(Locale.ENGLISH));
+        }
+        return operationSchemas;
+    }
+
+    private static OperationSchemas compileOperation(JsonNode rootNode, JSONObject sharedDefinitions,
+                                                     JsonNode pathItem, JsonNode operation, String operationName) {
+        JsonNode requestSchema;
+        JsonNode requestBody = resolveReference(rootNode, operation.get(Constants.REQUEST_BODY));
+        if (requestBody != null) {
+            // open API 3.x
+            requestSchema = getJsonContentSchema(requestBody);
+        } else {
+            // swagger 2.0 body parameter, which can be defined either in the operation or in the path item
+            requestSchema = getBodyParameterSchema(rootNode, operation.get(Constants.PARAMETERS));
+            if (requestSchema == null) {
+                requestSchema = getBodyParameterSchema(rootNode, pathItem.get(Constants.PARAMETERS));
+            }
+        }
+        Schema requestBodySchema = loadSchema(sharedDefinitions, requestSchema, operationName);
+
+        Map<String, Schema> responseSchemas = new HashMap<>();
+        JsonNode responses = operation.path(Constants.RESPONSES);
+        Iterator<Map.Entry<String, JsonNode>> responseEntries = responses.fields();
+        while (responseEntries.hasNext()) {
+            Map.Entry<String, JsonNode> responseEntry = responseEntries.next();
+            JsonNode response = resolveReference(rootNode, responseEntry.getValue());
+            if (response == null) {
+                continue;
+            }
+            JsonNode responseSchema = response.has(Constants.CONTENT) ?
+                    getJsonContentSchema(response) : response.get(Constants.SCHEMA);
+            Schema schema = loadSchema(sharedDefinitions, responseSchema,
+                    operationName + " " + responseEntry.getKey());
+            if (schema != null) {
+                responseSchemas.put(responseEntry.getKey(), schema);
+            }
+        }
+        return new OperationSchemas(requestBodySchema, responseSchemas);
+    }
+
+    private static JsonNode getJsonContentSchema(JsonNode node) {
+        JsonNode mediaType = node.path(Constants.CONTENT).get(Constants.APPLICATION_JSON);
+        if (mediaType == null) {
+            return null;
+        }
+        return mediaType.get(Constants.SCHEMA);
+    }
+
+    private static JsonNode getBodyParameterSchema(JsonNode rootNode, JsonNode parameters) {
+        if (parameters == null || !parameters.isArray()) {
+            return null;
+        }
+        for (JsonNode parameterNode : parameters) {
+            JsonNode parameter = resolveReference(rootNode, parameterNode);
+            if (parameter != null && Constants.BODY.equals(parameter.path(Constants.IN).asText())) {
+                return parameter.get(Constants.SCHEMA);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Follow a chain of $ref objects until the referred node is found. Only local references are supported.
+     */
+    private static JsonNode resolveReference(JsonNode rootNode, JsonNode node) {
+        JsonNode resolved = node;
+        int depth = 0;
+        while (resolved != null && resolved.has(Constants.SCHEMA_REFERENCE) && depth++ < MAX_REFERENCE_DEPTH) {
+            String reference = resolved.get(Constants.SCHEMA_REFERENCE).asText();
+            if (reference.isEmpty() || reference.charAt(0) != Constants.HASH) {
+                logger.warn("Unsupported reference found in the open API definition : " + reference);
+                return null;
+            }
+            JsonNode referred = rootNode.at(reference.substring(1));
+            resolved = referred.isMissingNode() ? null : referred;
+        }
+        return resolved;
+    }
+
+    /**
+     * Load the given schema node. The components and definitions sections of the open API definition are copied
+     * into the schema document so that the nested $ref pointers are resolved by the schema loader itself.
+     */
+    private static Schema loadSchema(JSONObject sharedDefinitions, JsonNode schemaNode, String operationName) {
+        if (schemaNode == null || !schemaNode.isObject() || schemaNode.size() == 0) {
+            return null;
+        }
+        try {
+            JSONObject schemaObject = new JSONObject(schemaNode.toString());
+            String[] sharedKeys = JSONObject.getNames(sharedDefinitions);
+            for (int i = 0; sharedKeys != null && i < sharedKeys.length; i++) {
+                String key = sharedKeys[i];
+                if (!schemaObject.has(key)) {
+                    schemaObject.put(key, sharedDefinitions.get(key));
+                }
+            }
+            return SchemaLoader.load(schemaObject);
+        } catch (JSONException | SchemaException e) {
+            logger.error("Error occurred while loading the schema of " + operationName +
+                    ". Validation is skipped for it.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Compiled schemas of a single operation.
+     */
+    private static final class OperationSchemas {
+        private final Schema requestSchema;
+        // response code -> schema
+        private final Map<String, Schema> responseSchemas;
+
+        private OperationSchemas(Schema requestSchema, Map<String, Schema> responseSchemas) {
+            this.requestSchema = requestSchema;
+            this.responseSchemas = Collections.unmodifiableMap(responseSchemas);
+        }
+    }
+}
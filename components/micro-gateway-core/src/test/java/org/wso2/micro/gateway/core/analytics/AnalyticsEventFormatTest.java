@@ -0,0 +1,130 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Tests the encoding of the {@link AnalyticsEventFormat}s by decoding the encoded events, and compares the size of
+ * the formats. The allocation of the encoding is measured by the AnalyticsEventFormatBenchmark.
+ */
+public class AnalyticsEventFormatTest {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsEventFormatTest.class);
+    private static final String STREAM_ID = "org.wso2.apimgt.statistics.request:3.0.0";
+    private static final String META_DATA = "{\"clientType\":\"Mozilla/5.0\", \"correlationID\":"
+            + "\"4d8e2b6c-7f1a-4a51-9c5e-2f0d9a7b3e11\"}";
+    private static final List<String> PAYLOAD_FIELDS = Arrays.asList("Q1w2E3r4T5y6U7i8O9p0", "DefaultApplication", "1",
+            "admin", "/petstore/v1", "PetStore", "1.0.0", "/pet/1", "/pet/{petId}", "GET", "admin", "carbon.super",
+            "Unlimited", "localhost", "admin@carbon.super", "carbon.super", "127.0.0.1", "curl/7.58.0",
+            "1588131204811", "false", "25", "18", "7", "false", "1024", "https--1.1", "200",
+            "https://petstore.swagger.io/v2", "3", "1", "0", "0", "7", "1", "SYNAPSE", "Synapse");
+    private static final int EVENT_COUNT = 1000000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTextEventIsDecoded() {
+        ByteBuffer buffer = ByteBuffer.allocate(AnalyticsEventFormat.TEXT.getMaxEncodedLength(STREAM_ID, META_DATA,
+                "null", PAYLOAD_FIELDS));
+        AnalyticsEventFormat.TEXT.encode(buffer, STREAM_ID, 1588131204811L, META_DATA, "null", PAYLOAD_FIELDS);
+        String line = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        Assert.assertTrue(line.endsWith("\n"));
+        String[] entries = line.substring(0, line.length() - 1).split(Pattern.quote("-ES-"));
+        Assert.assertEquals(5, entries.length);
+        Assert.assertEquals("streamId-KS-" + STREAM_ID, entries[0]);
+        Assert.assertEquals("timestamp-KS-1588131204811", entries[1]);
+        Assert.assertEquals("metadata-KS-" + META_DATA, entries[2]);
+        Assert.assertEquals("correlationData-KS-null", entries[3]);
+        String payloadKey = "payLoadData-KS-";
+        Assert.assertTrue(entries[4].startsWith(payloadKey));
+        Assert.assertEquals(PAYLOAD_FIELDS, Arrays.asList(entries[4].substring(payloadKey.length())
+                .split(Pattern.quote(AnalyticsEventFormat.PAYLOAD_SEPARATOR), -1)));
+    }
+
+    @Test
+    public void testBinaryEventsAreDecoded() throws Exception {
+        List<String> unicodeFields = Arrays.asList("caf\u00e9", "", "\ud83d\ude00");
+        ByteBuffer buffer = ByteBuffer.allocate(AnalyticsEventFormat.BINARY.getFileHeader().length
+                + AnalyticsEventFormat.BINARY.getMaxEncodedLength(STREAM_ID, META_DATA, "null", PAYLOAD_FIELDS)
+                + AnalyticsEventFormat.BINARY.getMaxEncodedLength(STREAM_ID, "{}", "null", unicodeFields));
+        buffer.put(AnalyticsEventFormat.BINARY.getFileHeader());
+        AnalyticsEventFormat.BINARY.encode(buffer, STREAM_ID, 1588131204811L, META_DATA, "null", PAYLOAD_FIELDS);
+        AnalyticsEventFormat.BINARY.encode(buffer, STREAM_ID, -5, "{}", "null", unicodeFields);
+        Path filePath = folder.getRoot().toPath().resolve("api-usage-data.dat.bin");
+        Files.write(filePath, Arrays.copyOf(buffer.array(), buffer.position()));
+        try (AnalyticsEventReader reader = new AnalyticsEventReader(filePath)) {
+            AnalyticsEvent event = reader.next();
+            Assert.assertEquals(STREAM_ID, event.getStreamId());
+            Assert.assertEquals(1588131204811L, event.getTimestamp());
+            Assert.assertEquals(META_DATA, event.getMetaData());
+            Assert.assertEquals("null", event.getCorrelationData());
+            Assert.assertEquals(PAYLOAD_FIELDS, event.getPayloadFields());
+            event = reader.next();
+            Assert.assertEquals(-5, event.getTimestamp());
+            Assert.assertEquals("{}", event.getMetaData());
+            Assert.assertEquals(unicodeFields, event.getPayloadFields());
+            Assert.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testUnicodeIsEncodedAsUtf8() {
+        List<String> payloadFields = Arrays.asList("caf\u00e9", "\u4f60\u597d", "\ud83d\ude00");
+        ByteBuffer buffer = ByteBuffer.allocate(AnalyticsEventFormat.TEXT.getMaxEncodedLength(STREAM_ID, META_DATA,
+                "null", payloadFields));
+        AnalyticsEventFormat.TEXT.encode(buffer, STREAM_ID, -5, META_DATA, "null", payloadFields);
+        String expected = "streamId-KS-" + STREAM_ID + "-ES-timestamp-KS--5-ES-metadata-KS-" + META_DATA
+                + "-ES-correlationData-KS-null-ES-payLoadData-KS-caf\u00e9-OS-\u4f60\u597d-OS-\ud83d\ude00\n";
+        Assert.assertEquals(expected, new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSizePerMillionEvents() {
+        long textSize = encode(AnalyticsEventFormat.TEXT);
+        long binarySize = encode(AnalyticsEventFormat.BINARY);
+        log.info("Analytics event file size per " + EVENT_COUNT + " events : text " + textSize + " bytes, binary "
+                + binarySize + " bytes");
+        Assert.assertTrue(binarySize < textSize);
+    }
+
+    private static long encode(AnalyticsEventFormat format) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long size = 0;
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            if (buffer.remaining() < format.getMaxEncodedLength(STREAM_ID, META_DATA, "null", PAYLOAD_FIELDS)) {
+                size += buffer.position();
+                buffer.clear();
+            }
+            format.encode(buffer, STREAM_ID, 1588131204811L + i, META_DATA, "null", PAYLOAD_FIELDS);
+        }
+        return size + buffer.position();
+    }
+}
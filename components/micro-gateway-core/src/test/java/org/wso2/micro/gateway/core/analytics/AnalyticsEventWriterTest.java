@@ -0,0 +1,204 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the buffering and the rotation of the {@link AnalyticsEventWriter}.
+ */
+public class AnalyticsEventWriterTest {
+    private static final String STREAM_ID = "org.wso2.apimgt.statistics.request:3.0.0";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFlushIsRequestedWhenTheBufferIsFull() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve("api-usage-data.dat.tmp");
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.TEXT, 300, false);
+        Assert.assertFalse(writer.write(STREAM_ID, 1, "{}", "null", Collections.singletonList("event-1")));
+        Assert.assertFalse(writer.write(STREAM_ID, 2, "{}", "null", Collections.singletonList("event-2")));
+        Assert.assertTrue(writer.write(STREAM_ID, 3, "{}", "null", Collections.singletonList("event-3")));
+        // the flush is requested once, and the events are only written by the flush
+        Assert.assertFalse(writer.write(STREAM_ID, 4, "{}", "null", Collections.singletonList("event-4")));
+        Assert.assertFalse(Files.exists(filePath));
+        writer.flush();
+        Assert.assertEquals(0, writer.getBufferedLength());
+        Assert.assertEquals(4, Files.readAllLines(filePath).size());
+        Assert.assertFalse(writer.write(STREAM_ID, 5, "{}", "null", Collections.singletonList("event-5")));
+        Assert.assertFalse(writer.write(STREAM_ID, 6, "{}", "null", Collections.singletonList("event-6")));
+        Assert.assertTrue(writer.write(STREAM_ID, 7, "{}", "null", Collections.singletonList("event-7")));
+        writer.close();
+        Assert.assertEquals(7, Files.readAllLines(filePath).size());
+    }
+
+    @Test
+    public void testEventsBeyondTheMaxBufferSizeAreDropped() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve("api-usage-data.dat.tmp");
+        String eventData = getEventData(1, "event-1");
+        int maxEncodedLength = AnalyticsEventFormat.TEXT.getMaxEncodedLength(STREAM_ID, "{}", "null",
+                Collections.singletonList("event-1"));
+        // the buffer fits three events, as the space checked for an event is its maximum encoded length
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.TEXT, 100,
+                2 * eventData.length() + maxEncodedLength, false, false);
+        for (int i = 0; i < 10; i++) {
+            writer.write(STREAM_ID, 1, "{}", "null", Collections.singletonList("event-1"));
+        }
+        Assert.assertEquals(7, writer.getDroppedEventCount());
+        writer.flush();
+        Assert.assertEquals(3, Files.readAllLines(filePath).size());
+        // an event larger than the max buffer size is kept if the buffer is empty
+        String largePayload = new String(new char[10 * eventData.length()]).replace('\0', 'x');
+        writer.write(STREAM_ID, 2, "{}", "null", Collections.singletonList(largePayload));
+        writer.write(STREAM_ID, 3, "{}", "null", Collections.singletonList("event-3"));
+        Assert.assertEquals(8, writer.getDroppedEventCount());
+        writer.close();
+        List<String> lines = Files.readAllLines(filePath);
+        Assert.assertEquals(4, lines.size());
+        Assert.assertEquals(getEventData(2, largePayload), lines.get(3) + "\n");
+    }
+
+    @Test
+    public void testRotationMovesTheWrittenEvents() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve("api-usage-data.dat.tmp");
+        Path rotatedPath = folder.getRoot().toPath().resolve("api-usage-data.dat");
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.TEXT, 1024, true);
+        Assert.assertFalse(writer.rotate(rotatedPath));
+        writer.write(STREAM_ID, 1, "{}", "null", Collections.singletonList("event-1"));
+        Assert.assertTrue(writer.rotate(rotatedPath));
+        Assert.assertFalse(Files.exists(filePath));
+        Assert.assertEquals(getEventData(1, "event-1"),
+                new String(Files.readAllBytes(rotatedPath), StandardCharsets.UTF_8));
+        writer.write(STREAM_ID, 2, "{}", "null", Collections.singletonList("event-2"));
+        writer.close();
+        Assert.assertEquals(getEventData(2, "event-2"),
+                new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNoEventIsLostAcrossRotations() throws Exception {
+        int threadCount = 4;
+        int eventsPerThread = 20000;
+        Path filePath = folder.getRoot().toPath().resolve("api-usage-data.dat.tmp");
+        // the buffer is not bounded, as the events are written by the rotations only
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.TEXT, 4096,
+                Integer.MAX_VALUE, false, false);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        List<Path> rotatedFiles = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = 0; j < eventsPerThread; j++) {
+                        writer.write(STREAM_ID, j, "{}", "null",
+                                Collections.singletonList("event-" + thread + "-" + j));
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (int i = 0; !allDone(futures); i++) {
+                Path rotatedPath = folder.getRoot().toPath().resolve("api-usage-data.dat." + i);
+                if (writer.rotate(rotatedPath)) {
+                    rotatedFiles.add(rotatedPath);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        writer.close();
+        if (Files.exists(filePath)) {
+            rotatedFiles.add(filePath);
+        }
+
+        Set<String> events = new HashSet<>();
+        for (Path rotatedFile : rotatedFiles) {
+            for (String event : Files.readAllLines(rotatedFile)) {
+                Assert.assertTrue("Duplicate event " + event, events.add(event));
+            }
+        }
+        Assert.assertEquals(threadCount * eventsPerThread, events.size());
+        Assert.assertEquals(0, writer.getDroppedEventCount());
+    }
+
+    @Test
+    public void testBinaryEventFile() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve("api-usage-data.dat.tmp");
+        Path rotatedPath = folder.getRoot().toPath().resolve("api-usage-data.dat.bin");
+        Path textPath = folder.getRoot().toPath().resolve("api-usage-data.dat");
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.BINARY, 64, false);
+        for (int i = 0; i < 10; i++) {
+            writer.write(STREAM_ID, i, "{}", "null", Arrays.asList("event-" + i, String.valueOf(i)));
+        }
+        Assert.assertTrue(writer.rotate(rotatedPath));
+        try (AnalyticsEventReader reader = new AnalyticsEventReader(rotatedPath)) {
+            for (int i = 0; i < 10; i++) {
+                AnalyticsEvent event = reader.next();
+                Assert.assertEquals(STREAM_ID, event.getStreamId());
+                Assert.assertEquals(i, event.getTimestamp());
+                Assert.assertEquals(2, event.getPayloadFields().size());
+                Assert.assertEquals("event-" + i, event.getPayloadFields().get(0));
+            }
+            Assert.assertNull(reader.next());
+        }
+        try (OutputStream outputStream = Files.newOutputStream(textPath)) {
+            Assert.assertEquals(10, AnalyticsEventReader.convertToText(rotatedPath, outputStream));
+        }
+        List<String> lines = Files.readAllLines(textPath);
+        Assert.assertEquals(getEventData(9, "event-9-OS-9"), lines.get(9) + "\n");
+    }
+
+    private static String getEventData(long timestamp, String payloadData) {
+        return "streamId-KS-" + STREAM_ID + "-ES-timestamp-KS-" + timestamp + "-ES-metadata-KS-{}"
+                + "-ES-correlationData-KS-null-ES-payLoadData-KS-" + payloadData + "\n";
+    }
+
+    private static boolean allDone(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
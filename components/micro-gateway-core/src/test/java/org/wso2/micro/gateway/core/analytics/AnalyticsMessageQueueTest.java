@@ -0,0 +1,258 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.analytics;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Tests the batching and the spill over of the {@link AnalyticsMessageQueue}, publishing to an in-process stand-in
+ * of the gRPC analytics server.
+ */
+public class AnalyticsMessageQueueTest {
+    private static final long MAX_SPILL_SIZE = 64 * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMessagesAreTakenInBatches() throws Exception {
+        AnalyticsMessageQueue queue = createQueue(1000);
+        queue.setConnected(true);
+        for (int i = 0; i < 250; i++) {
+            Assert.assertTrue(queue.offer(message(i)));
+        }
+        Assert.assertEquals(100, queue.poll(100).size());
+        Assert.assertEquals(100, queue.poll(100).size());
+        List<Object> lastBatch = queue.poll(100);
+        Assert.assertEquals(50, lastBatch.size());
+        Assert.assertEquals(message(249), lastBatch.get(49));
+        Assert.assertTrue(queue.poll(100).isEmpty());
+        Assert.assertEquals(0, queue.getSpilledMessageCount());
+    }
+
+    @Test
+    public void testOverflowIsSpilledAndReplayed() throws Exception {
+        AnalyticsMessageQueue queue = createQueue(10);
+        queue.setConnected(true);
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(queue.offer(message(i)));
+            if (i % 10 == 9) {
+                queue.spillPending();
+            }
+        }
+        Assert.assertEquals(40, queue.getSpilledMessageCount());
+        List<Object> received = new ArrayList<>();
+        List<Object> batch;
+        while (!(batch = queue.poll(16)).isEmpty()) {
+            received.addAll(batch);
+        }
+        Assert.assertEquals(50, received.size());
+        Assert.assertEquals(50, new HashSet<>(received).size());
+        // the spilled messages are replayed before the messages in memory
+        Assert.assertEquals(message(10), received.get(0));
+        Assert.assertEquals(0, queue.getSpilledSize());
+        Assert.assertEquals(0, countSegments());
+    }
+
+    @Test
+    public void testSegmentsAreRecoveredAfterRestart() throws Exception {
+        AnalyticsMessageQueue queue = new AnalyticsMessageQueue(100, folder.getRoot().toPath(), MAX_SPILL_SIZE,
+                MAX_SPILL_SIZE);
+        queue.setConnected(true);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(message(i));
+        }
+        // the messages in memory are spilled as the server is disconnected, e.g. on shut down
+        queue.setConnected(false);
+        Assert.assertTrue(queue.poll(10).isEmpty());
+        queue.close();
+        Path segment = folder.getRoot().toPath().resolve(AnalyticsMessageQueue.SEGMENT_PREFIX + 0
+                + AnalyticsMessageQueue.SEGMENT_EXTENSION);
+        Files.write(segment, "{\"id\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        AnalyticsMessageQueue recoveredQueue = createQueue(100);
+        Assert.assertTrue(recoveredQueue.getSpilledSize() > 0);
+        recoveredQueue.setConnected(true);
+        List<Object> received = new ArrayList<>();
+        List<Object> batch;
+        while (!(batch = recoveredQueue.poll(1000)).isEmpty()) {
+            received.addAll(batch);
+        }
+        // the incomplete message at the end of the segment is dropped
+        Assert.assertEquals(100, received.size());
+        Assert.assertEquals(message(0), received.get(0));
+        Assert.assertTrue(recoveredQueue.offer(message(100)));
+        Assert.assertEquals(message(100), recoveredQueue.poll(1000).get(0));
+        Assert.assertEquals(0, countSegments());
+    }
+
+    @Test
+    public void testMessagesAreSpilledByThePublisher() throws Exception {
+        AnalyticsMessageQueue queue = createQueue(4);
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("messageStreamName", "InComingRequestStream");
+        message.put("userAgent", "curl \"7.58\"\n");
+        message.put("responseCode", 200L);
+        message.put("throttledOut", false);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(message));
+        }
+        Assert.assertFalse(queue.offer(message));
+        Assert.assertEquals(1, queue.getDroppedMessageCount());
+        // offering a message does not write to the disk while the server is not connected
+        Assert.assertEquals(0, countSegments());
+        Assert.assertTrue(queue.poll(10).isEmpty());
+        Assert.assertEquals(4, queue.getSpilledMessageCount());
+        Assert.assertEquals(1, countSegments());
+        queue.close();
+
+        AnalyticsMessageQueue recoveredQueue = createQueue(4);
+        recoveredQueue.setConnected(true);
+        Assert.assertEquals("{\"messageStreamName\":\"InComingRequestStream\",\"userAgent\":\"curl \\\"7.58\\\""
+                + "\\u000a\",\"responseCode\":200,\"throttledOut\":false}", recoveredQueue.poll(1).get(0));
+    }
+
+    @Test
+    public void testMessagesAreDroppedWhenTheSpillIsFull() throws Exception {
+        AnalyticsMessageQueue queue = new AnalyticsMessageQueue(10, folder.getRoot().toPath(), 1024, 4096);
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(message(i));
+            queue.spillPending();
+        }
+        Assert.assertTrue(queue.getSpilledSize() <= 4096);
+        // the messages accepted into the spill queue are dropped as they are spilled
+        Assert.assertEquals(1000 - queue.getSpilledMessageCount(), queue.getDroppedMessageCount());
+        Assert.assertTrue(countSegments() >= 4);
+    }
+
+    @Test
+    public void testNoMessageIsLostWhileTheServerIsDown() throws Exception {
+        int producerCount = 4;
+        int messagesPerProducer = 20000;
+        // the spill queue holds all the messages, as the producers may outpace the publisher spilling them
+        AnalyticsMessageQueue queue = new AnalyticsMessageQueue(1000, producerCount * messagesPerProducer,
+                folder.getRoot().toPath(), 64 * 1024, MAX_SPILL_SIZE, String::valueOf);
+        StandInAnalyticsServer server = new StandInAnalyticsServer();
+        queue.setConnected(true);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount + 1);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> producers = new ArrayList<>();
+        try {
+            for (int i = 0; i < producerCount; i++) {
+                int producer = i;
+                producers.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = 0; j < messagesPerProducer; j++) {
+                        Assert.assertTrue(queue.offer(message(producer * messagesPerProducer + j)));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> publisher = executor.submit(() -> {
+                long polls = 0;
+                while (producing.get() || server.received.size() < producerCount * messagesPerProducer) {
+                    polls++;
+                    // the server goes down for a while every few hundred batches, as the publisher reconnects
+                    server.available = polls % 300 < 200;
+                    if (server.available && !queue.isConnected()) {
+                        queue.setConnected(true);
+                    }
+                    List<Object> batch = queue.poll(64);
+                    int sent = 0;
+                    for (Object message : batch) {
+                        if (!server.send(message)) {
+                            break;
+                        }
+                        sent++;
+                    }
+                    if (sent < batch.size()) {
+                        queue.requeue(batch.subList(sent, batch.size()));
+                        queue.setConnected(false);
+                    }
+                }
+                return null;
+            });
+            startLatch.countDown();
+            for (Future<?> future : producers) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            producing.set(false);
+            publisher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(producerCount * messagesPerProducer, server.received.size());
+        Assert.assertEquals(0, queue.getDroppedMessageCount());
+        Assert.assertTrue(queue.getSpilledMessageCount() > 0);
+    }
+
+    private AnalyticsMessageQueue createQueue(int capacity) throws Exception {
+        return new AnalyticsMessageQueue(capacity, capacity, folder.getRoot().toPath(), 1024, MAX_SPILL_SIZE,
+                AnalyticsMessageBuffer::toJson);
+    }
+
+    private long countSegments() throws Exception {
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            return files.count();
+        }
+    }
+
+    private static String message(int id) {
+        return "{\"messageStreamName\":\"InComingRequestStream\", \"id\":" + id + "}";
+    }
+
+    /**
+     * Stand-in of the gRPC analytics server, which records the messages received and fails the messages sent while
+     * it is not available.
+     */
+    private static class StandInAnalyticsServer {
+        private final Set<Object> received = ConcurrentHashMap.newKeySet();
+        private volatile boolean available = true;
+
+        private boolean send(Object message) {
+            if (!available) {
+                return false;
+            }
+            Assert.assertTrue("duplicate message " + message, received.add(message));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the admission, eviction and expiry of the {@link TokenCache}.
+ */
+public class TokenCacheTest {
+    private static final long EXPIRY_TIME = TimeUnit.MINUTES.toMillis(15);
+
+    @Test
+    public void testValuesAreCached() {
+        TokenCache<String, Object> cache = new TokenCache<>(100, 100, EXPIRY_TIME, 1, (key, value) -> 1);
+        cache.put("token-1", Boolean.TRUE);
+        Assert.assertEquals(Boolean.TRUE, cache.get("token-1"));
+        Assert.assertNull(cache.get("token-2"));
+        cache.put("token-1", Boolean.FALSE);
+        Assert.assertEquals(Boolean.FALSE, cache.get("token-1"));
+        cache.remove("token-1");
+        Assert.assertNull(cache.get("token-1"));
+        Assert.assertEquals(0, cache.size());
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals(2, stats.getHitCount());
+        Assert.assertEquals(2, stats.getMissCount());
+        Assert.assertEquals(0.5, stats.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testEntriesExpire() {
+        AtomicLong time = new AtomicLong(1000);
+        TokenCache<String, Object> cache = new TokenCache<>(100, 100, 5000, 1, (key, value) -> 1, time::get);
+        cache.put("token-1", Boolean.TRUE);
+        cache.put("token-2", Boolean.TRUE);
+        time.addAndGet(4999);
+        Assert.assertEquals(Boolean.TRUE, cache.get("token-1"));
+        time.addAndGet(1);
+        Assert.assertNull(cache.get("token-1"));
+        Assert.assertEquals(1, cache.size());
+        cache.cleanUp();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2, cache.getStats().getExpirationCount());
+    }
+
+    @Test
+    public void testRefreshIsDueOnceBeforeExpiry() {
+        AtomicLong time = new AtomicLong(1000);
+        TokenCache<String, Object> cache = new TokenCache<>(100, 100, 5000, 1, (key, value) -> 1, time::get);
+        cache.put("token-1", Boolean.TRUE);
+        Assert.assertFalse(cache.isRefreshDue("token-1", 1000));
+        Assert.assertFalse(cache.isRefreshDue("token-2", 1000));
+        time.addAndGet(4000);
+        Assert.assertTrue(cache.isRefreshDue("token-1", 1000));
+        Assert.assertFalse(cache.isRefreshDue("token-1", 1000));
+        // the refreshed entry is due again before its new expiry
+        cache.put("token-1", Boolean.TRUE);
+        Assert.assertFalse(cache.isRefreshDue("token-1", 1000));
+        time.addAndGet(4500);
+        Assert.assertTrue(cache.isRefreshDue("token-1", 1000));
+        time.addAndGet(500);
+        Assert.assertFalse(cache.isRefreshDue("token-1", 1000));
+    }
+
+    @Test
+    public void testRefreshIsClaimedByOneOfTheConcurrentCallers() throws Exception {
+        int threadCount = 8;
+        AtomicLong time = new AtomicLong(1000);
+        TokenCache<String, Object> cache = new TokenCache<>(100, 100, 5000, 1, (key, value) -> 1, time::get);
+        cache.put("token-1", Boolean.TRUE);
+        time.addAndGet(4500);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    int claimed = 0;
+                    for (int j = 0; j < 1000; j++) {
+                        if (cache.isRefreshDue("token-1", 1000)) {
+                            claimed++;
+                        }
+                    }
+                    return claimed;
+                }));
+            }
+            startLatch.countDown();
+            int claimed = 0;
+            for (Future<Integer> future : futures) {
+                claimed += future.get(1, TimeUnit.MINUTES);
+            }
+            Assert.assertEquals(1, claimed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOneOffKeysDoNotFlushFrequentlyUsedEntries() {
+        int capacity = 1000;
+        TokenCache<String, Object> cache = new TokenCache<>(capacity, capacity, EXPIRY_TIME, 1, (key, value) -> 1);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 900; i++) {
+                if (cache.get("hot-" + i) == null) {
+                    cache.put("hot-" + i, Boolean.TRUE);
+                }
+            }
+        }
+        // a burst of invalid tokens, each of them used once, while the valid tokens are still in use
+        for (int i = 0; i < 100000; i++) {
+            cache.put("invalid-" + i, Boolean.FALSE);
+            if (i % 10 == 0) {
+                String key = "hot-" + (i / 10 % 900);
+                if (cache.get(key) == null) {
+                    cache.put(key, Boolean.TRUE);
+                }
+            }
+        }
+        int hits = 0;
+        for (int i = 0; i < 900; i++) {
+            if (cache.get("hot-" + i) != null) {
+                hits++;
+            }
+        }
+        Assert.assertTrue("only " + hits + " frequently used entries are kept", hits >= 850);
+        Assert.assertTrue(cache.size() <= capacity);
+        Assert.assertTrue(cache.getStats().getRejectionCount() > 90000);
+    }
+
+    @Test
+    public void testCacheIsBoundedByWeight() {
+        TokenCache<String, Object> cache = new TokenCache<>(64 * 1024, 1000, EXPIRY_TIME, 4,
+                GatewayCache::estimateWeight);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("token-" + i, i % 2 == 0 ? Boolean.TRUE : new Object());
+            Assert.assertTrue(cache.getWeightedSize() <= 64 * 1024);
+        }
+        Assert.assertTrue(cache.size() > 50);
+        Assert.assertTrue(cache.getStats().getEvictionCount() > 0);
+        // an entry heavier than a segment is not admitted, which is a rejection and not an eviction
+        CacheStats stats = cache.getStats();
+        cache.put(new String(new char[20000]), Boolean.TRUE);
+        Assert.assertTrue(cache.getWeightedSize() <= 64 * 1024);
+        Assert.assertEquals(stats.getRejectionCount() + 1, cache.getStats().getRejectionCount());
+        Assert.assertEquals(stats.getEvictionCount(), cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        int threadCount = 8;
+        int operationsPerThread = 200000;
+        int capacity = 10000;
+        TokenCache<String, Object> cache = new TokenCache<>(capacity, capacity, EXPIRY_TIME, 16,
+                (key, value) -> 1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int j = 0; j < operationsPerThread; j++) {
+                        // a skewed key distribution, where a few keys are used most of the time
+                        String key = "token-" + (int) Math.pow(random.nextInt(200), 2);
+                        Object value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key);
+                        } else {
+                            Assert.assertEquals(key, value);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals((long) threadCount * operationsPerThread, stats.getHitCount() + stats.getMissCount());
+        Assert.assertTrue(cache.size() <= capacity + 16);
+        Assert.assertTrue(stats.getHitRate() > 0.9);
+    }
+
+    @Test
+    public void testFrequencySketch() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(42);
+        }
+        sketch.increment(7);
+        Assert.assertEquals(15, sketch.frequency(42));
+        Assert.assertTrue(sketch.frequency(7) >= 1);
+        // the counters are halved once the sample size is reached
+        for (int i = 0; i < 10240; i++) {
+            sketch.increment(i * 0x9e3779b9);
+        }
+        Assert.assertTrue(sketch.frequency(42) <= 8);
+    }
+}
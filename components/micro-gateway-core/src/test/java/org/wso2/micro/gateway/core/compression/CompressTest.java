@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.core.compression;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.micro.gateway.core.analytics.AnalyticsEventFormat;
+import org.wso2.micro.gateway.core.analytics.AnalyticsEventReader;
+import org.wso2.micro.gateway.core.analytics.AnalyticsEventWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Tests the compression of the analytics event files, on write and on rotation.
+ */
+public class CompressTest {
+    private static final String ENTRY_NAME = "api-usage-data.dat";
+    private static final String STREAM_ID = "org.wso2.apimgt.statistics.request:3.0.0";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRotatedFileIsAZipFile() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".tmp");
+        Path zipPath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".1.zip");
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.TEXT, 256, false, true);
+        for (int i = 0; i < 100; i++) {
+            if (writer.write(STREAM_ID, i, "{}", "null", Collections.singletonList("event-" + i))) {
+                writer.flush();
+            }
+        }
+        Assert.assertTrue(writer.rotate(zipPath));
+        writer.close();
+        String data = readZipEntry(zipPath);
+        Assert.assertEquals(100, data.split("\n").length);
+        Assert.assertTrue(data.endsWith("event-99\n"));
+    }
+
+    @Test
+    public void testBinaryFileIsConvertedAsItIsCompressed() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".tmp");
+        Path binaryPath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".3.bin");
+        Path zipPath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".3.zip");
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.BINARY, 256, false);
+        for (int i = 0; i < 100; i++) {
+            if (writer.write(STREAM_ID, i, "{}", "null", Arrays.asList("event-" + i, String.valueOf(i)))) {
+                writer.flush();
+            }
+        }
+        Assert.assertTrue(writer.rotate(binaryPath));
+        writer.close();
+        Compress.compress(zipPath, ENTRY_NAME,
+                outputStream -> AnalyticsEventReader.convertToText(binaryPath, outputStream));
+        String data = readZipEntry(zipPath);
+        Assert.assertEquals(100, data.split("\n").length);
+        Assert.assertTrue(data.endsWith("payLoadData-KS-event-99-OS-99\n"));
+    }
+
+    @Test
+    public void testIncompleteZipFileIsRecovered() throws Exception {
+        Path filePath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".tmp");
+        AnalyticsEventWriter writer = new AnalyticsEventWriter(filePath, AnalyticsEventFormat.TEXT, 256, false, true);
+        for (int i = 0; i < 100; i++) {
+            if (writer.write(STREAM_ID, i, "{}", "null", Collections.singletonList("event-" + i))) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        // the writer is not closed, as on a crash, and the last line of the file is cut off
+        byte[] bytes = Files.readAllBytes(filePath);
+        Path truncatedPath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".2");
+        Files.write(truncatedPath, Arrays.copyOf(bytes, bytes.length - 12));
+        Path zipPath = folder.getRoot().toPath().resolve(ENTRY_NAME + ".2.zip");
+        Compress.compressFile(truncatedPath, zipPath, ENTRY_NAME);
+        String data = readZipEntry(zipPath);
+        Assert.assertTrue(data.endsWith("\n"));
+        String[] lines = data.split("\n");
+        Assert.assertTrue(lines.length >= 90);
+        for (int i = 0; i < lines.length; i++) {
+            Assert.assertTrue(lines[i].startsWith("streamId-KS-" + STREAM_ID));
+            Assert.assertTrue(lines[i].endsWith("payLoadData-KS-event-" + i));
+        }
+    }
+
+    @Test
+    public void testPendingFilesAreCompressed() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String content = "event-" + i + "\n";
+            Files.write(directory.resolve(ENTRY_NAME + "." + i), content.getBytes(StandardCharsets.UTF_8));
+            contents.add(content);
+        }
+        Files.write(directory.resolve(ENTRY_NAME + ".tmp"), "live".getBytes(StandardCharsets.UTF_8));
+        Assert.assertNull(Compress.compressPendingFiles(directory.toString(), ENTRY_NAME, 3));
+        List<String> compressed = new ArrayList<>();
+        int fileCount = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                fileCount++;
+                if (file.toString().endsWith(".zip")) {
+                    compressed.add(readZipEntry(file));
+                }
+            }
+        }
+        Assert.assertEquals(6, fileCount);
+        Assert.assertTrue(compressed.containsAll(contents));
+        Assert.assertEquals(5, compressed.size());
+    }
+
+    private static String readZipEntry(Path zipPath) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipPath))) {
+            ZipEntry entry = zis.getNextEntry();
+            Assert.assertNotNull(entry);
+            Assert.assertEquals(ENTRY_NAME, entry.getName());
+            return new String(readFully(zis), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = inputStream.read(buffer)) > 0) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.revocation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the lookups and the expiry of the {@link RevokedTokenStore}.
+ */
+public class RevokedTokenStoreTest {
+    private static final long START_TIME = 1000000;
+    private static final int REVOKED_TOKEN_COUNT = 1000000;
+
+    @Test
+    public void testRevocationExpiresWithTheTTL() {
+        RevokedTokenStore store = new RevokedTokenStore(false, 0);
+        store.addRevokedToken("jti-1", START_TIME + 1000);
+        store.addRevokedToken("jti-2", START_TIME + 5000);
+        // a later revocation of the same token extends it, an earlier one does not shorten it
+        store.addRevokedToken("jti-2", START_TIME + 3000);
+
+        Assert.assertTrue(store.isRevoked("jti-1", START_TIME + 999));
+        Assert.assertFalse(store.isRevoked("jti-3", START_TIME));
+        Assert.assertFalse(store.isRevoked("jti-1", START_TIME + 1000));
+        // the expired token found by the lookup is removed
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(0, store.removeExpiredTokens(START_TIME + 4000));
+        Assert.assertTrue(store.isRevoked("jti-2", START_TIME + 4000));
+        Assert.assertEquals(1, store.removeExpiredTokens(START_TIME + 5000));
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testBloomFilterIsRebuilt() {
+        RevokedTokenStore store = new RevokedTokenStore(true, 100);
+        for (int i = 0; i < 1000; i++) {
+            store.addRevokedToken("jti-" + i, START_TIME + (i < 900 ? 1000 : 5000));
+        }
+        // the filter has grown beyond its initial capacity without losing tokens
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(store.isRevoked("jti-" + i, START_TIME));
+        }
+        Assert.assertEquals(900, store.removeExpiredTokens(START_TIME + 1000));
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i >= 900, store.isRevoked("jti-" + i, START_TIME + 1000));
+        }
+    }
+
+    @Test
+    public void testLookupsWithManyRevokedTokens() {
+        // the token ids are generated rather than held, and the lookup latency is measured by the
+        // RevokedTokenStoreBenchmark
+        for (boolean bloomFilterEnabled : new boolean[]{false, true}) {
+            RevokedTokenStore store = new RevokedTokenStore(bloomFilterEnabled, REVOKED_TOKEN_COUNT);
+            for (int i = 0; i < REVOKED_TOKEN_COUNT; i++) {
+                store.addRevokedToken("revoked-jti-" + i, START_TIME + TimeUnit.HOURS.toMillis(1));
+            }
+            Assert.assertEquals(REVOKED_TOKEN_COUNT, store.size());
+            for (int i = 0; i < REVOKED_TOKEN_COUNT; i++) {
+                Assert.assertTrue(store.isRevoked("revoked-jti-" + i, START_TIME));
+                Assert.assertFalse(store.isRevoked("valid-jti-" + i, START_TIME));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests counting and evaluating throttle keys in the {@link CompactThrottleCounterTable}.
+ */
+public class CompactThrottleCounterTableTest {
+    private static final long UNIT_TIME = 60000;
+    private static final long START_TIME = 1200000;
+
+    @Test
+    public void testKeyIsThrottledWithinItsWindow() {
+        CompactThrottleCounterTable counterTable = new CompactThrottleCounterTable(16);
+        for (int i = 0; i < 9; i++) {
+            counterTable.hit(ThrottleData.ThrottleType.APP, "app1", 10, UNIT_TIME, 1000, START_TIME + i);
+        }
+        Assert.assertFalse(counterTable.isThrottled(ThrottleData.ThrottleType.APP, "app1", START_TIME + 10));
+        counterTable.hit(ThrottleData.ThrottleType.APP, "app1", 10, UNIT_TIME, 1000, START_TIME + 10);
+        Assert.assertTrue(counterTable.isThrottled(ThrottleData.ThrottleType.APP, "app1", START_TIME + 10));
+        // same key of another throttle type is counted separately
+        Assert.assertFalse(counterTable.isThrottled(ThrottleData.ThrottleType.API, "app1", START_TIME + 10));
+        Assert.assertEquals(0, counterTable.getCount(ThrottleData.ThrottleType.API, "app1"));
+
+        Assert.assertFalse(counterTable.isThrottled(ThrottleData.ThrottleType.APP, "app1",
+                START_TIME + UNIT_TIME + 1));
+        counterTable.hit(ThrottleData.ThrottleType.APP, "app1", 10, UNIT_TIME, 1000, START_TIME + UNIT_TIME + 1);
+        Assert.assertEquals(1, counterTable.getCount(ThrottleData.ThrottleType.APP, "app1"));
+    }
+
+    @Test
+    public void testExpiredEntriesAreReused() {
+        CompactThrottleCounterTable counterTable = new CompactThrottleCounterTable(4);
+        int capacity = counterTable.getCapacity();
+        for (int i = 0; i < capacity; i++) {
+            counterTable.hit(ThrottleData.ThrottleType.RESOURCE, "key" + i, 1, UNIT_TIME, 1000, START_TIME);
+        }
+        counterTable.hit(ThrottleData.ThrottleType.RESOURCE, "rejected", 1, UNIT_TIME, 1000, START_TIME);
+        Assert.assertEquals(1, counterTable.getRejectedInsertCount());
+        Assert.assertFalse(counterTable.isThrottled(ThrottleData.ThrottleType.RESOURCE, "rejected", START_TIME));
+
+        long nextWindow = START_TIME + UNIT_TIME + 1;
+        for (int i = 0; i < capacity; i++) {
+            counterTable.hit(ThrottleData.ThrottleType.RESOURCE, "newKey" + i, 1, UNIT_TIME, 1000, nextWindow);
+        }
+        Assert.assertEquals(1, counterTable.getRejectedInsertCount());
+        for (int i = 0; i < capacity; i++) {
+            Assert.assertTrue(counterTable.isThrottled(ThrottleData.ThrottleType.RESOURCE, "newKey" + i,
+                    nextWindow));
+            Assert.assertEquals(0, counterTable.getCount(ThrottleData.ThrottleType.RESOURCE, "key" + i));
+        }
+    }
+
+    @Test
+    public void testKeysAreCountedAfterAllEntriesWereUsed() {
+        int maxKeys = 512;
+        CompactThrottleCounterTable counterTable = new CompactThrottleCounterTable(maxKeys);
+        // each window counts new keys, so that after a few windows no entry of the table is empty
+        for (int window = 0; window < 8; window++) {
+            long windowStartTime = START_TIME + window * (UNIT_TIME + 1);
+            for (int i = 0; i < maxKeys; i++) {
+                counterTable.hit(ThrottleData.ThrottleType.RESOURCE, "key" + window + "-" + i, 1, UNIT_TIME, 1,
+                        windowStartTime);
+            }
+        }
+        Assert.assertEquals(0, counterTable.getRejectedInsertCount());
+        for (int i = 0; i < maxKeys; i++) {
+            Assert.assertEquals(1, counterTable.getCount(ThrottleData.ThrottleType.RESOURCE, "key7-" + i));
+            Assert.assertFalse(counterTable.isThrottled(ThrottleData.ThrottleType.RESOURCE, "absent" + i,
+                    START_TIME));
+        }
+    }
+
+    @Test
+    public void testConcurrentHits() throws Exception {
+        int threadCount = 8;
+        int hitsPerThread = 20000;
+        CompactThrottleCounterTable counterTable = new CompactThrottleCounterTable(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = 0; j < hitsPerThread; j++) {
+                        counterTable.hit(ThrottleData.ThrottleType.SUBSCRIPTION, "sub" + (j % 100), Long.MAX_VALUE,
+                                UNIT_TIME, 1000, START_TIME);
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals((long) threadCount * hitsPerThread / 100,
+                    counterTable.getCount(ThrottleData.ThrottleType.SUBSCRIPTION, "sub" + i));
+        }
+    }
+}
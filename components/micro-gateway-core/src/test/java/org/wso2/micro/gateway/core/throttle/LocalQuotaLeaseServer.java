@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in lease server used by the tests, which shares the quota of each throttle window among its clients.
+ */
+public class LocalQuotaLeaseServer {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    // remaining quota against the throttle key and the window start time
+    private final Map<String, Long> remainingQuota = new HashMap<>();
+
+    public LocalQuotaLeaseServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/lease" + HttpQuotaLeaseClient.ACQUIRE_PATH, this::acquire);
+        server.createContext("/lease" + HttpQuotaLeaseClient.RELEASE_PATH, this::release);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/lease";
+    }
+
+    public synchronized long getRemainingQuota(String throttleKey, long windowStartTime) {
+        Long remaining = remainingQuota.get(throttleKey + ":" + windowStartTime);
+        return remaining == null ? -1 : remaining;
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void acquire(HttpExchange exchange) throws IOException {
+        JsonNode request = readRequest(exchange);
+        String key = request.get(HttpQuotaLeaseClient.THROTTLE_KEY).asText() + ":"
+                + request.get(HttpQuotaLeaseClient.WINDOW_START_TIME).asLong();
+        long permits = request.get(HttpQuotaLeaseClient.PERMITS).asLong();
+        long granted;
+        synchronized (this) {
+            long remaining = remainingQuota.computeIfAbsent(key,
+                    k -> request.get(HttpQuotaLeaseClient.LIMIT).asLong());
+            granted = Math.min(permits, remaining);
+            remainingQuota.put(key, remaining - granted);
+        }
+        respond(exchange, "{\"" + HttpQuotaLeaseClient.GRANTED + "\":" + granted + "}");
+    }
+
+    private void release(HttpExchange exchange) throws IOException {
+        JsonNode request = readRequest(exchange);
+        String key = request.get(HttpQuotaLeaseClient.THROTTLE_KEY).asText() + ":"
+                + request.get(HttpQuotaLeaseClient.WINDOW_START_TIME).asLong();
+        long permits = request.get(HttpQuotaLeaseClient.PERMITS).asLong();
+        synchronized (this) {
+            remainingQuota.computeIfPresent(key, (k, remaining) -> remaining + permits);
+        }
+        respond(exchange, "{}");
+    }
+
+    private static JsonNode readRequest(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return OBJECT_MAPPER.readTree(body);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+}
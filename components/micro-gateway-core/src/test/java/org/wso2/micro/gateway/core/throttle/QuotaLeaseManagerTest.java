@@ -0,0 +1,147 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.core.throttle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the enforcement of the quota leased by the gateway nodes from the {@link LocalQuotaLeaseServer}.
+ */
+public class QuotaLeaseManagerTest {
+    private static final String THROTTLE_KEY = "app1:admin";
+    private static final long IDLE_TIMEOUT = TimeUnit.HOURS.toMillis(1);
+
+    private final ThrottlePolicy policy = new ThrottlePolicy("app_100PerMin", 100, 1, "min", true);
+    private final List<QuotaLeaseManager> leaseManagers = new ArrayList<>();
+    private LocalQuotaLeaseServer leaseServer;
+    private long windowStartTime;
+
+    @Before
+    public void setUp() throws IOException {
+        leaseServer = new LocalQuotaLeaseServer();
+        long currentTime = System.currentTimeMillis();
+        windowStartTime = currentTime - currentTime % policy.getWindowAlignment();
+    }
+
+    @After
+    public void tearDown() {
+        for (QuotaLeaseManager leaseManager : leaseManagers) {
+            leaseManager.shutdown();
+        }
+        leaseServer.stop();
+    }
+
+    @Test
+    public void testLeasedQuotaIsSharedAmongNodes() throws Exception {
+        QuotaLeaseManager[] nodes = {createLeaseManager(10, 2), createLeaseManager(10, 2),
+                createLeaseManager(10, 2)};
+        ThrottleData[] counters = {createThrottleData(), createThrottleData(), createThrottleData()};
+        int accepted = 0;
+        for (int i = 0; i < 300; i++) {
+            int node = i % nodes.length;
+            if (sendRequest(nodes[node], counters[node])) {
+                accepted++;
+            }
+        }
+        Assert.assertEquals(policy.getCount(), accepted);
+        Assert.assertEquals(0, leaseServer.getRemainingQuota(THROTTLE_KEY, windowStartTime));
+        for (ThrottleData counter : counters) {
+            Assert.assertTrue(counter.isThrottled(windowStartTime + 1));
+        }
+    }
+
+    @Test
+    public void testIdlePermitsAreReturned() throws Exception {
+        QuotaLeaseManager busyNode = createLeaseManager(50, 10);
+        ThrottleData busyCounter = createThrottleData();
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(sendRequest(busyNode, busyCounter));
+        }
+        Assert.assertEquals(policy.getCount() - 51, leaseServer.getRemainingQuota(THROTTLE_KEY, windowStartTime));
+
+        Assert.assertEquals(1, busyNode.releaseLeases(windowStartTime + 2000, 1000));
+        Assert.assertEquals(policy.getCount() - 5, leaseServer.getRemainingQuota(THROTTLE_KEY, windowStartTime));
+        // the returned permits are leased again once the key is used
+        Assert.assertTrue(sendRequest(busyNode, busyCounter));
+        Assert.assertEquals(policy.getCount() - 56, leaseServer.getRemainingQuota(THROTTLE_KEY, windowStartTime));
+    }
+
+    @Test
+    public void testPolicyQuotaIsEnforcedWithoutLeaseServer() throws Exception {
+        QuotaLeaseManager leaseManager = new QuotaLeaseManager(new QuotaLeaseClient() {
+            @Override
+            public long acquire(String throttleKey, long windowStartTime, long unitTime, long limit, long permits)
+                    throws IOException {
+                throw new IOException("Lease server is not available");
+            }
+
+            @Override
+            public void release(String throttleKey, long windowStartTime, long permits) throws IOException {
+                throw new IOException("Lease server is not available");
+            }
+        }, 10, 2, IDLE_TIMEOUT, 1);
+        leaseManagers.add(leaseManager);
+        ThrottleData counter = createThrottleData();
+        int accepted = 0;
+        for (int i = 0; i < 200; i++) {
+            if (sendRequest(leaseManager, counter)) {
+                accepted++;
+            }
+        }
+        Assert.assertEquals(policy.getCount(), accepted);
+    }
+
+    /**
+     * Evaluate and count a request at the start of the window, once the previous lease requests are completed.
+     */
+    private boolean sendRequest(QuotaLeaseManager leaseManager, ThrottleData throttleData) throws Exception {
+        long timestamp = windowStartTime + 1;
+        if (throttleData.isThrottled(timestamp)) {
+            return false;
+        }
+        throttleData.hit(timestamp, leaseManager.getLimit(throttleData, policy, timestamp));
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        while (leaseManager.getRequestsInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    private QuotaLeaseManager createLeaseManager(long leaseSize, long renewThreshold) throws IOException {
+        QuotaLeaseManager leaseManager = new QuotaLeaseManager(new HttpQuotaLeaseClient(leaseServer.getUrl(),
+                "admin:admin", null, null), leaseSize, renewThreshold, IDLE_TIMEOUT, 1);
+        leaseManagers.add(leaseManager);
+        return leaseManager;
+    }
+
+    private ThrottleData createThrottleData() {
+        ThrottleData throttleData = new ThrottleData();
+        throttleData.setWindowAlignment(policy.getWindowAlignment());
+        throttleData.setWindowStartTime(windowStartTime);
+        throttleData.setUnitTime(policy.getUnitTime());
+        throttleData.setThrottleType(ThrottleData.ThrottleType.APP);
+        throttleData.setThrottleKey(THROTTLE_KEY);
+        return throttleData;
+    }
+}
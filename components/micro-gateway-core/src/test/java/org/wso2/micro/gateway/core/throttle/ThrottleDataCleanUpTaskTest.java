@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the expiry of throttle data by the timing wheel of {@link ThrottleDataCleanUpTask}.
+ */
+public class ThrottleDataCleanUpTaskTest {
+    private static final long START_TIME = 1000000;
+    private static final long TICK = 1000;
+
+    @Test
+    public void testEntriesExpireAfterTheirWindow() {
+        ThrottleDataCleanUpTask cleanUpTask = new ThrottleDataCleanUpTask(TICK, 16, START_TIME);
+        cleanUpTask.addThrottleData(createThrottleData(START_TIME, 5000));
+        cleanUpTask.addThrottleData(createThrottleData(START_TIME, 10000));
+        cleanUpTask.addThrottleData(createThrottleData(START_TIME + 2000, 10000));
+
+        Assert.assertEquals(0, cleanUpTask.expire(START_TIME + 5000));
+        Assert.assertEquals(1, cleanUpTask.expire(START_TIME + 6000));
+        Assert.assertEquals(0, cleanUpTask.expire(START_TIME + 10000));
+        Assert.assertEquals(1, cleanUpTask.expire(START_TIME + 11000));
+        Assert.assertEquals(1, cleanUpTask.expire(START_TIME + 13000));
+        Assert.assertEquals(0, cleanUpTask.getPendingEntryCount());
+    }
+
+    @Test
+    public void testActiveEntryIsRescheduled() {
+        ThrottleDataCleanUpTask cleanUpTask = new ThrottleDataCleanUpTask(TICK, 16, START_TIME);
+        ThrottleData throttleData = createThrottleData(START_TIME, 5000);
+        cleanUpTask.addThrottleData(throttleData);
+        // window has moved on before the cleanup task got to the entry
+        throttleData.setWindowStartTime(START_TIME + 5000);
+        Assert.assertEquals(0, cleanUpTask.expire(START_TIME + 6000));
+        Assert.assertEquals(1, cleanUpTask.getPendingEntryCount());
+        Assert.assertEquals(1, cleanUpTask.expire(START_TIME + 11000));
+    }
+
+    @Test
+    public void testEntryBeyondTheWheelSpan() {
+        ThrottleDataCleanUpTask cleanUpTask = new ThrottleDataCleanUpTask(TICK, 16, START_TIME);
+        cleanUpTask.addThrottleData(createThrottleData(START_TIME, TimeUnit.MINUTES.toMillis(1)));
+        for (long time = START_TIME; time <= START_TIME + TimeUnit.MINUTES.toMillis(1); time += TICK) {
+            Assert.assertEquals(0, cleanUpTask.expire(time));
+        }
+        Assert.assertEquals(1, cleanUpTask.expire(START_TIME + TimeUnit.MINUTES.toMillis(1) + TICK));
+        // a long pause of the cleanup task processes every bucket once
+        cleanUpTask.addThrottleData(createThrottleData(START_TIME + TimeUnit.MINUTES.toMillis(2), 1000));
+        Assert.assertEquals(1, cleanUpTask.expire(START_TIME + TimeUnit.HOURS.toMillis(1)));
+    }
+
+    @Test
+    public void testConcurrentAdditions() throws Exception {
+        int threadCount = 8;
+        int entriesPerThread = 10000;
+        ThrottleDataCleanUpTask cleanUpTask = new ThrottleDataCleanUpTask(TICK, 64, START_TIME);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = 0; j < entriesPerThread; j++) {
+                        cleanUpTask.addThrottleData(createThrottleData(START_TIME + j, 1000 + j % 100 * 1000));
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            long removed = 0;
+            long time = START_TIME;
+            while (!allDone(futures)) {
+                removed += cleanUpTask.expire(time);
+                time = Math.min(time + TICK, START_TIME + 100 * TICK);
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            removed += cleanUpTask.expire(START_TIME + entriesPerThread + 200 * TICK);
+            Assert.assertEquals((long) threadCount * entriesPerThread, removed);
+            Assert.assertEquals(0, cleanUpTask.getPendingEntryCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEntriesAddedWhileTheirBucketIsProcessed() throws Exception {
+        int threadCount = 4;
+        int wheelSize = 1 << 16;
+        ThrottleDataCleanUpTask cleanUpTask = new ThrottleDataCleanUpTask(TICK, wheelSize, START_TIME);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    long added = 0;
+                    // the entries have expired, hence they are added to the bucket next to be processed
+                    for (; added < 100000; added++) {
+                        cleanUpTask.addThrottleData(createThrottleData(START_TIME, TICK));
+                    }
+                    return added;
+                }));
+            }
+            startLatch.countDown();
+            long removed = 0;
+            long time = START_TIME;
+            // the wheel is advanced a tick at a time, while staying within one revolution
+            while (!allDone(futures) && time < START_TIME + (wheelSize - 4) * TICK) {
+                time += TICK;
+                removed += cleanUpTask.expire(time);
+            }
+            long added = 0;
+            for (Future<Long> future : futures) {
+                added += future.get(1, TimeUnit.MINUTES);
+            }
+            // no entry is left in a bucket which was processed before the entry was added to it
+            removed += cleanUpTask.expire(time + 2 * TICK);
+            Assert.assertEquals(added, removed);
+            Assert.assertEquals(0, cleanUpTask.getPendingEntryCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean allDone(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ThrottleData createThrottleData(long windowStartTime, long unitTime) {
+        ThrottleData throttleData = new ThrottleData();
+        throttleData.setWindowStartTime(windowStartTime);
+        throttleData.setUnitTime(unitTime);
+        throttleData.setThrottleType(ThrottleData.ThrottleType.APP);
+        throttleData.setThrottleKey("key");
+        return throttleData;
+    }
+}
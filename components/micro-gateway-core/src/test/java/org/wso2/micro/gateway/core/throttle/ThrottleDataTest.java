@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the fixed and sliding window counting of {@link ThrottleData}.
+ */
+public class ThrottleDataTest {
+    private static final long UNIT_TIME = 60000;
+    private static final long WINDOW_START = 1200000;
+
+    @Test
+    public void testFixedWindowThrottling() {
+        ThrottleData throttleData = createThrottleData(ThrottleData.WindowAlgorithm.FIXED);
+        for (int i = 0; i < 4; i++) {
+            throttleData.hit(WINDOW_START + i, 5);
+        }
+        Assert.assertFalse(throttleData.isThrottled(WINDOW_START + 10));
+        throttleData.hit(WINDOW_START + 10, 5);
+        Assert.assertTrue(throttleData.isThrottled(WINDOW_START + 20));
+        // the counter is not reset until the window ends
+        Assert.assertTrue(throttleData.isThrottled(WINDOW_START + UNIT_TIME));
+        Assert.assertFalse(throttleData.isThrottled(WINDOW_START + UNIT_TIME + 1));
+
+        throttleData.hit(WINDOW_START + UNIT_TIME + 1, 5);
+        Assert.assertEquals(1, throttleData.getCount());
+        Assert.assertFalse(throttleData.isThrottled(WINDOW_START + UNIT_TIME + 2));
+    }
+
+    @Test
+    public void testSlidingWindowThrottling() {
+        ThrottleData throttleData = createThrottleData(ThrottleData.WindowAlgorithm.SLIDING);
+        for (int i = 0; i < 10; i++) {
+            throttleData.hit(WINDOW_START + UNIT_TIME - 10 + i, 10);
+        }
+        Assert.assertTrue(throttleData.isThrottled(WINDOW_START + UNIT_TIME));
+        // a fixed window would allow a new burst right after the boundary. Sliding window still counts the previous
+        // window in proportion to its overlap.
+        long nextWindowTime = WINDOW_START + UNIT_TIME + UNIT_TIME / 4;
+        Assert.assertEquals(8, throttleData.getRequestCount(nextWindowTime));
+        Assert.assertFalse(throttleData.isThrottled(nextWindowTime));
+        throttleData.hit(nextWindowTime, 10);
+        throttleData.hit(nextWindowTime, 10);
+        Assert.assertTrue(throttleData.isThrottled(nextWindowTime));
+        // weight of the previous window keeps reducing with time
+        Assert.assertFalse(throttleData.isThrottled(WINDOW_START + UNIT_TIME + 3 * UNIT_TIME / 4));
+        Assert.assertFalse(throttleData.isThrottled(WINDOW_START + 3 * UNIT_TIME + 1));
+    }
+
+    @Test
+    public void testExpiryTime() {
+        ThrottleData fixedWindow = createThrottleData(ThrottleData.WindowAlgorithm.FIXED);
+        ThrottleData slidingWindow = createThrottleData(ThrottleData.WindowAlgorithm.SLIDING);
+        Assert.assertEquals(WINDOW_START + UNIT_TIME, fixedWindow.getExpiryTime());
+        Assert.assertEquals(WINDOW_START + 2 * UNIT_TIME, slidingWindow.getExpiryTime());
+    }
+
+    @Test
+    public void testConcurrentHitsAreCounted() throws Exception {
+        int threadCount = 8;
+        int hitsPerThread = 10000;
+        ThrottleData throttleData = createThrottleData(ThrottleData.WindowAlgorithm.FIXED);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int j = 0; j < hitsPerThread; j++) {
+                        throttleData.hit(WINDOW_START + 1, (long) threadCount * hitsPerThread);
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals((long) threadCount * hitsPerThread, throttleData.getCount());
+        Assert.assertTrue(throttleData.isThrottled(WINDOW_START + 2));
+    }
+
+    private static ThrottleData createThrottleData(ThrottleData.WindowAlgorithm windowAlgorithm) {
+        ThrottleData throttleData = new ThrottleData();
+        throttleData.setWindowStartTime(WINDOW_START);
+        throttleData.setWindowAlignment(UNIT_TIME);
+        throttleData.setUnitTime(UNIT_TIME);
+        throttleData.setThrottleType(ThrottleData.ThrottleType.API);
+        throttleData.setThrottleKey("api");
+        throttleData.setWindowAlgorithm(windowAlgorithm);
+        return throttleData;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the delivery and the overflow policies of the {@link ThrottleEventPipeline}.
+ */
+public class ThrottleEventPipelineTest {
+
+    @Test
+    public void testAllEventsAreProcessed() throws Exception {
+        int producerCount = 8;
+        int eventsPerProducer = 50000;
+        AtomicLong processedCount = new AtomicLong();
+        AtomicLong processedSum = new AtomicLong();
+        ThrottleEventPipeline<EventSlot, Long> pipeline = new ThrottleEventPipeline<>(1024, 2, 64,
+                ThrottleEventPipeline.OverflowPolicy.BLOCK, TimeUnit.MINUTES.toMillis(1), EventSlot::new,
+                (slot, event) -> slot.value = event, slot -> {
+                    processedCount.incrementAndGet();
+                    processedSum.addAndGet(slot.value);
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < producerCount; i++) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (long j = 1; j <= eventsPerProducer; j++) {
+                        Assert.assertTrue(pipeline.publish(j));
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+            pipeline.shutdown();
+        }
+        long expectedSum = (long) producerCount * eventsPerProducer * (eventsPerProducer + 1) / 2;
+        Assert.assertEquals((long) producerCount * eventsPerProducer, processedCount.get());
+        Assert.assertEquals(expectedSum, processedSum.get());
+        Assert.assertEquals(0, pipeline.getQueueDepth());
+        Assert.assertEquals(0, pipeline.getDroppedEventCount());
+    }
+
+    @Test
+    public void testFailedEventDoesNotHoldUpTheQueue() {
+        AtomicLong processedCount = new AtomicLong();
+        ThrottleEventPipeline<EventSlot, Long> pipeline = new ThrottleEventPipeline<>(16, 1, 4,
+                ThrottleEventPipeline.OverflowPolicy.BLOCK, TimeUnit.MINUTES.toMillis(1), EventSlot::new,
+                (slot, event) -> {
+                    if (event == 3) {
+                        throw new IllegalStateException("Event could not be copied");
+                    }
+                    slot.value = event;
+                }, slot -> processedCount.incrementAndGet());
+        try {
+            for (long i = 0; i < 100; i++) {
+                try {
+                    Assert.assertTrue(pipeline.publish(i));
+                } catch (IllegalStateException e) {
+                    Assert.assertEquals(3, i);
+                }
+            }
+        } finally {
+            pipeline.shutdown();
+        }
+        // the slot of the failed event is skipped, and the events after it are processed
+        Assert.assertEquals(99, processedCount.get());
+        Assert.assertEquals(0, pipeline.getQueueDepth());
+    }
+
+    @Test
+    public void testDropPolicy() {
+        CountDownLatch processingLatch = new CountDownLatch(1);
+        ThrottleEventPipeline<EventSlot, Long> pipeline = createBlockedPipeline(
+                ThrottleEventPipeline.OverflowPolicy.DROP, processingLatch);
+        try {
+            int published = 0;
+            for (long i = 0; i < 100; i++) {
+                if (pipeline.publish(i)) {
+                    published++;
+                }
+            }
+            // one event is held by the blocked processor and the others fill up the queue
+            Assert.assertTrue(published <= pipeline.getQueueCapacity() + 1);
+            Assert.assertEquals(100 - published, pipeline.getDroppedEventCount());
+            Assert.assertTrue(pipeline.getQueueDepth() > 0);
+        } finally {
+            processingLatch.countDown();
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsPolicy() {
+        CountDownLatch processingLatch = new CountDownLatch(1);
+        List<Thread> callerThreads = new ArrayList<>();
+        ThrottleEventPipeline<EventSlot, Long> pipeline = new ThrottleEventPipeline<>(4, 1, 1,
+                ThrottleEventPipeline.OverflowPolicy.CALLER_RUNS, 0, EventSlot::new,
+                (slot, event) -> slot.value = event,
+                slot -> {
+                    if (Thread.currentThread().getName().startsWith("Throttle Event Processor")) {
+                        awaitQuietly(processingLatch);
+                    } else {
+                        callerThreads.add(Thread.currentThread());
+                    }
+                });
+        try {
+            for (long i = 0; i < 10; i++) {
+                Assert.assertTrue(pipeline.publish(i));
+            }
+            // the processor holds one event and the queue is full, hence the rest are processed by the caller
+            Assert.assertEquals(0, pipeline.getDroppedEventCount());
+            Assert.assertTrue(pipeline.getCallerProcessedEventCount() >= 5);
+            Assert.assertEquals(pipeline.getCallerProcessedEventCount(), callerThreads.size());
+            Assert.assertEquals(Thread.currentThread(), callerThreads.get(0));
+        } finally {
+            processingLatch.countDown();
+            pipeline.shutdown();
+        }
+    }
+
+    private static ThrottleEventPipeline<EventSlot, Long> createBlockedPipeline(
+            ThrottleEventPipeline.OverflowPolicy overflowPolicy, CountDownLatch processingLatch) {
+        return new ThrottleEventPipeline<>(8, 1, 1, overflowPolicy, 0, EventSlot::new,
+                (slot, event) -> slot.value = event, slot -> awaitQuietly(processingLatch));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Pre-allocated event slot used by the tests.
+     */
+    private static class EventSlot {
+        private long value;
+    }
+}
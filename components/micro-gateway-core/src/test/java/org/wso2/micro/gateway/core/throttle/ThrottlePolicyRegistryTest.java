@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the resolution of the tiers of a request event to the deployed throttle policies.
+ */
+public class ThrottlePolicyRegistryTest {
+
+    @After
+    public void tearDown() {
+        ThrottlePolicyRegistry.clear();
+    }
+
+    @Test
+    public void testPolicyLookup() {
+        ThrottlePolicyRegistry.addPolicy(new ThrottlePolicy("app_10PerMin", 10, 1, "min", true));
+        ThrottlePolicyRegistry.addPolicy(new ThrottlePolicy("sub_Gold", 5000, 2, "hour", false));
+
+        ThrottlePolicy appPolicy = ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.APP_LEVEL_PREFIX,
+                "10PerMin");
+        Assert.assertNotNull(appPolicy);
+        Assert.assertEquals(10, appPolicy.getCount());
+        Assert.assertEquals(TimeUnit.MINUTES.toMillis(1), appPolicy.getUnitTime());
+
+        ThrottlePolicy subPolicy = ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.SUB_LEVEL_PREFIX, "Gold");
+        Assert.assertNotNull(subPolicy);
+        Assert.assertFalse(subPolicy.isStopOnQuota());
+        Assert.assertEquals(TimeUnit.HOURS.toMillis(2), subPolicy.getUnitTime());
+        Assert.assertEquals(TimeUnit.HOURS.toMillis(1), subPolicy.getWindowAlignment());
+        // tiers are resolved within their own level
+        Assert.assertNull(ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.SUB_LEVEL_PREFIX, "10PerMin"));
+    }
+
+    @Test
+    public void testUnlimitedAndUnknownTiers() {
+        ThrottlePolicyRegistry.addPolicy(new ThrottlePolicy("res_Unlimited", 100, 1, "min", true));
+        Assert.assertNull(ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.RESOURCE_LEVEL_PREFIX,
+                "Unlimited"));
+        Assert.assertNull(ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.RESOURCE_LEVEL_PREFIX, ""));
+        Assert.assertNull(ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.RESOURCE_LEVEL_PREFIX, null));
+        Assert.assertNull(ThrottlePolicyRegistry.getPolicy(ThrottlePolicyRegistry.RESOURCE_LEVEL_PREFIX, "Bronze"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testUnsupportedTimeUnit() {
+        new ThrottlePolicy("app_invalid", 10, 1, "fortnight", true);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.throttle;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the batches published by the {@link TrafficManagerEventPublisher} against a mock traffic manager.
+ */
+public class TrafficManagerEventPublisherTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private HttpServer trafficManager;
+    private final BlockingQueue<JsonNode> receivedBatches = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> receivedAuthHeaders = new LinkedBlockingQueue<>();
+    private volatile int responseStatus = 200;
+    private volatile CountDownLatch responseLatch = new CountDownLatch(0);
+    private TrafficManagerEventPublisher publisher;
+
+    @Before
+    public void setUp() throws IOException {
+        trafficManager = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        trafficManager.createContext("/endpoints" + TrafficManagerEventPublisher.EVENT_RECEIVER_PATH, exchange -> {
+            receivedAuthHeaders.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            try (InputStream body = exchange.getRequestBody()) {
+                receivedBatches.add(OBJECT_MAPPER.readTree(body));
+            }
+            try {
+                responseLatch.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        trafficManager.start();
+    }
+
+    @After
+    public void tearDown() {
+        responseLatch.countDown();
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+        trafficManager.stop(0);
+    }
+
+    @Test
+    public void testRequestsArePublishedInABatch() throws Exception {
+        publisher = createPublisher(1000, 500);
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(createEvent("app1-msg" + i, "app1"));
+        }
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(createEvent("app2-msg" + i, "app2"));
+        }
+        JsonNode batch = receivedBatches.poll(1, TimeUnit.MINUTES);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(15, batch.size());
+        Map<String, Integer> countPerKey = new HashMap<>();
+        Set<String> messageIDs = new HashSet<>();
+        for (JsonNode event : batch) {
+            JsonNode payload = event.get("event").get("payloadData");
+            Assert.assertEquals("res1", payload.get("resourceKey").asText());
+            countPerKey.merge(payload.get("appKey").asText(), 1, Integer::sum);
+            messageIDs.add(payload.get(TrafficManagerEvent.MESSAGE_ID).asText());
+        }
+        // each request is published as an event of its own
+        Assert.assertEquals(15, messageIDs.size());
+        Assert.assertEquals(Integer.valueOf(10), countPerKey.get("app1"));
+        Assert.assertEquals(Integer.valueOf(5), countPerKey.get("app2"));
+        Assert.assertEquals("Basic YWRtaW46YWRtaW4=", receivedAuthHeaders.poll());
+        waitForPublishedBatch(publisher);
+        Assert.assertEquals(15, publisher.getLastBatchSize());
+        Assert.assertEquals(15, publisher.getPublishedEventCount());
+    }
+
+    @Test
+    public void testFullBatchIsPublishedBeforeTheFlushInterval() throws Exception {
+        publisher = createPublisher(100, TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(createEvent("msg" + i, "app" + (i % 3)));
+        }
+        JsonNode batch = receivedBatches.poll(1, TimeUnit.MINUTES);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(100, batch.size());
+    }
+
+    @Test
+    public void testRequestsBeyondTheBatchBoundAreDropped() throws Exception {
+        responseLatch = new CountDownLatch(1);
+        int batchSize = 10;
+        publisher = createPublisher(batchSize, TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < batchSize; i++) {
+            publisher.publish(createEvent("msg" + i, "app1"));
+        }
+        // the publisher waits for the response to the first batch, while the next batch fills up
+        Assert.assertNotNull(receivedBatches.poll(1, TimeUnit.MINUTES));
+        int maxBatchSize = batchSize * TrafficManagerEventPublisher.MAX_BATCH_SIZE_FACTOR;
+        for (int i = 0; i < maxBatchSize + 5; i++) {
+            publisher.publish(createEvent("next-msg" + i, "app1"));
+        }
+        Assert.assertEquals(5, publisher.getDroppedEventCount());
+        responseLatch.countDown();
+        JsonNode batch = receivedBatches.poll(1, TimeUnit.MINUTES);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(maxBatchSize, batch.size());
+    }
+
+    @Test
+    public void testFailedBatchIsCounted() throws Exception {
+        responseStatus = 500;
+        publisher = createPublisher(10, 100);
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(createEvent("msg" + i, "app1"));
+        }
+        Assert.assertNotNull(receivedBatches.poll(1, TimeUnit.MINUTES));
+        waitForPublishedBatch(publisher);
+        Assert.assertEquals(10, publisher.getFailedEventCount());
+        Assert.assertEquals(0, publisher.getPublishedEventCount());
+    }
+
+    private static void waitForPublishedBatch(TrafficManagerEventPublisher publisher) throws InterruptedException {
+        // the publisher records the outcome once the response of the mock traffic manager is read
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        while (publisher.getPublishedEventCount() + publisher.getFailedEventCount() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private TrafficManagerEventPublisher createPublisher(int batchSize, long flushInterval) throws IOException {
+        String endpointUrl = "http://localhost:" + trafficManager.getAddress().getPort() + "/endpoints";
+        return new TrafficManagerEventPublisher(endpointUrl, "admin:admin", batchSize, flushInterval, null, null);
+    }
+
+    private static TrafficManagerEvent createEvent(String messageID, String appKey) {
+        Map<String, String> attributes = new HashMap<>();
+        for (String attribute : TrafficManagerEvent.PAYLOAD_ATTRIBUTES) {
+            attributes.put(attribute, "");
+        }
+        attributes.put(TrafficManagerEvent.MESSAGE_ID, messageID);
+        attributes.put("appKey", appKey);
+        attributes.put("resourceKey", "res1");
+        attributes.put("properties", "{}");
+        return new TrafficManagerEvent(attributes::get);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.core.validation;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.wso2.micro.gateway.core.Constants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates requests and responses of several services concurrently and checks that the results match the results
+ * of a single threaded run. Also checks that the string and raw byte payload validations agree.
+ */
+public class ValidateConcurrencyTest {
+    private static final String PETSTORE_SERVICE = "PetstoreService";
+    private static final String STORE_SERVICE = "StoreService";
+    private static final int THREAD_COUNT = 16;
+    private static final int ITERATIONS = 500;
+
+    private static final List<ValidationCase> validationCases = new ArrayList<>();
+
+    @BeforeClass
+    public static void setup() throws IOException {
+        Validate.compileSchemas(PETSTORE_SERVICE, readResource("/validation/petstore_v3.json"));
+        Validate.compileSchemas(STORE_SERVICE, readResource("/validation/store_v2.json"));
+
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet", "post", null,
+                "{\"id\": 1, \"name\": \"doggie\", \"category\": {\"id\": 2}}"));
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet", "post", null, "{\"id\": 1}"));
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet", "post", null,
+                "{\"name\": \"doggie\", \"category\": {\"id\": \"two\"}}"));
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet/{petId}", "put", null, "{\"name\": 10}"));
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet", "post", "200", "{\"name\": \"doggie\"}"));
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet", "post", "500", "{\"code\": 500}"));
+        validationCases.add(new ValidationCase(PETSTORE_SERVICE, "/pet", "post", "500",
+                "{\"code\": 500, \"message\": \"error\"}"));
+        validationCases.add(new ValidationCase(STORE_SERVICE, "/order", "post", null,
+                "{\"petId\": 1, \"quantity\": 2, \"status\": \"placed\"}"));
+        validationCases.add(new ValidationCase(STORE_SERVICE, "/order", "post", null,
+                "{\"petId\": 1, \"quantity\": 0, \"status\": \"lost\"}"));
+        validationCases.add(new ValidationCase(STORE_SERVICE, "/order", "post", null, "not a json"));
+        validationCases.add(new ValidationCase(STORE_SERVICE, "/order", "post", "200", "{\"petId\": 1}"));
+    }
+
+    @Test
+    public void testSingleThreadedResults() {
+        Assert.assertEquals(Constants.VALIDATED_STATUS, validationCases.get(0).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(1).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(2).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(3).validate());
+        Assert.assertEquals(Constants.VALIDATED_STATUS, validationCases.get(4).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(5).validate());
+        Assert.assertEquals(Constants.VALIDATED_STATUS, validationCases.get(6).validate());
+        Assert.assertEquals(Constants.VALIDATED_STATUS, validationCases.get(7).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(8).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(9).validate());
+        Assert.assertNotEquals(Constants.VALIDATED_STATUS, validationCases.get(10).validate());
+    }
+
+    @Test
+    public void testByteAndStringPayloadValidationMatch() {
+        for (ValidationCase validationCase : validationCases) {
+            Assert.assertEquals("Validation status differs for payload : " + validationCase.payload,
+                    Constants.VALIDATED_STATUS.equals(validationCase.validate()),
+                    Constants.VALIDATED_STATUS.equals(validationCase.validateBytes()));
+        }
+    }
+
+    @Test
+    public void testConcurrentValidationMatchesSingleThreadedRun() throws Exception {
+        List<String> expectedResults = new ArrayList<>();
+        for (ValidationCase validationCase : validationCases) {
+            expectedResults.add(validationCase.validate());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                int offset = i;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        startLatch.await();
+                        int mismatches = 0;
+                        for (int j = 0; j < ITERATIONS; j++) {
+                            // each thread walks the cases in a different order to mix the services
+                            int caseIndex = (offset + j) % validationCases.size();
+                            String result = validationCases.get(caseIndex).validate();
+                            if (!expectedResults.get(caseIndex).equals(result)) {
+                                mismatches++;
+                            }
+                        }
+                        return mismatches;
+                    }
+                }));
+            }
+            startLatch.countDown();
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals("Concurrent validation result differs from the single threaded result",
+                        Integer.valueOf(0), future.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String readResource(String path) throws IOException {
+        try (InputStream inputStream = ValidateConcurrencyTest.class.getResourceAsStream(path)) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A single request or response validation against a service.
+     */
+    private static class ValidationCase {
+        private final String serviceName;
+        private final String resourcePath;
+        private final String method;
+        private final String responseCode;
+        private final String payload;
+
+        ValidationCase(String serviceName, String resourcePath, String method, String responseCode, String payload) {
+            this.serviceName = serviceName;
+            this.resourcePath = resourcePath;
+            this.method = method;
+            this.responseCode = responseCode;
+            this.payload = payload;
+        }
+
+        String validate() {
+            if (responseCode == null) {
+                return Validate.validateRequest(resourcePath, method, payload, serviceName);
+            }
+            return Validate.validateResponse(resourcePath, method, responseCode, payload, serviceName);
+        }
+
+        String validateBytes() {
+            byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+            if (responseCode == null) {
+                return Validate.validateRequestBytes(resourcePath, method, payloadBytes, serviceName);
+            }
+            return Validate.validateResponseBytes(resourcePath, method, responseCode, payloadBytes, serviceName);
+        }
+    }
+}
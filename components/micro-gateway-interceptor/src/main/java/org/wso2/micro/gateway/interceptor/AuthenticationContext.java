@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.interceptor;
+
+import org.ballerinalang.jvm.values.MapValue;
+
+/**
+ * Read only view of the authentication context of a request, set by the gateway once the request is authenticated.
+ * Values are read from the ballerina record on each access and are not copied.
+ */
+public class AuthenticationContext {
+
+    private static final String AUTHENTICATED = "authenticated";
+    private static final String USERNAME = "username";
+    private static final String API_KEY = "apiKey";
+    private static final String KEY_TYPE = "keyType";
+    private static final String CONSUMER_KEY = "consumerKey";
+    private static final String APPLICATION_ID = "applicationId";
+    private static final String APPLICATION_NAME = "applicationName";
+    private static final String APPLICATION_TIER = "applicationTier";
+    private static final String SUBSCRIBER = "subscriber";
+    private static final String TIER = "tier";
+    private static final String API_TIER = "apiTier";
+    private static final String API_PUBLISHER = "apiPublisher";
+
+    private final MapValue<String, Object> authContext;
+
+    AuthenticationContext(MapValue<String, Object> authContext) {
+        this.authContext = authContext;
+    }
+
+    public boolean isAuthenticated() {
+        return Boolean.TRUE.equals(authContext.get(AUTHENTICATED));
+    }
+
+    public String getUsername() {
+        return getString(USERNAME);
+    }
+
+    /**
+     * Get the key used to authenticate the request. Either an access token or an api key.
+     */
+    public String getApiKey() {
+        return getString(API_KEY);
+    }
+
+    /**
+     * Get the type of the key. Either PRODUCTION or SANDBOX.
+     */
+    public String getKeyType() {
+        return getString(KEY_TYPE);
+    }
+
+    public String getConsumerKey() {
+        return getString(CONSUMER_KEY);
+    }
+
+    public String getApplicationId() {
+        return getString(APPLICATION_ID);
+    }
+
+    public String getApplicationName() {
+        return getString(APPLICATION_NAME);
+    }
+
+    public String getApplicationTier() {
+        return getString(APPLICATION_TIER);
+    }
+
+    public String getSubscriber() {
+        return getString(SUBSCRIBER);
+    }
+
+    /**
+     * Get the subscription tier.
+     */
+    public String getTier() {
+        return getString(TIER);
+    }
+
+    public String getApiTier() {
+        return getString(API_TIER);
+    }
+
+    public String getApiPublisher() {
+        return getString(API_PUBLISHER);
+    }
+
+    private String getString(String field) {
+        Object value = authContext.get(field);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -42,5 +42,11 @@ public class Constants {
     public static final String RESPOND_DONE = "respond_done";
     public static final String RESPONSE_OBJECT = "response_object";
     public static final String READABLE_BYTE_CHANNEL = "ReadableByteChannel";
+    public static final String ATTRIBUTES = "attributes";
+    public static final String AUTHENTICATION_CONTEXT = "AUTHENTICATION_CONTEXT";
+    public static final String KEY_TYPE = "KEY_TYPE";
+    public static final String MESSAGE_ID = "MESSAGE_ID";
+    public static final String IS_SECURED = "IS_SECURED";
+    public static final String REQUEST_TIME = "REQUEST_TIME";
 
 }
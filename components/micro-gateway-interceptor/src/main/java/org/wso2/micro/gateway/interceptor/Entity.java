@@ -16,8 +16,8 @@
 package org.wso2.micro.gateway.interceptor;
 
 import org.ballerinalang.jvm.BallerinaValues;
-import org.ballerinalang.jvm.JSONParser;
 import org.ballerinalang.jvm.scheduling.Scheduler;
+import org.ballerinalang.jvm.scheduling.Strand;
 import org.ballerinalang.jvm.types.BArrayType;
 import org.ballerinalang.jvm.types.BTypes;
 import org.ballerinalang.jvm.values.ArrayValue;
@@ -29,16 +29,29 @@ import org.ballerinalang.jvm.values.api.BXML;
 import org.ballerinalang.mime.nativeimpl.AbstractGetPayloadHandler;
 import org.ballerinalang.mime.nativeimpl.EntityHeaders;
 import org.ballerinalang.mime.nativeimpl.MimeEntityBody;
+import org.ballerinalang.mime.util.EntityBodyChannel;
+import org.ballerinalang.mime.util.EntityWrapper;
 import org.ballerinalang.mime.util.MimeConstants;
 import org.ballerinalang.mime.util.MimeUtil;
 import org.ballerinalang.stdlib.io.channels.base.Channel;
 import org.ballerinalang.stdlib.io.utils.IOConstants;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * Represents the headers and body of a message. This can be used to represent both the entity of a top level message
@@ -47,6 +60,7 @@ import java.nio.channels.ByteChannel;
 public class Entity {
 
     private static final Logger log = LoggerFactory.getLogger("ballerina");
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
     private ObjectValue entityObj;
 
     public Entity(ObjectValue entity) {
@@ -243,6 +257,141 @@ public class Entity {
         return null;
     }
 
+    /**
+     * Gets a read-only view of the entity payload. The view is backed by the payload of the entity and is not
+     * copied. If the payload has already been built as `json`, `xml` or `text`, it is serialized once in UTF-8.
+     *
+     * @return {@link ByteBuffer} A read-only buffer over the message payload. Null if the entity has no payload.
+     * @throws InterceptorException If error while getting the payload of the entity.
+     */
+    public ByteBuffer getByteBuffer() throws InterceptorException {
+        Object dataSource = entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE);
+        if (dataSource == null) {
+            constructPayloadBlockingCallBack(AbstractGetPayloadHandler.SourceType.BLOB);
+            dataSource = entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE);
+            if (dataSource == null) {
+                return null;
+            }
+        }
+        byte[] payload;
+        if (dataSource instanceof byte[]) {
+            payload = (byte[]) dataSource;
+        } else if (dataSource instanceof String) {
+            payload = ((String) dataSource).getBytes(StandardCharsets.UTF_8);
+        } else {
+            payload = MimeUtil.getMessageAsString(dataSource).getBytes(StandardCharsets.UTF_8);
+        }
+        return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets an {@link InputStream} over the entity payload. The stream reads from the payload of the entity and
+     * does not copy it.
+     *
+     * @return {@link InputStream} A stream from which the message payload can be read. Null if the entity has no
+     * payload.
+     * @throws InterceptorException If error while getting the payload of the entity.
+     */
+    public InputStream getInputStream() throws InterceptorException {
+        ByteBuffer payload = getByteBuffer();
+        return payload != null ? new ByteBufferInputStream(payload) : null;
+    }
+
+    /**
+     * Gets a {@link JSONTokener} reading the `json` payload token by token. Unlike {@link #getJson()}, the payload
+     * is neither converted to a string nor parsed into a tree, hence a few fields can be inspected at the cost of
+     * reading up to them.
+     *
+     * @return {@link JSONTokener} A tokener over the `json` payload. Null if the entity has no payload.
+     * @throws InterceptorException If error while getting the payload of the entity.
+     */
+    public JSONTokener getJsonTokener() throws InterceptorException {
+        InputStream payload = getInputStream();
+        return payload != null ? new JSONTokener(new InputStreamReader(payload, StandardCharsets.UTF_8)) : null;
+    }
+
+    /**
+     * Gets a {@link XMLStreamReader} reading the `xml` payload event by event. Unlike {@link #getXml()}, the payload
+     * is not built into a tree. DTDs and external entities are not supported.
+     *
+     * @return {@link XMLStreamReader} A stream reader over the `xml` payload. Null if the entity has no payload.
+     * @throws InterceptorException If error while getting the payload of the entity.
+     */
+    public XMLStreamReader getXmlStreamReader() throws InterceptorException {
+        InputStream payload = getInputStream();
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return XML_INPUT_FACTORY.createXMLStreamReader(payload);
+        } catch (XMLStreamException e) {
+            throw new InterceptorException("Error while reading the xml payload", e);
+        }
+    }
+
+    /**
+     * Extracts `json` payload from the entity once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s, on the thread the interceptor is invoked on.
+     *
+     * @return A stage completing with the `json` payload of the request, or with an {@link InterceptorException}.
+     */
+    public CompletionStage<JSONObject> getJsonAsync() {
+        return constructPayloadAsync(AbstractGetPayloadHandler.SourceType.JSON).thenApply(ignored -> {
+            String jsonObject = readJsonStringPayload();
+            return jsonObject != null ? new JSONObject(jsonObject) : null;
+        });
+    }
+
+    /**
+     * Extracts `json array` payload from the entity once it has arrived, without blocking the thread. To be used by
+     * the {@link AsyncInterceptor}s, on the thread the interceptor is invoked on.
+     *
+     * @return A stage completing with the `json array` payload of the request, or with an
+     * {@link InterceptorException}.
+     */
+    public CompletionStage<JSONArray> getJsonArrayAsync() {
+        return constructPayloadAsync(AbstractGetPayloadHandler.SourceType.JSON).thenApply(ignored -> {
+            String jsonArray = readJsonStringPayload();
+            return jsonArray != null ? new JSONArray(jsonArray) : null;
+        });
+    }
+
+    /**
+     * Extracts `xml` payload from the entity once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s, on the thread the interceptor is invoked on.
+     *
+     * @return A stage completing with the `xml` payload of the request, or with an {@link InterceptorException}.
+     */
+    public CompletionStage<BXML> getXmlAsync() {
+        return constructPayloadAsync(AbstractGetPayloadHandler.SourceType.XML)
+                .thenApply(ignored -> (BXML) entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE));
+    }
+
+    /**
+     * Extracts `text` payload from the entity once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s, on the thread the interceptor is invoked on.
+     *
+     * @return A stage completing with the `text` payload of the request, or with an {@link InterceptorException}.
+     */
+    public CompletionStage<String> getTextAsync() {
+        return constructPayloadAsync(AbstractGetPayloadHandler.SourceType.TEXT).thenApply(ignored -> {
+            Object dataSource = entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE);
+            return dataSource != null ? dataSource.toString() : null;
+        });
+    }
+
+    /**
+     * Gets the entity payload as a `byte[]` once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s, on the thread the interceptor is invoked on.
+     *
+     * @return A stage completing with the byte[] representation of the message payload, or with an
+     * {@link InterceptorException}.
+     */
+    public CompletionStage<byte[]> getByteArrayAsync() {
+        return constructPayloadAsync(AbstractGetPayloadHandler.SourceType.BLOB)
+                .thenApply(ignored -> (byte[]) entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE));
+    }
+
     /**
      * Given an entity, gets its body parts. If the entity body is not a set of body parts an exception will be thrown.
      *
@@ -269,7 +418,7 @@ public class Entity {
      * @param jsonPayload {@link JSONObject} The json payload.
      */
     public void setJson(JSONObject jsonPayload) {
-        MimeEntityBody.setJson(entityObj, JSONParser.parse(jsonPayload.toString()), MimeConstants.APPLICATION_JSON);
+        MimeEntityBody.setJson(entityObj, InterceptorUtils.convertToBJson(jsonPayload), MimeConstants.APPLICATION_JSON);
     }
 
     /**
@@ -279,7 +428,7 @@ public class Entity {
      */
     public void setJson(JSONArray jsonArrayPayload) {
         MimeEntityBody
-                .setJson(entityObj, JSONParser.parse(jsonArrayPayload.toString()), MimeConstants.APPLICATION_JSON);
+                .setJson(entityObj, InterceptorUtils.convertToBJson(jsonArrayPayload), MimeConstants.APPLICATION_JSON);
     }
 
     /**
@@ -310,6 +459,41 @@ public class Entity {
                 MimeConstants.OCTET_STREAM);
     }
 
+    /**
+     * Sets the remaining bytes of a {@link ByteBuffer} as the payload of the entity. The bytes are not copied if the
+     * buffer wraps an entire array which is not read-only.
+     *
+     * @param payload     The payload.
+     * @param contentType The content type of the payload. Set this to override the default `content-type` header
+     *                    value which is 'application/octet-stream'
+     */
+    public void setByteBuffer(ByteBuffer payload, String contentType) {
+        if (contentType == null) {
+            contentType = Constants.OCTET_STREAM;
+        }
+        byte[] bytes;
+        if (payload.hasArray() && payload.arrayOffset() == 0 && payload.position() == 0
+                && payload.remaining() == payload.array().length) {
+            bytes = payload.array();
+        } else {
+            bytes = new byte[payload.remaining()];
+            payload.duplicate().get(bytes);
+        }
+        MimeEntityBody.setByteArray(entityObj, (ArrayValue) BValueCreator.createArrayValue(bytes), contentType);
+    }
+
+    /**
+     * Sets an {@link InputStream} as the payload of the entity. The stream is read while the message is written out,
+     * hence the payload is not held in memory.
+     *
+     * @param payload     The payload.
+     * @param contentType The content type of the payload. Set this to override the default `content-type` header
+     *                    value which is 'application/octet-stream'
+     */
+    public void setInputStream(InputStream payload, String contentType) {
+        setByteChannel(new EntityWrapper(new EntityBodyChannel(payload)), contentType);
+    }
+
     /**
      * Set multiparts as the payload.
      *
@@ -356,6 +540,13 @@ public class Entity {
         return entityObj;
     }
 
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
+    }
+
     private void constructPayloadBlockingCallBack(AbstractGetPayloadHandler.SourceType type)
             throws InterceptorException {
         MGWBlockingCallBack callback = new MGWBlockingCallBack(Scheduler.getStrand());
@@ -372,8 +563,37 @@ public class Entity {
         }
     }
 
+    /**
+     * Builds the payload of the entity without blocking the thread. The payload is built by the callback, once it
+     * has arrived.
+     */
+    private CompletableFuture<Void> constructPayloadAsync(AbstractGetPayloadHandler.SourceType type) {
+        Strand strand = Scheduler.getStrand();
+        if (strand == null) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new InterceptorException("The payload with type : " + type.toString()
+                    + " can only be requested on the thread the interceptor is invoked on"));
+            return future;
+        }
+        MGWPayloadCallBack callback = new MGWPayloadCallBack(strand, type.toString());
+        try {
+            AbstractGetPayloadHandler.constructNonBlockingDataSource(callback, entityObj, type);
+        } catch (Exception e) {
+            // we need to catch all the exceptions including runtime thrown from ballerina side, as the failure is
+            // reported through the returned future.
+            String msg = "Error while getting the payload with type : " + type.toString();
+            log.error(msg, e);
+            callback.getPayloadFuture().completeExceptionally(new InterceptorException(msg, e));
+        }
+        return callback.getPayloadFuture();
+    }
+
     private String getJsonStringPayload() throws InterceptorException {
         constructPayloadBlockingCallBack(AbstractGetPayloadHandler.SourceType.JSON);
+        return readJsonStringPayload();
+    }
+
+    private String readJsonStringPayload() {
         if (entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE) != null) {
             return MimeUtil
                     .getMessageAsString(entityObj.getNativeData(MimeConstants.MESSAGE_DATA_SOURCE));
@@ -15,8 +15,20 @@
  */
 package org.wso2.micro.gateway.interceptor;
 
+import org.ballerinalang.jvm.types.BArrayType;
+import org.ballerinalang.jvm.types.BMapType;
+import org.ballerinalang.jvm.types.BTypes;
+import org.ballerinalang.jvm.values.ArrayValue;
+import org.ballerinalang.jvm.values.ArrayValueImpl;
+import org.ballerinalang.jvm.values.DecimalValue;
+import org.ballerinalang.jvm.values.MapValue;
+import org.ballerinalang.jvm.values.MapValueImpl;
 import org.ballerinalang.jvm.values.api.BMap;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,4 +44,50 @@ public class InterceptorUtils {
         }
         return convertedMap;
     }
+
+    /**
+     * Converts a {@link JSONObject} or a {@link JSONArray} to a ballerina `json` value, by walking the tree. Unlike
+     * serializing the value and parsing it again, no intermediate string is created.
+     *
+     * @param jsonValue The json value.
+     * @return The ballerina `json` value.
+     */
+    protected static Object convertToBJson(Object jsonValue) {
+        if (jsonValue == null || JSONObject.NULL.equals(jsonValue)) {
+            return null;
+        }
+        if (jsonValue instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) jsonValue;
+            MapValue<String, Object> mapValue = new MapValueImpl<>(new BMapType(BTypes.typeJSON));
+            for (String key : jsonObject.keySet()) {
+                mapValue.put(key, convertToBJson(jsonObject.opt(key)));
+            }
+            return mapValue;
+        }
+        if (jsonValue instanceof JSONArray) {
+            JSONArray jsonArray = (JSONArray) jsonValue;
+            ArrayValue arrayValue = new ArrayValueImpl(new BArrayType(BTypes.typeJSON));
+            for (int index = 0; index < jsonArray.length(); index++) {
+                arrayValue.append(convertToBJson(jsonArray.opt(index)));
+            }
+            return arrayValue;
+        }
+        if (jsonValue instanceof Integer || jsonValue instanceof Long || jsonValue instanceof Short
+                || jsonValue instanceof Byte) {
+            return ((Number) jsonValue).longValue();
+        }
+        if (jsonValue instanceof Double || jsonValue instanceof Float) {
+            return ((Number) jsonValue).doubleValue();
+        }
+        if (jsonValue instanceof BigInteger) {
+            return new DecimalValue(new BigDecimal((BigInteger) jsonValue));
+        }
+        if (jsonValue instanceof BigDecimal) {
+            return new DecimalValue((BigDecimal) jsonValue);
+        }
+        if (jsonValue instanceof Boolean || jsonValue instanceof String) {
+            return jsonValue;
+        }
+        return jsonValue.toString();
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.interceptor;
+
+import org.ballerinalang.jvm.scheduling.Strand;
+import org.ballerinalang.jvm.values.ErrorValue;
+import org.ballerinalang.jvm.values.connector.NonBlockingCallback;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents a call back which completes a future when the payload of a message is built, instead of resuming the
+ * strand. The strand is blocked by the interceptor invoker if the interceptor has not completed, and resumed by it
+ * once the interceptor completes. Hence the strand is released as soon as this call back is created, as the chain
+ * may complete without blocking, while the payload is built later or not at all.
+ */
+public class MGWPayloadCallBack extends NonBlockingCallback {
+
+    private final CompletableFuture<Void> payloadFuture = new CompletableFuture<>();
+    private final String sourceType;
+
+    public MGWPayloadCallBack(Strand strand, String sourceType) {
+        super(strand);
+        // the call back marks the strand as blocked until it is notified, which it never does
+        strand.scheduler.unblockStrand(strand);
+        this.sourceType = sourceType;
+    }
+
+    /**
+     * Complete the payload future. The strand is not resumed, as it may be blocked by the interceptor invoker on the
+     * interceptor which is waiting for the payload.
+     */
+    @Override
+    public void notifySuccess() {
+        payloadFuture.complete(null);
+    }
+
+    @Override
+    public void notifyFailure(ErrorValue error) {
+        payloadFuture.completeExceptionally(
+                new InterceptorException("Error while getting the payload with type : " + sourceType, error));
+    }
+
+    public CompletableFuture<Void> getPayloadFuture() {
+        return payloadFuture;
+    }
+}
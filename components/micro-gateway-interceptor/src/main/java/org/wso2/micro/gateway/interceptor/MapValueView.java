@@ -0,0 +1,158 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wso2.micro.gateway.interceptor;
+
+import org.ballerinalang.jvm.values.MapValue;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Live {@link Map} view of a ballerina map value. Reads and writes go directly to the underlying map value, hence
+ * changes are visible to the ballerina code without copying the map.
+ */
+class MapValueView extends AbstractMap<String, Object> {
+
+    private final MapValue<String, Object> mapValue;
+
+    MapValueView(MapValue<String, Object> mapValue) {
+        this.mapValue = mapValue;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String ? mapValue.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && mapValue.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return mapValue.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key instanceof String ? mapValue.remove(key) : null;
+    }
+
+    @Override
+    public int size() {
+        return mapValue.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator(mapValue.getKeys());
+            }
+
+            @Override
+            public int size() {
+                return mapValue.size();
+            }
+        };
+    }
+
+    /**
+     * Iterates over a snapshot of the keys, reading the values from the map value as they are iterated.
+     */
+    private class EntryIterator implements Iterator<Entry<String, Object>> {
+        private final String[] keys;
+        private int index = 0;
+        private String lastKey;
+
+        EntryIterator(String[] keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastKey = keys[index++];
+            return new ValueEntry(lastKey);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            mapValue.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    /**
+     * Map entry which reads and writes its value through the map value.
+     */
+    private class ValueEntry implements Entry<String, Object> {
+        private final String key;
+
+        ValueEntry(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return mapValue.get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return mapValue.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            Object value = getValue();
+            return key.equals(entry.getKey()) && (value == null ? entry.getValue() == null
+                    : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+    }
+}
@@ -26,9 +26,15 @@ import org.ballerinalang.net.http.nativeimpl.ExternRequest;
 import org.ballerinalang.stdlib.io.channels.base.Channel;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * Representation of ballerina http:Request object. Provide methods to do CRUD operations on the request object
@@ -310,6 +316,100 @@ public class Request {
         return getEntity().getByteArray();
     }
 
+    /**
+     * Gets a read-only view of the request payload, without copying it.
+     *
+     * @return {@link ByteBuffer} A read-only buffer over the message payload.
+     * @throws InterceptorException If error while getting the payload of the request.
+     */
+    public ByteBuffer getByteBufferPayload() throws InterceptorException {
+        return getEntity().getByteBuffer();
+    }
+
+    /**
+     * Gets an {@link InputStream} over the request payload, without copying it.
+     *
+     * @return {@link InputStream} A stream from which the message payload can be read.
+     * @throws InterceptorException If error while getting the payload of the request.
+     */
+    public InputStream getInputStreamPayload() throws InterceptorException {
+        return getEntity().getInputStream();
+    }
+
+    /**
+     * Gets a {@link JSONTokener} reading the `json` payload of the request token by token, without building it.
+     *
+     * @return {@link JSONTokener} A tokener over the `json` payload.
+     * @throws InterceptorException If error while getting the payload of the request.
+     */
+    public JSONTokener getJsonTokener() throws InterceptorException {
+        return getEntity().getJsonTokener();
+    }
+
+    /**
+     * Gets a {@link XMLStreamReader} reading the `xml` payload of the request event by event, without building it.
+     *
+     * @return {@link XMLStreamReader} A stream reader over the `xml` payload.
+     * @throws InterceptorException If error while getting the payload of the request.
+     */
+    public XMLStreamReader getXmlStreamReader() throws InterceptorException {
+        return getEntity().getXmlStreamReader();
+    }
+
+    /**
+     * Extracts `json` payload from the request once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s.
+     *
+     * @return A stage completing with the `json` {@link JSONObject} payload of the request, or with an
+     * {@link InterceptorException}.
+     */
+    public CompletionStage<JSONObject> getJsonPayloadAsync() {
+        return getEntity().getJsonAsync();
+    }
+
+    /**
+     * Extracts `json array` payload from the request once it has arrived, without blocking the thread. To be used by
+     * the {@link AsyncInterceptor}s.
+     *
+     * @return A stage completing with the `json` {@link JSONArray} payload of the request, or with an
+     * {@link InterceptorException}.
+     */
+    public CompletionStage<JSONArray> getJsonArrayPayloadAsync() {
+        return getEntity().getJsonArrayAsync();
+    }
+
+    /**
+     * Extracts `xml` payload from the request once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s.
+     *
+     * @return A stage completing with the {@link BXML} payload of the request, or with an
+     * {@link InterceptorException}.
+     */
+    public CompletionStage<BXML> getXmlPayloadAsync() {
+        return getEntity().getXmlAsync();
+    }
+
+    /**
+     * Extracts `text` payload from the request once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s.
+     *
+     * @return A stage completing with the `text` payload of the request, or with an {@link InterceptorException}.
+     */
+    public CompletionStage<String> getTextPayloadAsync() {
+        return getEntity().getTextAsync();
+    }
+
+    /**
+     * Gets the request payload as a `byte[]` once it has arrived, without blocking the thread. To be used by the
+     * {@link AsyncInterceptor}s.
+     *
+     * @return A stage completing with the byte[] representation of the message payload, or with an
+     * {@link InterceptorException}.
+     */
+    public CompletionStage<byte[]> getBinaryPayloadAsync() {
+        return getEntity().getByteArrayAsync();
+    }
+
     /**
      * Extracts body parts from the request. If the content type is not a composite media type, an exception
      * is thrown.
@@ -383,6 +483,31 @@ public class Request {
         setEntity(entity);
     }
 
+    /**
+     * Sets the remaining bytes of a {@link ByteBuffer} as the payload. The bytes are not copied if the buffer wraps an
+     * entire array which is not read-only.
+     *
+     * @param payload     The payload.
+     * @param contentType The content type of the payload. Set this to override the default `content-type` header
+     *                    value which is 'application/octet-stream'
+     */
+    public void setByteBufferPayload(ByteBuffer payload, String contentType) {
+        getEntityWithoutBody().setByteBuffer(payload, contentType);
+        setEntity(entity);
+    }
+
+    /**
+     * Sets an {@link InputStream} as the payload. The stream is read while the message is written out.
+     *
+     * @param payload     The payload.
+     * @param contentType The content type of the payload. Set this to override the default `content-type` header
+     *                    value which is 'application/octet-stream'
+     */
+    public void setInputStreamPayload(InputStream payload, String contentType) {
+        getEntityWithoutBody().setInputStream(payload, contentType);
+        setEntity(entity);
+    }
+
     /**
      * Set byte channel as the payload.
      *
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wso2.micro.gateway.interceptor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Adapts an {@link Interceptor} to the {@link AsyncInterceptor} interface. The interceptor is invoked synchronously
+ * and the returned stage is already complete.
+ */
+public class SyncInterceptorAdapter implements AsyncInterceptor {
+
+    private final Interceptor interceptor;
+
+    public SyncInterceptorAdapter(Interceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public CompletionStage<Boolean> interceptRequest(Caller caller, Request request) {
+        try {
+            return CompletableFuture.completedFuture(interceptor.interceptRequest(caller, request));
+        } catch (RuntimeException e) {
+            return failedStage(e);
+        }
+    }
+
+    @Override
+    public CompletionStage<Boolean> interceptResponse(Caller caller, Response response) {
+        try {
+            return CompletableFuture.completedFuture(interceptor.interceptResponse(caller, response));
+        } catch (RuntimeException e) {
+            return failedStage(e);
+        }
+    }
+
+    public Interceptor getInterceptor() {
+        return interceptor;
+    }
+
+    private static CompletionStage<Boolean> failedStage(Throwable e) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
@@ -16,7 +16,6 @@
 package org.wso2.micro.gateway.interceptor;
 
 import org.ballerinalang.jvm.values.MapValue;
-import org.ballerinalang.jvm.values.api.BMap;
 import org.ballerinalang.stdlib.runtime.nativeimpl.GetInvocationContext;
 
 import java.util.HashMap;
@@ -45,16 +44,94 @@ public class Utils {
      * @return The invocation context object as a  {@link Map}.
      */
     public static Map<String, Object> getInvocationContextAttributes() {
-        return convertMapValueToMap((MapValue<String, Object>) getInvocationContext().get("attributes"));
+        return convertMapValueToMap(getAttributes());
+    }
+
+    /**
+     * Provides a live view of the invocation context. Unlike {@link #getInvocationContext()}, the context is not
+     * copied, and changes made through the view are visible to the gateway.
+     *
+     * @return The invocation context object as a  {@link Map}.
+     */
+    public static Map<String, Object> getInvocationContextView() {
+        return new MapValueView(GetInvocationContext.getInvocationContext());
+    }
+
+    /**
+     * Provides a live view of the invocation context attributes. Unlike {@link #getInvocationContextAttributes()},
+     * the attributes are not copied, and changes made through the view are visible to the gateway filters and to
+     * the response path.
+     *
+     * @return The invocation context attributes as a  {@link Map}.
+     */
+    public static Map<String, Object> getInvocationContextAttributesView() {
+        return new MapValueView(getAttributes());
+    }
+
+    /**
+     * Provides the authentication context of the request, set by the gateway once the request is authenticated.
+     *
+     * @return The {@link AuthenticationContext} of the request. Null if the request has not been authenticated.
+     */
+    public static AuthenticationContext getAuthenticationContext() {
+        Object authContext = getAttributes().get(Constants.AUTHENTICATION_CONTEXT);
+        if (authContext instanceof MapValue) {
+            return new AuthenticationContext((MapValue<String, Object>) authContext);
+        }
+        return null;
+    }
+
+    /**
+     * Provides the type of the key the request is authenticated with.
+     *
+     * @return PRODUCTION or SANDBOX. Null if the key type is not known yet.
+     */
+    public static String getKeyType() {
+        Object keyType = getAttributes().get(Constants.KEY_TYPE);
+        return keyType != null ? keyType.toString() : null;
+    }
+
+    /**
+     * Provides the id of the request, which is used to correlate the logs and the analytics events of the request.
+     *
+     * @return The message id. Null if the id is not set yet.
+     */
+    public static String getMessageId() {
+        Object messageId = getAttributes().get(Constants.MESSAGE_ID);
+        return messageId != null ? messageId.toString() : null;
+    }
+
+    /**
+     * Checks whether the resource being invoked is secured.
+     *
+     * @return true if the resource is secured.
+     */
+    public static boolean isSecured() {
+        return Boolean.TRUE.equals(getAttributes().get(Constants.IS_SECURED));
+    }
+
+    /**
+     * Provides the time the gateway started processing the request, in milliseconds. The latencies of the gateway
+     * filters are kept in the filter context, which is not available to the interceptors.
+     *
+     * @return The request time. -1 if the request time is not set.
+     */
+    public static long getRequestTime() {
+        Object requestTime = getAttributes().get(Constants.REQUEST_TIME);
+        return requestTime instanceof Number ? ((Number) requestTime).longValue() : -1;
     }
 
     public static void addDataToContextAttributes(String key, Object value) {
-        BMap attributesMap = (BMap) GetInvocationContext.getInvocationContext().get("attributes");
-        attributesMap.put(key, value);
+        getAttributes().put(key, value);
     }
 
 
-    private static Map<String, Object> convertMapValueToMap(MapValue<String, Object> mapValue) {
+    @SuppressWarnings("unchecked")
+    private static MapValue<String, Object> getAttributes() {
+        return (MapValue<String, Object>) GetInvocationContext.getInvocationContext().get(Constants.ATTRIBUTES);
+    }
+
+    static Map<String, Object> convertMapValueToMap(MapValue<String, Object> mapValue) {
         Map<String, Object> convertedMap = new HashMap<>();
         for (String key : mapValue.getKeys()) {
             convertedMap.put(key, mapValue.get(key));
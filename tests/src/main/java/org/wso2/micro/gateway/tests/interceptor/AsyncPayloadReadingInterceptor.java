@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.tests.interceptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.micro.gateway.interceptor.AsyncInterceptor;
+import org.wso2.micro.gateway.interceptor.Caller;
+import org.wso2.micro.gateway.interceptor.Request;
+import org.wso2.micro.gateway.interceptor.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Sample asynchronous interceptor which reads the json payload of the request once it has arrived and lets the
+ * request continue to the back end.
+ */
+public class AsyncPayloadReadingInterceptor implements AsyncInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger("ballerina");
+
+    @Override
+    public CompletionStage<Boolean> interceptRequest(Caller caller, Request request) {
+        return request.getJsonPayloadAsync().handle((payload, throwable) -> {
+            if (throwable != null) {
+                log.error("Error while getting json payload ", throwable);
+                Response response = new Response();
+                response.setResponseCode(500);
+                response.setTextPayload("Error while reading the payload");
+                caller.respond(response);
+                return false;
+            }
+            request.setHeader("x-pet-name", payload.optString("name"));
+            return true;
+        });
+    }
+
+    @Override
+    public CompletionStage<Boolean> interceptResponse(Caller caller, Response response) {
+        return CompletableFuture.completedFuture(true);
+    }
+}
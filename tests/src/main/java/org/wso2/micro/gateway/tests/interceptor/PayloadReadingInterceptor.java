@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.micro.gateway.tests.interceptor;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.micro.gateway.interceptor.Caller;
+import org.wso2.micro.gateway.interceptor.Interceptor;
+import org.wso2.micro.gateway.interceptor.InterceptorException;
+import org.wso2.micro.gateway.interceptor.Request;
+import org.wso2.micro.gateway.interceptor.Response;
+
+/**
+ * Sample interceptor which reads the json payload of the request and lets the request continue to the back end.
+ */
+public class PayloadReadingInterceptor implements Interceptor {
+
+    private static final Logger log = LoggerFactory.getLogger("ballerina");
+
+    @Override
+    public boolean interceptRequest(Caller caller, Request request) {
+        try {
+            JSONObject payload = request.getJsonPayload();
+            request.setHeader("x-pet-name", payload.optString("name"));
+            return true;
+        } catch (InterceptorException e) {
+            log.error("Error while getting json payload ", e);
+            Response response = new Response();
+            response.setResponseCode(500);
+            response.setTextPayload("Error while reading the payload");
+            caller.respond(response);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean interceptResponse(Caller caller, Response response) {
+        return true;
+    }
+}
@@ -79,6 +79,43 @@ public class JavaInterceptorTestCase extends InterceptorTestCase {
         Assert.assertEquals(response.getResponseCode(), 201, "Response code mismatched");
     }
 
+    @Test(description = "Test java interceptor which reads the request payload and continues the request")
+    public void testSyncInterceptorReadingPayload() throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaderNames.AUTHORIZATION.toString(), "Bearer " + jwtTokenProd);
+        headers.put(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json");
+        HttpResponse response = HttpClientRequest
+                .doPost(getServiceURLHttp("/petstore/v1/pet/1/tags"), "{'name':'doggie'}", headers);
+        Assert.assertNotNull(response);
+        Assert.assertEquals(response.getData(), ResponseConstants.getPetResponse);
+        Assert.assertEquals(response.getResponseCode(), 200, "Response code mismatched");
+    }
+
+    @Test(description = "Test asynchronous java interceptor which reads the request payload which has already arrived")
+    public void testAsyncInterceptorReadingPayload() throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaderNames.AUTHORIZATION.toString(), "Bearer " + jwtTokenProd);
+        headers.put(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json");
+        HttpResponse response = HttpClientRequest
+                .doPost(getServiceURLHttp("/petstore/v1/pet/1/labels"), "{'name':'doggie'}", headers);
+        Assert.assertNotNull(response);
+        Assert.assertEquals(response.getData(), ResponseConstants.getPetResponse);
+        Assert.assertEquals(response.getResponseCode(), 200, "Response code mismatched");
+    }
+
+    @Test(description = "Test asynchronous java interceptor which reads the request payload which arrives slowly")
+    public void testAsyncInterceptorReadingSlowPayload() throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaderNames.AUTHORIZATION.toString(), "Bearer " + jwtTokenProd);
+        headers.put(HttpHeaderNames.CONTENT_TYPE.toString(), "application/json");
+        HttpResponse response = HttpClientRequest
+                .doPostInChunks(getServiceURLHttp("/petstore/v1/pet/1/labels"),
+                        new String[]{"{'name':", "'doggie'}"}, 1000, headers);
+        Assert.assertNotNull(response);
+        Assert.assertEquals(response.getData(), ResponseConstants.getPetResponse);
+        Assert.assertEquals(response.getResponseCode(), 200, "Response code mismatched");
+    }
+
     @AfterClass
     public void stop() throws Exception {
         //Stop all the mock servers
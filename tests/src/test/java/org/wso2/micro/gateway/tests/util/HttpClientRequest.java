@@ -100,6 +100,42 @@ public class HttpClientRequest {
         }
     }
 
+    /**
+     * Send an HTTP POST request to a rest, with the message payload sent in chunks with a delay before each chunk
+     * but the first, so that the payload arrives slowly.
+     *
+     * @param endpoint - rest endpoint
+     * @param chunks - chunks of the message payload
+     * @param delayMillis - delay before sending each chunk but the first, in milliseconds
+     * @param headers  http request headers map
+     * @return - HttpResponse from end point
+     * @throws IOException If an error occurs while sending the POST request
+     * @throws InterruptedException If interrupted while waiting to send a chunk
+     */
+    public static HttpResponse doPostInChunks(String endpoint, String[] chunks, long delayMillis,
+            Map<String, String> headers) throws IOException, InterruptedException {
+        HttpURLConnection urlConnection = null;
+        try {
+            urlConnection = getURLConnection(endpoint);
+            urlConnection.setChunkedStreamingMode(0);
+            setHeadersAndMethod(urlConnection, headers, TestConstant.HTTP_METHOD_POST);
+            try (OutputStream out = urlConnection.getOutputStream()) {
+                for (int i = 0; i < chunks.length; i++) {
+                    if (i > 0) {
+                        Thread.sleep(delayMillis);
+                    }
+                    out.write(chunks[i].getBytes(TestConstant.CHARSET_NAME));
+                    out.flush();
+                }
+            }
+            return buildResponse(urlConnection);
+        } finally {
+            if (urlConnection != null) {
+                urlConnection.disconnect();
+            }
+        }
+    }
+
     /**
      * Send an HTTP PUT request to a rest.
      *